@@ -6,8 +6,13 @@ import fr.skyblock.listeners.MenuListener;
 import fr.skyblock.listeners.PlayerListener;
 import fr.skyblock.listeners.IslandListener;
 import fr.skyblock.managers.*;
+import fr.prisontycoon.api.SkyblockDepositBoxBridge;
+import fr.prisontycoon.api.SkyblockPrinterBridge;
+import fr.skyblock.hooks.PrisonTycoonDepositBoxBridge;
 import fr.skyblock.hooks.PrisonTycoonHook;
+import fr.skyblock.hooks.PrisonTycoonPrinterBridge;
 
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.mvplugins.multiverse.core.MultiverseCoreApi;
 
@@ -16,6 +21,7 @@ public final class CustomSkyblock extends JavaPlugin {
     private static CustomSkyblock instance;
     private DatabaseManager databaseManager;
     private WorldManager worldManager;
+    private IslandLocator islandLocator;
     private IslandManager islandManager;
     private MenuManager menuManager;
     private EconomyManager economyManager;
@@ -28,6 +34,8 @@ public final class CustomSkyblock extends JavaPlugin {
     private IslandUpgradeManager islandUpgradeManager;
     private DepositBoxManager depositBoxManager;
     private PrinterManager printerManager;
+    private PrisonTycoonPrinterBridge printerBridge;
+    private PrisonTycoonDepositBoxBridge depositBoxBridge;
 
 
     // Configuration
@@ -53,6 +61,7 @@ public final class CustomSkyblock extends JavaPlugin {
         this.databaseManager = new DatabaseManager(this);
         this.economyManager = new EconomyManager(this);
         this.worldManager = new WorldManager(this);
+        this.islandLocator = new IslandLocator(this);
         this.schematicManager = new SchematicManager(this);
         this.invitationManager = new InvitationManager(this);
         this.islandManager = new IslandManager(this);
@@ -62,6 +71,8 @@ public final class CustomSkyblock extends JavaPlugin {
         this.islandUpgradeManager = new IslandUpgradeManager(this);
         this.depositBoxManager = new DepositBoxManager(this);
         this.printerManager = new PrinterManager(this);
+        this.printerBridge = new PrisonTycoonPrinterBridge(this);
+        this.depositBoxBridge = new PrisonTycoonDepositBoxBridge(this);
 
         // Vérification du hook PrisonTycoon
         if (!prisonTycoonHook.isEnabled()) {
@@ -83,11 +94,17 @@ public final class CustomSkyblock extends JavaPlugin {
         // Démarrer les tâches périodiques
         this.taskManager = new TaskManager(this);
 
+        // Ponts typés pour PrisonTycoon, branchés à l'enregistrement (ServiceRegisterEvent)
+        getServer().getServicesManager().register(SkyblockPrinterBridge.class, printerBridge, this, ServicePriority.Normal);
+        getServer().getServicesManager().register(SkyblockDepositBoxBridge.class, depositBoxBridge, this, ServicePriority.Normal);
+
         getLogger().info("CustomSkyblock activé avec succès !");
     }
 
     @Override
     public void onDisable() {
+        // Débrancher les ponts avant la fermeture de la base : PrisonTycoon y persiste ses données en attente
+        getServer().getServicesManager().unregisterAll(this);
         if (taskManager != null) {
             taskManager.stopAllTasks();
         }
@@ -136,6 +153,10 @@ public final class CustomSkyblock extends JavaPlugin {
         return worldManager;
     }
 
+    public IslandLocator getIslandLocator() {
+        return islandLocator;
+    }
+
     public IslandManager getIslandManager() {
         return islandManager;
     }
@@ -176,6 +197,14 @@ public final class CustomSkyblock extends JavaPlugin {
         return printerManager;
     }
 
+    public PrisonTycoonPrinterBridge getPrinterBridge() {
+        return printerBridge;
+    }
+
+    public PrisonTycoonDepositBoxBridge getDepositBoxBridge() {
+        return depositBoxBridge;
+    }
+
     public MultiverseCoreApi getMultiverseCoreApi() {
         return multiverseCoreApi;
     }
@@ -191,4 +220,4 @@ public final class CustomSkyblock extends JavaPlugin {
     public PrisonTycoonHook getPrisonTycoonHook() {
         return prisonTycoonHook;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
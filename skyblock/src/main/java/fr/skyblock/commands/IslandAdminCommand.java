@@ -299,6 +299,7 @@ public class IslandAdminCommand implements CommandExecutor, TabCompleter {
 
         island.setSize(size);
         plugin.getDatabaseManager().saveIsland(island);
+        plugin.getIslandLocator().invalidate(island.getId());
 
         sender.sendMessage(ChatColor.GREEN + "Taille de l'île de " + target.getName() + " définie à " + size + " !");
         if (target.isOnline()) {
@@ -439,6 +440,10 @@ public class IslandAdminCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(ChatColor.AQUA + "Total joueurs: " + ChatColor.WHITE + plugin.getDatabaseManager().getTotalPlayers());
         sender.sendMessage(ChatColor.AQUA + "Îles actives (7 jours): " + ChatColor.WHITE + plugin.getDatabaseManager().getActiveIslands(7));
         sender.sendMessage(ChatColor.AQUA + "Îles actives (30 jours): " + ChatColor.WHITE + plugin.getDatabaseManager().getActiveIslands(30));
+        sender.sendMessage(ChatColor.AQUA + "Index des îles: " + ChatColor.WHITE + plugin.getIslandLocator().getStatistics());
+        sender.sendMessage(ChatColor.AQUA + "Cache: " + ChatColor.WHITE + plugin.getDatabaseManager().getCacheStatistics());
+        sender.sendMessage(ChatColor.AQUA + "Mondes: " + ChatColor.WHITE + plugin.getWorldManager().getWorldStatistics());
+        sender.sendMessage(ChatColor.AQUA + "Schematics: " + ChatColor.WHITE + plugin.getSchematicManager().getPasteStatistics());
 
         // Statistiques sur les niveaux
         List<Island> topIslands = plugin.getDatabaseManager().getTopIslandsByLevel(5);
@@ -487,32 +492,29 @@ public class IslandAdminCommand implements CommandExecutor, TabCompleter {
         switch (args[1].toLowerCase()) {
             case "reset" -> {
                 sender.sendMessage(ChatColor.YELLOW + "Reset de l'économie en cours...");
-                // Reset de tous les soldes
-                for (SkyblockPlayer player : new ArrayList<>(plugin.getDatabaseManager().getAllPlayers())) {
-                    plugin.getEconomyManager().setBalance(player.getUuid(),
-                            plugin.getConfig().getDouble("economy.starting-money", 50.0));
-                }
-                // Reset des banques d'îles
-                for (Island island : plugin.getDatabaseManager().getAllIslands()) {
+                // Reset de tous les soldes (joueurs en mémoire et en base)
+                plugin.getEconomyManager().resetAllBalances(plugin.getConfig().getDouble("economy.starting-money", 50.0));
+                // Reset des banques d'îles (îles en mémoire puis îles en base)
+                Set<UUID> resetIslands = new HashSet<>();
+                for (Island island : plugin.getDatabaseManager().getCachedIslands()) {
                     island.setBank(0.0);
                     plugin.getDatabaseManager().saveIsland(island);
+                    resetIslands.add(island.getId());
                 }
+                plugin.getDatabaseManager().resetStoredIslandBanks(resetIslands);
                 sender.sendMessage(ChatColor.GREEN + "Économie reset avec succès !");
             }
             case "stats" -> {
                 double totalMoney = 0;
-                double totalBankMoney = 0;
+                double totalBankMoney = plugin.getDatabaseManager().getTotalIslandBank();
 
-                for (SkyblockPlayer player : new ArrayList<>(plugin.getDatabaseManager().getAllPlayers())) {
+                // Soldes lus via PrisonTycoon : limités aux joueurs en mémoire (sans charger tous les joueurs)
+                for (SkyblockPlayer player : new ArrayList<>(plugin.getDatabaseManager().getCachedPlayers())) {
                     totalMoney += plugin.getEconomyManager().getBalance(player.getUuid());
                 }
 
-                for (Island island : plugin.getDatabaseManager().getAllIslands()) {
-                    totalBankMoney += island.getBank();
-                }
-
                 sender.sendMessage(ChatColor.GOLD + "=== Statistiques Économie ===");
-                sender.sendMessage(ChatColor.AQUA + "Argent total joueurs: " + ChatColor.WHITE +
+                sender.sendMessage(ChatColor.AQUA + "Argent total joueurs en mémoire: " + ChatColor.WHITE +
                         plugin.getEconomyManager().formatMoney(totalMoney));
                 sender.sendMessage(ChatColor.AQUA + "Argent total banques: " + ChatColor.WHITE +
                         plugin.getEconomyManager().formatMoney(totalBankMoney));
@@ -0,0 +1,60 @@
+package fr.skyblock.hooks;
+
+import fr.prisontycoon.api.SkyblockDepositBoxBridge;
+import fr.skyblock.CustomSkyblock;
+import fr.skyblock.managers.DepositBoxManager;
+import fr.skyblock.models.DepositBoxData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Implémentation du pont de caisses de dépôt utilisé par PrisonTycoon
+ * Convertit les DepositBoxData entre les deux plugins et délègue au DepositBoxManager Skyblock.
+ */
+public class PrisonTycoonDepositBoxBridge extends PrisonTycoonIslandBridge implements SkyblockDepositBoxBridge {
+
+    public PrisonTycoonDepositBoxBridge(CustomSkyblock plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public Collection<fr.prisontycoon.data.DepositBoxData> loadDepositBoxes() {
+        Collection<DepositBoxData> depositBoxes = depositBoxManager().getAllDepositBoxes().values();
+        List<fr.prisontycoon.data.DepositBoxData> converted = new ArrayList<>(depositBoxes.size());
+        for (DepositBoxData depositBox : depositBoxes) {
+            converted.add(new fr.prisontycoon.data.DepositBoxData(depositBox.getId(), depositBox.getOwner(),
+                    depositBox.getLocation(), depositBox.getCapacityLevel(), depositBox.getMultiplierLevel(),
+                    depositBox.getLastProcessingTime(), depositBox.getProcessingIntervalMs(), depositBox.getMaxItemsPerSecond()));
+        }
+        return converted;
+    }
+
+    @Override
+    public double getHopperTransferSpeed(UUID islandId) {
+        return plugin.getIslandUpgradeManager().getHopperTransferSpeed(islandId);
+    }
+
+    @Override
+    public boolean canPlaceDepositBox(UUID islandId, int currentDepositBoxCount) {
+        return plugin.getIslandUpgradeManager().canPlaceDepositBox(islandId, currentDepositBoxCount);
+    }
+
+    @Override
+    public void saveDepositBox(UUID islandId, fr.prisontycoon.data.DepositBoxData depositBox) {
+        depositBoxManager().saveDepositBox(islandId, new DepositBoxData(depositBox.getId(), depositBox.getOwner(),
+                depositBox.getLocation(), depositBox.getCapacityLevel(), depositBox.getMultiplierLevel(),
+                depositBox.getLastProcessingTime(), depositBox.getProcessingIntervalMs(), depositBox.getMaxItemsPerSecond()));
+    }
+
+    @Override
+    public void removeDepositBox(UUID islandId, String depositBoxId) {
+        depositBoxManager().removeDepositBox(islandId, depositBoxId);
+    }
+
+    private DepositBoxManager depositBoxManager() {
+        return plugin.getDepositBoxManager();
+    }
+}
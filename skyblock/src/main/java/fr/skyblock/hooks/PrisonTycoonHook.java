@@ -4,6 +4,7 @@ import fr.prisontycoon.api.PrisonTycoonAPI;
 import fr.skyblock.CustomSkyblock;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredServiceProvider;
 
 import java.util.UUID;
 
@@ -52,9 +53,11 @@ public class PrisonTycoonHook {
             return;
         }
 
-        // Tenter de récupérer l'API
+        // Récupérer l'API enregistrée par PrisonTycoon dans le ServicesManager
         try {
-            this.prisonAPI = PrisonTycoonAPI.getInstance();
+            RegisteredServiceProvider<PrisonTycoonAPI> provider = skyblockPlugin.getServer().getServicesManager()
+                    .getRegistration(PrisonTycoonAPI.class);
+            this.prisonAPI = provider != null ? provider.getProvider() : PrisonTycoonAPI.getInstance();
             if (prisonAPI != null) {
                 this.isEnabled = true;
                 skyblockPlugin.getLogger().info("Hook PrisonTycoon activé avec succès !");
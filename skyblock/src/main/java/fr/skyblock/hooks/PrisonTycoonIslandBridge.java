@@ -0,0 +1,42 @@
+package fr.skyblock.hooks;
+
+import fr.prisontycoon.api.SkyblockIslandBridge;
+import fr.skyblock.CustomSkyblock;
+import fr.skyblock.models.Island;
+import org.bukkit.Location;
+
+import java.util.UUID;
+
+/**
+ * Accès aux îles commun aux ponts enregistrés pour PrisonTycoon
+ */
+public abstract class PrisonTycoonIslandBridge implements SkyblockIslandBridge {
+
+    protected final CustomSkyblock plugin;
+
+    protected PrisonTycoonIslandBridge(CustomSkyblock plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public UUID getIslandIdAt(Location location) {
+        return plugin.getIslandLocator().getIslandIdAt(location);
+    }
+
+    @Override
+    public boolean isIslandMember(UUID islandId, UUID playerId) {
+        Island island = plugin.getDatabaseManager().loadIsland(islandId);
+        return island != null && island.isMember(playerId);
+    }
+
+    @Override
+    public boolean isIslandManager(UUID islandId, UUID playerId) {
+        Island island = plugin.getDatabaseManager().loadIsland(islandId);
+        return island != null && (island.getOwner().equals(playerId) || island.isOfficer(playerId));
+    }
+
+    @Override
+    public void saveAll() {
+        plugin.getDatabaseManager().saveAll();
+    }
+}
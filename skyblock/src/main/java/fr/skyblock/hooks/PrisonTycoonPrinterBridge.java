@@ -0,0 +1,79 @@
+package fr.skyblock.hooks;
+
+import fr.prisontycoon.api.SkyblockPrinterBridge;
+import fr.skyblock.CustomSkyblock;
+import fr.skyblock.managers.PrinterManager;
+import fr.skyblock.models.PrinterData;
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Implémentation du pont d'imprimantes utilisé par PrisonTycoon
+ * Convertit les PrinterData entre les deux plugins et délègue au PrinterManager Skyblock.
+ */
+public class PrisonTycoonPrinterBridge extends PrisonTycoonIslandBridge implements SkyblockPrinterBridge {
+
+    public PrisonTycoonPrinterBridge(CustomSkyblock plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public Collection<fr.prisontycoon.data.PrinterData> loadPrinters() {
+        Collection<PrinterData> printers = printerManager().getAllPrinters().values();
+        List<fr.prisontycoon.data.PrinterData> converted = new ArrayList<>(printers.size());
+        for (PrinterData printer : printers) {
+            Material billMaterial = Material.matchMaterial(printer.getBillMaterial());
+            if (billMaterial == null) {
+                plugin.getLogger().warning("Matériau de billet inconnu pour l'imprimante " + printer.getId() + ": " + printer.getBillMaterial());
+                continue;
+            }
+            converted.add(new fr.prisontycoon.data.PrinterData(printer.getId(), printer.getOwner(), printer.getLocation(),
+                    printer.getTier(), printer.getLastGenerationTime(), printer.getGenerationIntervalSeconds(),
+                    printer.getBillValue(), billMaterial, printer.getBillName(), printer.getBillLore()));
+        }
+        return converted;
+    }
+
+    @Override
+    public double getGenerationSpeedMultiplier(UUID islandId) {
+        return plugin.getIslandUpgradeManager().getPrinterGenerationSpeedMultiplier(islandId);
+    }
+
+    @Override
+    public boolean canPlacePrinter(UUID islandId, int currentPrinterCount) {
+        return plugin.getIslandUpgradeManager().canPlacePrinter(islandId, currentPrinterCount);
+    }
+
+    @Override
+    public void savePrinter(UUID islandId, fr.prisontycoon.data.PrinterData printer) {
+        printerManager().savePrinter(islandId, toSkyblock(printer));
+    }
+
+    @Override
+    public void removePrinter(UUID islandId, String printerId) {
+        printerManager().removePrinter(islandId, printerId);
+    }
+
+    @Override
+    public void updatePrinters(UUID islandId, Collection<fr.prisontycoon.data.PrinterData> printers) {
+        List<PrinterData> converted = new ArrayList<>(printers.size());
+        for (fr.prisontycoon.data.PrinterData printer : printers) {
+            converted.add(toSkyblock(printer));
+        }
+        printerManager().updatePrinters(islandId, converted);
+    }
+
+    private PrinterManager printerManager() {
+        return plugin.getPrinterManager();
+    }
+
+    private static PrinterData toSkyblock(fr.prisontycoon.data.PrinterData printer) {
+        return new PrinterData(printer.getId(), printer.getOwner(), printer.getLocation(), printer.getTier(),
+                printer.getLastGenerationTime(), printer.getGenerationIntervalSeconds(), printer.getBillValue(),
+                printer.getBillMaterial().name(), printer.getBillName(), printer.getBillLore());
+    }
+}
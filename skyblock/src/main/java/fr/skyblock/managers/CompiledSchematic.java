@@ -0,0 +1,166 @@
+package fr.skyblock.managers;
+
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schematic compilé une fois au chargement
+ * <p>
+ * Les blocs sont stockés dans une palette de BlockData et un tableau de long (x, y, z relatifs au centre et
+ * index de palette, 16 bits chacun), triés par section de chunk (16x16x16) pour que le collage avance
+ * section par section. Aucun bloc d'air n'est stocké : la zone est nettoyée avant le collage.
+ */
+public final class CompiledSchematic {
+
+    private final String id;
+    private final BlockData[] palette;
+    private final long[] blocks;
+    // Début de chaque section dans blocks (la dernière valeur vaut blocks.length)
+    private final int[] sectionStarts;
+
+    private CompiledSchematic(String id, BlockData[] palette, long[] blocks, int[] sectionStarts) {
+        this.id = id;
+        this.palette = palette;
+        this.blocks = blocks;
+        this.sectionStarts = sectionStarts;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getBlockCount() {
+        return blocks.length;
+    }
+
+    public int getSectionCount() {
+        return sectionStarts.length - 1;
+    }
+
+    public int getPaletteSize() {
+        return palette.length;
+    }
+
+    int getSectionEnd(int section) {
+        return sectionStarts[section + 1];
+    }
+
+    static int x(long block) {
+        return (short) (block >>> 48);
+    }
+
+    static int y(long block) {
+        return (short) (block >>> 32);
+    }
+
+    static int z(long block) {
+        return (short) (block >>> 16);
+    }
+
+    long getBlock(int index) {
+        return blocks[index];
+    }
+
+    BlockData getBlockData(long block) {
+        return palette[(int) (block & 0xFFFF)];
+    }
+
+    private static long pack(int x, int y, int z) {
+        return ((long) (x & 0xFFFF) << 48) | ((long) (y & 0xFFFF) << 32) | ((long) (z & 0xFFFF) << 16);
+    }
+
+    /**
+     * Ordre de collage : section de chunk (x, z, y) puis y, z, x à l'intérieur de la section
+     */
+    private static int compareForPaste(long a, long b) {
+        int byChunkX = Integer.compare(x(a) >> 4, x(b) >> 4);
+        if (byChunkX != 0) return byChunkX;
+        int byChunkZ = Integer.compare(z(a) >> 4, z(b) >> 4);
+        if (byChunkZ != 0) return byChunkZ;
+        int bySectionY = Integer.compare(y(a) >> 4, y(b) >> 4);
+        if (bySectionY != 0) return bySectionY;
+        if (y(a) != y(b)) return Integer.compare(y(a), y(b));
+        if (z(a) != z(b)) return Integer.compare(z(a), z(b));
+        return Integer.compare(x(a), x(b));
+    }
+
+    private static boolean sameSection(long a, long b) {
+        return x(a) >> 4 == x(b) >> 4 && z(a) >> 4 == z(b) >> 4 && y(a) >> 4 == y(b) >> 4;
+    }
+
+    /**
+     * Volume de blocs en cours de construction (coordonnées relatives au centre de l'île)
+     */
+    public static final class Builder {
+        private final String id;
+        private final Map<Long, BlockData> blocks = new HashMap<>();
+
+        public Builder(String id) {
+            this.id = id;
+        }
+
+        public Builder set(int x, int y, int z, Material material) {
+            return set(x, y, z, material.createBlockData());
+        }
+
+        public Builder set(int x, int y, int z, BlockData data) {
+            if (data.getMaterial().isAir()) {
+                blocks.remove(pack(x, y, z));
+            } else {
+                blocks.put(pack(x, y, z), data);
+            }
+            return this;
+        }
+
+        /**
+         * Place un bloc uniquement si la position est encore vide
+         */
+        public Builder setIfAir(int x, int y, int z, Material material) {
+            if (!blocks.containsKey(pack(x, y, z))) {
+                set(x, y, z, material);
+            }
+            return this;
+        }
+
+        public CompiledSchematic build() {
+            Map<String, Integer> paletteIndex = new HashMap<>();
+            List<BlockData> palette = new ArrayList<>();
+            long[] packed = new long[blocks.size()];
+
+            int i = 0;
+            for (Map.Entry<Long, BlockData> entry : blocks.entrySet()) {
+                BlockData data = entry.getValue();
+                int index = paletteIndex.computeIfAbsent(data.getAsString(), key -> {
+                    palette.add(data);
+                    return palette.size() - 1;
+                });
+                if (index > 0xFFFF) {
+                    throw new IllegalStateException("Palette trop grande pour le schematic " + id);
+                }
+                packed[i++] = entry.getKey() | index;
+            }
+
+            Long[] order = new Long[packed.length];
+            for (int j = 0; j < packed.length; j++) order[j] = packed[j];
+            Arrays.sort(order, CompiledSchematic::compareForPaste);
+
+            List<Integer> starts = new ArrayList<>();
+            for (int j = 0; j < order.length; j++) {
+                packed[j] = order[j];
+                if (j == 0 || !sameSection(packed[j - 1], packed[j])) {
+                    starts.add(j);
+                }
+            }
+            starts.add(packed.length);
+
+            return new CompiledSchematic(id, palette.toArray(new BlockData[0]), packed,
+                    starts.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+}
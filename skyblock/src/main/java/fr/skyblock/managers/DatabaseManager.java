@@ -16,15 +16,38 @@ import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.lang.reflect.Type;
 import java.sql.*;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 
 public class DatabaseManager {
 
+    private static final String UPSERT_ISLAND_QUERY = "INSERT INTO islands (id, owner_uuid, name, level, bank, size, center_world, center_x, center_y, center_z, center_yaw, center_pitch, members, flags, creation_time, last_activity, max_deposit_boxes, max_hoppers, hopper_transfer_speed, max_printers, printer_generation_speed) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET " +
+            "owner_uuid = EXCLUDED.owner_uuid, name = EXCLUDED.name, level = EXCLUDED.level, bank = EXCLUDED.bank, size = EXCLUDED.size, " +
+            "center_world = EXCLUDED.center_world, center_x = EXCLUDED.center_x, center_y = EXCLUDED.center_y, center_z = EXCLUDED.center_z, " +
+            "center_yaw = EXCLUDED.center_yaw, center_pitch = EXCLUDED.center_pitch, members = EXCLUDED.members, flags = EXCLUDED.flags, " +
+            "creation_time = EXCLUDED.creation_time, last_activity = EXCLUDED.last_activity, " +
+            "max_deposit_boxes = EXCLUDED.max_deposit_boxes, max_hoppers = EXCLUDED.max_hoppers, hopper_transfer_speed = EXCLUDED.hopper_transfer_speed, " +
+            "max_printers = EXCLUDED.max_printers, printer_generation_speed = EXCLUDED.printer_generation_speed, " +
+            // Anciennes colonnes JSON : remplacées par les tables island_printers et island_deposit_boxes
+            "deposit_boxes = NULL, printers = NULL";
+
     private final CustomSkyblock plugin;
     private HikariDataSource dataSource;
     private final Gson gson = new GsonBuilder()
@@ -33,13 +56,48 @@ public class DatabaseManager {
             .setPrettyPrinting() // Pour un debug plus facile
             .create();
 
-    private final Map<UUID, Island> islandsCache = new ConcurrentHashMap<>();
-    private final Map<UUID, SkyblockPlayer> playersCache = new ConcurrentHashMap<>();
+    // Caches bornés, chargés à la demande (îles des joueurs en ligne et modifications en attente épinglées)
+    private final LruCache<Island> islandsCache;
+    private final LruCache<SkyblockPlayer> playersCache;
+    // Taille des lots lus par curseur pour les parcours complets de tables
+    private final int fetchSize;
+
+    // Écriture différée : îles, imprimantes et caisses de dépôt modifiées, écrites par lots hors du thread principal
+    private final Set<UUID> dirtyIslands = ConcurrentHashMap.newKeySet();
+    private final Set<ChildKey> dirtyPrinters = ConcurrentHashMap.newKeySet();
+    private final Set<ChildKey> dirtyDepositBoxes = ConcurrentHashMap.newKeySet();
+    // Îles capturées dans un lot pas encore validé (nombre de lignes en cours) : restent épinglées jusqu'au commit
+    private final Map<UUID, Integer> inFlightIslands = new ConcurrentHashMap<>();
+    // Îles déjà présentes en base
+    private final Set<UUID> persistedIslands = ConcurrentHashMap.newKeySet();
+    // Chargement d'île (lecture + mise en cache) en lecture ; validation d'une mise à jour des banques en base en écriture :
+    // une île en cache au moment du commit a été lue avant, une île chargée après lit la banque à jour
+    private final ReentrantReadWriteLock bankUpdateLock = new ReentrantReadWriteLock();
+    private final ExecutorService writeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Skyblock-DB-Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private BukkitTask writeBehindTask;
 
     public DatabaseManager(CustomSkyblock plugin) {
         this.plugin = plugin;
+        long start = System.nanoTime();
+        long heapBefore = usedHeapMb();
+
+        FileConfiguration config = plugin.getConfig();
+        this.islandsCache = new LruCache<>(config.getInt("database.cache.max-islands", 2000), this::isIslandPinned);
+        this.playersCache = new LruCache<>(config.getInt("database.cache.max-players", 5000),
+                (uuid, player) -> Bukkit.getPlayer(uuid) != null);
+        this.fetchSize = Math.max(1, config.getInt("database.fetch-size", 500));
+
         initPostgreSQL();
-        loadAll();
+        migrateLegacyChildren();
+        loadOnlinePlayers();
+        startWriteBehindTask();
+
+        plugin.getLogger().info(String.format("Base de données prête en %d ms (îles en cache: %d, joueurs en cache: %d, tas utilisé: %d Mo -> %d Mo)",
+                (System.nanoTime() - start) / 1_000_000, islandsCache.size(), playersCache.size(), heapBefore, usedHeapMb()));
     }
 
     private void initPostgreSQL() {
@@ -109,10 +167,27 @@ public class DatabaseManager {
         String addForeignKey = "ALTER TABLE skyblock_players ADD CONSTRAINT skyblock_players_island_id_fkey " +
                 "FOREIGN KEY (island_id) REFERENCES islands(id) ON DELETE SET NULL;";
 
+        // Imprimantes et caisses de dépôt : une ligne par élément
+        String printersTable = "CREATE TABLE IF NOT EXISTS island_printers (" +
+                "island_id VARCHAR(36) NOT NULL REFERENCES islands(id) ON DELETE CASCADE," +
+                "id VARCHAR(255) NOT NULL," +
+                "data TEXT NOT NULL," +
+                "PRIMARY KEY (island_id, id)" +
+                ");";
+
+        String depositBoxesTable = "CREATE TABLE IF NOT EXISTS island_deposit_boxes (" +
+                "island_id VARCHAR(36) NOT NULL REFERENCES islands(id) ON DELETE CASCADE," +
+                "id VARCHAR(255) NOT NULL," +
+                "data TEXT NOT NULL," +
+                "PRIMARY KEY (island_id, id)" +
+                ");";
+
         try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
             stmt.execute(islandsTable);
             stmt.execute(dropOldConstraint); // Supprimer l'ancienne contrainte incorrecte
             stmt.execute(playersTable);
+            stmt.execute(printersTable);
+            stmt.execute(depositBoxesTable);
 
             // Vérifier si la contrainte existe avant de l'ajouter
             String checkConstraint = "SELECT constraint_name FROM information_schema.table_constraints " +
@@ -132,150 +207,551 @@ public class DatabaseManager {
 
     // --- Gestion des Îles ---
 
+    /**
+     * Enregistre les modifications d'une île (écriture différée, regroupée par île)
+     */
     public void saveIsland(Island island) {
         try {
-            saveIslandInternal(island);
+            islandsCache.put(island.getId(), island);
+            dirtyIslands.add(island.getId());
+            if (!persistedIslands.contains(island.getId())) {
+                // Première écriture immédiate : les joueurs référencent l'île par clé étrangère
+                await(flush(island.getId()::equals));
+            }
         } catch (Exception e) {
             plugin.getLogger().warning("Failed to save island " + island.getId() + ": " + e.getMessage());
         }
     }
 
     /**
-     * Force save island data even if world is unloaded (used before unloading)
+     * Écrit tout de suite les modifications en attente d'une île (utilisé avant de décharger son monde)
+     * Les données sont capturées tout de suite (monde encore chargé), l'écriture reste sur le thread d'écriture ;
+     * une île sans modification en attente n'est pas réécrite.
      */
-    public void forceSaveIsland(Island island) {
+    public void flushIsland(UUID islandId) {
         try {
-            saveIslandInternal(island);
+            flush(islandId::equals);
         } catch (Exception e) {
-            plugin.getLogger().warning("Failed to force save island " + island.getId() + ": " + e.getMessage());
+            plugin.getLogger().warning("Failed to flush island " + islandId + ": " + e.getMessage());
         }
     }
 
-    private void saveIslandInternal(Island island) {
-        islandsCache.put(island.getId(), island);
+    /**
+     * Enregistre l'état d'une imprimante de l'île (ajout, mise à jour ou suppression) : une seule ligne écrite
+     */
+    public void savePrinter(UUID islandId, String printerId) {
+        dirtyPrinters.add(new ChildKey(islandId, printerId));
+    }
+
+    /**
+     * Enregistre l'état d'une caisse de dépôt de l'île (ajout, mise à jour ou suppression) : une seule ligne écrite
+     */
+    public void saveDepositBox(UUID islandId, String depositBoxId) {
+        dirtyDepositBoxes.add(new ChildKey(islandId, depositBoxId));
+    }
+
+    // --- Écriture différée ---
 
-        String query = "INSERT INTO islands (id, owner_uuid, name, level, bank, size, center_world, center_x, center_y, center_z, center_yaw, center_pitch, members, flags, creation_time, last_activity, max_deposit_boxes, max_hoppers, hopper_transfer_speed, max_printers, printer_generation_speed, deposit_boxes, printers) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
-                "ON CONFLICT (id) DO UPDATE SET " +
-                "owner_uuid = EXCLUDED.owner_uuid, name = EXCLUDED.name, level = EXCLUDED.level, bank = EXCLUDED.bank, size = EXCLUDED.size, " +
-                "center_world = EXCLUDED.center_world, center_x = EXCLUDED.center_x, center_y = EXCLUDED.center_y, center_z = EXCLUDED.center_z, " +
-                "center_yaw = EXCLUDED.center_yaw, center_pitch = EXCLUDED.center_pitch, members = EXCLUDED.members, flags = EXCLUDED.flags, " +
-                "creation_time = EXCLUDED.creation_time, last_activity = EXCLUDED.last_activity, " +
-                "max_deposit_boxes = EXCLUDED.max_deposit_boxes, max_hoppers = EXCLUDED.max_hoppers, hopper_transfer_speed = EXCLUDED.hopper_transfer_speed, " +
-                "max_printers = EXCLUDED.max_printers, printer_generation_speed = EXCLUDED.printer_generation_speed, deposit_boxes = EXCLUDED.deposit_boxes, printers = EXCLUDED.printers";
+    private void startWriteBehindTask() {
+        long interval = Math.max(1L, plugin.getConfig().getLong("database.write-behind-ticks", 100L));
+        writeBehindTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                flush(islandId -> true);
+            }
+        }.runTaskTimer(plugin, interval, interval);
+    }
 
-        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(query)) {
-            ps.setString(1, island.getId().toString());
-            ps.setString(2, island.getOwner().toString());
-            ps.setString(3, island.getName());
-            ps.setInt(4, island.getLevel());
-            ps.setDouble(5, island.getBank());
-            ps.setInt(6, island.getSize());
-
-            Location center = island.getCenter();
-            if (center != null) {
-                try {
-                    // Vérifier si le monde existe avant d'accéder à ses propriétés
-                    World world = center.getWorld();
-                    if (world != null && Bukkit.getWorld(world.getName()) != null) {
-                        ps.setString(7, world.getName());
-                        ps.setDouble(8, center.getX());
-                        ps.setDouble(9, center.getY());
-                        ps.setDouble(10, center.getZ());
-                        ps.setFloat(11, center.getYaw());
-                        ps.setFloat(12, center.getPitch());
-                    } else {
-                        // Le monde n'est plus chargé, sauvegarder sans les coordonnées
-                        plugin.getLogger().info("World unloaded for island " + island.getId() + ", saving without location data");
-                        ps.setNull(7, Types.VARCHAR);
-                        ps.setNull(8, Types.DOUBLE);
-                        ps.setNull(9, Types.DOUBLE);
-                        ps.setNull(10, Types.DOUBLE);
-                        ps.setNull(11, Types.FLOAT);
-                        ps.setNull(12, Types.FLOAT);
-                    }
-                } catch (Exception e) {
-                    // Erreur lors de l'accès au monde, sauvegarder sans les coordonnées
-                    plugin.getLogger().info("Error accessing world for island " + island.getId() + ": " + e.getMessage() + ", saving without location data");
-                    ps.setNull(7, Types.VARCHAR);
-                    ps.setNull(8, Types.DOUBLE);
-                    ps.setNull(9, Types.DOUBLE);
-                    ps.setNull(10, Types.DOUBLE);
-                    ps.setNull(11, Types.FLOAT);
-                    ps.setNull(12, Types.FLOAT);
+    /**
+     * Capture les modifications en attente sur le thread appelant puis les écrit en un lot sur le thread d'écriture
+     * (un seul thread : les lots sont écrits dans l'ordre de capture)
+     */
+    private Future<?> flush(Predicate<UUID> islandFilter) {
+        WriteBatch batch = collectBatch(islandFilter);
+        if (batch.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return writeExecutor.submit(() -> writeBatch(batch));
+    }
+
+    private void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            plugin.getLogger().severe("Erreur lors de l'écriture différée: " + e.getCause().getMessage());
+        }
+    }
+
+    private WriteBatch collectBatch(Predicate<UUID> islandFilter) {
+        List<IslandRow> islands = new ArrayList<>();
+        for (Iterator<UUID> it = dirtyIslands.iterator(); it.hasNext(); ) {
+            UUID islandId = it.next();
+            if (!islandFilter.test(islandId)) continue;
+            pinInFlight(islandId); // Avant de quitter dirtyIslands : l'île ne peut pas être évincée entre les deux
+            Island island = islandsCache.get(islandId);
+            if (island == null) {
+                it.remove();
+                unpinInFlight(islandId);
+                continue;
+            }
+            try {
+                islands.add(snapshotIsland(island));
+                it.remove(); // Retirée seulement une fois capturée
+            } catch (RuntimeException e) {
+                // L'île reste en attente pour le prochain passage, sans bloquer le reste du lot
+                unpinInFlight(islandId);
+                plugin.getLogger().severe("Error capturing island " + islandId + " for write-behind: " + e.getMessage());
+            }
+        }
+
+        List<ChildRow> printers = collectChildren(dirtyPrinters, islandFilter, Island::getPrinter);
+        List<ChildRow> depositBoxes = collectChildren(dirtyDepositBoxes, islandFilter, Island::getDepositBox);
+        return new WriteBatch(islands, printers, depositBoxes);
+    }
+
+    private List<ChildRow> collectChildren(Set<ChildKey> dirty, Predicate<UUID> islandFilter, BiFunction<Island, String, Object> getter) {
+        List<ChildRow> rows = new ArrayList<>();
+        for (Iterator<ChildKey> it = dirty.iterator(); it.hasNext(); ) {
+            ChildKey key = it.next();
+            if (!islandFilter.test(key.islandId())) continue;
+            pinInFlight(key.islandId());
+            Island island = islandsCache.get(key.islandId());
+            if (island == null) { // Île supprimée entre-temps
+                it.remove();
+                unpinInFlight(key.islandId());
+                continue;
+            }
+
+            try {
+                // Élément absent de l'île : la ligne est supprimée
+                Object child = getter.apply(island, key.id());
+                rows.add(new ChildRow(key, child != null ? gson.toJson(child) : null));
+                it.remove(); // Retiré seulement une fois capturé
+            } catch (RuntimeException e) {
+                // L'élément reste en attente pour le prochain passage, sans bloquer le reste du lot
+                unpinInFlight(key.islandId());
+                plugin.getLogger().severe("Error capturing " + key.id() + " of island " + key.islandId() + " for write-behind: " + e.getMessage());
+            }
+        }
+        return rows;
+    }
+
+    private IslandRow snapshotIsland(Island island) {
+        String centerWorld = null;
+        double x = 0, y = 0, z = 0;
+        float yaw = 0, pitch = 0;
+
+        Location center = island.getCenter();
+        if (center != null) {
+            try {
+                // Vérifier si le monde existe avant d'accéder à ses propriétés
+                World world = center.getWorld();
+                if (world != null && Bukkit.getWorld(world.getName()) != null) {
+                    centerWorld = world.getName();
+                    x = center.getX();
+                    y = center.getY();
+                    z = center.getZ();
+                    yaw = center.getYaw();
+                    pitch = center.getPitch();
+                } else {
+                    // Le monde n'est plus chargé, sauvegarder sans les coordonnées
+                    plugin.getLogger().info("World unloaded for island " + island.getId() + ", saving without location data");
                 }
-            } else {
-                ps.setNull(7, Types.VARCHAR);
-                ps.setNull(8, Types.DOUBLE);
-                ps.setNull(9, Types.DOUBLE);
-                ps.setNull(10, Types.DOUBLE);
-                ps.setNull(11, Types.FLOAT);
-                ps.setNull(12, Types.FLOAT);
-            }
-
-            ps.setString(13, gson.toJson(island.getMembers()));
-            ps.setString(14, gson.toJson(island.getFlags()));
-            ps.setLong(15, island.getCreationTime());
-            ps.setLong(16, island.getLastActivity());
-            
-            // Nouvelles colonnes pour les améliorations d'île
-            ps.setInt(17, island.getMaxDepositBoxes());
-            ps.setInt(18, island.getMaxHoppers());
-            ps.setDouble(19, island.getHopperTransferSpeed());
-            ps.setInt(20, island.getMaxPrinters());
-            ps.setDouble(21, island.getPrinterGenerationSpeed());
-            ps.setString(22, gson.toJson(island.getDepositBoxes()));
-            ps.setString(23, gson.toJson(island.getPrinters()));
+            } catch (Exception e) {
+                // Erreur lors de l'accès au monde, sauvegarder sans les coordonnées
+                plugin.getLogger().info("Error accessing world for island " + island.getId() + ": " + e.getMessage() + ", saving without location data");
+            }
+        }
 
-            ps.executeUpdate();
-            plugin.getLogger().info("Île sauvegardée: " + island.getId());
+        return new IslandRow(island.getId(), island.getOwner().toString(), island.getName(), island.getLevel(),
+                island.getBank(), island.getSize(), centerWorld, x, y, z, yaw, pitch,
+                gson.toJson(island.getMembers()), gson.toJson(island.getFlags()),
+                island.getCreationTime(), island.getLastActivity(),
+                island.getMaxDepositBoxes(), island.getMaxHoppers(), island.getHopperTransferSpeed(),
+                island.getMaxPrinters(), island.getPrinterGenerationSpeed());
+    }
+
+    /**
+     * Écrit un lot dans une seule transaction (thread d'écriture)
+     * En cas d'échec, les éléments sont remis en attente pour le prochain passage.
+     */
+    private void writeBatch(WriteBatch batch) {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                if (!batch.islands().isEmpty()) {
+                    try (PreparedStatement ps = conn.prepareStatement(UPSERT_ISLAND_QUERY)) {
+                        for (IslandRow row : batch.islands()) {
+                            bindIslandRow(ps, row);
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                    }
+                }
+                writeChildren(conn, "island_printers", batch.printers());
+                writeChildren(conn, "island_deposit_boxes", batch.depositBoxes());
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
 
+            for (IslandRow row : batch.islands()) {
+                persistedIslands.add(row.id());
+            }
+            plugin.getLogger().fine("Écriture différée: " + batch.islands().size() + " îles, " + batch.printers().size()
+                    + " imprimantes, " + batch.depositBoxes().size() + " caisses de dépôt");
         } catch (SQLException e) {
-            plugin.getLogger().severe("Error saving island " + island.getId() + ": " + e.getMessage());
-            e.printStackTrace();
+            plugin.getLogger().severe("Error writing island batch (" + batch.size() + " rows): " + e.getMessage());
+            batch.islands().forEach(row -> dirtyIslands.add(row.id()));
+            batch.printers().forEach(row -> dirtyPrinters.add(row.key()));
+            batch.depositBoxes().forEach(row -> dirtyDepositBoxes.add(row.key()));
+        } finally {
+            // Validé (ou remis en attente) : l'île peut de nouveau être évincée
+            batch.islands().forEach(row -> unpinInFlight(row.id()));
+            batch.printers().forEach(row -> unpinInFlight(row.key().islandId()));
+            batch.depositBoxes().forEach(row -> unpinInFlight(row.key().islandId()));
+        }
+    }
+
+    private void pinInFlight(UUID islandId) {
+        inFlightIslands.merge(islandId, 1, Integer::sum);
+    }
+
+    private void unpinInFlight(UUID islandId) {
+        inFlightIslands.computeIfPresent(islandId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void writeChildren(Connection conn, String table, List<ChildRow> rows) throws SQLException {
+        if (rows.isEmpty()) return;
+
+        try (PreparedStatement upsert = conn.prepareStatement("INSERT INTO " + table + " (island_id, id, data) VALUES (?, ?, ?) " +
+                "ON CONFLICT (island_id, id) DO UPDATE SET data = EXCLUDED.data");
+             PreparedStatement delete = conn.prepareStatement("DELETE FROM " + table + " WHERE island_id = ? AND id = ?")) {
+            for (ChildRow row : rows) {
+                PreparedStatement ps = row.data() != null ? upsert : delete;
+                ps.setString(1, row.key().islandId().toString());
+                ps.setString(2, row.key().id());
+                if (row.data() != null) {
+                    ps.setString(3, row.data());
+                }
+                ps.addBatch();
+            }
+            upsert.executeBatch();
+            delete.executeBatch();
+        }
+    }
+
+    private void bindIslandRow(PreparedStatement ps, IslandRow row) throws SQLException {
+        ps.setString(1, row.id().toString());
+        ps.setString(2, row.owner());
+        ps.setString(3, row.name());
+        ps.setInt(4, row.level());
+        ps.setDouble(5, row.bank());
+        ps.setInt(6, row.size());
+
+        if (row.centerWorld() != null) {
+            ps.setString(7, row.centerWorld());
+            ps.setDouble(8, row.centerX());
+            ps.setDouble(9, row.centerY());
+            ps.setDouble(10, row.centerZ());
+            ps.setFloat(11, row.centerYaw());
+            ps.setFloat(12, row.centerPitch());
+        } else {
+            ps.setNull(7, Types.VARCHAR);
+            ps.setNull(8, Types.DOUBLE);
+            ps.setNull(9, Types.DOUBLE);
+            ps.setNull(10, Types.DOUBLE);
+            ps.setNull(11, Types.FLOAT);
+            ps.setNull(12, Types.FLOAT);
+        }
+
+        ps.setString(13, row.members());
+        ps.setString(14, row.flags());
+        ps.setLong(15, row.creationTime());
+        ps.setLong(16, row.lastActivity());
+        ps.setInt(17, row.maxDepositBoxes());
+        ps.setInt(18, row.maxHoppers());
+        ps.setDouble(19, row.hopperTransferSpeed());
+        ps.setInt(20, row.maxPrinters());
+        ps.setDouble(21, row.printerGenerationSpeed());
+    }
+
+    /**
+     * Charge les imprimantes et caisses de dépôt normalisées des îles données (toutes si islandId est null)
+     */
+    private void loadChildren(Connection conn, Map<UUID, Island> islands, UUID islandId) throws SQLException {
+        loadChildren(conn, "island_printers", islands, islandId,
+                (island, json) -> island.addPrinter(gson.fromJson(json, PrinterData.class)));
+        loadChildren(conn, "island_deposit_boxes", islands, islandId,
+                (island, json) -> island.addDepositBox(gson.fromJson(json, DepositBoxData.class)));
+    }
+
+    private void loadChildren(Connection conn, String table, Map<UUID, Island> islands, UUID islandId,
+                              BiConsumer<Island, String> loader) throws SQLException {
+        String query = "SELECT island_id, data FROM " + table + (islandId != null ? " WHERE island_id = ?" : "");
+        try (PreparedStatement ps = conn.prepareStatement(query)) {
+            if (islandId != null) {
+                ps.setString(1, islandId.toString());
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Island island = islands.get(UUID.fromString(rs.getString("island_id")));
+                    if (island != null) {
+                        loader.accept(island, rs.getString("data"));
+                    }
+                }
+            }
         }
     }
 
     public Island loadIsland(UUID islandId) {
-        if (islandsCache.containsKey(islandId)) {
-            return islandsCache.get(islandId);
+        Island cached = islandsCache.get(islandId);
+        if (cached != null) {
+            return cached;
         }
 
         String query = "SELECT * FROM islands WHERE id = ?";
+        bankUpdateLock.readLock().lock();
         try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(query)) {
             ps.setString(1, islandId.toString());
             ResultSet rs = ps.executeQuery();
             if (rs.next()) {
                 Island island = mapResultSetToIsland(rs);
+                loadChildren(conn, Map.of(islandId, island), islandId);
+                persistedIslands.add(islandId);
                 islandsCache.put(islandId, island);
                 return island;
             }
         } catch (SQLException e) {
             plugin.getLogger().severe("Error loading island " + islandId + ": " + e.getMessage());
+        } finally {
+            bankUpdateLock.readLock().unlock();
         }
         return null;
     }
 
     public void deleteIsland(UUID islandId) {
         islandsCache.remove(islandId);
-        String query = "DELETE FROM islands WHERE id = ?";
+        persistedIslands.remove(islandId);
+        dirtyIslands.remove(islandId);
+        dirtyPrinters.removeIf(key -> key.islandId().equals(islandId));
+        dirtyDepositBoxes.removeIf(key -> key.islandId().equals(islandId));
+
+        // Sur le thread d'écriture, après les lots déjà capturés (imprimantes et caisses supprimées en cascade)
+        writeExecutor.execute(() -> {
+            String query = "DELETE FROM islands WHERE id = ?";
+            try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(query)) {
+                ps.setString(1, islandId.toString());
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Error deleting island " + islandId + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Îles actuellement en mémoire (le cache ne contient pas toutes les îles de la base)
+     */
+    public Collection<Island> getCachedIslands() {
+        return islandsCache.values();
+    }
+
+    /**
+     * Parcourt toutes les îles de la base par curseur, sans les mettre en cache : instance en cache si l'île
+     * est chargée, sinon copie détachée (sans imprimantes ni caisses de dépôt)
+     */
+    public void forEachStoredIsland(Consumer<Island> action) {
+        String query = "SELECT * FROM islands";
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false); // Lecture par curseur
+            try (PreparedStatement ps = conn.prepareStatement(query)) {
+                ps.setFetchSize(fetchSize);
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    action.accept(cachedOrMapped(rs));
+                }
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Error iterating stored islands: " + e.getMessage());
+        }
+    }
+
+    public Island getIslandByOwner(UUID ownerUuid) {
+        for (Island island : islandsCache.values()) {
+            if (island.getOwner().equals(ownerUuid)) {
+                return island;
+            }
+        }
+
+        String query = "SELECT id FROM islands WHERE owner_uuid = ? LIMIT 1";
         try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(query)) {
-            ps.setString(1, islandId.toString());
-            ps.executeUpdate();
+            ps.setString(1, ownerUuid.toString());
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                return loadIsland(UUID.fromString(rs.getString("id")));
+            }
         } catch (SQLException e) {
-            plugin.getLogger().severe("Error deleting island " + islandId + ": " + e.getMessage());
+            plugin.getLogger().severe("Error loading island of owner " + ownerUuid + ": " + e.getMessage());
         }
+        return null;
     }
 
-    public Collection<Island> getAllIslands() {
-        return islandsCache.values();
+    /**
+     * Toutes les imprimantes par île, lues directement dans leur table sans charger les îles
+     */
+    public Map<UUID, Map<String, PrinterData>> loadAllPrinters() {
+        return loadAllChildren("island_printers", PrinterData.class, PrinterData::getId);
     }
 
-    public Island getIslandByOwner(UUID ownerUuid) {
-        return islandsCache.values().stream()
-                .filter(island -> island.getOwner().equals(ownerUuid))
-                .findFirst()
-                .orElse(null);
+    /**
+     * Toutes les caisses de dépôt par île, lues directement dans leur table sans charger les îles
+     */
+    public Map<UUID, Map<String, DepositBoxData>> loadAllDepositBoxes() {
+        return loadAllChildren("island_deposit_boxes", DepositBoxData.class, DepositBoxData::getId);
+    }
+
+    private <T> Map<UUID, Map<String, T>> loadAllChildren(String table, Class<T> type, Function<T, String> idGetter) {
+        await(flush(islandId -> true));
+        Map<UUID, Map<String, T>> children = new ConcurrentHashMap<>();
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false); // Nécessaire pour lire par curseur
+            try (PreparedStatement ps = conn.prepareStatement("SELECT island_id, data FROM " + table)) {
+                ps.setFetchSize(fetchSize);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        T child = gson.fromJson(rs.getString("data"), type);
+                        children.computeIfAbsent(UUID.fromString(rs.getString("island_id")), k -> new ConcurrentHashMap<>())
+                                .put(idGetter.apply(child), child);
+                    }
+                }
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Error loading " + table + ": " + e.getMessage());
+        }
+        return children;
+    }
+
+    /**
+     * Ajoute un montant à la banque des îles en base (revenus passifs), sauf celles déjà traitées en mémoire.
+     * Écriture relative (bank = bank + ?) : une île chargée pendant le parcours reçoit le même montant en mémoire.
+     */
+    public void addToStoredIslandBanks(Set<UUID> excluded, ToDoubleFunction<Island> amount) {
+        updateStoredIslandBanks(excluded, amount, true);
+    }
+
+    /**
+     * Remet à zéro la banque des îles en base, sauf celles déjà remises à zéro en mémoire
+     */
+    public void resetStoredIslandBanks(Set<UUID> excluded) {
+        updateStoredIslandBanks(excluded, island -> 0.0, false);
+    }
+
+    /**
+     * Met à jour la banque des îles en base (lecture par curseur, mises à jour par lots sur le thread d'écriture).
+     * Les îles en cache au moment du commit ont été lues avant : la même mise à jour leur est appliquée en mémoire
+     * sur le thread principal, sinon leur copie écraserait la ligne. Elles restent épinglées jusque-là.
+     */
+    private void updateStoredIslandBanks(Set<UUID> excluded, ToDoubleFunction<Island> value, boolean relative) {
+        writeExecutor.execute(() -> {
+            String select = "SELECT id, owner_uuid, name, level, bank, size, last_activity FROM islands";
+            String sql = relative ? "UPDATE islands SET bank = bank + ? WHERE id = ?" : "UPDATE islands SET bank = ? WHERE id = ?";
+            int updated = 0;
+            Map<UUID, Double> changes = new HashMap<>();
+            Map<Island, Double> cachedChanges = new HashMap<>();
+            try (Connection conn = dataSource.getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement ps = conn.prepareStatement(select);
+                     PreparedStatement update = conn.prepareStatement(sql)) {
+                    ps.setFetchSize(fetchSize);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            UUID islandId = UUID.fromString(rs.getString("id"));
+                            if (excluded.contains(islandId)) continue;
+
+                            // Île allégée : seules les données utiles au calcul sont lues
+                            Island island = new Island(islandId, UUID.fromString(rs.getString("owner_uuid")), rs.getString("name"), null);
+                            island.setLevel(rs.getInt("level"));
+                            island.setBank(rs.getDouble("bank"));
+                            island.setSize(rs.getInt("size"));
+                            island.setLastActivity(rs.getLong("last_activity"));
+
+                            double bank = value.applyAsDouble(island);
+                            if (relative ? bank == 0 : bank == island.getBank()) continue;
+                            changes.put(islandId, bank);
+                            update.setDouble(1, bank);
+                            update.setString(2, islandId.toString());
+                            update.addBatch();
+                            if (++updated % fetchSize == 0) {
+                                update.executeBatch();
+                            }
+                        }
+                    }
+                    update.executeBatch();
+
+                    bankUpdateLock.writeLock().lock();
+                    try {
+                        conn.commit();
+                        changes.forEach((islandId, bank) -> {
+                            Island cached = islandsCache.get(islandId);
+                            if (cached != null) {
+                                pinInFlight(islandId);
+                                cachedChanges.put(cached, bank);
+                            }
+                        });
+                    } finally {
+                        bankUpdateLock.writeLock().unlock();
+                    }
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Error updating stored island banks: " + e.getMessage());
+                return;
+            }
+
+            if (cachedChanges.isEmpty()) return;
+            Runnable apply = () -> cachedChanges.forEach((island, bank) -> {
+                if (relative) {
+                    island.addToBank(bank);
+                } else {
+                    island.setBank(bank);
+                }
+                if (islandsCache.get(island.getId()) == island) {
+                    dirtyIslands.add(island.getId());
+                }
+                unpinInFlight(island.getId());
+            });
+            if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, apply);
+            } else {
+                apply.run();
+            }
+        });
+    }
+
+    /**
+     * Somme des banques de toutes les îles (après écriture des modifications en attente)
+     */
+    public double getTotalIslandBank() {
+        await(flush(islandId -> true));
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT COALESCE(SUM(bank), 0) FROM islands");
+             ResultSet rs = ps.executeQuery()) {
+            if (rs.next()) {
+                return rs.getDouble(1);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Error getting total island bank: " + e.getMessage());
+        }
+        return 0;
     }
 
     // --- Gestion des Joueurs ---
@@ -316,8 +792,9 @@ public class DatabaseManager {
     }
 
     public SkyblockPlayer loadPlayer(UUID playerUuid) {
-        if (playersCache.containsKey(playerUuid)) {
-            return playersCache.get(playerUuid);
+        SkyblockPlayer cached = playersCache.get(playerUuid);
+        if (cached != null) {
+            return cached;
         }
 
         String query = "SELECT * FROM skyblock_players WHERE uuid = ?";
@@ -347,72 +824,195 @@ public class DatabaseManager {
         return player;
     }
 
-    public Collection<SkyblockPlayer> getAllPlayers() {
+    /**
+     * Joueurs actuellement en mémoire (le cache ne contient pas tous les joueurs de la base)
+     */
+    public Collection<SkyblockPlayer> getCachedPlayers() {
         return playersCache.values();
     }
 
+    /**
+     * Modifie une donnée de tous les joueurs : instances en cache, puis lignes de la base lues par curseur
+     * et réécrites par lots dans une transaction
+     */
+    public void setStoredPlayersData(String key, Object value) {
+        playersCache.values().forEach(player -> player.setData(key, value));
+
+        String select = "SELECT uuid, player_data FROM skyblock_players";
+        Type playerDataType = new TypeToken<Map<String, Object>>() {}.getType();
+        int updated = 0;
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(select);
+                 PreparedStatement update = conn.prepareStatement("UPDATE skyblock_players SET player_data = ? WHERE uuid = ?")) {
+                ps.setFetchSize(fetchSize);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        String json = rs.getString("player_data");
+                        Map<String, Object> data = json != null && !json.isEmpty() ? gson.fromJson(json, playerDataType) : null;
+                        if (data == null) data = new HashMap<>();
+                        data.put(key, value);
+                        update.setString(1, gson.toJson(data));
+                        update.setString(2, rs.getString("uuid"));
+                        update.addBatch();
+                        if (++updated % fetchSize == 0) {
+                            update.executeBatch();
+                        }
+                    }
+                }
+                update.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Error updating stored player data '" + key + "': " + e.getMessage());
+        }
+    }
+
     // --- Gestion Globale et Chargement ---
 
     public void saveAll() {
         plugin.getLogger().info("Saving all data to database...");
-        islandsCache.values().forEach(this::saveIsland);
+        await(flush(islandId -> true));
         playersCache.values().forEach(this::savePlayer);
         plugin.getLogger().info("Save complete!");
     }
 
-    private void loadAll() {
-        plugin.getLogger().info("Loading all islands from database...");
-        String islandQuery = "SELECT * FROM islands";
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(islandQuery);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) {
-                Island island = mapResultSetToIsland(rs);
-                islandsCache.put(island.getId(), island);
+    /**
+     * Charge les joueurs en ligne et leurs îles (rechargement du plugin serveur démarré)
+     */
+    private void loadOnlinePlayers() {
+        for (Player online : Bukkit.getOnlinePlayers()) {
+            SkyblockPlayer player = loadPlayer(online.getUniqueId());
+            if (player == null) continue;
+            if (player.getIslandId() != null) {
+                loadIsland(player.getIslandId());
             }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Error loading all islands: " + e.getMessage());
+            player.getMemberOfIslands().forEach(this::loadIsland);
         }
-        plugin.getLogger().info(islandsCache.size() + " islands loaded!");
+    }
 
-        plugin.getLogger().info("Loading all players from database...");
-        String playerQuery = "SELECT * FROM skyblock_players";
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(playerQuery);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) {
-                SkyblockPlayer player = mapResultSetToPlayer(rs);
-                playersCache.put(player.getUuid(), player);
+    /**
+     * Migre les anciennes colonnes JSON printers / deposit_boxes vers les tables normalisées (lecture par curseur)
+     */
+    private void migrateLegacyChildren() {
+        String query = "SELECT id, printers, deposit_boxes FROM islands WHERE printers IS NOT NULL OR deposit_boxes IS NOT NULL";
+        Type printersType = new TypeToken<Map<String, PrinterData>>() {}.getType();
+        Type depositBoxesType = new TypeToken<Map<String, DepositBoxData>>() {}.getType();
+        int migrated = 0;
+
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(query);
+                 PreparedStatement clear = conn.prepareStatement("UPDATE islands SET printers = NULL, deposit_boxes = NULL WHERE id = ?")) {
+                ps.setFetchSize(fetchSize);
+                List<ChildRow> printers = new ArrayList<>();
+                List<ChildRow> depositBoxes = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        UUID islandId = UUID.fromString(rs.getString("id"));
+                        collectLegacyChildren(islandId, rs.getString("printers"), printersType, printers);
+                        collectLegacyChildren(islandId, rs.getString("deposit_boxes"), depositBoxesType, depositBoxes);
+                        clear.setString(1, islandId.toString());
+                        clear.addBatch();
+
+                        if (++migrated % fetchSize == 0) {
+                            writeChildren(conn, "island_printers", printers);
+                            writeChildren(conn, "island_deposit_boxes", depositBoxes);
+                            clear.executeBatch();
+                            printers.clear();
+                            depositBoxes.clear();
+                        }
+                    }
+                }
+                writeChildren(conn, "island_printers", printers);
+                writeChildren(conn, "island_deposit_boxes", depositBoxes);
+                clear.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         } catch (SQLException e) {
-            plugin.getLogger().severe("Error loading all players: " + e.getMessage());
+            plugin.getLogger().severe("Error migrating island printers and deposit boxes: " + e.getMessage());
+            return;
         }
-        plugin.getLogger().info(playersCache.size() + " players loaded!");
+
+        if (migrated > 0) {
+            plugin.getLogger().info("Imprimantes et caisses de dépôt migrées pour " + migrated + " îles");
+        }
+    }
+
+    private void collectLegacyChildren(UUID islandId, String json, Type type, List<ChildRow> rows) {
+        if (json == null || json.isEmpty()) return;
+        Map<String, Object> children = gson.fromJson(json, type);
+        if (children == null) return;
+        children.forEach((id, child) -> rows.add(new ChildRow(new ChildKey(islandId, id), gson.toJson(child))));
     }
 
+    /**
+     * Vide les caches, sauf les îles et joueurs épinglés (joueurs en ligne, modifications en attente)
+     */
     public void clearCache() {
-        islandsCache.clear();
-        playersCache.clear();
+        islandsCache.evictAll();
+        playersCache.evictAll();
     }
 
     public void reloadFromDisk() {
         plugin.getLogger().info("Reloading all data from database...");
-        clearCache();
-        loadAll();
+        await(flush(islandId -> true));
+        islandsCache.clear();
+        playersCache.clear();
+        loadOnlinePlayers();
         plugin.getLogger().info("Reload complete!");
     }
 
+    public String getCacheStatistics() {
+        return String.format("îles %d/%d, joueurs %d/%d", islandsCache.size(), islandsCache.capacity,
+                playersCache.size(), playersCache.capacity);
+    }
+
+    private boolean isIslandPinned(UUID islandId, Island island) {
+        if (dirtyIslands.contains(islandId) || inFlightIslands.containsKey(islandId)
+                || dirtyPrinters.stream().anyMatch(key -> key.islandId().equals(islandId))
+                || dirtyDepositBoxes.stream().anyMatch(key -> key.islandId().equals(islandId))) {
+            return true;
+        }
+        if (Bukkit.getPlayer(island.getOwner()) != null) {
+            return true;
+        }
+        for (UUID member : island.getMembers()) {
+            if (Bukkit.getPlayer(member) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long usedHeapMb() {
+        Runtime runtime = Runtime.getRuntime();
+        return (runtime.totalMemory() - runtime.freeMemory()) / 1024 / 1024;
+    }
+
     // --- Méthodes de Statistiques et de Recherche ---
 
     public List<Island> getInactiveIslands(long inactiveDays) {
         List<Island> islands = new ArrayList<>();
         long threshold = System.currentTimeMillis() - (inactiveDays * 24 * 60 * 60 * 1000);
         String query = "SELECT * FROM islands WHERE last_activity < ?";
-        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(query)) {
-            ps.setLong(1, threshold);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                islands.add(mapResultSetToIsland(rs));
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false); // Lecture par curseur
+            try (PreparedStatement ps = conn.prepareStatement(query)) {
+                ps.setFetchSize(fetchSize);
+                ps.setLong(1, threshold);
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    islands.add(cachedOrMapped(rs));
+                }
+            } finally {
+                conn.setAutoCommit(true);
             }
         } catch (SQLException e) {
             plugin.getLogger().severe("Error getting inactive islands: " + e.getMessage());
@@ -423,11 +1023,17 @@ public class DatabaseManager {
     public List<Island> getIslandsByLevel(int minLevel) {
         List<Island> islands = new ArrayList<>();
         String query = "SELECT * FROM islands WHERE level >= ? ORDER BY level DESC";
-        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(query)) {
-            ps.setInt(1, minLevel);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                islands.add(mapResultSetToIsland(rs));
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false); // Lecture par curseur
+            try (PreparedStatement ps = conn.prepareStatement(query)) {
+                ps.setFetchSize(fetchSize);
+                ps.setInt(1, minLevel);
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    islands.add(cachedOrMapped(rs));
+                }
+            } finally {
+                conn.setAutoCommit(true);
             }
         } catch (SQLException e) {
             plugin.getLogger().severe("Error getting islands by level: " + e.getMessage());
@@ -442,7 +1048,7 @@ public class DatabaseManager {
             ps.setInt(1, limit);
             ResultSet rs = ps.executeQuery();
             while (rs.next()) {
-                islands.add(mapResultSetToIsland(rs));
+                islands.add(cachedOrMapped(rs));
             }
         } catch (SQLException e) {
             plugin.getLogger().severe("Error getting top islands by level: " + e.getMessage());
@@ -503,11 +1109,32 @@ public class DatabaseManager {
     }
 
     public void close() {
+        if (writeBehindTask != null) {
+            writeBehindTask.cancel();
+        }
+        flush(islandId -> true);
+        writeExecutor.shutdown();
+        try {
+            if (!writeExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                plugin.getLogger().severe("Écritures en attente non terminées à la fermeture de la base de données");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
         }
     }
 
+    /**
+     * Instance en cache si l'île est chargée (évite de désérialiser la ligne), sinon une copie détachée
+     */
+    private Island cachedOrMapped(ResultSet rs) throws SQLException {
+        Island cached = islandsCache.get(UUID.fromString(rs.getString("id")));
+        return cached != null ? cached : mapResultSetToIsland(rs);
+    }
+
     private Island mapResultSetToIsland(ResultSet rs) throws SQLException {
         UUID islandId = UUID.fromString(rs.getString("id"));
         UUID ownerUuid = UUID.fromString(rs.getString("owner_uuid"));
@@ -569,26 +1196,6 @@ public class DatabaseManager {
             }
         }
         
-        // Charger les caisses de dépôt
-        String depositBoxesJson = rs.getString("deposit_boxes");
-        if (depositBoxesJson != null && !depositBoxesJson.isEmpty()) {
-            Type depositBoxesType = new TypeToken<Map<String, DepositBoxData>>() {}.getType();
-            Map<String, DepositBoxData> depositBoxes = gson.fromJson(depositBoxesJson, depositBoxesType);
-            if (depositBoxes != null) {
-                depositBoxes.forEach((id, depositBox) -> island.addDepositBox(depositBox));
-            }
-        }
-        
-        // Charger les imprimantes
-        String printersJson = rs.getString("printers");
-        if (printersJson != null && !printersJson.isEmpty()) {
-            Type printersType = new TypeToken<Map<String, PrinterData>>() {}.getType();
-            Map<String, PrinterData> printers = gson.fromJson(printersJson, printersType);
-            if (printers != null) {
-                printers.forEach((id, printer) -> island.addPrinter(printer));
-            }
-        }
-
         return island;
     }
 
@@ -630,6 +1237,100 @@ public class DatabaseManager {
         return player;
     }
 
+    /**
+     * Cache LRU borné : au-delà de la capacité, les entrées les moins récemment utilisées sont retirées,
+     * sauf celles épinglées
+     */
+    private static final class LruCache<V> {
+        private final LinkedHashMap<UUID, V> entries = new LinkedHashMap<>(256, 0.75f, true);
+        private final int capacity;
+        private final BiPredicate<UUID, V> pinned;
+
+        LruCache(int capacity, BiPredicate<UUID, V> pinned) {
+            this.capacity = Math.max(1, capacity);
+            this.pinned = pinned;
+        }
+
+        synchronized V get(UUID id) {
+            return entries.get(id);
+        }
+
+        synchronized boolean containsKey(UUID id) {
+            return entries.containsKey(id);
+        }
+
+        synchronized void put(UUID id, V value) {
+            entries.put(id, value);
+            if (entries.size() > capacity) {
+                evict(entries.size() - capacity);
+            }
+        }
+
+        synchronized void remove(UUID id) {
+            entries.remove(id);
+        }
+
+        synchronized List<V> values() {
+            return new ArrayList<>(entries.values());
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized void evictAll() {
+            evict(entries.size());
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        // Parcourt du moins récemment utilisé au plus récent
+        private void evict(int count) {
+            Iterator<Map.Entry<UUID, V>> it = entries.entrySet().iterator();
+            while (count > 0 && it.hasNext()) {
+                Map.Entry<UUID, V> entry = it.next();
+                if (!pinned.test(entry.getKey(), entry.getValue())) {
+                    it.remove();
+                    count--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Élément d'une île (imprimante ou caisse de dépôt)
+     */
+    private record ChildKey(UUID islandId, String id) {
+    }
+
+    /**
+     * Ligne d'élément capturée (data null : ligne à supprimer)
+     */
+    private record ChildRow(ChildKey key, String data) {
+    }
+
+    /**
+     * Ligne islands capturée sur le thread appelant
+     */
+    private record IslandRow(UUID id, String owner, String name, int level, double bank, int size,
+                             String centerWorld, double centerX, double centerY, double centerZ, float centerYaw, float centerPitch,
+                             String members, String flags, long creationTime, long lastActivity,
+                             int maxDepositBoxes, int maxHoppers, double hopperTransferSpeed,
+                             int maxPrinters, double printerGenerationSpeed) {
+    }
+
+    private record WriteBatch(List<IslandRow> islands, List<ChildRow> printers, List<ChildRow> depositBoxes) {
+        boolean isEmpty() {
+            return islands.isEmpty() && printers.isEmpty() && depositBoxes.isEmpty();
+        }
+
+        int size() {
+            return islands.size() + printers.size() + depositBoxes.size();
+        }
+    }
+
     // Getters pour les données manquantes dans SkyblockPlayer
     public Map<String, Object> getData(SkyblockPlayer player) {
         return player.getData();
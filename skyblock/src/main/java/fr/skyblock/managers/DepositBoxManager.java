@@ -26,15 +26,10 @@ public class DepositBoxManager {
     }
     
     /**
-     * Charge toutes les caisses de dépôt depuis les îles
+     * Charge toutes les caisses de dépôt depuis la base de données (sans charger les îles)
      */
     private void loadAllDepositBoxes() {
-        for (Island island : databaseManager.getAllIslands()) {
-            Map<String, DepositBoxData> depositBoxes = island.getDepositBoxes();
-            if (!depositBoxes.isEmpty()) {
-                islandDepositBoxes.put(island.getId(), new ConcurrentHashMap<>(depositBoxes));
-            }
-        }
+        islandDepositBoxes.putAll(databaseManager.loadAllDepositBoxes());
     }
     
     /**
@@ -77,7 +72,7 @@ public class DepositBoxManager {
         Island island = databaseManager.loadIsland(islandId);
         if (island != null) {
             island.addDepositBox(depositBox);
-            databaseManager.saveIsland(island);
+            databaseManager.saveDepositBox(islandId, depositBox.getId());
             
             // Mettre à jour le cache
             islandDepositBoxes.computeIfAbsent(islandId, k -> new ConcurrentHashMap<>())
@@ -92,7 +87,7 @@ public class DepositBoxManager {
         Island island = databaseManager.loadIsland(islandId);
         if (island != null) {
             island.removeDepositBox(depositBoxId);
-            databaseManager.saveIsland(island);
+            databaseManager.saveDepositBox(islandId, depositBoxId);
             
             // Mettre à jour le cache
             Map<String, DepositBoxData> islandBoxes = islandDepositBoxes.get(islandId);
@@ -131,15 +126,7 @@ public class DepositBoxManager {
      * Obtient l'ID de l'île à une location donnée
      */
     public UUID getIslandIdAtLocation(Location location) {
-        for (Island island : databaseManager.getAllIslands()) {
-            if (island.getCenter() != null && island.getCenter().getWorld().equals(location.getWorld())) {
-                double distance = island.getCenter().distance(location);
-                if (distance <= island.getSize()) {
-                    return island.getId();
-                }
-            }
-        }
-        return null;
+        return plugin.getIslandLocator().getIslandIdAt(location);
     }
     
     /**
@@ -167,7 +154,7 @@ public class DepositBoxManager {
             // Supprimer l'ancienne et ajouter la nouvelle
             island.removeDepositBox(depositBox.getId());
             island.addDepositBox(depositBox);
-            databaseManager.saveIsland(island);
+            databaseManager.saveDepositBox(islandId, depositBox.getId());
             
             // Mettre à jour le cache
             Map<String, DepositBoxData> islandBoxes = islandDepositBoxes.get(islandId);
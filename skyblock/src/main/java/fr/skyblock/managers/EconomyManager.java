@@ -7,7 +7,9 @@ import org.bukkit.ChatColor;
 import org.bukkit.conversations.*;
 import org.bukkit.entity.Player;
 
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -49,6 +51,15 @@ public class EconomyManager {
         saveBalance(playerUuid);
     }
 
+    /**
+     * Remet le solde de tous les joueurs au même montant (joueurs en mémoire et joueurs en base)
+     */
+    public void resetAllBalances(double amount) {
+        double balance = Math.max(0, amount);
+        playerBalances.replaceAll((uuid, current) -> balance);
+        plugin.getDatabaseManager().setStoredPlayersData("balance", balance);
+    }
+
     public void addBalance(UUID playerUuid, double amount) {
         plugin.getPrisonTycoonHook().addCoins(playerUuid, Math.round(amount));
     }
@@ -165,7 +176,9 @@ public class EconomyManager {
     // === SYSTÈME DE SALAIRE PASSIF ===
 
     public void processIslandIncome() {
-        for (Island island : plugin.getDatabaseManager().getAllIslands()) {
+        Set<UUID> processed = new HashSet<>();
+        for (Island island : plugin.getDatabaseManager().getCachedIslands()) {
+            processed.add(island.getId());
             double income = calculateIslandIncome(island);
             if (income > 0) {
                 island.addToBank(income);
@@ -179,6 +192,10 @@ public class EconomyManager {
                 }
             }
         }
+
+        // Îles non chargées : mises à jour directement en base
+        plugin.getDatabaseManager().addToStoredIslandBanks(processed,
+                island -> Math.max(0, calculateIslandIncome(island)));
     }
 
     private double calculateIslandIncome(Island island) {
@@ -199,7 +216,7 @@ public class EconomyManager {
 
     private void loadBalances() {
         // Charger les balances depuis la base de données YAML
-        for (SkyblockPlayer skyblockPlayer : plugin.getDatabaseManager().getAllPlayers()) {
+        for (SkyblockPlayer skyblockPlayer : plugin.getDatabaseManager().getCachedPlayers()) {
             if (skyblockPlayer.hasData("balance")) {
                 double balance = skyblockPlayer.getData("balance", Double.class);
                 playerBalances.put(skyblockPlayer.getUuid(), balance);
@@ -90,6 +90,9 @@ public class InvitationManager {
         pendingInvitations.computeIfAbsent(target.getUniqueId(), k -> new ArrayList<>()).add(invitation);
         sentInvitations.computeIfAbsent(inviter.getUniqueId(), k -> new ArrayList<>()).add(invitation);
 
+        // Le joueur invité rejoindra probablement l'île : précharger son monde
+        plugin.getWorldManager().getHibernator().preload(island.getId());
+
         // Messages
         inviter.sendMessage(ChatColor.GREEN + "Invitation envoyée à " + ChatColor.YELLOW + target.getName() + ChatColor.GREEN + " !");
 
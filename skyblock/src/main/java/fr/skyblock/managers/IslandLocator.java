@@ -0,0 +1,121 @@
+package fr.skyblock.managers;
+
+import fr.skyblock.CustomSkyblock;
+import fr.skyblock.models.Island;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Résolution position → île en O(1)
+ * <p>
+ * Chaque île vit dans son propre monde : le nom du monde donne l'île, puis un test de limites
+ * (distance horizontale au centre ≤ taille de l'île) confirme que la position est dans la zone de l'île.
+ * Les entrées sont mises en cache par nom de monde et invalidées à la création, la suppression
+ * et l'agrandissement d'une île.
+ */
+public class IslandLocator {
+
+    // Entrée négative : monde qui n'est pas un monde d'île
+    private static final IslandBounds NOT_AN_ISLAND = new IslandBounds(null, 0, 0, 0);
+
+    private final CustomSkyblock plugin;
+    private final Map<String, IslandBounds> boundsByWorld = new ConcurrentHashMap<>();
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public IslandLocator(CustomSkyblock plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * ID de l'île contenant une position (null hors d'un monde d'île ou hors des limites de l'île)
+     */
+    public UUID getIslandIdAt(Location location) {
+        World world = location.getWorld();
+        if (world == null) return null;
+
+        IslandBounds bounds = getBounds(world.getName());
+        if (bounds.islandId() == null) return null;
+
+        double dx = location.getX() - bounds.centerX();
+        double dz = location.getZ() - bounds.centerZ();
+        return dx * dx + dz * dz <= bounds.radiusSquared() ? bounds.islandId() : null;
+    }
+
+    /**
+     * Île contenant une position (voir {@link #getIslandIdAt})
+     */
+    public Island getIslandAt(Location location) {
+        UUID islandId = getIslandIdAt(location);
+        return islandId != null ? plugin.getDatabaseManager().loadIsland(islandId) : null;
+    }
+
+    /**
+     * ID de l'île associée à un monde, sans test de limites
+     */
+    public UUID getIslandIdForWorld(String worldName) {
+        return getBounds(worldName).islandId();
+    }
+
+    private IslandBounds getBounds(String worldName) {
+        lookups.increment();
+        IslandBounds bounds = boundsByWorld.get(worldName);
+        if (bounds != null) return bounds;
+
+        misses.increment();
+        UUID islandId = plugin.getWorldManager().getIslandIdFromWorldName(worldName);
+        if (islandId == null) {
+            boundsByWorld.put(worldName, NOT_AN_ISLAND);
+            return NOT_AN_ISLAND;
+        }
+
+        Island island = plugin.getDatabaseManager().loadIsland(islandId);
+        if (island == null) {
+            return NOT_AN_ISLAND; // Île inconnue (en cours de création ?) : pas de mise en cache
+        }
+
+        bounds = IslandBounds.of(island);
+        boundsByWorld.put(worldName, bounds);
+        return bounds;
+    }
+
+    /**
+     * Invalide les limites d'une île (création, suppression, agrandissement, déplacement du centre)
+     */
+    public void invalidate(UUID islandId) {
+        boundsByWorld.values().removeIf(bounds -> islandId.equals(bounds.islandId()));
+    }
+
+    public void invalidateAll() {
+        boundsByWorld.clear();
+    }
+
+    public String getStatistics() {
+        long total = lookups.sum();
+        long miss = misses.sum();
+        return String.format("Mondes indexés: %d | Résolutions: %d | Succès cache: %.1f%%",
+                boundsByWorld.size(), total, total == 0 ? 100.0 : (total - miss) * 100.0 / total);
+    }
+
+    /**
+     * Île d'un monde et ses limites horizontales
+     */
+    private record IslandBounds(UUID islandId, double centerX, double centerZ, double radiusSquared) {
+
+        static IslandBounds of(Island island) {
+            Location center = island.getCenter();
+            double radius = island.getSize();
+            // Sans centre connu, le monde entier appartient à l'île (comme IslandManager.getIslandAtLocation)
+            if (center == null) {
+                return new IslandBounds(island.getId(), 0, 0, Double.MAX_VALUE);
+            }
+            return new IslandBounds(island.getId(), center.getX(), center.getZ(), radius * radius);
+        }
+    }
+}
@@ -7,11 +7,15 @@ import org.bukkit.*;
 import org.bukkit.entity.Player;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class IslandManager {
 
     private final CustomSkyblock plugin;
 
+    // Joueurs en attente de téléportation vers une île
+    private final Set<UUID> pendingTeleports = ConcurrentHashMap.newKeySet();
+
     public IslandManager(CustomSkyblock plugin) {
         this.plugin = plugin;
     }
@@ -64,23 +68,46 @@ public class IslandManager {
 
         // Supprimer l'île de la base de données
         plugin.getDatabaseManager().deleteIsland(island.getId());
+        plugin.getIslandLocator().invalidate(island.getId());
 
         return true;
     }
 
     /**
      * Téléporte un joueur à son île
+     * Si le monde n'est pas chargé, il est chargé au tick suivant et le joueur patiente ; les chunks
+     * d'arrivée sont chargés de façon asynchrone. Retourne true dès que la téléportation est lancée.
      */
     public boolean teleportToIsland(Player player, Island island) {
         if (island == null) return false;
 
-        // Obtenir ou créer le monde de l'île
-        World world = plugin.getWorldManager().getOrCreateIslandWorld(island);
-        if (world == null) {
-            player.sendMessage(ChatColor.RED + "Impossible de charger le monde de l'île !");
-            return false;
+        if (!pendingTeleports.add(player.getUniqueId())) {
+            player.sendMessage(ChatColor.YELLOW + "Chargement de l'île en cours, patientez...");
+            return true;
+        }
+        long requestedAt = System.nanoTime();
+
+        World world = plugin.getWorldManager().getIslandWorld(island);
+        if (world != null) {
+            teleportIntoWorld(player, island, world, requestedAt);
+            return true;
         }
 
+        player.sendMessage(ChatColor.YELLOW + "Chargement de l'île...");
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            // Obtenir ou créer le monde de l'île
+            World loadedWorld = plugin.getWorldManager().getOrCreateIslandWorld(island);
+            if (loadedWorld == null || !player.isOnline()) {
+                pendingTeleports.remove(player.getUniqueId());
+                player.sendMessage(ChatColor.RED + "Impossible de charger le monde de l'île !");
+                return;
+            }
+            teleportIntoWorld(player, island, loadedWorld, requestedAt);
+        });
+        return true;
+    }
+
+    private void teleportIntoWorld(Player player, Island island, World world, long requestedAt) {
         Location teleportLocation;
 
         // Vérifier s'il y a un home personnalisé
@@ -98,18 +125,24 @@ public class IslandManager {
             teleportLocation = new Location(world, 0, 65, 0);
         }
 
-        // Téléportation
-        player.teleport(teleportLocation);
-        plugin.getWorldManager().markPlayerEntered(world.getName());
-        island.updateActivity();
-        
-        // Sauvegarder l'île
-        plugin.getDatabaseManager().saveIsland(island);
+        // Téléportation (chunks chargés hors du thread principal)
+        player.teleportAsync(teleportLocation).whenComplete((success, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            pendingTeleports.remove(player.getUniqueId());
+            if (!Boolean.TRUE.equals(success)) {
+                player.sendMessage(ChatColor.RED + "Erreur lors de la téléportation ! Utilisez /is home");
+                return;
+            }
 
-        // Mettre à jour la world border
-        updateWorldBorder(player, island);
+            plugin.getWorldManager().markPlayerEntered(world.getName());
+            plugin.getWorldManager().recordVisit(System.nanoTime() - requestedAt);
+            island.updateActivity();
 
-        return true;
+            // Sauvegarder l'île
+            plugin.getDatabaseManager().saveIsland(island);
+
+            // Mettre à jour la world border
+            updateWorldBorder(player, island);
+        }));
     }
 
     /**
@@ -141,8 +174,8 @@ public class IslandManager {
     public Island getIslandAtLocation(Location location) {
         if (location.getWorld() == null) return null;
 
-        String worldName = location.getWorld().getName();
-        UUID islandId = plugin.getWorldManager().getIslandIdFromWorldName(worldName);
+        // Une île par monde : pas de test de limites, tout le monde de l'île est protégé
+        UUID islandId = plugin.getIslandLocator().getIslandIdForWorld(location.getWorld().getName());
 
         if (islandId != null) {
             return plugin.getDatabaseManager().loadIsland(islandId);
@@ -174,6 +207,7 @@ public class IslandManager {
         }
 
         island.setSize(newSize);
+        plugin.getIslandLocator().invalidate(island.getId());
 
         // Mettre à jour la world border
         plugin.getWorldManager().updateWorldBorder(island);
@@ -297,16 +331,17 @@ public class IslandManager {
     }
 
     /**
-     * Récupère toutes les îles avec leur monde chargé
+     * Récupère toutes les îles avec leur monde chargé (parcours de la base par curseur)
      */
     public List<Island> getAllIslandsWithWorlds() {
         List<Island> islandsWithWorlds = new ArrayList<>();
+        Set<UUID> loadedWorlds = plugin.getWorldManager().getIslandsWithLoadedWorld();
 
-        for (Island island : plugin.getDatabaseManager().getAllIslands()) {
-            if (plugin.getWorldManager().hasWorld(island)) {
+        plugin.getDatabaseManager().forEachStoredIsland(island -> {
+            if (loadedWorlds.contains(island.getId())) {
                 islandsWithWorlds.add(island);
             }
-        }
+        });
 
         return islandsWithWorlds;
     }
@@ -315,15 +350,23 @@ public class IslandManager {
      * Obtient l'île d'un joueur (propriétaire ou membre)
      */
     public Island getPlayerIsland(UUID playerId) {
+        SkyblockPlayer skyblockPlayer = plugin.getDatabaseManager().loadPlayer(playerId);
+        if (skyblockPlayer == null) {
+            return null;
+        }
+
         // D'abord vérifier si le joueur est propriétaire d'une île
-        Island ownedIsland = plugin.getDatabaseManager().getIslandByOwner(playerId);
-        if (ownedIsland != null) {
-            return ownedIsland;
+        if (skyblockPlayer.getIslandId() != null) {
+            Island ownedIsland = plugin.getDatabaseManager().loadIsland(skyblockPlayer.getIslandId());
+            if (ownedIsland != null) {
+                return ownedIsland;
+            }
         }
 
         // Sinon, vérifier si le joueur est membre d'une île
-        for (Island island : plugin.getDatabaseManager().getAllIslands()) {
-            if (island.isMember(playerId)) {
+        for (UUID islandId : skyblockPlayer.getMemberOfIslands()) {
+            Island island = plugin.getDatabaseManager().loadIsland(islandId);
+            if (island != null && island.isMember(playerId)) {
                 return island;
             }
         }
@@ -342,21 +385,25 @@ public class IslandManager {
      * Nettoie les îles sans monde
      */
     public void cleanupOrphanedIslands() {
-        List<Island> orphanedIslands = new ArrayList<>();
-
-        for (Island island : plugin.getDatabaseManager().getAllIslands()) {
-            if (!plugin.getWorldManager().hasWorld(island)) {
-                orphanedIslands.add(island);
-            }
-        }
-
-        if (!orphanedIslands.isEmpty()) {
-            plugin.getLogger().info("Nettoyage de " + orphanedIslands.size() + " îles orphelines...");
-
-            for (Island island : orphanedIslands) {
-                // Optionnel: supprimer l'île ou essayer de recréer son monde
-                plugin.getLogger().warning("Île orpheline trouvée: " + island.getId() + " (propriétaire: " + island.getOwner() + ")");
+        // Mondes chargés relevés sur le thread principal, parcours de toutes les îles de la base hors du tick
+        Set<UUID> loadedWorlds = plugin.getWorldManager().getIslandsWithLoadedWorld();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            List<Island> orphanedIslands = new ArrayList<>();
+
+            plugin.getDatabaseManager().forEachStoredIsland(island -> {
+                if (!loadedWorlds.contains(island.getId())) {
+                    orphanedIslands.add(island);
+                }
+            });
+
+            if (!orphanedIslands.isEmpty()) {
+                plugin.getLogger().info("Nettoyage de " + orphanedIslands.size() + " îles orphelines...");
+
+                for (Island island : orphanedIslands) {
+                    // Optionnel: supprimer l'île ou essayer de recréer son monde
+                    plugin.getLogger().warning("Île orpheline trouvée: " + island.getId() + " (propriétaire: " + island.getOwner() + ")");
+                }
             }
-        }
+        });
     }
 }
\ No newline at end of file
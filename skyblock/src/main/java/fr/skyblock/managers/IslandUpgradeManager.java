@@ -126,27 +126,14 @@ public class IslandUpgradeManager {
      * Obtient l'île d'un joueur (propriétaire ou membre)
      */
     private Island getIslandByPlayer(UUID playerId) {
-        for (Island island : databaseManager.getAllIslands()) {
-            if (island.getOwner().equals(playerId) || island.getMembers().contains(playerId)) {
-                return island;
-            }
-        }
-        return null;
+        return plugin.getIslandManager().getPlayerIsland(playerId);
     }
 
     /**
      * Obtient l'ID de l'île à une location donnée
      */
     public UUID getIslandIdAtLocation(Location location) {
-        for (Island island : databaseManager.getAllIslands()) {
-            if (island.getCenter() != null && island.getCenter().getWorld().equals(location.getWorld())) {
-                double distance = island.getCenter().distance(location);
-                if (distance <= island.getSize()) {
-                    return island.getId();
-                }
-            }
-        }
-        return null;
+        return plugin.getIslandLocator().getIslandIdAt(location);
     }
 
     /**
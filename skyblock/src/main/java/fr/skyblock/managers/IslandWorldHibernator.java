@@ -0,0 +1,310 @@
+package fr.skyblock.managers;
+
+import fr.skyblock.CustomSkyblock;
+import fr.skyblock.models.Island;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mise en veille des mondes d'îles
+ * <p>
+ * Suit pour chaque monde chargé sa résidence (chargement, dernière activité), son coût mémoire
+ * (chunks chargés) et sa fréquence de visite. Les mondes vides depuis auto-unload-minutes sont déchargés ;
+ * au-delà du budget (nombre de mondes chargés ou part du heap), les mondes vides les moins utiles
+ * (inactifs depuis longtemps, coûteux, peu visités) sont déchargés en premier.
+ * Les mondes des îles des joueurs qui se connectent ou sont invités sont préchargés, un par tick.
+ */
+public class IslandWorldHibernator {
+
+    // Demi-vie de la fréquence de visite
+    private static final double VISIT_HALF_LIFE_MILLIS = 60 * 60 * 1000.0;
+
+    private final CustomSkyblock plugin;
+    private final WorldManager worldManager;
+    private final long idleUnloadMillis;
+    private final long minIdleMillis;
+    private final long preloadGraceMillis;
+    private final int maxLoadedWorlds;
+    private final double maxHeapPercent;
+    private final int maxUnloadsPerRun;
+
+    private final Map<String, Residency> residencies = new ConcurrentHashMap<>();
+    private final Queue<UUID> preloadQueue = new ConcurrentLinkedQueue<>();
+    private final Set<UUID> queuedPreloads = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean preloadTaskRunning = new AtomicBoolean(false);
+
+    private final LongAdder coldLoads = new LongAdder();
+    private final LongAdder preloads = new LongAdder();
+    private final LongAdder preloadHits = new LongAdder();
+    private final LongAdder idleUnloads = new LongAdder();
+    private final LongAdder budgetUnloads = new LongAdder();
+    private final LoadTimes loadTimes = new LoadTimes(512);
+
+    public IslandWorldHibernator(CustomSkyblock plugin, WorldManager worldManager) {
+        this.plugin = plugin;
+        this.worldManager = worldManager;
+        int minutes = plugin.getConfig().getInt("advanced.auto-unload-minutes", 30);
+        this.idleUnloadMillis = Math.max(1, minutes) * 60L * 1000L;
+        this.minIdleMillis = Math.max(0, plugin.getConfig().getInt("advanced.hibernation.min-idle-seconds", 120)) * 1000L;
+        this.preloadGraceMillis = Math.max(0, plugin.getConfig().getInt("advanced.hibernation.preload-grace-seconds", 300)) * 1000L;
+        this.maxLoadedWorlds = plugin.getConfig().getInt("advanced.hibernation.max-loaded-worlds", 100);
+        this.maxHeapPercent = plugin.getConfig().getDouble("advanced.hibernation.max-heap-percent", 80.0);
+        this.maxUnloadsPerRun = Math.max(1, plugin.getConfig().getInt("advanced.hibernation.max-unloads-per-run", 5));
+    }
+
+    public void start() {
+        long interval = Math.max(20L, plugin.getConfig().getLong("advanced.hibernation.check-interval-ticks", 1200L));
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                try {
+                    hibernate();
+                } catch (Exception e) {
+                    plugin.getLogger().warning("Erreur tâche de mise en veille des mondes: " + e.getMessage());
+                }
+            }
+        }.runTaskTimer(plugin, interval, interval);
+    }
+
+    // ==== Suivi de résidence ====
+
+    /**
+     * Enregistre le chargement d'un monde d'île (à la demande ou préchargement)
+     */
+    void recordLoad(String worldName, long nanos, boolean preload) {
+        (preload ? preloads : coldLoads).increment();
+        loadTimes.record(nanos);
+
+        long now = System.currentTimeMillis();
+        Residency residency = residency(worldName, now);
+        residency.lastActiveAt = now;
+        residency.preloadedUntil = preload ? now + preloadGraceMillis : 0L;
+    }
+
+    /**
+     * Prolonge la résidence d'un monde déjà chargé qui aurait été préchargé
+     */
+    void touch(String worldName) {
+        long now = System.currentTimeMillis();
+        Residency residency = residency(worldName, now);
+        residency.lastActiveAt = Math.max(residency.lastActiveAt, now);
+    }
+
+    public void markPlayerEntered(String worldName) {
+        long now = System.currentTimeMillis();
+        Residency residency = residency(worldName, now);
+        residency.lastActiveAt = now;
+        residency.addVisit(now);
+        if (residency.preloadedUntil > 0L) {
+            preloadHits.increment();
+            residency.preloadedUntil = 0L;
+        }
+    }
+
+    public void markPlayerLeft(String worldName) {
+        residency(worldName, System.currentTimeMillis()).lastActiveAt = System.currentTimeMillis();
+    }
+
+    void forget(String worldName) {
+        residencies.remove(worldName);
+    }
+
+    private Residency residency(String worldName, long now) {
+        return residencies.computeIfAbsent(worldName, name -> new Residency(now));
+    }
+
+    // ==== Préchargement ====
+
+    /**
+     * Demande le préchargement des mondes des îles d'un joueur (appelable depuis n'importe quel thread)
+     */
+    public void preloadForPlayer(UUID playerId) {
+        Island island = plugin.getIslandManager().getPlayerIsland(playerId);
+        if (island != null) {
+            preload(island.getId());
+        }
+    }
+
+    /**
+     * Demande le préchargement du monde d'une île ; les chargements sont faits un par tick sur le thread principal
+     */
+    public void preload(UUID islandId) {
+        if (!queuedPreloads.add(islandId)) return;
+        preloadQueue.add(islandId);
+        if (preloadTaskRunning.compareAndSet(false, true)) {
+            startPreloadTask();
+        }
+    }
+
+    private void startPreloadTask() {
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                UUID next = preloadQueue.poll();
+                if (next == null) {
+                    cancel();
+                    preloadTaskRunning.set(false);
+                    // Une demande a pu arriver entre poll() et set(false)
+                    if (!preloadQueue.isEmpty() && preloadTaskRunning.compareAndSet(false, true)) {
+                        startPreloadTask();
+                    }
+                    return;
+                }
+                queuedPreloads.remove(next);
+                Island island = plugin.getDatabaseManager().loadIsland(next);
+                if (island != null) {
+                    worldManager.preloadIslandWorld(island);
+                }
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    // ==== Déchargement ====
+
+    private void hibernate() {
+        long now = System.currentTimeMillis();
+        List<Candidate> candidates = new ArrayList<>();
+        int loaded = 0;
+
+        for (World world : Bukkit.getWorlds()) {
+            String worldName = world.getName();
+            if (!worldManager.isIslandWorld(worldName)) continue;
+            loaded++;
+
+            Residency residency = residency(worldName, now);
+            if (!world.getPlayers().isEmpty()) {
+                residency.lastActiveAt = now;
+                continue;
+            }
+
+            long idle = now - residency.lastActiveAt;
+            if (idle >= idleUnloadMillis) {
+                if (worldManager.unloadIslandWorld(world, "inactivité")) {
+                    idleUnloads.increment();
+                    loaded--;
+                }
+                continue;
+            }
+            if (idle >= minIdleMillis && now >= residency.preloadedUntil) {
+                candidates.add(new Candidate(world, score(residency, world, idle, now)));
+            }
+        }
+
+        if (candidates.isEmpty() || !isOverBudget(loaded)) return;
+
+        candidates.sort(Comparator.comparingDouble(Candidate::score).reversed());
+        int unloaded = 0;
+        for (Candidate candidate : candidates) {
+            if (unloaded >= maxUnloadsPerRun || !isOverBudget(loaded)) break;
+            if (worldManager.unloadIslandWorld(candidate.world(), "budget mémoire")) {
+                budgetUnloads.increment();
+                loaded--;
+                unloaded++;
+            }
+        }
+    }
+
+    /**
+     * Intérêt à décharger un monde : inactivité × coût mémoire (chunks chargés) / fréquence de visite
+     */
+    private static double score(Residency residency, World world, long idle, long now) {
+        return idle * (1.0 + world.getChunkCount()) / (1.0 + residency.visitScore(now));
+    }
+
+    private boolean isOverBudget(int loadedWorlds) {
+        if (maxLoadedWorlds > 0 && loadedWorlds > maxLoadedWorlds) return true;
+        if (maxHeapPercent <= 0) return false;
+        Runtime runtime = Runtime.getRuntime();
+        double used = runtime.totalMemory() - runtime.freeMemory();
+        return used * 100.0 / runtime.maxMemory() > maxHeapPercent;
+    }
+
+    private int loadedIslandWorlds() {
+        int loaded = 0;
+        for (World world : Bukkit.getWorlds()) {
+            if (worldManager.isIslandWorld(world.getName())) loaded++;
+        }
+        return loaded;
+    }
+
+    public String getStatistics() {
+        long[] percentiles = loadTimes.percentiles(50, 95, 99);
+        return String.format("chargés %d, déchargés %d (inactivité %d, budget %d), chargements à froid %d, préchargements %d (utiles %d), chargement p50/p95/p99 %d/%d/%d ms",
+                loadedIslandWorlds(), idleUnloads.sum() + budgetUnloads.sum(), idleUnloads.sum(), budgetUnloads.sum(),
+                coldLoads.sum(), preloads.sum(), preloadHits.sum(),
+                percentiles[0], percentiles[1], percentiles[2]);
+    }
+
+    /**
+     * Résidence d'un monde chargé
+     */
+    private static final class Residency {
+        private volatile long lastActiveAt;
+        private volatile long preloadedUntil;
+        private double visits;
+        private long visitsUpdatedAt;
+
+        private Residency(long now) {
+            this.lastActiveAt = now;
+            this.visitsUpdatedAt = now;
+        }
+
+        private synchronized void addVisit(long now) {
+            visits = visitScore(now) + 1.0;
+            visitsUpdatedAt = now;
+        }
+
+        private synchronized double visitScore(long now) {
+            return visits * Math.pow(0.5, (now - visitsUpdatedAt) / VISIT_HALF_LIFE_MILLIS);
+        }
+    }
+
+    private record Candidate(World world, double score) {
+    }
+
+    /**
+     * Dernières durées de chargement (tampon circulaire) pour les percentiles
+     */
+    private static final class LoadTimes {
+        private final long[] samples;
+        private int next = 0;
+        private int count = 0;
+
+        private LoadTimes(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        private synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        private synchronized long[] percentiles(int... percents) {
+            long[] result = new long[percents.length];
+            if (count == 0) return result;
+
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            for (int i = 0; i < percents.length; i++) {
+                int index = (int) Math.ceil(percents[i] / 100.0 * count) - 1;
+                result[i] = sorted[Math.max(0, Math.min(count - 1, index))] / 1_000_000;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package fr.skyblock.managers;
+
+import fr.skyblock.CustomSkyblock;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.WorldCreator;
+import org.bukkit.WorldType;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.File;
+import java.util.Deque;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Réserve de mondes d'îles vides pré-générés
+ * <p>
+ * Les mondes sont générés un par un quand le serveur a de la marge (TPS ≥ min-tps), configurés, puis
+ * déchargés : il ne reste qu'un dossier prêt sur le disque. À la création d'une île, un dossier est
+ * renommé en islands/island_&lt;uuid&gt; et chargé, ce qui évite la génération du monde sur le thread principal.
+ */
+public class IslandWorldPool {
+
+    private static final String POOL_PREFIX = "pool_";
+
+    private final CustomSkyblock plugin;
+    private final WorldManager worldManager;
+    private final String islandsFolder;
+    private final int targetSize;
+    private final double minTps;
+
+    // Dossiers de mondes prêts (relatifs au dossier des mondes du serveur)
+    private final Deque<String> readyWorlds = new ConcurrentLinkedDeque<>();
+
+    private final LongAdder claims = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder generationNanos = new LongAdder();
+
+    public IslandWorldPool(CustomSkyblock plugin, WorldManager worldManager, String islandsFolder) {
+        this.plugin = plugin;
+        this.worldManager = worldManager;
+        this.islandsFolder = islandsFolder;
+        this.targetSize = Math.max(0, plugin.getConfig().getInt("advanced.world-pool.size", 3));
+        this.minTps = plugin.getConfig().getDouble("advanced.world-pool.min-tps", 19.0);
+
+        loadExistingPoolWorlds();
+        if (targetSize > 0) {
+            long interval = Math.max(20L, plugin.getConfig().getLong("advanced.world-pool.refill-interval-ticks", 600L));
+            new BukkitRunnable() {
+                @Override
+                public void run() {
+                    refill();
+                }
+            }.runTaskTimer(plugin, interval, interval);
+        }
+    }
+
+    /**
+     * Reprend les mondes pré-générés lors des démarrages précédents
+     */
+    private void loadExistingPoolWorlds() {
+        File[] folders = new File(Bukkit.getWorldContainer(), islandsFolder).listFiles(
+                file -> file.isDirectory() && file.getName().startsWith(POOL_PREFIX));
+        if (folders == null) return;
+
+        for (File folder : folders) {
+            if (new File(folder, "level.dat").exists()) {
+                readyWorlds.add(islandsFolder + "/" + folder.getName());
+            }
+        }
+        if (!readyWorlds.isEmpty()) {
+            plugin.getLogger().info("Réserve de mondes d'îles : " + readyWorlds.size() + " mondes prêts");
+        }
+    }
+
+    /**
+     * Génère un monde de réserve si la réserve n'est pas pleine et que le serveur a de la marge
+     */
+    private void refill() {
+        if (readyWorlds.size() >= targetSize) return;
+        if (Bukkit.getTPS()[0] < minTps) return;
+
+        String worldName = islandsFolder + "/" + POOL_PREFIX + UUID.randomUUID();
+        long start = System.nanoTime();
+        try {
+            WorldCreator creator = new WorldCreator(worldName)
+                    .environment(World.Environment.NORMAL)
+                    .type(WorldType.FLAT)
+                    .generateStructures(false)
+                    .seed(0L);
+            String voidGenerator = worldManager.getVoidGenerator();
+            if (voidGenerator != null) {
+                creator.generator(voidGenerator);
+            } else {
+                creator.generatorSettings(WorldManager.FALLBACK_GENERATOR_SETTINGS);
+            }
+
+            World world = creator.createWorld();
+            if (world == null) {
+                plugin.getLogger().warning("Impossible de pré-générer le monde " + worldName);
+                return;
+            }
+
+            worldManager.prepareIslandWorld(world);
+            if (!Bukkit.unloadWorld(world, true)) {
+                plugin.getLogger().warning("Impossible de décharger le monde pré-généré " + worldName);
+                return;
+            }
+
+            readyWorlds.add(worldName);
+            generated.increment();
+            generationNanos.add(System.nanoTime() - start);
+        } catch (Exception e) {
+            plugin.getLogger().warning("Erreur lors de la pré-génération du monde " + worldName + " : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Attribue un monde de réserve : son dossier est renommé en targetWorldName
+     *
+     * @return true si le dossier targetWorldName est prêt à être chargé
+     */
+    public boolean claim(String targetWorldName) {
+        File container = Bukkit.getWorldContainer();
+        File target = new File(container, targetWorldName);
+
+        String poolWorld;
+        while ((poolWorld = readyWorlds.poll()) != null) {
+            File source = new File(container, poolWorld);
+            if (!target.exists() && source.renameTo(target)) {
+                // Identifiant de monde propre au dossier : régénéré au chargement
+                new File(target, "uid.dat").delete();
+                claims.increment();
+                return true;
+            }
+            plugin.getLogger().warning("Monde de réserve inutilisable, ignoré : " + poolWorld);
+        }
+
+        misses.increment();
+        return false;
+    }
+
+    public String getStatistics() {
+        long count = generated.sum();
+        return String.format("réserve %d/%d, attribués %d, manqués %d, génération moy. %d ms",
+                readyWorlds.size(), targetSize, claims.sum(), misses.sum(),
+                count == 0 ? 0 : generationNanos.sum() / count / 1_000_000);
+    }
+}
@@ -26,15 +26,10 @@ public class PrinterManager {
     }
     
     /**
-     * Charge toutes les imprimantes depuis les îles
+     * Charge toutes les imprimantes depuis la base de données (sans charger les îles)
      */
     private void loadAllPrinters() {
-        for (Island island : databaseManager.getAllIslands()) {
-            Map<String, PrinterData> printers = island.getPrinters();
-            if (!printers.isEmpty()) {
-                islandPrinters.put(island.getId(), new ConcurrentHashMap<>(printers));
-            }
-        }
+        islandPrinters.putAll(databaseManager.loadAllPrinters());
     }
     
     /**
@@ -77,7 +72,7 @@ public class PrinterManager {
         Island island = databaseManager.loadIsland(islandId);
         if (island != null) {
             island.addPrinter(printer);
-            databaseManager.saveIsland(island);
+            databaseManager.savePrinter(islandId, printer.getId());
             
             // Mettre à jour le cache
             islandPrinters.computeIfAbsent(islandId, k -> new ConcurrentHashMap<>())
@@ -92,7 +87,7 @@ public class PrinterManager {
         Island island = databaseManager.loadIsland(islandId);
         if (island != null) {
             island.removePrinter(printerId);
-            databaseManager.saveIsland(island);
+            databaseManager.savePrinter(islandId, printerId);
             
             // Mettre à jour le cache
             Map<String, PrinterData> islandPrinters = this.islandPrinters.get(islandId);
@@ -131,15 +126,7 @@ public class PrinterManager {
      * Obtient l'ID de l'île à une location donnée
      */
     public UUID getIslandIdAtLocation(Location location) {
-        for (Island island : databaseManager.getAllIslands()) {
-            if (island.getCenter() != null && island.getCenter().getWorld().equals(location.getWorld())) {
-                double distance = island.getCenter().distance(location);
-                if (distance <= island.getSize()) {
-                    return island.getId();
-                }
-            }
-        }
-        return null;
+        return plugin.getIslandLocator().getIslandIdAt(location);
     }
     
     /**
@@ -167,7 +154,7 @@ public class PrinterManager {
             // Supprimer l'ancienne et ajouter la nouvelle
             island.removePrinter(printer.getId());
             island.addPrinter(printer);
-            databaseManager.saveIsland(island);
+            databaseManager.savePrinter(islandId, printer.getId());
             
             // Mettre à jour le cache
             Map<String, PrinterData> islandPrinters = this.islandPrinters.get(islandId);
@@ -177,6 +164,29 @@ public class PrinterManager {
         }
     }
     
+    /**
+     * Met à jour plusieurs imprimantes d'une île (écrites dans le même lot)
+     */
+    public void updatePrinters(UUID islandId, Collection<PrinterData> printers) {
+        if (printers.isEmpty()) return;
+        Island island = databaseManager.loadIsland(islandId);
+        if (island != null) {
+            for (PrinterData printer : printers) {
+                island.removePrinter(printer.getId());
+                island.addPrinter(printer);
+                databaseManager.savePrinter(islandId, printer.getId());
+            }
+
+            // Mettre à jour le cache
+            Map<String, PrinterData> islandPrinters = this.islandPrinters.get(islandId);
+            if (islandPrinters != null) {
+                for (PrinterData printer : printers) {
+                    islandPrinters.put(printer.getId(), printer);
+                }
+            }
+        }
+    }
+
     /**
      * Recharge toutes les imprimantes depuis la base de données
      */
@@ -3,6 +3,7 @@ package fr.skyblock.managers;
 import fr.skyblock.CustomSkyblock;
 import fr.skyblock.models.Island;
 import fr.skyblock.models.SkyblockPlayer;
+import fr.skyblock.utils.SpongeSchematicReader;
 import org.bukkit.*;
 import org.bukkit.block.Biome;
 import org.bukkit.block.Block;
@@ -11,25 +12,34 @@ import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.util.BoundingBox;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class SchematicManager {
 
+    // Zone nettoyée autour du centre avant le collage
+    private static final int CLEAR_RADIUS = 20;
+    // Position du coffre de départ (relative au centre)
+    private static final int CHEST_X = -2, CHEST_Y = 1, CHEST_Z = -2;
+
     private final CustomSkyblock plugin;
     private final File schematicsFolder;
     private final Map<String, SchematicData> loadedSchematics = new HashMap<>();
+    private final SchematicPaster paster;
 
     public SchematicManager(CustomSkyblock plugin) {
         this.plugin = plugin;
         this.schematicsFolder = new File(plugin.getDataFolder(), "schematics");
+        this.paster = new SchematicPaster(plugin);
 
         setupSchematicsFolder();
         loadDefaultSchematics();
         loadCustomSchematics();
+        compileSchematics();
     }
 
     private void setupSchematicsFolder() {
@@ -125,6 +135,62 @@ public class SchematicManager {
         }
     }
 
+    // === COMPILATION DES SCHÉMATICS ===
+
+    /**
+     * Compile chaque schematic une seule fois : structure, végétation et coffre sont calculés dans un
+     * volume relatif au centre de l'île, puis compactés en palette + tableau de blocs
+     */
+    private void compileSchematics() {
+        for (Iterator<SchematicData> it = loadedSchematics.values().iterator(); it.hasNext(); ) {
+            SchematicData schematic = it.next();
+            try {
+                long start = System.nanoTime();
+                CompiledSchematic compiled = compile(schematic);
+                schematic.setCompiled(compiled);
+                schematic.setChestContents(parseChestItems(schematic));
+                plugin.getLogger().info(String.format("Schematic %s compilé: %d blocs, palette %d, %d sections (%.2f ms)",
+                        schematic.getId(), compiled.getBlockCount(), compiled.getPaletteSize(), compiled.getSectionCount(),
+                        (System.nanoTime() - start) / 1_000_000.0));
+            } catch (Exception e) {
+                plugin.getLogger().warning("Erreur lors de la compilation du schematic " + schematic.getId() + ": " + e.getMessage());
+                it.remove();
+            }
+        }
+    }
+
+    private CompiledSchematic compile(SchematicData schematic) throws IOException {
+        CompiledSchematic.Builder builder;
+        if (schematic.getSchemFile() != null) {
+            // Structure issue d'un fichier .schem (WorldEdit)
+            builder = SpongeSchematicReader.read(schematic.getId(), new File(schematicsFolder, schematic.getSchemFile()),
+                    schematic.getSchemOffsetY(), plugin.getLogger());
+            if (!schematic.getChestItems().isEmpty()) {
+                builder.set(CHEST_X, CHEST_Y, CHEST_Z, Material.CHEST);
+            }
+        } else {
+            builder = new CompiledSchematic.Builder(schematic.getId());
+            generateStructure(builder, schematic);
+            generateSpecialItems(builder, schematic);
+        }
+        return builder.build();
+    }
+
+    private List<ItemStack> parseChestItems(SchematicData schematic) {
+        List<ItemStack> contents = new ArrayList<>();
+        for (String itemString : schematic.getChestItems()) {
+            try {
+                String[] parts = itemString.split(":");
+                Material material = Material.valueOf(parts[0]);
+                int amount = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+                contents.add(new ItemStack(material, amount));
+            } catch (Exception e) {
+                plugin.getLogger().warning("Objet invalide dans le coffre du schematic " + schematic.getId() + ": " + itemString);
+            }
+        }
+        return contents;
+    }
+
     // === CRÉATION D'ÎLES AVEC SCHÉMATICS ===
 
     public Island createIslandWithSchematic(Player player, String schematicName) {
@@ -162,82 +228,90 @@ public class SchematicManager {
         plugin.getDatabaseManager().savePlayer(skyblockPlayer);
         plugin.getLogger().info("Joueur mis à jour avec l'île : " + player.getName());
 
-        // Générer l'île avec le schematic
-        generateIslandFromSchematic(island, schematic, player);
-
-        // Téléporter le joueur
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (plugin.getIslandManager().teleportToIsland(player, island)) {
-                    player.sendMessage(ChatColor.GREEN + "Votre île " + schematic.getName() + " a été créée avec succès !");
-                    player.sendMessage(ChatColor.GOLD + "Bienvenue sur votre nouvelle île !");
-
-                    // Donner des récompenses de départ
-                    if (plugin.getPrisonTycoonHook().isEnabled()) {
-                        plugin.getPrisonTycoonHook().addTokens(player.getUniqueId(), 10);
-                        plugin.getPrisonTycoonHook().addBeacons(player.getUniqueId(), 5);
-                        player.sendMessage(ChatColor.LIGHT_PURPLE + "Récompenses reçues: 10 tokens, 5 beacons !");
-                    } else {
-                        plugin.getEconomyManager().rewardPlayer(player.getUniqueId(), 100.0, "Création d'île");
-                        player.sendMessage(ChatColor.GOLD + "Récompense reçue: 100$ !");
-                    }
+        // Générer l'île avec le schematic, puis téléporter le joueur une fois la structure posée
+        generateIslandFromSchematic(island, schematic, player, success -> {
+            if (!success) {
+                // Île inutilisable : la supprimer pour que le joueur puisse en recréer une
+                plugin.getIslandManager().deleteIsland(island);
+                if (player.isOnline()) {
+                    player.sendMessage(ChatColor.RED + "La génération de votre île a échoué ! Réessayez avec /is create");
+                }
+                return;
+            }
+            if (!player.isOnline()) return;
+
+            if (plugin.getIslandManager().teleportToIsland(player, island)) {
+                player.sendMessage(ChatColor.GREEN + "Votre île " + schematic.getName() + " a été créée avec succès !");
+                player.sendMessage(ChatColor.GOLD + "Bienvenue sur votre nouvelle île !");
+
+                // Donner des récompenses de départ
+                if (plugin.getPrisonTycoonHook().isEnabled()) {
+                    plugin.getPrisonTycoonHook().addTokens(player.getUniqueId(), 10);
+                    plugin.getPrisonTycoonHook().addBeacons(player.getUniqueId(), 5);
+                    player.sendMessage(ChatColor.LIGHT_PURPLE + "Récompenses reçues: 10 tokens, 5 beacons !");
                 } else {
-                    player.sendMessage(ChatColor.RED + "Erreur lors de la téléportation ! Utilisez /is home");
+                    plugin.getEconomyManager().rewardPlayer(player.getUniqueId(), 100.0, "Création d'île");
+                    player.sendMessage(ChatColor.GOLD + "Récompense reçue: 100$ !");
                 }
+            } else {
+                player.sendMessage(ChatColor.RED + "Erreur lors de la téléportation ! Utilisez /is home");
             }
-        }.runTaskLater(plugin, 20L); // Attendre 1 seconde
+        });
 
         return island;
     }
 
-    private void generateIslandFromSchematic(Island island, SchematicData schematic, Player player) {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                Location center = island.getCenter();
-                World world = center.getWorld();
-                if (world == null) return;
+    /**
+     * Génère l'île ; onComplete est toujours appelé, avec false si la structure n'a pas pu être posée
+     */
+    private void generateIslandFromSchematic(Island island, SchematicData schematic, Player player, Consumer<Boolean> onComplete) {
+        Location center = island.getCenter();
+        if (center == null || center.getWorld() == null) {
+            plugin.getLogger().warning("Monde introuvable pour l'île " + island.getId() + ", génération annulée");
+            onComplete.accept(false);
+            return;
+        }
 
-                // Nettoyer la zone
-                clearArea(center, 20);
+        // Nettoyer la zone puis poser le schematic compilé, par lots de sections à chaque tick
+        BoundingBox clearArea = new BoundingBox(
+                center.getBlockX() - CLEAR_RADIUS, center.getBlockY() - 5, center.getBlockZ() - CLEAR_RADIUS,
+                center.getBlockX() + CLEAR_RADIUS, center.getBlockY() + 20, center.getBlockZ() + CLEAR_RADIUS);
 
-                // Générer la structure principale
-                generateStructure(center, schematic);
+        paster.paste(schematic.getCompiled(), center, clearArea, success -> {
+            if (!success) {
+                onComplete.accept(false);
+                return;
+            }
 
-                // Placer les objets spéciaux
-                generateSpecialItems(center, schematic);
+            try {
+                // Remplir le coffre de départ
+                fillStarterChest(center.clone().add(CHEST_X, CHEST_Y, CHEST_Z), schematic.getChestContents());
 
                 // Définir le biome
                 if (schematic.getBiome() != null) {
                     setBiome(center, island.getSize(), schematic.getBiome());
                 }
+            } catch (Exception e) {
+                // La structure est posée : l'île reste utilisable sans coffre ni biome
+                plugin.getLogger().warning("Erreur lors de la finition de l'île " + island.getId() + ": " + e.getMessage());
+            }
 
+            if (player.isOnline()) {
                 player.sendMessage(ChatColor.GREEN + "Structure de l'île générée !");
             }
-        }.runTaskLater(plugin, 5L);
+            onComplete.accept(true);
+        });
     }
 
-    private void generateStructure(Location center, SchematicData schematic) {
-        World world = center.getWorld();
-        if (world == null) return;
-
+    private void generateStructure(CompiledSchematic.Builder builder, SchematicData schematic) {
         List<String> structure = schematic.getStructure();
         Map<Character, Material> materials = schematic.getMaterials();
 
-        int centerX = center.getBlockX();
-        int centerY = center.getBlockY();
-        int centerZ = center.getBlockZ();
-
         // Couches de base (bedrock et stone)
-        for (int y = centerY - 4; y < centerY; y++) {
-            for (int x = centerX - 3; x <= centerX + 3; x++) {
-                for (int z = centerZ - 3; z <= centerZ + 3; z++) {
-                    if (y == centerY - 4) {
-                        world.getBlockAt(x, y, z).setType(Material.BEDROCK);
-                    } else {
-                        world.getBlockAt(x, y, z).setType(Material.STONE);
-                    }
+        for (int y = -4; y < 0; y++) {
+            for (int x = -3; x <= 3; x++) {
+                for (int z = -3; z <= 3; z++) {
+                    builder.set(x, y, z, y == -4 ? Material.BEDROCK : Material.STONE);
                 }
             }
         }
@@ -250,15 +324,15 @@ public class SchematicManager {
                 if (blockChar != ' ') {
                     Material material = materials.get(blockChar);
                     if (material != null) {
-                        int x = centerX + j - (row.length() / 2);
-                        int z = centerZ + i - (structure.size() / 2);
+                        int x = j - (row.length() / 2);
+                        int z = i - (structure.size() / 2);
 
                         // Couche de surface
-                        world.getBlockAt(x, centerY, z).setType(material);
+                        builder.set(x, 0, z, material);
 
                         // Couche de base si nécessaire
                         if (material == Material.GRASS_BLOCK || material.name().contains("DIRT")) {
-                            world.getBlockAt(x, centerY - 1, z).setType(Material.DIRT);
+                            builder.set(x, -1, z, Material.DIRT);
                         }
                     }
                 }
@@ -266,210 +340,136 @@ public class SchematicManager {
         }
     }
 
-    private void generateSpecialItems(Location center, SchematicData schematic) {
+    private void generateSpecialItems(CompiledSchematic.Builder builder, SchematicData schematic) {
         // Arbre ou végétation selon le type
         switch (schematic.getId()) {
-            case "classic" -> generateOakTree(center.clone().add(2, 1, 2));
-            case "desert" -> generateCactus(center.clone().add(-2, 1, -2));
-            case "jungle" -> generateJungleTree(center.clone().add(2, 1, 2));
-            case "snow" -> generateSpruceTree(center.clone().add(2, 1, 2));
-            case "mushroom" -> generateGiantMushroom(center.clone().add(2, 1, 2));
+            case "classic" -> generateOakTree(builder, 2, 1, 2);
+            case "desert" -> generateCactus(builder, -2, 1, -2);
+            case "jungle" -> generateJungleTree(builder, 2, 1, 2, new Random(schematic.getId().hashCode()));
+            case "snow" -> generateSpruceTree(builder, 2, 1, 2);
+            case "mushroom" -> generateGiantMushroom(builder, 2, 1, 2);
         }
 
-        // Coffre avec objets de départ
-        generateStarterChest(center.clone().add(-2, 1, -2), schematic.getChestItems());
+        // Coffre de départ (rempli après le collage)
+        builder.set(CHEST_X, CHEST_Y, CHEST_Z, Material.CHEST);
     }
 
     // === GÉNÉRATION D'ARBRES ET VÉGÉTATION ===
 
-    private void generateOakTree(Location location) {
-        World world = location.getWorld();
-        if (world == null) return;
-
+    private void generateOakTree(CompiledSchematic.Builder builder, int x, int y, int z) {
         // Tronc
         for (int i = 0; i < 4; i++) {
-            world.getBlockAt(location.getBlockX(), location.getBlockY() + i, location.getBlockZ())
-                    .setType(Material.OAK_LOG);
+            builder.set(x, y + i, z, Material.OAK_LOG);
         }
 
         // Feuilles
-        generateLeaves(location.clone().add(0, 3, 0), Material.OAK_LEAVES, 2);
+        generateLeaves(builder, x, y + 3, z, Material.OAK_LEAVES, 2);
     }
 
-    private void generateJungleTree(Location location) {
-        World world = location.getWorld();
-        if (world == null) return;
-
+    private void generateJungleTree(CompiledSchematic.Builder builder, int x, int y, int z, Random random) {
         // Tronc plus grand
         for (int i = 0; i < 6; i++) {
-            world.getBlockAt(location.getBlockX(), location.getBlockY() + i, location.getBlockZ())
-                    .setType(Material.JUNGLE_LOG);
+            builder.set(x, y + i, z, Material.JUNGLE_LOG);
         }
 
         // Feuilles de jungle
-        generateLeaves(location.clone().add(0, 5, 0), Material.JUNGLE_LEAVES, 3);
+        generateLeaves(builder, x, y + 5, z, Material.JUNGLE_LEAVES, 3);
 
         // Quelques lianes
-        generateVines(location);
+        generateVines(builder, x, y, z, random);
     }
 
-    private void generateSpruceTree(Location location) {
-        World world = location.getWorld();
-        if (world == null) return;
-
+    private void generateSpruceTree(CompiledSchematic.Builder builder, int x, int y, int z) {
         // Tronc
         for (int i = 0; i < 5; i++) {
-            world.getBlockAt(location.getBlockX(), location.getBlockY() + i, location.getBlockZ())
-                    .setType(Material.SPRUCE_LOG);
+            builder.set(x, y + i, z, Material.SPRUCE_LOG);
         }
 
         // Feuilles en forme de sapin
-        generateSpruceLeaves(location.clone().add(0, 4, 0));
+        generateSpruceLeaves(builder, x, y + 4, z);
     }
 
-    private void generateCactus(Location location) {
-        World world = location.getWorld();
-        if (world == null) return;
-
+    private void generateCactus(CompiledSchematic.Builder builder, int x, int y, int z) {
         // Placer du sable sous le cactus
-        world.getBlockAt(location.getBlockX(), location.getBlockY() - 1, location.getBlockZ())
-                .setType(Material.SAND);
+        builder.set(x, y - 1, z, Material.SAND);
 
         // Cactus de 3 blocs
         for (int i = 0; i < 3; i++) {
-            world.getBlockAt(location.getBlockX(), location.getBlockY() + i, location.getBlockZ())
-                    .setType(Material.CACTUS);
+            builder.set(x, y + i, z, Material.CACTUS);
         }
     }
 
-    private void generateGiantMushroom(Location location) {
-        World world = location.getWorld();
-        if (world == null) return;
-
+    private void generateGiantMushroom(CompiledSchematic.Builder builder, int x, int y, int z) {
         // Tige
         for (int i = 0; i < 3; i++) {
-            world.getBlockAt(location.getBlockX(), location.getBlockY() + i, location.getBlockZ())
-                    .setType(Material.MUSHROOM_STEM);
+            builder.set(x, y + i, z, Material.MUSHROOM_STEM);
         }
 
         // Chapeau de champignon
-        generateMushroomCap(location.clone().add(0, 3, 0));
+        generateMushroomCap(builder, x, y + 3, z);
     }
 
-    private void generateLeaves(Location center, Material leafType, int radius) {
-        World world = center.getWorld();
-        if (world == null) return;
-
+    private void generateLeaves(CompiledSchematic.Builder builder, int centerX, int centerY, int centerZ, Material leafType, int radius) {
         for (int x = -radius; x <= radius; x++) {
             for (int z = -radius; z <= radius; z++) {
                 for (int y = -1; y <= 1; y++) {
                     double distance = Math.sqrt(x * x + z * z);
                     if (distance <= radius && (x != 0 || z != 0 || y != 0)) {
-                        Block block = world.getBlockAt(center.getBlockX() + x, center.getBlockY() + y, center.getBlockZ() + z);
-                        if (block.getType() == Material.AIR) {
-                            block.setType(leafType);
-                        }
+                        builder.setIfAir(centerX + x, centerY + y, centerZ + z, leafType);
                     }
                 }
             }
         }
     }
 
-    private void generateSpruceLeaves(Location top) {
-        World world = top.getWorld();
-        if (world == null) return;
-
+    private void generateSpruceLeaves(CompiledSchematic.Builder builder, int topX, int topY, int topZ) {
         // Forme de sapin (pyramide)
         for (int layer = 0; layer <= 2; layer++) {
             int radius = layer + 1;
             for (int x = -radius; x <= radius; x++) {
                 for (int z = -radius; z <= radius; z++) {
                     if (Math.abs(x) == radius || Math.abs(z) == radius) {
-                        Block block = world.getBlockAt(top.getBlockX() + x, top.getBlockY() - layer, top.getBlockZ() + z);
-                        if (block.getType() == Material.AIR) {
-                            block.setType(Material.SPRUCE_LEAVES);
-                        }
+                        builder.setIfAir(topX + x, topY - layer, topZ + z, Material.SPRUCE_LEAVES);
                     }
                 }
             }
         }
     }
 
-    private void generateVines(Location treeLocation) {
-        World world = treeLocation.getWorld();
-        if (world == null) return;
-
-        Random random = new Random();
-
-        // Quelques lianes aléatoires autour de l'arbre
+    private void generateVines(CompiledSchematic.Builder builder, int treeX, int treeY, int treeZ, Random random) {
+        // Quelques lianes autour de l'arbre (tirées une fois à la compilation)
         for (int i = 0; i < 3; i++) {
-            int x = treeLocation.getBlockX() + random.nextInt(5) - 2;
-            int z = treeLocation.getBlockZ() + random.nextInt(5) - 2;
-            int y = treeLocation.getBlockY() + 2 + random.nextInt(3);
+            int x = treeX + random.nextInt(5) - 2;
+            int z = treeZ + random.nextInt(5) - 2;
+            int y = treeY + 2 + random.nextInt(3);
 
-            Block block = world.getBlockAt(x, y, z);
-            if (block.getType() == Material.AIR) {
-                block.setType(Material.VINE);
-            }
+            builder.setIfAir(x, y, z, Material.VINE);
         }
     }
 
-    private void generateMushroomCap(Location center) {
-        World world = center.getWorld();
-        if (world == null) return;
-
+    private void generateMushroomCap(CompiledSchematic.Builder builder, int centerX, int centerY, int centerZ) {
         // Chapeau de champignon 3x3
         for (int x = -1; x <= 1; x++) {
             for (int z = -1; z <= 1; z++) {
-                world.getBlockAt(center.getBlockX() + x, center.getBlockY(), center.getBlockZ() + z)
-                        .setType(Material.RED_MUSHROOM_BLOCK);
+                builder.set(centerX + x, centerY, centerZ + z, Material.RED_MUSHROOM_BLOCK);
             }
         }
     }
 
-    private void generateStarterChest(Location location, List<String> items) {
+    private void fillStarterChest(Location location, List<ItemStack> contents) {
         World world = location.getWorld();
-        if (world == null) return;
+        if (world == null || contents.isEmpty()) return;
 
-        world.getBlockAt(location).setType(Material.CHEST);
-
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                Block block = world.getBlockAt(location);
-                if (block.getState() instanceof Chest chest) {
-                    for (String itemString : items) {
-                        try {
-                            String[] parts = itemString.split(":");
-                            Material material = Material.valueOf(parts[0]);
-                            int amount = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
-
-                            chest.getInventory().addItem(new ItemStack(material, amount));
-                        } catch (Exception e) {
-                            plugin.getLogger().warning("Objet invalide dans le coffre: " + itemString);
-                        }
-                    }
-                }
+        Block block = world.getBlockAt(location);
+        if (block.getState() instanceof Chest chest) {
+            for (ItemStack item : contents) {
+                chest.getInventory().addItem(item.clone());
             }
-        }.runTaskLater(plugin, 2L);
+        }
     }
 
     // === MÉTHODES UTILITAIRES ===
 
-    private void clearArea(Location center, int radius) {
-        World world = center.getWorld();
-        if (world == null) return;
-
-        for (int x = -radius; x <= radius; x++) {
-            for (int y = -5; y <= 20; y++) {
-                for (int z = -radius; z <= radius; z++) {
-                    world.getBlockAt(center.getBlockX() + x, center.getBlockY() + y, center.getBlockZ() + z)
-                            .setType(Material.AIR);
-                }
-            }
-        }
-    }
-
     private void setBiome(Location center, int size, Biome biome) {
         World world = center.getWorld();
         if (world == null) return;
@@ -482,6 +482,10 @@ public class SchematicManager {
         }
     }
 
+    public String getPasteStatistics() {
+        return paster.getStatistics();
+    }
+
     // === GETTERS PUBLICS ===
 
     public List<String> getAvailableSchematics() {
@@ -625,6 +629,12 @@ public class SchematicManager {
         private Map<Character, Material> materials;
         private Biome biome;
         private List<String> chestItems;
+        // Fichier .schem optionnel (dossier schematics) et hauteur de sa couche la plus basse
+        private String schemFile;
+        private int schemOffsetY = -4;
+        // Forme compilée et contenu du coffre, calculés une fois au chargement
+        private CompiledSchematic compiled;
+        private List<ItemStack> chestContents = new ArrayList<>();
 
         public SchematicData() {
             this.materials = new HashMap<>();
@@ -641,6 +651,8 @@ public class SchematicManager {
             data.setDescription(section.getStringList("description"));
             data.setStructure(section.getStringList("structure"));
             data.setChestItems(section.getStringList("chest_items"));
+            data.setSchemFile(section.getString("file"));
+            data.setSchemOffsetY(section.getInt("offset-y", -4));
 
             String biomeName = section.getString("biome");
             if (biomeName != null) {
@@ -693,5 +705,17 @@ public class SchematicManager {
 
         public List<String> getChestItems() { return chestItems; }
         public void setChestItems(List<String> chestItems) { this.chestItems = chestItems; }
+
+        public String getSchemFile() { return schemFile; }
+        public void setSchemFile(String schemFile) { this.schemFile = schemFile; }
+
+        public int getSchemOffsetY() { return schemOffsetY; }
+        public void setSchemOffsetY(int schemOffsetY) { this.schemOffsetY = schemOffsetY; }
+
+        public CompiledSchematic getCompiled() { return compiled; }
+        public void setCompiled(CompiledSchematic compiled) { this.compiled = compiled; }
+
+        public List<ItemStack> getChestContents() { return chestContents; }
+        public void setChestContents(List<ItemStack> chestContents) { this.chestContents = chestContents; }
     }
 }
\ No newline at end of file
@@ -0,0 +1,244 @@
+package fr.skyblock.managers;
+
+import fr.skyblock.CustomSkyblock;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.util.BoundingBox;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+
+/**
+ * Collage des schematics compilés avec un budget par tick
+ * <p>
+ * Chaque tick, les collages en attente avancent section par section jusqu'à blocks-per-tick blocs ou
+ * max-tick-millis ms. La zone est d'abord nettoyée chunk par chunk : les sections vides (d'après un
+ * ChunkSnapshot) sont ignorées. Les mesures (blocs/ms, ticks, pire tick) sont journalisées à chaque collage.
+ * Utilisé uniquement depuis le thread principal.
+ */
+public class SchematicPaster {
+
+    private final CustomSkyblock plugin;
+    private final int blocksPerTick;
+    private final long maxTickNanos;
+    private final Deque<PasteJob> jobs = new ArrayDeque<>();
+    private boolean running = false;
+
+    // Statistiques cumulées
+    private long pastes = 0;
+    private long pastedBlocks = 0;
+    private long pasteNanos = 0;
+    private long worstTickNanos = 0;
+
+    public SchematicPaster(CustomSkyblock plugin) {
+        this.plugin = plugin;
+        this.blocksPerTick = Math.max(64, plugin.getConfig().getInt("advanced.schematic-paste.blocks-per-tick", 4096));
+        this.maxTickNanos = (long) (Math.max(0.5, plugin.getConfig().getDouble("advanced.schematic-paste.max-tick-millis", 5.0)) * 1_000_000);
+    }
+
+    /**
+     * Programme le collage d'un schematic : nettoyage de clearArea (coordonnées absolues) puis pose des blocs
+     * autour de origin. onComplete est toujours appelé sur le thread principal à la fin du collage, avec true si
+     * tous les blocs ont été posés et false si le collage a échoué (monde absent, erreur).
+     */
+    public void paste(CompiledSchematic schematic, Location origin, BoundingBox clearArea, Consumer<Boolean> onComplete) {
+        jobs.add(new PasteJob(schematic, origin, clearArea, onComplete));
+        if (!running) {
+            running = true;
+            new BukkitRunnable() {
+                @Override
+                public void run() {
+                    tick();
+                    if (jobs.isEmpty()) {
+                        running = false;
+                        cancel();
+                    }
+                }
+            }.runTaskTimer(plugin, 1L, 1L);
+        }
+    }
+
+    private void tick() {
+        long start = System.nanoTime();
+        long deadline = start + maxTickNanos;
+        int budget = blocksPerTick;
+
+        while (budget > 0 && !jobs.isEmpty() && System.nanoTime() < deadline) {
+            PasteJob job = jobs.peek();
+            long jobStart = System.nanoTime();
+            int used;
+            try {
+                used = job.step(budget, deadline);
+            } catch (Exception e) {
+                plugin.getLogger().warning("Erreur lors du collage du schematic " + job.schematic.getId() + ": " + e.getMessage());
+                job.failed = true;
+                used = 0;
+            }
+            job.recordStep(System.nanoTime() - jobStart);
+            budget -= Math.max(1, used);
+
+            if (job.isDone()) {
+                jobs.poll();
+                finish(job);
+            }
+        }
+
+        worstTickNanos = Math.max(worstTickNanos, System.nanoTime() - start);
+    }
+
+    private void finish(PasteJob job) {
+        pastes++;
+        pastedBlocks += job.placed;
+        pasteNanos += job.activeNanos;
+
+        plugin.getLogger().info(String.format("Schematic %s collé : %d blocs (%d nettoyés) en %d ticks, %.1f blocs/ms, pire tick %.2f ms",
+                job.schematic.getId(), job.placed, job.cleared, job.ticks, blocksPerMilli(job.placed, job.activeNanos),
+                job.worstTickNanos / 1_000_000.0));
+
+        if (job.onComplete != null) {
+            try {
+                job.onComplete.accept(!job.failed);
+            } catch (Exception e) {
+                plugin.getLogger().warning("Erreur après le collage du schematic " + job.schematic.getId() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static double blocksPerMilli(long blocks, long nanos) {
+        return nanos == 0 ? 0.0 : blocks * 1_000_000.0 / nanos;
+    }
+
+    public String getStatistics() {
+        return String.format("collages %d, %d blocs, %.1f blocs/ms, pire tick %.2f ms, en attente %d",
+                pastes, pastedBlocks, blocksPerMilli(pastedBlocks, pasteNanos), worstTickNanos / 1_000_000.0, jobs.size());
+    }
+
+    /**
+     * Collage en cours : nettoyage chunk par chunk, puis blocs section par section
+     */
+    private static final class PasteJob {
+        private final CompiledSchematic schematic;
+        private final World world;
+        private final int originX, originY, originZ;
+        private final BoundingBox clearArea;
+        private final Consumer<Boolean> onComplete;
+
+        private final int minChunkX, maxChunkX, minChunkZ, maxChunkZ;
+        private int clearChunk = 0;
+        private int section = 0;
+        private int index = 0;
+
+        private long placed = 0;
+        private long cleared = 0;
+        private long activeNanos = 0;
+        private long worstTickNanos = 0;
+        private long tickNanos = 0;
+        private int ticks = 0;
+        private int lastTick = -1;
+        private boolean failed = false;
+
+        private PasteJob(CompiledSchematic schematic, Location origin, BoundingBox clearArea, Consumer<Boolean> onComplete) {
+            this.schematic = schematic;
+            this.world = origin.getWorld();
+            this.originX = origin.getBlockX();
+            this.originY = origin.getBlockY();
+            this.originZ = origin.getBlockZ();
+            this.clearArea = clearArea;
+            this.onComplete = onComplete;
+            this.minChunkX = clearArea == null ? 0 : (int) Math.floor(clearArea.getMinX()) >> 4;
+            this.maxChunkX = clearArea == null ? -1 : (int) Math.floor(clearArea.getMaxX()) >> 4;
+            this.minChunkZ = clearArea == null ? 0 : (int) Math.floor(clearArea.getMinZ()) >> 4;
+            this.maxChunkZ = clearArea == null ? -1 : (int) Math.floor(clearArea.getMaxZ()) >> 4;
+            this.failed = world == null;
+        }
+
+        private int clearChunkCount() {
+            return (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+        }
+
+        private boolean isDone() {
+            return failed || (clearChunk >= clearChunkCount() && section >= schematic.getSectionCount());
+        }
+
+        /**
+         * Avance le collage ; retourne le nombre de blocs traités
+         */
+        private int step(int budget, long deadline) {
+            if (clearChunk < clearChunkCount()) {
+                return clearNextChunk();
+            }
+
+            int done = 0;
+            while (section < schematic.getSectionCount() && done < budget) {
+                int end = schematic.getSectionEnd(section);
+                for (; index < end && done < budget; index++, done++) {
+                    long block = schematic.getBlock(index);
+                    world.getBlockAt(originX + CompiledSchematic.x(block), originY + CompiledSchematic.y(block),
+                            originZ + CompiledSchematic.z(block)).setBlockData(schematic.getBlockData(block), false);
+                    placed++;
+                    if ((done & 63) == 63 && System.nanoTime() >= deadline) {
+                        index++;
+                        return done + 1;
+                    }
+                }
+                if (index >= end) {
+                    section++;
+                }
+            }
+            return done;
+        }
+
+        private int clearNextChunk() {
+            int width = maxChunkX - minChunkX + 1;
+            int chunkX = minChunkX + clearChunk % width;
+            int chunkZ = minChunkZ + clearChunk / width;
+            clearChunk++;
+
+            Chunk chunk = world.getChunkAt(chunkX, chunkZ);
+            ChunkSnapshot snapshot = chunk.getChunkSnapshot(false, false, false);
+
+            int minX = Math.max(chunkX << 4, (int) Math.floor(clearArea.getMinX()));
+            int maxX = Math.min((chunkX << 4) + 15, (int) Math.floor(clearArea.getMaxX()));
+            int minZ = Math.max(chunkZ << 4, (int) Math.floor(clearArea.getMinZ()));
+            int maxZ = Math.min((chunkZ << 4) + 15, (int) Math.floor(clearArea.getMaxZ()));
+            int minY = Math.max(world.getMinHeight(), (int) Math.floor(clearArea.getMinY()));
+            int maxY = Math.min(world.getMaxHeight() - 1, (int) Math.floor(clearArea.getMaxY()));
+
+            int visited = 1;
+            for (int sectionY = minY >> 4; sectionY <= maxY >> 4; sectionY++) {
+                if (snapshot.isSectionEmpty(sectionY - (world.getMinHeight() >> 4))) continue;
+
+                for (int y = Math.max(minY, sectionY << 4); y <= Math.min(maxY, (sectionY << 4) + 15); y++) {
+                    for (int x = minX; x <= maxX; x++) {
+                        for (int z = minZ; z <= maxZ; z++) {
+                            visited++;
+                            if (!snapshot.getBlockType(x & 15, y, z & 15).isAir()) {
+                                chunk.getBlock(x & 15, y, z & 15).setType(Material.AIR, false);
+                                cleared++;
+                            }
+                        }
+                    }
+                }
+            }
+            return visited;
+        }
+
+        private void recordStep(long nanos) {
+            activeNanos += nanos;
+            int currentTick = Bukkit.getCurrentTick();
+            if (currentTick != lastTick) {
+                lastTick = currentTick;
+                ticks++;
+                tickNanos = 0;
+            }
+            tickNanos += nanos;
+            worstTickNanos = Math.max(worstTickNanos, tickNanos);
+        }
+    }
+}
@@ -16,30 +16,43 @@ import org.mvplugins.multiverse.external.jetbrains.annotations.NotNull;
 import org.mvplugins.multiverse.external.vavr.control.Option;
 
 import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.Map;
 
 public class WorldManager {
 
+    // Réglages du générateur plat utilisé quand le générateur de monde vide est absent
+    static final String FALLBACK_GENERATOR_SETTINGS = "3;minecraft:air;127;";
+
     private final CustomSkyblock plugin;
     private final Map<UUID, String> islandWorlds = new ConcurrentHashMap<>();
     private final String worldPrefix = "island_";
     // Sous-dossier pour stocker physiquement les mondes d'îles (ex: islands/island_<uuid>)
     private final String islandsFolder;
-    // Suivi d'activité et déchargement
-    private final Map<String, Long> lastPlayerLeftAt = new ConcurrentHashMap<>();
-    private final long unloadAfterMillis;
+    // Suivi d'activité, mise en veille et préchargement
+    private final IslandWorldHibernator hibernator;
+    private final IslandWorldPool worldPool;
+
+    // Latences mesurées : création de monde (réserve ou génération), visite complète (chargements : voir hibernator)
+    private final LongAdder pooledCreations = new LongAdder();
+    private final LongAdder generatedCreations = new LongAdder();
+    private final LongAdder creationNanos = new LongAdder();
+    private final LongAdder visits = new LongAdder();
+    private final LongAdder visitNanos = new LongAdder();
 
     public WorldManager(CustomSkyblock plugin) {
         this.plugin = plugin;
         this.islandsFolder = plugin.getConfig().getString("island.worlds-folder", "islands");
-        int minutes = plugin.getConfig().getInt("advanced.auto-unload-minutes", 30);
-        this.unloadAfterMillis = Math.max(1, minutes) * 60L * 1000L;
         ensureIslandsFolder();
+        this.hibernator = new IslandWorldHibernator(plugin, this);
+        this.worldPool = new IslandWorldPool(plugin, this, islandsFolder);
         loadExistingWorlds();
         unloadIdleIslandWorldsOnStartup();
-        startAutoUnloadTask();
+        hibernator.start();
     }
 
     private void ensureIslandsFolder() {
@@ -51,62 +64,30 @@ public class WorldManager {
 
     /**
      * Crée un nouveau monde pour une île
+     * Un monde de la réserve pré-générée est utilisé en priorité, sinon le monde est généré immédiatement.
      */
     public World createIslandWorld(Island island) {
         String worldName = islandsFolder + "/" + worldPrefix + island.getId().toString();
+        long start = System.nanoTime();
 
         try {
             org.mvplugins.multiverse.core.world.@NotNull WorldManager mvWorldManager = plugin.getMultiverseCoreApi().getWorldManager();
 
-            // CORRECTION : Configuration améliorée pour éviter les erreurs de génération
-            CreateWorldOptions options = CreateWorldOptions.worldName(worldName)
-                    .environment(World.Environment.NORMAL)
-                    .worldType(WorldType.FLAT)
-                    .generateStructures(false)
-                    .seed(0L); // Seed fixe pour éviter les erreurs
-
-            // CORRECTION : Essayer avec un générateur par défaut d'abord
-            String voidGenerator = plugin.getConfig().getString("advanced.void-generator", "VoidWorldGenerator");
-
-            // Vérifier si le générateur existe
-            if (plugin.getServer().getPluginManager().getPlugin(voidGenerator) != null) {
-                options = options.generator(voidGenerator);
-                plugin.getLogger().info("Utilisation du générateur: " + voidGenerator);
-            } else {
-                plugin.getLogger().warning("Générateur " + voidGenerator + " non trouvé, utilisation du générateur par défaut");
-                // Utiliser un générateur plat personnalisé
-                options = options.generatorSettings("3;minecraft:air;127;");
-            }
-
-            Attempt<LoadedMultiverseWorld, CreateFailureReason> result = mvWorldManager.createWorld(options);
-
-            if (result.isFailure()) {
-                Message failureMessage = result.getFailureMessage();
-                plugin.getLogger().severe("Échec de création du monde " + worldName + ": " + failureMessage);
-                return null;
-            }
-
-            // Récupérer le monde créé
-            LoadedMultiverseWorld loadedWorld = result.get();
-            World world = loadedWorld.getBukkitWorld().getOrNull();
-
+            World world = worldPool.claim(worldName) ? importPooledWorld(mvWorldManager, worldName) : null;
+            boolean pooled = world != null;
             if (world == null) {
-                plugin.getLogger().severe("Monde " + worldName + " créé mais introuvable !");
-                return null;
+                world = generateIslandWorld(mvWorldManager, worldName);
+                if (world == null) {
+                    return null;
+                }
             }
 
-            // CORRECTION : Configuration du monde améliorée
-            setupWorldSettings(world);
             islandWorlds.put(island.getId(), worldName);
 
             // Mettre à jour la location du centre avec le vrai monde
             Location newCenter = new Location(world, 0, 64, 0);
             island.setCenter(newCenter);
-
-            plugin.getLogger().info("Monde créé avec succès pour l'île " + island.getId() + " : " + worldName);
-
-            // CORRECTION : Nettoyer le terrain et préparer le spawn
-            prepareWorldForIsland(world);
+            plugin.getIslandLocator().invalidate(island.getId());
 
             // Désactiver l'auto-load pour ce monde dans Multiverse
             try {
@@ -114,6 +95,12 @@ public class WorldManager {
             } catch (Exception ignored) {
             }
 
+            long elapsed = System.nanoTime() - start;
+            (pooled ? pooledCreations : generatedCreations).increment();
+            creationNanos.add(elapsed);
+            plugin.getLogger().info("Monde créé avec succès pour l'île " + island.getId() + " : " + worldName
+                    + (pooled ? " (réserve, " : " (") + elapsed / 1_000_000 + " ms)");
+
             return world;
 
         } catch (Exception e) {
@@ -123,6 +110,94 @@ public class WorldManager {
         }
     }
 
+    /**
+     * Génère un monde d'île via Multiverse (réserve vide)
+     */
+    private World generateIslandWorld(org.mvplugins.multiverse.core.world.@NotNull WorldManager mvWorldManager, String worldName) {
+        // CORRECTION : Configuration améliorée pour éviter les erreurs de génération
+        CreateWorldOptions options = CreateWorldOptions.worldName(worldName)
+                .environment(World.Environment.NORMAL)
+                .worldType(WorldType.FLAT)
+                .generateStructures(false)
+                .seed(0L); // Seed fixe pour éviter les erreurs
+
+        // CORRECTION : Essayer avec un générateur par défaut d'abord
+        String voidGenerator = getVoidGenerator();
+        if (voidGenerator != null) {
+            options = options.generator(voidGenerator);
+            plugin.getLogger().info("Utilisation du générateur: " + voidGenerator);
+        } else {
+            plugin.getLogger().warning("Générateur " + plugin.getConfig().getString("advanced.void-generator", "VoidWorldGenerator")
+                    + " non trouvé, utilisation du générateur par défaut");
+            // Utiliser un générateur plat personnalisé
+            options = options.generatorSettings(FALLBACK_GENERATOR_SETTINGS);
+        }
+
+        Attempt<LoadedMultiverseWorld, CreateFailureReason> result = mvWorldManager.createWorld(options);
+
+        if (result.isFailure()) {
+            Message failureMessage = result.getFailureMessage();
+            plugin.getLogger().severe("Échec de création du monde " + worldName + ": " + failureMessage);
+            return null;
+        }
+
+        // Récupérer le monde créé
+        World world = result.get().getBukkitWorld().getOrNull();
+        if (world == null) {
+            plugin.getLogger().severe("Monde " + worldName + " créé mais introuvable !");
+            return null;
+        }
+
+        prepareIslandWorld(world);
+        return world;
+    }
+
+    /**
+     * Charge un monde de la réserve dont le dossier vient d'être renommé pour l'île
+     */
+    private World importPooledWorld(org.mvplugins.multiverse.core.world.@NotNull WorldManager mvWorldManager, String worldName) {
+        org.mvplugins.multiverse.core.world.options.ImportWorldOptions options =
+                org.mvplugins.multiverse.core.world.options.ImportWorldOptions.worldName(worldName)
+                        .environment(World.Environment.NORMAL);
+        String voidGenerator = getVoidGenerator();
+        if (voidGenerator != null) {
+            options = options.generator(voidGenerator);
+        }
+
+        Attempt<LoadedMultiverseWorld, org.mvplugins.multiverse.core.world.reasons.ImportFailureReason> result =
+                mvWorldManager.importWorld(options);
+        if (result.isFailure()) {
+            plugin.getLogger().warning("Échec du chargement du monde de réserve " + worldName + " : " + result.getFailureMessage());
+            deleteWorldFiles(worldName);
+            return null;
+        }
+
+        World world = result.get().getBukkitWorld().getOrNull();
+        if (world != null) {
+            // Réglages non conservés avec le monde
+            world.setKeepSpawnInMemory(false);
+        }
+        return world;
+    }
+
+    /**
+     * Générateur de monde vide configuré, ou null s'il n'est pas installé
+     */
+    String getVoidGenerator() {
+        String voidGenerator = plugin.getConfig().getString("advanced.void-generator", "VoidWorldGenerator");
+        return plugin.getServer().getPluginManager().getPlugin(voidGenerator) != null ? voidGenerator : null;
+    }
+
+    /**
+     * Configure un monde d'île fraîchement généré et pose la plateforme de spawn
+     */
+    void prepareIslandWorld(World world) {
+        // CORRECTION : Configuration du monde améliorée
+        setupWorldSettings(world);
+        // CORRECTION : Nettoyer le terrain et préparer le spawn
+        prepareWorldForIsland(world);
+    }
+
     /**
      * Supprime le monde d'une île
      */
@@ -350,15 +425,46 @@ public class WorldManager {
                 Bukkit.getWorld(islandWorlds.get(island.getId())) != null;
     }
 
+    /**
+     * Îles dont le monde est actuellement chargé (même critère que hasWorld, sans charger les îles)
+     */
+    public Set<UUID> getIslandsWithLoadedWorld() {
+        Set<UUID> islandIds = new HashSet<>();
+        islandWorlds.forEach((islandId, worldName) -> {
+            if (Bukkit.getWorld(worldName) != null) {
+                islandIds.add(islandId);
+            }
+        });
+        return islandIds;
+    }
+
     /**
      * Récupère le monde d'une île ou le crée s'il n'existe pas
      */
     public World getOrCreateIslandWorld(Island island) {
         World world = getIslandWorld(island);
         if (world != null) return world;
+        return loadIslandWorld(island, false);
+    }
 
+    /**
+     * Charge à l'avance le monde existant d'une île (jamais de création) : la visite suivante ne le chargera pas
+     */
+    public void preloadIslandWorld(Island island) {
+        World world = getIslandWorld(island);
+        if (world != null) {
+            hibernator.touch(world.getName());
+            return;
+        }
+        if (new File(Bukkit.getWorldContainer(), islandsFolder + "/" + worldPrefix + island.getId()).exists()) {
+            loadIslandWorld(island, true);
+        }
+    }
+
+    private World loadIslandWorld(Island island, boolean preload) {
         // Si un dossier de monde existe, tenter import/chargement via Multiverse plutôt que recréer
         String worldName = islandsFolder + "/" + worldPrefix + island.getId();
+        long start = System.nanoTime();
         try {
             org.mvplugins.multiverse.core.world.@NotNull WorldManager mvWorldManager = plugin.getMultiverseCoreApi().getWorldManager();
             Option<MultiverseWorld> mvWorldOpt = mvWorldManager.getWorld(worldName);
@@ -387,7 +493,31 @@ public class WorldManager {
             plugin.getLogger().warning("Erreur lors de la (re)mise à disposition du monde d'île: " + e.getMessage());
         }
 
-        return getIslandWorld(island);
+        World world = getIslandWorld(island);
+        if (world != null) {
+            hibernator.recordLoad(world.getName(), System.nanoTime() - start, preload);
+        }
+        return world;
+    }
+
+    /**
+     * Enregistre la durée d'une visite (demande de téléportation jusqu'à l'arrivée du joueur)
+     */
+    public void recordVisit(long nanos) {
+        visits.increment();
+        visitNanos.add(nanos);
+    }
+
+    public String getWorldStatistics() {
+        long creations = pooledCreations.sum() + generatedCreations.sum();
+        return String.format("créations %d (réserve %d) moy. %d ms, visites %d moy. %d ms | %s | %s",
+                creations, pooledCreations.sum(), average(creationNanos, creations),
+                visits.sum(), average(visitNanos, visits.sum()),
+                hibernator.getStatistics(), worldPool.getStatistics());
+    }
+
+    private static long average(LongAdder nanos, long count) {
+        return count == 0 ? 0 : nanos.sum() / count / 1_000_000;
     }
 
     /**
@@ -450,86 +580,57 @@ public class WorldManager {
 
     public void markPlayerLeft(String worldName) {
         if (isIslandWorld(worldName)) {
-            lastPlayerLeftAt.put(worldName, System.currentTimeMillis());
+            hibernator.markPlayerLeft(worldName);
         }
     }
 
     public void markPlayerEntered(String worldName) {
         if (isIslandWorld(worldName)) {
-            lastPlayerLeftAt.remove(worldName);
+            hibernator.markPlayerEntered(worldName);
         }
     }
 
-    private void startAutoUnloadTask() {
-        // Vérifie toutes les minutes et décharge les mondes d'îles inactifs depuis 30 minutes
-        Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            try {
-                org.mvplugins.multiverse.core.world.@NotNull WorldManager mvWorldManager = plugin.getMultiverseCoreApi().getWorldManager();
-                long now = System.currentTimeMillis();
-                for (Map.Entry<UUID, String> entry : islandWorlds.entrySet()) {
-                    String worldName = entry.getValue();
-                    World bukkitWorld = Bukkit.getWorld(worldName);
-                    if (bukkitWorld == null) continue; // déjà déchargé
-                    if (!bukkitWorld.getPlayers().isEmpty()) continue; // encore utilisé
-
-                    long last = lastPlayerLeftAt.getOrDefault(worldName, now);
-                    // si pas de timestamp, initialise maintenant pour laisser 30min
-                    if (!lastPlayerLeftAt.containsKey(worldName)) {
-                        lastPlayerLeftAt.put(worldName, now);
-                        continue;
-                    }
+    public IslandWorldHibernator getHibernator() {
+        return hibernator;
+    }
 
-                    if (now - last >= unloadAfterMillis) {
-                        // Sauvegarder l'île avant de décharger le monde
-                        UUID islandId = entry.getKey();
-                        Island island = plugin.getDatabaseManager().loadIsland(islandId);
-                        if (island != null) {
-                            plugin.getDatabaseManager().forceSaveIsland(island);
-                            plugin.getLogger().info("Île sauvegardée avant déchargement: " + islandId);
-                        }
-                        
-                        // Décharger via Multiverse (sauvegarde true)
-                        mvWorldManager.getLoadedWorld(bukkitWorld).peek(loaded -> {
-                            mvWorldManager.unloadWorld(org.mvplugins.multiverse.core.world.options.UnloadWorldOptions
-                                    .world(loaded)
-                                    .saveBukkitWorld(true)
-                                    .unloadBukkitWorld(true));
-                            plugin.getLogger().info("Monde d'île déchargé pour inactivité: " + worldName);
-                        });
-                        lastPlayerLeftAt.remove(worldName);
-                    }
-                }
-            } catch (Exception e) {
-                plugin.getLogger().warning("Erreur tâche déchargement auto: " + e.getMessage());
-            }
-        }, 20L * 60L, 20L * 60L);
+    /**
+     * Décharge un monde d'île vide après avoir écrit les modifications en attente de son île
+     */
+    boolean unloadIslandWorld(World world, String reason) {
+        String worldName = world.getName();
+        if (!world.getPlayers().isEmpty()) return false;
+
+        // Écrire les modifications en attente tant que le monde (centre de l'île) est chargé
+        UUID islandId = getIslandIdFromWorldName(worldName);
+        if (islandId != null) {
+            plugin.getDatabaseManager().flushIsland(islandId);
+        }
+
+        org.mvplugins.multiverse.core.world.@NotNull WorldManager mvWorldManager = plugin.getMultiverseCoreApi().getWorldManager();
+        Option<LoadedMultiverseWorld> loaded = mvWorldManager.getLoadedWorld(world);
+        if (loaded.isEmpty()) return false;
+
+        Attempt<?, ?> attempt = mvWorldManager.unloadWorld(org.mvplugins.multiverse.core.world.options.UnloadWorldOptions
+                .world(loaded.get())
+                .saveBukkitWorld(true)
+                .unloadBukkitWorld(true));
+        if (attempt.isFailure()) {
+            plugin.getLogger().warning("Échec du déchargement du monde d'île " + worldName + " : " + attempt.getFailureMessage());
+            return false;
+        }
+
+        hibernator.forget(worldName);
+        plugin.getLogger().info("Monde d'île déchargé (" + reason + "): " + worldName);
+        return true;
     }
 
     private void unloadIdleIslandWorldsOnStartup() {
         try {
-            org.mvplugins.multiverse.core.world.@NotNull WorldManager mvWorldManager = plugin.getMultiverseCoreApi().getWorldManager();
             for (World world : Bukkit.getWorlds()) {
-                String worldName = world.getName();
-                if (!isIslandWorld(worldName)) continue;
-                if (!world.getPlayers().isEmpty()) continue;
-
-                // Sauvegarder l'île avant de décharger le monde
-                UUID islandId = getIslandIdFromWorldName(worldName);
-                if (islandId != null) {
-                    Island island = plugin.getDatabaseManager().loadIsland(islandId);
-                    if (island != null) {
-                        plugin.getDatabaseManager().forceSaveIsland(island);
-                        plugin.getLogger().info("Île sauvegardée avant déchargement au démarrage: " + islandId);
-                    }
+                if (isIslandWorld(world.getName())) {
+                    unloadIslandWorld(world, "démarrage, sans joueurs");
                 }
-
-                mvWorldManager.getLoadedWorld(world).peek(loaded -> {
-                    mvWorldManager.unloadWorld(org.mvplugins.multiverse.core.world.options.UnloadWorldOptions
-                            .world(loaded)
-                            .saveBukkitWorld(true)
-                            .unloadBukkitWorld(true));
-                    plugin.getLogger().info("Monde d'île déchargé au démarrage (sans joueurs): " + worldName);
-                });
             }
         } catch (Exception e) {
             plugin.getLogger().warning("Erreur lors du déchargement initial des mondes d'îles: " + e.getMessage());
@@ -160,6 +160,9 @@ public class WarpMenu extends BaseMenu {
             return;
         }
 
+        // Le joueur va probablement s'y téléporter : précharger le monde de l'île
+        plugin.getWorldManager().getHibernator().preload(targetIsland.getId());
+
         Inventory inv = createInventory(36, ChatColor.DARK_GREEN + "Warps de " + target.getName());
 
         // Afficher les warps
@@ -0,0 +1,139 @@
+package fr.skyblock.utils;
+
+import fr.skyblock.managers.CompiledSchematic;
+import org.bukkit.Bukkit;
+import org.bukkit.block.data.BlockData;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Lecture des fichiers .schem (format Sponge v2 et v3, exportés par WorldEdit)
+ * Le volume est centré horizontalement sur le centre de l'île ; sa couche la plus basse est posée à offsetY.
+ */
+public final class SpongeSchematicReader {
+
+    private SpongeSchematicReader() {
+    }
+
+    public static CompiledSchematic.Builder read(String id, File file, int offsetY, Logger logger) throws IOException {
+        Map<String, Object> root;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+            if (in.readByte() != 10) {
+                throw new IOException("Fichier NBT invalide: " + file.getName());
+            }
+            in.readUTF();
+            root = readCompound(in);
+        }
+
+        // v3 : {Schematic: {...}} ; v2 : racine "Schematic"
+        Map<String, Object> schematic = root.get("Schematic") instanceof Map<?, ?> nested ? cast(nested) : root;
+        int width = ((Number) schematic.get("Width")).intValue() & 0xFFFF;
+        int height = ((Number) schematic.get("Height")).intValue() & 0xFFFF;
+        int length = ((Number) schematic.get("Length")).intValue() & 0xFFFF;
+
+        Map<String, Object> blocks = schematic.get("Blocks") instanceof Map<?, ?> v3 ? cast(v3) : schematic;
+        Map<String, Object> paletteTag = cast((Map<?, ?>) blocks.get("Palette"));
+        byte[] data = (byte[]) blocks.get(blocks.containsKey("Data") ? "Data" : "BlockData");
+        if (paletteTag == null || data == null) {
+            throw new IOException("Palette ou blocs absents: " + file.getName());
+        }
+
+        Map<Integer, BlockData> palette = new HashMap<>();
+        for (Map.Entry<String, Object> entry : paletteTag.entrySet()) {
+            try {
+                palette.put(((Number) entry.getValue()).intValue(), Bukkit.createBlockData(entry.getKey()));
+            } catch (IllegalArgumentException e) {
+                logger.warning("Bloc inconnu ignoré dans " + file.getName() + ": " + entry.getKey());
+            }
+        }
+
+        CompiledSchematic.Builder builder = new CompiledSchematic.Builder(id);
+        int index = 0;
+        int position = 0;
+        while (position < data.length) {
+            // Index de palette encodés en varint
+            int value = 0, shift = 0, b;
+            do {
+                b = data[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            BlockData blockData = palette.get(value);
+            if (blockData != null) {
+                int y = index / (width * length);
+                int z = (index % (width * length)) / width;
+                int x = index % width;
+                builder.set(x - width / 2, y + offsetY, z - length / 2, blockData);
+            }
+            index++;
+        }
+        if (index != width * height * length) {
+            throw new IOException("Nombre de blocs incohérent dans " + file.getName());
+        }
+        return builder;
+    }
+
+    // === Lecture NBT minimale ===
+
+    private static Object readPayload(DataInputStream in, byte type) throws IOException {
+        return switch (type) {
+            case 1 -> in.readByte();
+            case 2 -> in.readShort();
+            case 3 -> in.readInt();
+            case 4 -> in.readLong();
+            case 5 -> in.readFloat();
+            case 6 -> in.readDouble();
+            case 7 -> {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                yield bytes;
+            }
+            case 8 -> in.readUTF();
+            case 9 -> {
+                byte elementType = in.readByte();
+                int size = in.readInt();
+                List<Object> list = new ArrayList<>(Math.max(0, size));
+                for (int i = 0; i < size; i++) list.add(readPayload(in, elementType));
+                yield list;
+            }
+            case 10 -> readCompound(in);
+            case 11 -> {
+                int[] ints = new int[in.readInt()];
+                for (int i = 0; i < ints.length; i++) ints[i] = in.readInt();
+                yield ints;
+            }
+            case 12 -> {
+                long[] longs = new long[in.readInt()];
+                for (int i = 0; i < longs.length; i++) longs[i] = in.readLong();
+                yield longs;
+            }
+            default -> throw new IOException("Type NBT inconnu: " + type);
+        };
+    }
+
+    private static Map<String, Object> readCompound(DataInputStream in) throws IOException {
+        Map<String, Object> compound = new HashMap<>();
+        byte type;
+        while ((type = in.readByte()) != 0) {
+            String name = in.readUTF();
+            compound.put(name, readPayload(in, type));
+        }
+        return compound;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> cast(Map<?, ?> map) {
+        return (Map<String, Object>) map;
+    }
+}
@@ -16,6 +16,7 @@ import fr.prisontycoon.events.*;
 import fr.prisontycoon.gui.*;
 import fr.prisontycoon.managers.*;
 import fr.prisontycoon.quests.BlockCollectorManager;
+import fr.prisontycoon.quests.ProgressStore;
 import fr.prisontycoon.quests.QuestManager;
 import fr.prisontycoon.tasks.*;
 import fr.prisontycoon.utils.ChatLogger;
@@ -26,6 +27,7 @@ import org.bukkit.Bukkit;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.PluginCommand;
 import org.bukkit.command.TabCompleter;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 
 /**
@@ -82,6 +84,7 @@ public final class PrisonTycoon extends JavaPlugin {
     private MineOverloadManager mineOverloadManager;
     private QuestManager questManager;
     private BlockCollectorManager blockCollectorManager;
+    private ProgressStore progressStore;
     private ForgeManager forgeManager;
     private DailyRewardManager dailyRewardManager;
     private BattlePassManager battlePassManager;
@@ -168,6 +171,7 @@ public final class PrisonTycoon extends JavaPlugin {
             registerCommands();
 
             PrisonTycoonAPI.initialize(this);
+            getServer().getServicesManager().register(PrisonTycoonAPI.class, PrisonTycoonAPI.getInstance(), this, ServicePriority.Normal);
             chatLogger = new ChatLogger(this);
 
             // Démarrage des tâches
@@ -191,6 +195,14 @@ public final class PrisonTycoon extends JavaPlugin {
         try {
             stopTasks();
 
+            // Billets reçus via hopper pas encore versés : à créditer avant la sauvegarde des joueurs
+            if (depositBoxManager != null) {
+                depositBoxManager.flushHopperCredits();
+            }
+            // Quêtes et collectionneur : écritures différées restantes (avant le déchargement des joueurs)
+            if (progressStore != null) {
+                progressStore.shutdown();
+            }
             if (playerDataManager != null) {
                 playerDataManager.saveAllPlayersSync();
                 logger.info("§aDonnées joueurs sauvegardées.");
@@ -275,6 +287,7 @@ public final class PrisonTycoon extends JavaPlugin {
         warpManager = new WarpManager(this);
         headCollectionManager = new HeadCollectionManager(this);
         mineOverloadManager = new MineOverloadManager(this);
+        progressStore = new ProgressStore(this);
         questManager = new QuestManager(this);
         blockCollectorManager = new BlockCollectorManager(this);
         forgeManager = new ForgeManager(this);
@@ -347,6 +360,7 @@ public final class PrisonTycoon extends JavaPlugin {
         pluginManager.registerEvents(new PluginLoadListener(this), this);
         pluginManager.registerEvents(new MenuHeadProtectionListener(this), this);
         pluginManager.registerEvents(new PrinterListener(this), this);
+        pluginManager.registerEvents(new BonusInvalidationListener(this), this);
         pluginManager.registerEvents(new fr.prisontycoon.events.HopperIntegrationListener(this), this);
         this.headCollectionListener = new HeadCollectionListener(this);
         pluginManager.registerEvents(this.headCollectionListener, this);
@@ -481,7 +495,7 @@ public final class PrisonTycoon extends JavaPlugin {
         autoUpgradeTask.runTaskTimerAsynchronously(this, autoUpgradeInterval, autoUpgradeInterval);
 
         autominerTask = new AutominerTask(this);
-        autominerTask.runTaskTimerAsynchronously(this, 20L, 20L);
+        autominerTask.runTaskTimerAsynchronously(this, 20L, 1L); // Une tranche de joueurs par tick
 
         pickaxeContainerTask = new PickaxeContainerUpdateTask(this);
         pickaxeContainerTask.runTaskTimerAsynchronously(this, 20L, 60L);
@@ -716,6 +730,10 @@ public final class PrisonTycoon extends JavaPlugin {
     }
 
     // --- Tâches ---
+    public AutominerTask getAutominerTask() {
+        return autominerTask;
+    }
+
     public AutoUpgradeTask getAutoUpgradeTask() {
         return autoUpgradeTask;
     }
@@ -871,6 +889,10 @@ public final class PrisonTycoon extends JavaPlugin {
         return blockCollectorManager;
     }
 
+    public ProgressStore getProgressStore() {
+        return progressStore;
+    }
+
     // --- Imprimantes et Caisses de Dépôt ---
     public PrinterManager getPrinterManager() {
         return printerManager;
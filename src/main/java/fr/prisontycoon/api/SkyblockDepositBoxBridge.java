@@ -0,0 +1,33 @@
+package fr.prisontycoon.api;
+
+import fr.prisontycoon.data.DepositBoxData;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Pont typé entre le DepositBoxManager de PrisonTycoon et celui de CustomSkyblock
+ * <p>
+ * Les caisses de dépôt sont échangées sous forme de {@link DepositBoxData} PrisonTycoon.
+ */
+public interface SkyblockDepositBoxBridge extends SkyblockIslandBridge {
+
+    /**
+     * Toutes les caisses de dépôt posées sur les îles
+     */
+    Collection<DepositBoxData> loadDepositBoxes();
+
+    /**
+     * Multiplicateur de vitesse de transfert des hoppers d'une île (amélioration d'île)
+     */
+    double getHopperTransferSpeed(UUID islandId);
+
+    /**
+     * Vérifie la limite de caisses de dépôt d'une île
+     */
+    boolean canPlaceDepositBox(UUID islandId, int currentDepositBoxCount);
+
+    void saveDepositBox(UUID islandId, DepositBoxData depositBox);
+
+    void removeDepositBox(UUID islandId, String depositBoxId);
+}
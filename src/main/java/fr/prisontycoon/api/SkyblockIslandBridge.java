@@ -0,0 +1,34 @@
+package fr.prisontycoon.api;
+
+import org.bukkit.Location;
+
+import java.util.UUID;
+
+/**
+ * Accès typé aux îles de CustomSkyblock, commun aux ponts d'imprimantes et de caisses de dépôt
+ * <p>
+ * Les implémentations sont enregistrées par CustomSkyblock dans le ServicesManager de Bukkit.
+ * Toutes les méthodes sont appelées depuis le thread principal.
+ */
+public interface SkyblockIslandBridge {
+
+    /**
+     * ID de l'île contenant une position (null hors île)
+     */
+    UUID getIslandIdAt(Location location);
+
+    /**
+     * Vérifie si un joueur est propriétaire ou membre d'une île
+     */
+    boolean isIslandMember(UUID islandId, UUID playerId);
+
+    /**
+     * Vérifie si un joueur est chef ou officier d'une île
+     */
+    boolean isIslandManager(UUID islandId, UUID playerId);
+
+    /**
+     * Force la sauvegarde des îles côté Skyblock
+     */
+    void saveAll();
+}
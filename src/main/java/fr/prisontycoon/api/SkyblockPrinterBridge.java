@@ -0,0 +1,39 @@
+package fr.prisontycoon.api;
+
+import fr.prisontycoon.data.PrinterData;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Pont typé entre le PrinterManager de PrisonTycoon et celui de CustomSkyblock
+ * <p>
+ * Implémenté côté CustomSkyblock et enregistré dans le ServicesManager : les imprimantes
+ * sont échangées sous forme de {@link PrinterData} PrisonTycoon, sans aucune réflexion.
+ */
+public interface SkyblockPrinterBridge extends SkyblockIslandBridge {
+
+    /**
+     * Toutes les imprimantes posées sur les îles
+     */
+    Collection<PrinterData> loadPrinters();
+
+    /**
+     * Multiplicateur de vitesse de génération des imprimantes d'une île (amélioration d'île)
+     */
+    double getGenerationSpeedMultiplier(UUID islandId);
+
+    /**
+     * Vérifie la limite d'imprimantes d'une île
+     */
+    boolean canPlacePrinter(UUID islandId, int currentPrinterCount);
+
+    void savePrinter(UUID islandId, PrinterData printer);
+
+    void removePrinter(UUID islandId, String printerId);
+
+    /**
+     * Met à jour plusieurs imprimantes d'une même île en une seule sauvegarde
+     */
+    void updatePrinters(UUID islandId, Collection<PrinterData> printers);
+}
@@ -9,17 +9,42 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.scheduler.BukkitRunnable;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Tâche asynchrone de minage des automineurs
- * S'exécute toutes les 20 ticks (1 seconde)
+ * S'exécute à chaque tick et ne traite qu'une tranche des joueurs en ligne : la tranche est dimensionnée
+ * pour que chaque joueur soit visité environ une fois par seconde, dans la limite de
+ * {@code autominers.max-players-per-tick}. Au-delà, les joueurs sont visités moins souvent et le temps écoulé
+ * est rattrapé en un seul appel par {@link AutominerManager#simulateElapsed}.
  */
 public class AutominerTask extends BukkitRunnable {
 
+    private static final int TICKS_PER_SECOND = 20;
+
     private final PrisonTycoon plugin;
     private final AutominerManager autominerManager;
 
+    // Tour en cours : instantané des joueurs en ligne, parcouru tranche par tranche
+    private List<UUID> rotation = new ArrayList<>();
+    private int cursor = 0;
+    private int playersPerTick = 1;
+
+    // Dernière seconde simulée pour chaque joueur (conservée après déconnexion pour la simulation hors ligne)
+    private final Map<UUID, Long> lastSimulated = new ConcurrentHashMap<>();
+
+    // Statistiques de débit
+    private final LongAdder playersProcessed = new LongAdder();
+    private final LongAdder simulatedSeconds = new LongAdder();
+    private final LongAdder closedFormSimulations = new LongAdder();
+    private final LongAdder offlineSimulations = new LongAdder();
+    private final LongAdder processingNanos = new LongAdder();
+
     public AutominerTask(PrisonTycoon plugin) {
         this.plugin = plugin;
         this.autominerManager = plugin.getAutominerManager();
@@ -27,21 +52,79 @@ public class AutominerTask extends BukkitRunnable {
 
     @Override
     public void run() {
-        // Parcourt tous les joueurs en ligne
-        for (Player player : Bukkit.getOnlinePlayers()) {
+        if (cursor >= rotation.size()) {
+            startRound();
+        }
+
+        int end = Math.min(rotation.size(), cursor + playersPerTick);
+        while (cursor < end) {
+            UUID playerId = rotation.get(cursor++);
+            Player player = Bukkit.getPlayer(playerId);
+            if (player == null || !player.isOnline()) continue;
+
+            long start = System.nanoTime();
             try {
-                processPlayerAutominers(player);
+                processPlayer(player);
             } catch (Exception e) {
                 plugin.getPluginLogger().warning("§cErreur lors du traitement des automineurs pour " +
                         player.getName() + ": " + e.getMessage());
             }
+            processingNanos.add(System.nanoTime() - start);
+            playersProcessed.increment();
         }
     }
 
+    /**
+     * Démarre un nouveau tour à partir des joueurs actuellement en ligne
+     */
+    private void startRound() {
+        List<UUID> online = new ArrayList<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            online.add(player.getUniqueId());
+        }
+        rotation = online;
+        cursor = 0;
+
+        int maxPerTick = Math.max(1, plugin.getConfig().getInt("autominers.max-players-per-tick", 50));
+        playersPerTick = Math.min(maxPerTick, Math.max(1, (online.size() + TICKS_PER_SECOND - 1) / TICKS_PER_SECOND));
+    }
+
+    /**
+     * Calcule le nombre de secondes à simuler pour un joueur depuis son dernier passage
+     */
+    private long consumeElapsedSeconds(Player player) {
+        long now = System.currentTimeMillis();
+        Long last = lastSimulated.get(player.getUniqueId());
+
+        // Premier passage depuis la connexion
+        if (last == null || last < player.getLastLogin()) {
+            lastSimulated.put(player.getUniqueId(), now);
+            if (last == null || !plugin.getConfig().getBoolean("autominers.offline-simulation", false)) {
+                return 0;
+            }
+            offlineSimulations.increment();
+            long offlineSeconds = (player.getLastLogin() - last) / 1000L;
+            return Math.min(offlineSeconds, Math.max(0L, plugin.getConfig().getLong("autominers.offline-max-seconds", 3600L)));
+        }
+
+        long elapsed = (now - last) / 1000L;
+        if (elapsed <= 0) {
+            return 0;
+        }
+        // Le reste (< 1s) est conservé pour le passage suivant
+        lastSimulated.put(player.getUniqueId(), last + elapsed * 1000L);
+        return Math.min(elapsed, Math.max(1L, plugin.getConfig().getLong("autominers.max-catch-up-seconds", 300L)));
+    }
+
     /**
      * Traite les automineurs d'un joueur
      */
-    private void processPlayerAutominers(Player player) {
+    private void processPlayer(Player player) {
+        long seconds = consumeElapsedSeconds(player);
+        if (seconds <= 0) {
+            return;
+        }
+
         PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(player.getUniqueId());
 
         // Vérifications de base
@@ -55,25 +138,32 @@ public class AutominerTask extends BukkitRunnable {
         }
 
         // Traiter chaque slot d'automineur
-        processAutominerSlot(player, playerData, playerData.getActiveAutominerSlot1(), "slot_1");
-        processAutominerSlot(player, playerData, playerData.getActiveAutominerSlot2(), "slot_2");
+        boolean changed = processAutominerSlot(player, playerData, playerData.getActiveAutominerSlot1(), "slot_1", seconds);
+        changed |= processAutominerSlot(player, playerData, playerData.getActiveAutominerSlot2(), "slot_2", seconds);
 
-        // Marquer les données comme modifiées
-        plugin.getPlayerDataManager().markDirty(player.getUniqueId());
+        // Marquer les données comme modifiées uniquement si un automineur a réellement tourné
+        if (changed) {
+            plugin.getPlayerDataManager().markDirty(player.getUniqueId());
+        }
     }
 
     /**
-     * Traite un slot d'automineur spécifique
+     * Traite un slot d'automineur spécifique sur {@code seconds} secondes
+     *
+     * @return true si les données du joueur ont été modifiées
      */
-    private void processAutominerSlot(Player player, PlayerData playerData, ItemStack autominer, String slotName) {
+    private boolean processAutominerSlot(Player player, PlayerData playerData, ItemStack autominer, String slotName, long seconds) {
         if (autominer == null || !autominerManager.isAutominer(autominer)) {
-            return; // Pas d'automineur dans ce slot
+            return false; // Pas d'automineur dans ce slot
         }
 
-        // Calculer la consommation de carburant
+        // Secondes couvertes par le carburant disponible
         double fuelConsumption = autominerManager.calculateFuelConsumption(autominer);
-        if (playerData.getAutominerFuelReserve() < fuelConsumption) {
-            return; // Pas assez de carburant pour ce tick
+        long affordableSeconds = fuelConsumption > 0
+                ? Math.min(seconds, (long) (playerData.getAutominerFuelReserve() / fuelConsumption))
+                : seconds;
+        if (affordableSeconds <= 0) {
+            return false; // Pas assez de carburant
         }
 
         // Simuler le minage
@@ -83,26 +173,39 @@ public class AutominerTask extends BukkitRunnable {
             playerData.setAutominerCurrentWorld(currentWorld);
         }
 
-        AutominerManager.AutominerMiningResult result = autominerManager.simulateMining(autominer, currentWorld);
-        if (result == null) {
-            return; // Erreur de simulation
+        if (affordableSeconds == 1) {
+            AutominerManager.AutominerMiningResult result = autominerManager.simulateMining(autominer, currentWorld);
+            if (result == null) {
+                return false; // Erreur de simulation
+            }
+            applyMiningResults(player, playerData, result);
+            logDebug(player, slotName, 1, result.quantity(), result.coins(), result.tokens(), result.experience(),
+                    result.keys(), result.beaconFound() ? 1 : 0);
+        } else {
+            AutominerManager.AutominerElapsedResult result = autominerManager.simulateElapsed(autominer, currentWorld, affordableSeconds);
+            if (result == null) {
+                return false; // Erreur de simulation
+            }
+            applyElapsedResults(player, playerData, result);
+            closedFormSimulations.increment();
+            logDebug(player, slotName, affordableSeconds, result.quantity(), result.coins(), result.tokens(),
+                    result.experience(), result.keys(), result.beacons());
         }
 
-        // Appliquer les résultats
-        applyMiningResults(player, playerData, result);
-
         // Consommer le carburant
-        playerData.setAutominerFuelReserve(playerData.getAutominerFuelReserve() - fuelConsumption);
+        playerData.setAutominerFuelReserve(playerData.getAutominerFuelReserve() - fuelConsumption * affordableSeconds);
+        simulatedSeconds.add(affordableSeconds);
+        return true;
+    }
 
-        // Debug amélioré avec détails Fortune et Greed
+    private void logDebug(Player player, String slotName, long seconds, long blocks, long coins, long tokens,
+                          long experience, long keys, long beacons) {
         if (plugin.getConfig().getBoolean("debug", false)) {
             plugin.getPluginLogger().info("§7Automineur " + slotName + " de " + player.getName() +
-                    " a miné " + result.quantity() + "x " + result.minedBlock().name() +
-                    " (Fortune: " + result.quantity() + " blocs)" +
-                    " → Gains: " + result.coins() + " coins, " + result.tokens() + " tokens, " +
-                    result.experience() + " exp" +
-                    (result.keys() > 0 ? ", " + result.keys() + " clés" : "") +
-                    (result.beaconFound() ? ", 1 beacon" : ""));
+                    " a miné " + blocks + " blocs en " + seconds + "s" +
+                    " → Gains: " + coins + " coins, " + tokens + " tokens, " + experience + " exp" +
+                    (keys > 0 ? ", " + keys + " clés" : "") +
+                    (beacons > 0 ? ", " + beacons + " beacon(s)" : ""));
         }
     }
 
@@ -112,52 +215,84 @@ public class AutominerTask extends BukkitRunnable {
     private void applyMiningResults(Player player, PlayerData playerData, AutominerManager.AutominerMiningResult result) {
         // Stocker les blocs minés
         addToStorage(playerData, result.minedBlock(), result.quantity());
+        addPendingGains(playerData, result.coins(), result.tokens(), result.experience());
 
-        // NOUVEAU: Accumuler les gains greed dans les "pending" au lieu de les donner directement
-        if (result.coins() > 0) {
-            playerData.addAutominerPendingCoins(result.coins());
+        // Générer des clés si nécessaire
+        if (result.keys() > 0) {
+            storeKeys(playerData, result.keys());
         }
-        if (result.tokens() > 0) {
-            playerData.addAutominerPendingTokens(result.tokens());
+
+        // Accumuler les beacons dans les "pending"
+        if (result.beaconFound()) {
+            addPendingBeacons(player, playerData, 1);
         }
-        if (result.experience() > 0) {
-            playerData.addAutominerPendingExperience(result.experience());
+    }
+
+    /**
+     * Applique les résultats d'une simulation sur plusieurs secondes
+     */
+    private void applyElapsedResults(Player player, PlayerData playerData, AutominerManager.AutominerElapsedResult result) {
+        for (Map.Entry<Material, Long> entry : result.minedBlocks().entrySet()) {
+            addToStorage(playerData, entry.getKey(), entry.getValue());
         }
+        addPendingGains(playerData, result.coins(), result.tokens(), result.experience());
 
-        // Générer des clés si nécessaire
         if (result.keys() > 0) {
-            AutominerType type = autominerManager.getAutominerType(playerData.getActiveAutominerSlot1());
-            if (type == null) {
-                type = autominerManager.getAutominerType(playerData.getActiveAutominerSlot2());
-            }
+            storeKeys(playerData, (int) Math.min(Integer.MAX_VALUE, result.keys()));
+        }
+        if (result.beacons() > 0) {
+            addPendingBeacons(player, playerData, result.beacons());
+        }
+    }
 
-            if (type != null) {
-                ItemStack key = autominerManager.createKey(type);
-                String keyType = getKeyTypeFromItem(key);
+    /**
+     * Accumule les gains greed dans les "pending" au lieu de les donner directement
+     */
+    private void addPendingGains(PlayerData playerData, long coins, long tokens, long experience) {
+        if (coins > 0) {
+            playerData.addAutominerPendingCoins(coins);
+        }
+        if (tokens > 0) {
+            playerData.addAutominerPendingTokens(tokens);
+        }
+        if (experience > 0) {
+            playerData.addAutominerPendingExperience(experience);
+        }
+    }
 
-                Map<String, Integer> storedKeys = playerData.getAutominerStoredKeys();
-                storedKeys.put(keyType, storedKeys.getOrDefault(keyType, 0) + result.keys());
-                playerData.setAutominerStoredKeys(storedKeys);
-            }
+    private void storeKeys(PlayerData playerData, int keys) {
+        AutominerType type = autominerManager.getAutominerType(playerData.getActiveAutominerSlot1());
+        if (type == null) {
+            type = autominerManager.getAutominerType(playerData.getActiveAutominerSlot2());
         }
 
-        // Accumuler les beacons dans les "pending"
-        if (result.beaconFound()) {
-            playerData.addAutominerPendingBeacons(1);
+        if (type != null) {
+            ItemStack key = autominerManager.createKey(type);
+            String keyType = getKeyTypeFromItem(key);
 
-            // Notification synchrone
-            Bukkit.getScheduler().runTask(plugin, () -> {
-                if (player.isOnline()) {
-                    player.sendMessage("§d✨ Votre automineur a trouvé un beacon!");
-                }
-            });
+            Map<String, Integer> storedKeys = playerData.getAutominerStoredKeys();
+            storedKeys.put(keyType, storedKeys.getOrDefault(keyType, 0) + keys);
+            playerData.setAutominerStoredKeys(storedKeys);
         }
     }
 
+    private void addPendingBeacons(Player player, PlayerData playerData, long beacons) {
+        playerData.addAutominerPendingBeacons(beacons);
+
+        // Notification synchrone
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            if (player.isOnline()) {
+                player.sendMessage(beacons == 1
+                        ? "§d✨ Votre automineur a trouvé un beacon!"
+                        : "§d✨ Votre automineur a trouvé " + beacons + " beacons!");
+            }
+        });
+    }
+
     /**
      * Ajoute des items au stockage de l'automineur
      */
-    private void addToStorage(PlayerData playerData, Material material, int quantity) {
+    private void addToStorage(PlayerData playerData, Material material, long quantity) {
         Map<Material, Long> storage = playerData.getAutominerStorageContents();
         long currentAmount = storage.getOrDefault(material, 0L);
 
@@ -206,4 +341,17 @@ public class AutominerTask extends BukkitRunnable {
         if (displayName.contains("Peu Commune")) return "Peu Commune";
         return "Commune";
     }
-}
\ No newline at end of file
+
+    /**
+     * Statistiques de débit (affichées par /autominer stats)
+     */
+    public String getStatistics() {
+        long players = playersProcessed.sum();
+        long seconds = simulatedSeconds.sum();
+        double millis = processingNanos.sum() / 1_000_000.0;
+        return String.format("§7Joueurs traités: §e%d §7| Secondes simulées: §e%d §7(forme close: §e%d§7, hors ligne: §e%d§7)\n" +
+                        "§7Tranche actuelle: §e%d joueurs/tick §7| Temps total: §e%.1f ms §7| Débit: §e%.0f secondes-automineur/ms",
+                players, seconds, closedFormSimulations.sum(), offlineSimulations.sum(),
+                playersPerTick, millis, millis > 0 ? seconds / millis : 0.0);
+    }
+}
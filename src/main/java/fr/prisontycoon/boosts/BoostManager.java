@@ -158,6 +158,7 @@ public class BoostManager {
 
         activePlayerBoosts.computeIfAbsent(playerId, k -> new ConcurrentHashMap<>())
                 .put(boost.getType(), boost);
+        plugin.getGlobalBonusManager().invalidate(playerId);
 
         // Sauvegarde si ce n'est pas un boost admin
         if (!boost.isAdminBoost()) {
@@ -256,6 +257,7 @@ public class BoostManager {
     public void addAdminBoost(BoostType type, int durationSeconds, double bonusPercentage) {
         PlayerBoost adminBoost = new PlayerBoost(type, durationSeconds, bonusPercentage, true);
         globalAdminBoosts.put(type, adminBoost);
+        plugin.getGlobalBonusManager().invalidateAll();
 
         // Annonce à tous les joueurs
         String message = "§6⚡ §lBOOST ADMIN ACTIVÉ!";
@@ -325,6 +327,7 @@ public class BoostManager {
 
         if (!playerBoosts.isEmpty()) {
             activePlayerBoosts.put(player.getUniqueId(), playerBoosts);
+            plugin.getGlobalBonusManager().invalidate(player.getUniqueId());
             plugin.getPluginLogger().debug("Boosts chargés pour " + player.getName() + ": " + playerBoosts.size());
         }
     }
@@ -425,11 +428,41 @@ public class BoostManager {
 
         activeGangBoosts.computeIfAbsent(gang.getId(), k -> new ConcurrentHashMap<>())
                 .put(boostType, boostData);
+        plugin.getGlobalBonusManager().invalidateAll();
 
         plugin.getPluginLogger().info("Boost de gang activé: " + boostType + " x" + multipliers[tier - 1] +
                 " pour " + gang.getName() + " (" + durations[tier - 1] + " min)");
     }
 
+    /**
+     * Date (ms) de la prochaine expiration d'un boost affectant un joueur (personnel, admin ou de son gang)
+     * Long.MAX_VALUE si aucun boost n'est actif (les boosts déjà expirés mais pas encore nettoyés sont ignorés)
+     */
+    public long getNextBoostExpiry(UUID playerId, String gangId) {
+        long now = System.currentTimeMillis();
+        long next = Long.MAX_VALUE;
+
+        Map<BoostType, PlayerBoost> playerBoosts = activePlayerBoosts.get(playerId);
+        if (playerBoosts != null) {
+            for (PlayerBoost boost : playerBoosts.values()) {
+                if (boost.getEndTime() > now) next = Math.min(next, boost.getEndTime());
+            }
+        }
+        for (PlayerBoost boost : globalAdminBoosts.values()) {
+            if (boost.getEndTime() > now) next = Math.min(next, boost.getEndTime());
+        }
+        if (gangId != null) {
+            Map<GangBoostType, GangBoost> gangBoosts = activeGangBoosts.get(gangId);
+            if (gangBoosts != null) {
+                for (GangBoost boost : gangBoosts.values()) {
+                    if (boost.expirationTime() > now) next = Math.min(next, boost.expirationTime());
+                }
+            }
+        }
+
+        return next;
+    }
+
     /**
      * Vérifie si un gang a un boost actif
      */
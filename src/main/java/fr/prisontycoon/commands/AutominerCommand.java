@@ -43,10 +43,19 @@ public class AutominerCommand implements CommandExecutor, TabCompleter {
             return handleGiveCommand(player, args);
         }
 
+        if (args[0].equalsIgnoreCase("stats") && player.hasPermission("prisontycoon.admin")) {
+            player.sendMessage("§6=== Statistiques Automineurs ===");
+            for (String line : plugin.getAutominerTask().getStatistics().split("\n")) {
+                player.sendMessage(line);
+            }
+            return true;
+        }
+
         // Commande d'aide
         player.sendMessage("§6=== Commandes Automineur ===");
         player.sendMessage("§e/autominer §7- Ouvre le menu principal");
         player.sendMessage("§e/autominer give <type> §7- Donne un automineur (admin)");
+        player.sendMessage("§e/autominer stats §7- Débit de la simulation des automineurs (admin)");
         player.sendMessage("§7Types disponibles: pierre, fer, or, diamant, emeraude, beacon");
 
         return true;
@@ -96,6 +105,9 @@ public class AutominerCommand implements CommandExecutor, TabCompleter {
 
         if (args.length == 1) {
             completions.add("give");
+            if (sender.hasPermission("prisontycoon.admin")) {
+                completions.add("stats");
+            }
         } else if (args.length == 2 && args[0].equalsIgnoreCase("give")) {
             completions.addAll(Arrays.asList("pierre", "fer", "or", "diamant", "emeraude", "beacon"));
         }
@@ -624,6 +624,7 @@ public class BankCommand implements CommandExecutor, TabCompleter {
         data.setBankType(newType);
         data.setLastBankTypeChange(now);
         plugin.getPlayerDataManager().markDirty(player.getUniqueId());
+        plugin.getGlobalBonusManager().invalidate(player.getUniqueId());
         player.sendMessage("§a✅ Type de banque défini: §e" + newType.getDisplayName());
     }
 
@@ -53,6 +53,7 @@ public class PrinterAdminCommand implements CommandExecutor, TabCompleter {
             case "remove" -> handleRemove(sender, args);
             case "info" -> handleInfo(sender, args);
             case "reload" -> handleReload(sender);
+            case "stats" -> sender.sendMessage("§6Caisses de dépôt: §7" + depositBoxManager.getHopperStatistics());
             default -> {
                 sendHelpMessage(sender);
                 return true;
@@ -230,6 +231,7 @@ public class PrinterAdminCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage("§e/printeradmin remove <type> <id> §7- Supprimer un item");
         sender.sendMessage("§e/printeradmin info <joueur> §7- Informations d'un joueur");
         sender.sendMessage("§e/printeradmin reload §7- Recharger les données");
+        sender.sendMessage("§e/printeradmin stats §7- Débit des caisses de dépôt");
         sender.sendMessage("");
         sender.sendMessage("§7Types: printer (tier 1-50), depositbox (tier 1-5)");
         sender.sendMessage("§6▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬");
@@ -244,7 +246,7 @@ public class PrinterAdminCommand implements CommandExecutor, TabCompleter {
         List<String> completions = new ArrayList<>();
 
         if (args.length == 1) {
-            StringUtil.copyPartialMatches(args[0], Arrays.asList("give", "list", "remove", "info", "reload"), completions);
+            StringUtil.copyPartialMatches(args[0], Arrays.asList("give", "list", "remove", "info", "reload", "stats"), completions);
         } else if (args.length == 2) {
             switch (args[0].toLowerCase()) {
                 case "give" -> {
@@ -0,0 +1,81 @@
+package fr.prisontycoon.data;
+
+import org.bukkit.Material;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Compteurs de blocs par matériau d'un joueur, indexés par Material.ordinal()
+ * <p>
+ * Un seul tableau par joueur, partagé par PlayerData (blocs minés) et le BlockCollectorManager (collectionneur) :
+ * chaque bloc est compté par un seul incrément, sans boxing ni entrée de map. La persistance reste une map
+ * JSON nom -> total ne contenant que les matériaux non nuls.
+ */
+public final class MaterialCounters {
+
+    private static final Material[] MATERIALS = Material.values();
+
+    private final AtomicLongArray counts = new AtomicLongArray(MATERIALS.length);
+    // Vrai une fois les totaux persistés chargés (par le collectionneur)
+    private volatile boolean loaded = false;
+
+    public long add(Material material, long amount) {
+        return counts.addAndGet(material.ordinal(), amount);
+    }
+
+    public long increment(Material material) {
+        return counts.incrementAndGet(material.ordinal());
+    }
+
+    public long get(Material material) {
+        return counts.get(material.ordinal());
+    }
+
+    /**
+     * Copie des matériaux non nuls
+     */
+    public Map<Material, Long> toMap() {
+        Map<Material, Long> map = new EnumMap<>(Material.class);
+        for (int i = 0; i < MATERIALS.length; i++) {
+            long value = counts.get(i);
+            if (value != 0) map.put(MATERIALS[i], value);
+        }
+        return map;
+    }
+
+    /**
+     * Forme persistée : nom du matériau -> total, matériaux non nuls uniquement
+     */
+    public Map<String, Long> toNameMap() {
+        Map<String, Long> map = new HashMap<>();
+        for (int i = 0; i < MATERIALS.length; i++) {
+            long value = counts.get(i);
+            if (value != 0) map.put(MATERIALS[i].name(), value);
+        }
+        return map;
+    }
+
+    /**
+     * Ajoute des totaux persistés (nom -> total) ; les matériaux inconnus sont ignorés
+     */
+    public void addAll(Map<String, Long> persisted) {
+        if (persisted == null) return;
+        for (Map.Entry<String, Long> entry : persisted.entrySet()) {
+            Material material = Material.getMaterial(entry.getKey());
+            if (material != null && entry.getValue() != null) {
+                add(material, entry.getValue());
+            }
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void markLoaded() {
+        this.loaded = true;
+    }
+}
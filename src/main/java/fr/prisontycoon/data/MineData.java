@@ -6,6 +6,7 @@ import org.bukkit.Material;
 import org.bukkit.World;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Données complètes d'une mine - Version avec coordonnées de téléportation
@@ -55,6 +56,8 @@ public class MineData {
 
     // Statistiques
     private final int volume;
+    // Blocs restants (compteur exact, remis au volume à chaque régénération)
+    private final AtomicInteger remainingBlocks = new AtomicInteger();
 
     /**
      * Constructeur principal avec coordonnées de téléportation
@@ -124,6 +127,7 @@ public class MineData {
 
         // Calcul du volume
         this.volume = (this.maxX - this.minX + 1) * (this.maxY - this.minY + 1) * (this.maxZ - this.minZ + 1);
+        this.remainingBlocks.set(this.volume);
 
         // Précalcule la liste pondérée pour l'optimisation
         this.weightedMaterials = buildWeightedList();
@@ -305,6 +309,36 @@ public class MineData {
         return volume;
     }
 
+    /**
+     * Nombre exact de blocs encore présents dans la mine depuis la dernière régénération
+     */
+    public int getRemainingBlocks() {
+        return remainingBlocks.get();
+    }
+
+    /**
+     * Proportion de blocs restants (0.0 à 1.0)
+     */
+    public double getRemainingRatio() {
+        return volume <= 0 ? 0.0 : (double) remainingBlocks.get() / volume;
+    }
+
+    /**
+     * Décompte des blocs retirés de la mine (minage, laser, explosion...)
+     *
+     * @return le nombre de blocs restants après décompte
+     */
+    public int removeBlocks(int count) {
+        return remainingBlocks.updateAndGet(current -> Math.max(0, current - count));
+    }
+
+    /**
+     * Remet le compteur au volume complet (mine régénérée)
+     */
+    public void resetRemainingBlocks() {
+        remainingBlocks.set(volume);
+    }
+
     public int getResetIntervalMinutes() {
         return resetIntervalMinutes;
     }
@@ -1,31 +1,43 @@
 package fr.prisontycoon.data;
 
 import fr.prisontycoon.boosts.PlayerBoost;
+import fr.prisontycoon.enchantments.EnchantmentIds;
 import fr.prisontycoon.prestige.PrestigeTalent;
 import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Données d'un joueur
  * CORRIGÉ : Distinction correcte gains pioche vs autres moyens, tracking séparé dernière minute
  */
 public class PlayerData {
+    // Contention sur les soldes (tous joueurs) : mises à jour et tentatives CAS rejouées
+    private static final LongAdder balanceUpdates = new LongAdder();
+    private static final LongAdder balanceCasRetries = new LongAdder();
+
     private final UUID playerId;
     private final String playerName;
-    // Enchantements de la pioche (nom -> niveau)
+    // Enchantements de la pioche (nom -> niveau), forme persistée
     private final Map<String, Integer> enchantmentLevels;
+    // Mêmes niveaux indexés par id (EnchantmentIds), lus à chaque bloc miné ; reconstruite à chaque modification
+    private volatile int[] enchantmentLevelTable = new int[0];
     private final Map<String, String> pickaxeCristals;
     // Auto-amélioration des enchantements
     private final Set<String> autoUpgradeEnabled;
     private final List<AutoUpgradeDetail> lastMinuteAutoUpgradeDetails = new ArrayList<>();
     // Enchantements mobilité désactivés
     private final Set<String> mobilityEnchantmentsDisabled;
-    private final Map<Material, Long> blocksMinedByType;
+    // Blocs par matériau (partagés avec le collectionneur de blocs, qui les charge et les persiste)
+    private final MaterialCounters blocksMinedByType = new MaterialCounters();
     // Données thread-safe
     private final Object dataLock = new Object();
+    // Colonnes modifiées depuis la dernière écriture (bit = 1L << Column.ordinal()), relevées par le PlayerDataManager
+    private final AtomicLong dirtyColumns = new AtomicLong();
     private final Map<String, Integer> professionLevels; // profession -> niveau (1-10)
     private final Map<String, Integer> professionXP; // profession -> XP métier
     private final Map<String, Map<String, Integer>> talentLevels; // profession -> (talent -> niveau)
@@ -45,16 +57,17 @@ public class PlayerData {
     private final Map<Material, Long> investments = new ConcurrentHashMap<>();
     private final Map<String, Integer> pickaxeEnchantmentBookLevels = new ConcurrentHashMap<>();
     private List<SanctionData> sanctionHistory;
-    // Économie TOTALE (toutes sources)
-    private long coins;
-    private long tokens;
-    private long experience;
-    private long beacons;
+    // Économie TOTALE (toutes sources), sans verrou : CAS avec plancher à 0
+    // (mises à jour depuis le thread principal, les autominers, l'auto-amélioration et les caisses de dépôt)
+    private final AtomicLong coins = new AtomicLong();
+    private final AtomicLong tokens = new AtomicLong();
+    private final AtomicLong experience = new AtomicLong();
+    private final AtomicLong beacons = new AtomicLong();
     // Gains SPÉCIFIQUES via pioche (pour statistiques pioche)
-    private long coinsViaPickaxe;
-    private long coinsViaAutosell;
-    private long tokensViaPickaxe;
-    private long experienceViaPickaxe;
+    private final AtomicLong coinsViaPickaxe = new AtomicLong();
+    private final AtomicLong coinsViaAutosell = new AtomicLong();
+    private final AtomicLong tokensViaPickaxe = new AtomicLong();
+    private final AtomicLong experienceViaPickaxe = new AtomicLong();
     // États temporaires
     private long combustionLevel;
     private long lastCombustionTime;
@@ -63,26 +76,26 @@ public class PlayerData {
     private long abundanceCooldownEnd;
     private long lastMiningTime;
     private boolean autoRankup = false;
-    // CORRIGÉ : Statistiques de minage avec distinction minés/cassés
-    private long totalBlocksMined;     // Blocs minés DIRECTEMENT par le joueur
-    private long totalBlocksDestroyed; // Blocs minés + cassés (laser/explosion)
+    // CORRIGÉ : Statistiques de minage avec distinction minés/cassés (compteurs purs : LongAdder)
+    private final LongAdder totalBlocksMined = new LongAdder();     // Blocs minés DIRECTEMENT par le joueur
+    private final LongAdder totalBlocksDestroyed = new LongAdder(); // Blocs minés + cassés (laser/explosion)
     // Statistiques spécialisées
-    private long totalGreedTriggers;
-    private long totalKeysObtained;
+    private final LongAdder totalGreedTriggers = new LongAdder();
+    private final LongAdder totalKeysObtained = new LongAdder();
     // NOUVEAU : Gains de la dernière minute SÉPARÉS (toutes sources vs via pioche)
-    private long lastMinuteCoins;
-    private long lastMinuteAutosell;
-    private long lastMinuteTokens;                   // TOUS les gains tokens
-    private long lastMinuteExperience;               // TOUS les gains expérience
-    private long lastMinuteCoinsViaPickaxe;          // SEULEMENT via pioche
-    private long lastMinuteTokensViaPickaxe;         // SEULEMENT via pioche
-    private long lastMinuteExperienceViaPickaxe;     // SEULEMENT via pioche
+    private final LongAdder lastMinuteCoins = new LongAdder();
+    private final LongAdder lastMinuteAutosell = new LongAdder();
+    private final LongAdder lastMinuteTokens = new LongAdder();                 // TOUS les gains tokens
+    private final LongAdder lastMinuteExperience = new LongAdder();             // TOUS les gains expérience
+    private final LongAdder lastMinuteCoinsViaPickaxe = new LongAdder();        // SEULEMENT via pioche
+    private final LongAdder lastMinuteTokensViaPickaxe = new LongAdder();       // SEULEMENT via pioche
+    private final LongAdder lastMinuteExperienceViaPickaxe = new LongAdder();   // SEULEMENT via pioche
     private int lastMinuteAutoUpgrades;
-    private long lastMinuteBlocksMined;
-    private long lastMinuteBlocksDestroyed;
-    private long lastMinuteGreedTriggers;
-    private long lastMinuteKeysObtained;
-    private long lastMinuteBlocksAddedToInventory;
+    private final LongAdder lastMinuteBlocksMined = new LongAdder();
+    private final LongAdder lastMinuteBlocksDestroyed = new LongAdder();
+    private final LongAdder lastMinuteGreedTriggers = new LongAdder();
+    private final LongAdder lastMinuteKeysObtained = new LongAdder();
+    private final LongAdder lastMinuteBlocksAddedToInventory = new LongAdder();
     private Set<String> customPermissions;
     private Set<String> activeEnchantmentBooks = new HashSet<>();
     // Système de métiers
@@ -138,31 +151,15 @@ public class PlayerData {
         this.playerId = playerId;
         this.playerName = playerName;
 
-        // Initialisation des valeurs par défaut
-        this.coins = 0;
-        this.tokens = 0;
-        this.experience = 0;
-        this.beacons = 0;
-
-        this.coinsViaPickaxe = 0;
-        this.tokensViaPickaxe = 0;
-        this.experienceViaPickaxe = 0;
-
         this.enchantmentLevels = new ConcurrentHashMap<>();
         this.autoUpgradeEnabled = ConcurrentHashMap.newKeySet();
         this.mobilityEnchantmentsDisabled = ConcurrentHashMap.newKeySet();
-        this.blocksMinedByType = new ConcurrentHashMap<>();
 
         this.combustionLevel = 0;
         this.lastCombustionTime = System.currentTimeMillis();
         this.abundanceActive = false;
         this.abundanceEndTime = 0;
 
-        this.totalBlocksMined = 0;
-        this.totalBlocksDestroyed = 0;
-        this.totalGreedTriggers = 0;
-        this.totalKeysObtained = 0;
-
         this.pickaxeCristals = new ConcurrentHashMap<>(); // NOUVEAU
         this.sanctionHistory = new ArrayList<>();
         this.customPermissions = new HashSet<>(); // NOUVEAU
@@ -210,12 +207,39 @@ public class PlayerData {
         resetLastMinuteStats();
     }
 
+    /**
+     * Signale une colonne persistée comme modifiée (appelé par chaque mutateur)
+     */
+    private void touch(Column column) {
+        long bit = 1L << column.ordinal();
+        if ((dirtyColumns.get() & bit) != 0) return;
+        dirtyColumns.getAndUpdate(current -> current | bit);
+    }
+
+    /**
+     * Relève et remet à zéro les colonnes modifiées. À appeler avant de lire les valeurs à écrire :
+     * une modification concurrente est soit lue, soit signalée de nouveau.
+     */
+    public long drainDirtyColumns() {
+        return dirtyColumns.getAndSet(0);
+    }
+
+    /**
+     * Signale de nouveau des colonnes relevées dont l'écriture a échoué
+     */
+    public void restoreDirtyColumns(long columns) {
+        if (columns != 0) {
+            dirtyColumns.getAndUpdate(current -> current | columns);
+        }
+    }
+
     public BankType getBankType() {
         return bankType;
     }
 
     public void setBankType(BankType bankType) {
         this.bankType = bankType != null ? bankType : BankType.NONE;
+        touch(Column.BANK_TYPE);
     }
 
     public long getLastBankTypeChange() {
@@ -224,6 +248,7 @@ public class PlayerData {
 
     public void setLastBankTypeChange(long lastBankTypeChange) {
         this.lastBankTypeChange = Math.max(0L, lastBankTypeChange);
+        touch(Column.BANK_TYPE_LAST_CHANGE);
     }
 
     // --- Daily reward getters/setters ---
@@ -233,6 +258,7 @@ public class PlayerData {
 
     public void setDailyProgress(int dailyProgress) {
         this.dailyProgress = Math.max(0, Math.min(14, dailyProgress));
+        touch(Column.DAILY_PROGRESS);
     }
 
     public long getDailyLastClaim() {
@@ -241,6 +267,7 @@ public class PlayerData {
 
     public void setDailyLastClaim(long dailyLastClaim) {
         this.dailyLastClaim = Math.max(0L, dailyLastClaim);
+        touch(Column.DAILY_LAST_CLAIM);
     }
 
     public int getDailyClaimableDay() {
@@ -256,6 +283,7 @@ public class PlayerData {
 
     public void advanceDailyProgress() {
         this.dailyProgress = (this.dailyProgress + 1) % 15;
+        touch(Column.DAILY_PROGRESS);
     }
 
     // --- Playtime ---
@@ -265,6 +293,7 @@ public class PlayerData {
 
     public void setTotalPlaytimeMillis(long totalPlaytimeMillis) {
         this.totalPlaytimeMillis = Math.max(0L, totalPlaytimeMillis);
+        touch(Column.TOTAL_PLAYTIME);
     }
 
     public long getSessionStartMillis() {
@@ -281,6 +310,7 @@ public class PlayerData {
 
 	public void setLastRepairTime(long lastRepairTime) {
 		this.lastRepairTime = Math.max(0L, lastRepairTime);
+		touch(Column.LAST_REPAIR_TIME);
 	}
 	
 	// --- Printer slots bonus ---
@@ -290,137 +320,171 @@ public class PlayerData {
 	
 	public void setPrinterSlotBonus(int printerSlotBonus) {
 		this.printerSlotBonus = Math.max(0, printerSlotBonus);
+		touch(Column.PRINTER_SLOT_BONUS);
 	}
 	
 	public void addPrinterSlotBonus(int amount) {
 		this.printerSlotBonus = Math.max(0, this.printerSlotBonus + amount);
+		touch(Column.PRINTER_SLOT_BONUS);
 	}
 
     public void addPlaytimeMillis(long delta) {
         if (delta > 0) {
             this.totalPlaytimeMillis += delta;
+            touch(Column.TOTAL_PLAYTIME);
         }
     }
 
     // Méthodes économiques - TOTAL (toutes sources)
 
     public void addCoins(long amount) {
-        synchronized (dataLock) {
-            this.coins = Math.max(0, this.coins + amount);
-            this.lastMinuteCoins += Math.max(0, amount);
-        }
+        addClamped(coins, amount);
+        touch(Column.COINS);
+        lastMinuteCoins.add(Math.max(0, amount));
     }
 
     public void addTokens(long amount) {
-        synchronized (dataLock) {
-            this.tokens = Math.max(0, this.tokens + amount);
-            this.lastMinuteTokens += Math.max(0, amount);
-        }
+        addClamped(tokens, amount);
+        touch(Column.TOKENS);
+        lastMinuteTokens.add(Math.max(0, amount));
     }
 
     public void addExperience(long amount) {
-        synchronized (dataLock) {
-            this.experience = Math.max(0, this.experience + amount);
-            this.lastMinuteExperience += Math.max(0, amount);
-        }
+        addClamped(experience, amount);
+        touch(Column.EXPERIENCE);
+        lastMinuteExperience.add(Math.max(0, amount));
     }
 
     public void addBeacons(long amount) {
-        synchronized (dataLock) {
-            this.beacons = Math.max(0, this.beacons + amount);
-        }
+        addClamped(beacons, amount);
+        touch(Column.BEACONS);
     }
 
     // CORRIGÉ: Méthodes spécifiques VIA PIOCHE avec tracking séparé
 
     public void addCoinsViaPickaxe(long amount) {
-        synchronized (dataLock) {
-            this.coins = Math.max(0, this.coins + amount);
-            this.coinsViaPickaxe = Math.max(0, this.coinsViaPickaxe + amount);
-            this.lastMinuteCoins += Math.max(0, amount);
-            this.lastMinuteCoinsViaPickaxe += Math.max(0, amount); // NOUVEAU : Track séparé
-        }
+        addClamped(coins, amount);
+        addClamped(coinsViaPickaxe, amount);
+        touch(Column.COINS);
+        touch(Column.COINS_VIA_PICKAXE);
+        lastMinuteCoins.add(Math.max(0, amount));
+        lastMinuteCoinsViaPickaxe.add(Math.max(0, amount)); // NOUVEAU : Track séparé
     }
 
     public void addCoinsViaAutosell(long amount) {
-        synchronized (dataLock) {
-            this.coins = Math.max(0, this.coins + amount);
-            this.coinsViaAutosell = Math.max(0, this.coinsViaAutosell + amount);
-            this.lastMinuteAutosell += Math.max(0, amount);
-        }
+        addClamped(coins, amount);
+        addClamped(coinsViaAutosell, amount);
+        touch(Column.COINS);
+        lastMinuteAutosell.add(Math.max(0, amount));
     }
 
     public void addTokensViaPickaxe(long amount) {
-        synchronized (dataLock) {
-            this.tokens = Math.max(0, this.tokens + amount);
-            this.tokensViaPickaxe = Math.max(0, this.tokensViaPickaxe + amount);
-            this.lastMinuteTokens += Math.max(0, amount);
-            this.lastMinuteTokensViaPickaxe += Math.max(0, amount); // NOUVEAU : Track séparé
-        }
+        addClamped(tokens, amount);
+        addClamped(tokensViaPickaxe, amount);
+        touch(Column.TOKENS);
+        touch(Column.TOKENS_VIA_PICKAXE);
+        lastMinuteTokens.add(Math.max(0, amount));
+        lastMinuteTokensViaPickaxe.add(Math.max(0, amount)); // NOUVEAU : Track séparé
     }
 
     public void addExperienceViaPickaxe(long amount) {
-        synchronized (dataLock) {
-            this.experience = Math.max(0, this.experience + amount);
-            this.experienceViaPickaxe = Math.max(0, this.experienceViaPickaxe + amount);
-            this.lastMinuteExperience += Math.max(0, amount);
-            this.lastMinuteExperienceViaPickaxe += Math.max(0, amount); // NOUVEAU : Track séparé
-        }
+        addClamped(experience, amount);
+        addClamped(experienceViaPickaxe, amount);
+        touch(Column.EXPERIENCE);
+        touch(Column.EXPERIENCE_VIA_PICKAXE);
+        lastMinuteExperience.add(Math.max(0, amount));
+        lastMinuteExperienceViaPickaxe.add(Math.max(0, amount)); // NOUVEAU : Track séparé
     }
 
     // Méthodes pour le tracking des statistiques spécialisées
     public void addGreedTrigger() {
-        synchronized (dataLock) {
-            this.totalGreedTriggers++;
-            this.lastMinuteGreedTriggers++;
-        }
+        totalGreedTriggers.increment();
+        touch(Column.STATISTICS_TOTAL_GREED_TRIGGERS);
+        lastMinuteGreedTriggers.increment();
     }
 
     public void addKeyObtained() {
-        synchronized (dataLock) {
-            this.totalKeysObtained++;
-            this.lastMinuteKeysObtained++;
-        }
+        totalKeysObtained.increment();
+        touch(Column.STATISTICS_TOTAL_KEYS_OBTAINED);
+        lastMinuteKeysObtained.increment();
     }
 
     public boolean removeTokens(long amount) {
-        synchronized (dataLock) {
-            if (this.tokens >= amount) {
-                this.tokens -= amount;
-                return true;
-            }
-            return false;
-        }
+        if (!removeIfSufficient(tokens, amount)) return false;
+        touch(Column.TOKENS);
+        return true;
     }
 
     public void removeCoins(long amount) {
-        synchronized (dataLock) {
-            if (this.coins >= amount) {
-                this.coins -= amount;
-            }
-        }
+        if (removeIfSufficient(coins, amount)) touch(Column.COINS);
     }
 
     public void removeExperience(long amount) {
-        synchronized (dataLock) {
-            if (this.experience >= amount) {
-                this.experience -= amount;
+        if (removeIfSufficient(experience, amount)) touch(Column.EXPERIENCE);
+    }
 
+    public void removeBeacon(long amount) {
+        if (removeIfSufficient(beacons, amount)) touch(Column.BEACONS);
+    }
+
+    /**
+     * Ajoute (ou retire si négatif) un montant à un solde sans le faire passer sous 0
+     */
+    private static void addClamped(AtomicLong balance, long amount) {
+        balanceUpdates.increment();
+        long current = balance.get();
+        while (!balance.compareAndSet(current, Math.max(0, current + amount))) {
+            balanceCasRetries.increment();
+            current = balance.get();
+        }
+    }
+
+    /**
+     * Retire un montant d'un solde uniquement s'il est suffisant
+     */
+    private static boolean removeIfSufficient(AtomicLong balance, long amount) {
+        balanceUpdates.increment();
+        long current = balance.get();
+        while (current >= amount) {
+            if (balance.compareAndSet(current, current - amount)) {
+                return true;
             }
+            balanceCasRetries.increment();
+            current = balance.get();
         }
+        return false;
     }
 
-    public void removeBeacon(long amount) {
-        synchronized (dataLock) {
-            if (this.beacons >= amount) {
-                this.beacons -= amount;
+    /**
+     * Nombre de mises à jour de soldes depuis le démarrage (tous joueurs)
+     */
+    public static long getBalanceUpdates() {
+        return balanceUpdates.sum();
+    }
 
-            }
+    /**
+     * Nombre de tentatives CAS rejouées sur les soldes : mesure de la contention entre threads
+     */
+    public static long getBalanceCasRetries() {
+        return balanceCasRetries.sum();
+    }
+
+    /**
+     * Niveau d'un enchantement par son id (voir EnchantmentIds)
+     */
+    public int getEnchantmentLevel(int enchantmentId) {
+        int[] table = enchantmentLevelTable;
+        if (enchantmentId >= 0 && enchantmentId < table.length) {
+            return table[enchantmentId];
         }
+        // Id attribué après la dernière reconstruction de la table
+        String enchantmentName = EnchantmentIds.nameOf(enchantmentId);
+        return enchantmentName != null ? enchantmentLevels.getOrDefault(enchantmentName, 0) : 0;
     }
 
     public int getEnchantmentLevel(String enchantmentName) {
-        return enchantmentLevels.getOrDefault(enchantmentName, 0);
+        int enchantmentId = EnchantmentIds.of(enchantmentName);
+        return enchantmentId >= 0 ? getEnchantmentLevel(enchantmentId) : enchantmentLevels.getOrDefault(enchantmentName, 0);
     }
 
     public void setEnchantmentLevel(String enchantmentName, int level) {
@@ -430,7 +494,9 @@ public class PlayerData {
             } else {
                 enchantmentLevels.put(enchantmentName, level);
             }
+            rebuildEnchantmentLevelTable();
         }
+        touch(Column.ENCHANTMENTS);
     }
 
     public void setEnchantmentLevel(Map<String, Integer> enchantments) {
@@ -439,7 +505,20 @@ public class PlayerData {
             if (enchantments != null) {
                 this.enchantmentLevels.putAll(enchantments);
             }
+            rebuildEnchantmentLevelTable();
         }
+        touch(Column.ENCHANTMENTS);
+    }
+
+    private void rebuildEnchantmentLevelTable() {
+        int[] table = new int[EnchantmentIds.count()];
+        for (Map.Entry<String, Integer> entry : enchantmentLevels.entrySet()) {
+            int enchantmentId = EnchantmentIds.of(entry.getKey());
+            if (enchantmentId >= 0 && enchantmentId < table.length) {
+                table[enchantmentId] = entry.getValue();
+            }
+        }
+        this.enchantmentLevelTable = table;
     }
 
     // NOUVEAU: Gestion des enchantements mobilité désactivés
@@ -453,6 +532,7 @@ public class PlayerData {
         } else {
             mobilityEnchantmentsDisabled.add(enchantmentName);
         }
+        touch(Column.MOBILITY_DISABLED);
     }
 
     public void setMobilityEnchantmentEnabled(Set<String> mobilityDisabled) {
@@ -462,6 +542,7 @@ public class PlayerData {
                 this.mobilityEnchantmentsDisabled.addAll(mobilityDisabled);
             }
         }
+        touch(Column.MOBILITY_DISABLED);
     }
 
     public void updateCombustion(int gainPerBlock) {
@@ -551,15 +632,15 @@ public class PlayerData {
      * Les blocs minés comptent aussi comme détruits dans le total général
      */
     public void addMinedBlock(Material material) {
-        synchronized (dataLock) {
-            totalBlocksMined++;           // Blocs minés directement par la pioche
-            totalBlocksDestroyed++;       // Ces blocs comptent aussi dans le total général
-            lastMinuteBlocksMined++;      // Stats de la minute
-            lastMinuteBlocksDestroyed++;  // Ces blocs comptent aussi dans le total minute
+        totalBlocksMined.increment();           // Blocs minés directement par la pioche
+        totalBlocksDestroyed.increment();       // Ces blocs comptent aussi dans le total général
+        lastMinuteBlocksMined.increment();      // Stats de la minute
+        lastMinuteBlocksDestroyed.increment();  // Ces blocs comptent aussi dans le total minute
+        touch(Column.STATISTICS_TOTAL_BLOCKS_MINED);
+        touch(Column.STATISTICS_TOTAL_BLOCKS_DESTROYED);
 
-            if (material != null) {
-                blocksMinedByType.merge(material, 1L, Long::sum);
-            }
+        if (material != null) {
+            blocksMinedByType.increment(material);
         }
     }
 
@@ -568,28 +649,27 @@ public class PlayerData {
      * Ces blocs s'ajoutent au total des blocs détruits mais pas au total des blocs minés
      */
     public void addDestroyedBlocks(int count) {
-        synchronized (dataLock) {
-            totalBlocksDestroyed += count;       // S'ajoute au total général
-            lastMinuteBlocksDestroyed += count;  // S'ajoute au total minute
-        }
+        totalBlocksDestroyed.add(count);       // S'ajoute au total général
+        lastMinuteBlocksDestroyed.add(count);  // S'ajoute au total minute
+        touch(Column.STATISTICS_TOTAL_BLOCKS_DESTROYED);
     }
 
     public void resetLastMinuteStats() {
+        lastMinuteCoins.reset();
+        lastMinuteAutosell.reset();
+        lastMinuteTokens.reset();
+        lastMinuteExperience.reset();
+        lastMinuteCoinsViaPickaxe.reset();
+        lastMinuteTokensViaPickaxe.reset();
+        lastMinuteExperienceViaPickaxe.reset();
+        lastMinuteBlocksMined.reset();
+        lastMinuteBlocksDestroyed.reset();
+        lastMinuteGreedTriggers.reset();
+        lastMinuteKeysObtained.reset();
+        lastMinuteBlocksAddedToInventory.reset();
         synchronized (dataLock) {
-            this.lastMinuteCoins = 0;
-            this.lastMinuteAutosell = 0;
-            this.lastMinuteTokens = 0;
-            this.lastMinuteExperience = 0;
-            this.lastMinuteCoinsViaPickaxe = 0;
-            this.lastMinuteTokensViaPickaxe = 0;
-            this.lastMinuteExperienceViaPickaxe = 0;
             this.lastMinuteAutoUpgrades = 0;
             this.lastMinuteAutoUpgradeDetails.clear(); // ← NOUVEAU
-            this.lastMinuteBlocksMined = 0;
-            this.lastMinuteBlocksDestroyed = 0;
-            this.lastMinuteGreedTriggers = 0;
-            this.lastMinuteKeysObtained = 0;
-            this.lastMinuteBlocksAddedToInventory = 0;
         }
     }
 
@@ -603,6 +683,7 @@ public class PlayerData {
         } else {
             autoUpgradeEnabled.remove(enchantmentName);
         }
+        touch(Column.AUTO_UPGRADE);
     }
 
     // Combustion
@@ -627,99 +708,76 @@ public class PlayerData {
     }
 
     public long getCoins() {
-        synchronized (dataLock) {
-            return coins;
-        }
+        return coins.get();
     }
 
     // Setters directs pour la sauvegarde/chargement
     public void setCoins(long coins) {
-        synchronized (dataLock) {
-            this.coins = Math.max(0, coins);
-        }
+        this.coins.set(Math.max(0, coins));
+        touch(Column.COINS);
     }
 
     // Auto-upgrade
 
     public long getTokens() {
-        synchronized (dataLock) {
-            return tokens;
-        }
+        return tokens.get();
     }
 
     public void setTokens(long tokens) {
-        synchronized (dataLock) {
-            this.tokens = Math.max(0, tokens);
-        }
+        this.tokens.set(Math.max(0, tokens));
+        touch(Column.TOKENS);
     }
 
     public long getExperience() {
-        synchronized (dataLock) {
-            return experience;
-        }
+        return experience.get();
     }
 
     public void setExperience(long experience) {
-        synchronized (dataLock) {
-            this.experience = Math.max(0, experience);
-        }
+        this.experience.set(Math.max(0, experience));
+        touch(Column.EXPERIENCE);
     }
 
     public long getBeacons() {
-        synchronized (dataLock) {
-            return beacons;
-        }
+        return beacons.get();
     }
 
     // Mine
 
     public void setBeacons(long beacons) {
-        synchronized (dataLock) {
-            this.beacons = Math.max(0, beacons);
-        }
+        this.beacons.set(Math.max(0, beacons));
+        touch(Column.BEACONS);
     }
 
     // NOUVEAUX: Getters spécifiques pioche
     public long getCoinsViaPickaxe() {
-        synchronized (dataLock) {
-            return coinsViaPickaxe;
-        }
+        return coinsViaPickaxe.get();
     }
 
     public void setCoinsViaPickaxe(long coinsViaPickaxe) {
-        synchronized (dataLock) {
-            this.coinsViaPickaxe = Math.max(0, coinsViaPickaxe);
-        }
+        this.coinsViaPickaxe.set(Math.max(0, coinsViaPickaxe));
+        touch(Column.COINS_VIA_PICKAXE);
     }
 
     public long getCoinsViaAutosell() {
-        synchronized (dataLock) {
-            return coinsViaAutosell;
-        }
+        return coinsViaAutosell.get();
     }
 
     public long getTokensViaPickaxe() {
-        synchronized (dataLock) {
-            return tokensViaPickaxe;
-        }
+        return tokensViaPickaxe.get();
     }
 
     public void setTokensViaPickaxe(long tokensViaPickaxe) {
-        synchronized (dataLock) {
-            this.tokensViaPickaxe = Math.max(0, tokensViaPickaxe);
-        }
+        this.tokensViaPickaxe.set(Math.max(0, tokensViaPickaxe));
+        touch(Column.TOKENS_VIA_PICKAXE);
     }
 
     public long getExperienceViaPickaxe() {
-        synchronized (dataLock) {
-            return experienceViaPickaxe;
-        }
+        return experienceViaPickaxe.get();
     }
 
     public void setExperienceViaPickaxe(long experienceViaPickaxe) {
-        synchronized (dataLock) {
-            this.experienceViaPickaxe = Math.max(0, experienceViaPickaxe);
-        }
+        this.experienceViaPickaxe.set(Math.max(0, experienceViaPickaxe));
+        touch(Column.EXPERIENCE_VIA_PICKAXE);
     }
 
     // Getters thread-safe
@@ -737,46 +795,32 @@ public class PlayerData {
     }
 
     public long getLastMinuteCoins() {
-        synchronized (dataLock) {
-            return lastMinuteCoins;
-        }
+        return lastMinuteCoins.sum();
     }
 
     public long getLastMinuteTokens() {
-        synchronized (dataLock) {
-            return lastMinuteTokens;
-        }
+        return lastMinuteTokens.sum();
     }
 
     public long getLastMinuteExperience() {
-        synchronized (dataLock) {
-            return lastMinuteExperience;
-        }
+        return lastMinuteExperience.sum();
     }
 
     // NOUVEAUX: Getters gains via pioche dernière minute
     public long getLastMinuteCoinsViaPickaxe() {
-        synchronized (dataLock) {
-            return lastMinuteCoinsViaPickaxe;
-        }
+        return lastMinuteCoinsViaPickaxe.sum();
     }
 
     public long getLastMinuteCoinsViaAutosell() {
-        synchronized (dataLock) {
-            return lastMinuteAutosell;
-        }
+        return lastMinuteAutosell.sum();
     }
 
     public long getLastMinuteTokensViaPickaxe() {
-        synchronized (dataLock) {
-            return lastMinuteTokensViaPickaxe;
-        }
+        return lastMinuteTokensViaPickaxe.sum();
     }
 
     public long getLastMinuteExperienceViaPickaxe() {
-        synchronized (dataLock) {
-            return lastMinuteExperienceViaPickaxe;
-        }
+        return lastMinuteExperienceViaPickaxe.sum();
     }
 
     public int getLastMinuteAutoUpgrades() {
@@ -792,63 +836,47 @@ public class PlayerData {
     }
 
     public long getLastMinuteBlocksMined() {
-        synchronized (dataLock) {
-            return lastMinuteBlocksMined;
-        }
+        return lastMinuteBlocksMined.sum();
     }
 
     public long getLastMinuteBlocksDestroyed() {
-        synchronized (dataLock) {
-            return lastMinuteBlocksDestroyed;
-        }
+        return lastMinuteBlocksDestroyed.sum();
     }
 
     public long getLastMinuteGreedTriggers() {
-        synchronized (dataLock) {
-            return lastMinuteGreedTriggers;
-        }
+        return lastMinuteGreedTriggers.sum();
     }
 
     public long getLastMinuteKeysObtained() {
-        synchronized (dataLock) {
-            return lastMinuteKeysObtained;
-        }
+        return lastMinuteKeysObtained.sum();
     }
 
     public long getTotalGreedTriggers() {
-        synchronized (dataLock) {
-            return totalGreedTriggers;
-        }
+        return totalGreedTriggers.sum();
     }
 
     public void setTotalGreedTriggers(long totalGreedTriggers) {
-        synchronized (dataLock) {
-            this.totalGreedTriggers = Math.max(0, totalGreedTriggers);
-        }
+        this.totalGreedTriggers.reset();
+        this.totalGreedTriggers.add(Math.max(0, totalGreedTriggers));
+        touch(Column.STATISTICS_TOTAL_GREED_TRIGGERS);
     }
 
     public long getTotalKeysObtained() {
-        synchronized (dataLock) {
-            return totalKeysObtained;
-        }
+        return totalKeysObtained.sum();
     }
 
     public void setTotalKeysObtained(long totalKeysObtained) {
-        synchronized (dataLock) {
-            this.totalKeysObtained = Math.max(0, totalKeysObtained);
-        }
+        this.totalKeysObtained.reset();
+        this.totalKeysObtained.add(Math.max(0, totalKeysObtained));
+        touch(Column.STATISTICS_TOTAL_KEYS_OBTAINED);
     }
 
     public void addBlocksToInventory(int count) {
-        synchronized (dataLock) {
-            this.lastMinuteBlocksAddedToInventory += count;
-        }
+        lastMinuteBlocksAddedToInventory.add(count);
     }
 
     public long getLastMinuteBlocksAddedToInventory() {
-        synchronized (dataLock) {
-            return lastMinuteBlocksAddedToInventory;
-        }
+        return lastMinuteBlocksAddedToInventory.sum();
     }
 
     // NOUVEAU : Met à jour le temps de minage (utilisé pour tracker l'activité)
@@ -875,24 +903,31 @@ public class PlayerData {
         return playerName;
     }
 
+    /**
+     * Compteurs par matériau, partagés avec le BlockCollectorManager
+     */
+    public MaterialCounters getBlocksMinedByType() {
+        return blocksMinedByType;
+    }
+
     public long getTotalBlocksMined() {
-        return totalBlocksMined;
+        return totalBlocksMined.sum();
     }
 
     public void setTotalBlocksMined(long totalBlocksMined) {
-        synchronized (dataLock) {
-            this.totalBlocksMined = Math.max(0, totalBlocksMined);
-        }
+        this.totalBlocksMined.reset();
+        this.totalBlocksMined.add(Math.max(0, totalBlocksMined));
+        touch(Column.STATISTICS_TOTAL_BLOCKS_MINED);
     }
 
     public long getTotalBlocksDestroyed() {
-        return totalBlocksDestroyed;
+        return totalBlocksDestroyed.sum();
     }
 
     public void setTotalBlocksDestroyed(long totalBlocksDestroyed) {
-        synchronized (dataLock) {
-            this.totalBlocksDestroyed = Math.max(0, totalBlocksDestroyed);
-        }
+        this.totalBlocksDestroyed.reset();
+        this.totalBlocksDestroyed.add(Math.max(0, totalBlocksDestroyed));
+        touch(Column.STATISTICS_TOTAL_BLOCKS_DESTROYED);
     }
 
     public Map<String, Integer> getEnchantmentLevels() {
@@ -910,6 +945,7 @@ public class PlayerData {
                 this.autoUpgradeEnabled.addAll(autoUpgrade);
             }
         }
+        touch(Column.AUTO_UPGRADE);
     }
 
     public Set<String> getMobilityEnchantmentsDisabled() {
@@ -944,6 +980,7 @@ public class PlayerData {
         synchronized (dataLock) {
             pickaxeCristals.put(cristalUuid, cristalData);
         }
+        touch(Column.PICKAXE_CRISTALS);
     }
 
     public void setPickaxeCristal(Map<String, String> cristals) {
@@ -953,12 +990,14 @@ public class PlayerData {
                 this.pickaxeCristals.putAll(cristals);
             }
         }
+        touch(Column.PICKAXE_CRISTALS);
     }
 
     public void removePickaxeCristal(String cristalUuid) {
         synchronized (dataLock) {
             pickaxeCristals.remove(cristalUuid);
         }
+        touch(Column.PICKAXE_CRISTALS);
     }
 
     /**
@@ -966,6 +1005,7 @@ public class PlayerData {
      */
     public void addPermission(String permission) {
         customPermissions.add(permission);
+        touch(Column.CUSTOM_PERMISSIONS);
     }
 
     /**
@@ -973,6 +1013,7 @@ public class PlayerData {
      */
     public void removePermission(String permission) {
         customPermissions.remove(permission);
+        touch(Column.CUSTOM_PERMISSIONS);
     }
 
     /**
@@ -994,6 +1035,7 @@ public class PlayerData {
      */
     public void setCustomPermissions(Set<String> permissions) {
         this.customPermissions = new HashSet<>(permissions);
+        touch(Column.CUSTOM_PERMISSIONS);
     }
 
     /**
@@ -1025,6 +1067,7 @@ public class PlayerData {
                 pickaxeEnchantmentBookLevels.put(bookId, level);
             }
         }
+        touch(Column.PICKAXE_ENCHANTMENT_BOOK_LEVELS);
     }
 
     /**
@@ -1072,6 +1115,7 @@ public class PlayerData {
                 this.pickaxeEnchantmentBookLevels.putAll(levels);
             }
         }
+        touch(Column.PICKAXE_ENCHANTMENT_BOOK_LEVELS);
     }
 
     /**
@@ -1099,6 +1143,7 @@ public class PlayerData {
                 pickaxeEnchantmentBookLevels.put(bookId, 1);
             }
         }
+        touch(Column.PICKAXE_ENCHANTMENT_BOOK_LEVELS);
     }
 
     public Set<String> getActiveEnchantmentBooks() {
@@ -1108,6 +1153,7 @@ public class PlayerData {
     public void setActiveEnchantmentBooks(Set<String> activeEnchantmentBooks) {
         synchronized (dataLock) {
             this.activeEnchantmentBooks = activeEnchantmentBooks != null ? new HashSet<>(activeEnchantmentBooks) : new HashSet<>();
+            touch(Column.ACTIVE_ENCHANTMENTS);
         }
     }
 
@@ -1117,6 +1163,7 @@ public class PlayerData {
     public void addSanction(String type, String reason, String moderator, long startTime, long endTime) {
         SanctionData sanction = new SanctionData(type, reason, moderator, startTime, endTime);
         sanctionHistory.add(sanction);
+        touch(Column.SANCTIONS);
     }
 
     /**
@@ -1133,6 +1180,7 @@ public class PlayerData {
                 this.sanctionHistory.addAll(sanctions);
             }
         }
+        touch(Column.SANCTIONS);
     }
 
     /**
@@ -1154,6 +1202,7 @@ public class PlayerData {
      */
     public void setActiveProfession(String profession) {
         this.activeProfession = profession;
+        touch(Column.ACTIVE_PROFESSION);
     }
 
     //metier
@@ -1170,6 +1219,7 @@ public class PlayerData {
      */
     public void setLastProfessionChange(long timestamp) {
         this.lastProfessionChange = timestamp;
+        touch(Column.LAST_PROFESSION_CHANGE);
     }
 
     /**
@@ -1184,6 +1234,7 @@ public class PlayerData {
      */
     public void setProfessionLevel(String profession, int level) {
         professionLevels.put(profession, Math.max(1, Math.min(10, level)));
+        touch(Column.PROFESSION_LEVELS);
     }
 
     /**
@@ -1198,6 +1249,7 @@ public class PlayerData {
      */
     public void setProfessionXP(String profession, int xp) {
         professionXP.put(profession, Math.max(0, xp));
+        touch(Column.PROFESSION_XP);
     }
 
     /**
@@ -1214,6 +1266,7 @@ public class PlayerData {
      */
     public void setTalentLevel(String profession, String talent, int level) {
         talentLevels.computeIfAbsent(profession, k -> new ConcurrentHashMap<>()).put(talent, level);
+        touch(Column.TALENT_LEVELS);
     }
 
     /**
@@ -1233,6 +1286,7 @@ public class PlayerData {
                 this.professionLevels.putAll(levels);
             }
         }
+        touch(Column.PROFESSION_LEVELS);
     }
 
     /**
@@ -1252,6 +1306,7 @@ public class PlayerData {
                 this.professionXP.putAll(xpMap);
             }
         }
+        touch(Column.PROFESSION_XP);
     }
 
     /**
@@ -1272,6 +1327,7 @@ public class PlayerData {
                 this.talentLevels.putAll(talents);
             }
         }
+        touch(Column.TALENT_LEVELS);
     }
 
     /**
@@ -1288,6 +1344,7 @@ public class PlayerData {
                 this.kitLevels.putAll(kits);
             }
         }
+        touch(Column.KIT_LEVELS);
     }
 
     /**
@@ -1302,6 +1359,7 @@ public class PlayerData {
      */
     public void setKitLevel(String profession, int level) {
         kitLevels.put(profession, Math.max(0, Math.min(10, level)));
+        touch(Column.KIT_LEVELS);
     }
 
     /**
@@ -1316,6 +1374,7 @@ public class PlayerData {
      */
     public void claimProfessionReward(String profession, int level) {
         claimedProfessionRewards.computeIfAbsent(profession, k -> ConcurrentHashMap.newKeySet()).add(level);
+        touch(Column.PROFESSION_REWARDS);
     }
 
     /**
@@ -1343,6 +1402,7 @@ public class PlayerData {
                 this.claimedProfessionRewards.putAll(rewards);
             }
         }
+        touch(Column.PROFESSION_REWARDS);
     }
 
     /**
@@ -1398,6 +1458,7 @@ public class PlayerData {
                 customPermissions.add(newPrestigePermission);
             }
         }
+        touch(Column.CUSTOM_PERMISSIONS);
     }
 
     /**
@@ -1526,6 +1587,7 @@ public class PlayerData {
             // Ajouter aussi aux talents actifs pour les calculs de bonus
             prestigeTalents.put(talent, prestigeTalents.getOrDefault(talent, 0) + 1);
         }
+        touch(Column.CHOSEN_PRESTIGE_COLUMNS);
     }
 
     /**
@@ -1554,6 +1616,7 @@ public class PlayerData {
             this.chosenPrestigeColumns.clear();
             this.chosenPrestigeColumns.putAll(columns);
         }
+        touch(Column.CHOSEN_PRESTIGE_COLUMNS);
     }
 
     /**
@@ -1567,6 +1630,7 @@ public class PlayerData {
             chosenPrestigeTalents.clear();
             // Les récompenses spéciales sont CONSERVÉES
         }
+        touch(Column.CHOSEN_PRESTIGE_COLUMNS);
     }
 
     /**
@@ -1579,6 +1643,7 @@ public class PlayerData {
             unlockedPrestigeRewards.put(rewardId, true);
             markPrestigeLevelCompleted(prestigeLevel);
         }
+        touch(Column.CHOSEN_SPECIAL_REWARDS);
     }
 
     /**
@@ -1610,6 +1675,7 @@ public class PlayerData {
             this.chosenSpecialRewards.clear();
             this.chosenSpecialRewards.putAll(rewards);
         }
+        touch(Column.CHOSEN_SPECIAL_REWARDS);
     }
 
     /**
@@ -1628,6 +1694,7 @@ public class PlayerData {
      */
     public void setReputation(int reputation) {
         this.reputation = Math.max(-1000, Math.min(1000, reputation));
+        touch(Column.REPUTATION);
     }
 
     /**
@@ -1636,7 +1703,9 @@ public class PlayerData {
     public Map<String, PlayerBoost> getActiveBoosts() {
         synchronized (dataLock) {
             // Nettoie les boosts expirés avant de retourner
-            activeBoosts.entrySet().removeIf(entry -> !entry.getValue().isActive());
+            if (activeBoosts.entrySet().removeIf(entry -> !entry.getValue().isActive())) {
+                touch(Column.BOOSTS);
+            }
             return new HashMap<>(activeBoosts);
         }
     }
@@ -1656,6 +1725,7 @@ public class PlayerData {
                 }
             }
         }
+        touch(Column.BOOSTS);
     }
 
 
@@ -1666,6 +1736,7 @@ public class PlayerData {
         synchronized (dataLock) {
             this.activeBoosts.clear();
         }
+        touch(Column.BOOSTS);
     }
 
     /**
@@ -1683,7 +1754,9 @@ public class PlayerData {
      */
     public void cleanupExpiredBoosts() {
         synchronized (dataLock) {
-            activeBoosts.entrySet().removeIf(entry -> !entry.getValue().isActive());
+            if (activeBoosts.entrySet().removeIf(entry -> !entry.getValue().isActive())) {
+                touch(Column.BOOSTS);
+            }
         }
     }
 
@@ -1694,6 +1767,7 @@ public class PlayerData {
 
     public void setActiveAutominerSlot1(ItemStack activeAutominerSlot1) {
         this.activeAutominerSlot1 = activeAutominerSlot1;
+        touch(Column.AUTOMINER_ACTIVE_SLOT_1);
     }
 
     public ItemStack getActiveAutominerSlot2() {
@@ -1702,6 +1776,7 @@ public class PlayerData {
 
     public void setActiveAutominerSlot2(ItemStack activeAutominerSlot2) {
         this.activeAutominerSlot2 = activeAutominerSlot2;
+        touch(Column.AUTOMINER_ACTIVE_SLOT_2);
     }
 
     // Carburant
@@ -1711,6 +1786,7 @@ public class PlayerData {
 
     public void setAutominerFuelReserve(double autominerFuelReserve) {
         this.autominerFuelReserve = Math.max(0, autominerFuelReserve);
+        touch(Column.AUTOMINER_FUEL_RESERVE);
     }
 
     // Monde de minage
@@ -1720,6 +1796,7 @@ public class PlayerData {
 
     public void setAutominerCurrentWorld(String autominerCurrentWorld) {
         this.autominerCurrentWorld = autominerCurrentWorld;
+        touch(Column.AUTOMINER_CURRENT_WORLD);
     }
 
     // Stockage
@@ -1729,6 +1806,7 @@ public class PlayerData {
 
     public void setAutominerStorageLevel(int autominerStorageLevel) {
         this.autominerStorageLevel = Math.max(0, autominerStorageLevel);
+        touch(Column.AUTOMINER_STORAGE_LEVEL);
     }
 
     public Map<Material, Long> getAutominerStorageContents() {
@@ -1740,6 +1818,7 @@ public class PlayerData {
         if (contents != null) {
             this.autominerStorageContents.putAll(contents);
         }
+        touch(Column.AUTOMINER_STORAGE_ITEMS);
     }
 
     public void setAutominerStorageContents(Material material, long value) {
@@ -1750,6 +1829,7 @@ public class PlayerData {
                 autominerStorageContents.put(material, value);
             }
         }
+        touch(Column.AUTOMINER_STORAGE_ITEMS);
     }
 
     // Clés stockées
@@ -1771,17 +1851,20 @@ public class PlayerData {
 
     public void setAutominerPendingCoins(long autominerPendingCoins) {
         this.autominerPendingCoins = Math.max(0, autominerPendingCoins);
+        touch(Column.AUTOMINER_PENDING_COINS);
     }
 
     public void addAutominerPendingCoins(long amount) {
         if (amount > 0) {
             this.autominerPendingCoins += amount;
+            touch(Column.AUTOMINER_PENDING_COINS);
         }
     }
 
     public long claimAutominerPendingCoins() {
         long amount = this.autominerPendingCoins;
         this.autominerPendingCoins = 0;
+        touch(Column.AUTOMINER_PENDING_COINS);
         return amount;
     }
 
@@ -1791,17 +1874,20 @@ public class PlayerData {
 
     public void setAutominerPendingTokens(long autominerPendingTokens) {
         this.autominerPendingTokens = Math.max(0, autominerPendingTokens);
+        touch(Column.AUTOMINER_PENDING_TOKENS);
     }
 
     public void addAutominerPendingTokens(long amount) {
         if (amount > 0) {
             this.autominerPendingTokens += amount;
+            touch(Column.AUTOMINER_PENDING_TOKENS);
         }
     }
 
     public long claimAutominerPendingTokens() {
         long amount = this.autominerPendingTokens;
         this.autominerPendingTokens = 0;
+        touch(Column.AUTOMINER_PENDING_TOKENS);
         return amount;
     }
 
@@ -1811,17 +1897,20 @@ public class PlayerData {
 
     public void setAutominerPendingExperience(long autominerPendingExperience) {
         this.autominerPendingExperience = Math.max(0, autominerPendingExperience);
+        touch(Column.AUTOMINER_PENDING_EXPERIENCE);
     }
 
     public void addAutominerPendingExperience(long amount) {
         if (amount > 0) {
             this.autominerPendingExperience += amount;
+            touch(Column.AUTOMINER_PENDING_EXPERIENCE);
         }
     }
 
     public long claimAutominerPendingExperience() {
         long amount = this.autominerPendingExperience;
         this.autominerPendingExperience = 0;
+        touch(Column.AUTOMINER_PENDING_EXPERIENCE);
         return amount;
     }
 
@@ -1831,17 +1920,20 @@ public class PlayerData {
 
     public void setAutominerPendingBeacons(long autominerPendingBeacons) {
         this.autominerPendingBeacons = Math.max(0, autominerPendingBeacons);
+        touch(Column.AUTOMINER_PENDING_BEACONS);
     }
 
     public void addAutominerPendingBeacons(long amount) {
         if (amount > 0) {
             this.autominerPendingBeacons += amount;
+            touch(Column.AUTOMINER_PENDING_BEACONS);
         }
     }
 
     public long claimAutominerPendingBeacons() {
         long amount = this.autominerPendingBeacons;
         this.autominerPendingBeacons = 0;
+        touch(Column.AUTOMINER_PENDING_BEACONS);
         return amount;
     }
 
@@ -1881,6 +1973,7 @@ public class PlayerData {
     public void setSavingsBalance(long balance) {
         synchronized (dataLock) {
             this.savingsBalance = Math.max(0, balance);
+            touch(Column.BANK_SAVINGS_BALANCE);
         }
     }
 
@@ -1888,12 +1981,15 @@ public class PlayerData {
         synchronized (dataLock) {
             this.savingsBalance += amount;
             this.totalBankDeposits += amount; // Compte pour les niveaux bancaires
+            touch(Column.BANK_SAVINGS_BALANCE);
+            touch(Column.BANK_TOTAL_DEPOSITS);
         }
     }
 
     public void removeSavingsBalance(long amount) {
         synchronized (dataLock) {
             this.savingsBalance = Math.max(0, this.savingsBalance - amount);
+            touch(Column.BANK_SAVINGS_BALANCE);
         }
     }
 
@@ -1906,6 +2002,7 @@ public class PlayerData {
     public void setSafeBalance(long balance) {
         synchronized (dataLock) {
             this.safeBalance = Math.max(0, balance);
+            touch(Column.BANK_SAFE_BALANCE);
         }
     }
 
@@ -1916,12 +2013,14 @@ public class PlayerData {
     public void addSafeBalance(long amount) {
         synchronized (dataLock) {
             this.safeBalance += amount;
+            touch(Column.BANK_SAFE_BALANCE);
         }
     }
 
     public void removeSafeBalance(long amount) {
         synchronized (dataLock) {
             this.safeBalance = Math.max(0, this.safeBalance - amount);
+            touch(Column.BANK_SAFE_BALANCE);
         }
     }
 
@@ -1934,6 +2033,7 @@ public class PlayerData {
     public void setBankLevel(int level) {
         synchronized (dataLock) {
             this.bankLevel = Math.max(1, Math.min(10, level));
+            touch(Column.BANK_LEVEL);
         }
     }
 
@@ -1950,6 +2050,7 @@ public class PlayerData {
     public void setTotalBankDeposits(long total) {
         synchronized (dataLock) {
             this.totalBankDeposits = Math.max(0, total);
+            touch(Column.BANK_TOTAL_DEPOSITS);
         }
     }
 
@@ -1962,6 +2063,7 @@ public class PlayerData {
     public void setLastInterestTime(long timestamp) {
         synchronized (dataLock) {
             this.lastInterestTime = timestamp;
+            touch(Column.BANK_LAST_INTEREST);
         }
     }
 
@@ -1984,6 +2086,7 @@ public class PlayerData {
     public void addInvestment(Material material, long quantity) {
         synchronized (dataLock) {
             investments.put(material, investments.getOrDefault(material, 0L) + quantity);
+            touch(Column.BANK_INVESTMENTS);
         }
     }
 
@@ -1997,6 +2100,7 @@ public class PlayerData {
             } else {
                 investments.put(material, newAmount);
             }
+            touch(Column.BANK_INVESTMENTS);
         }
     }
 
@@ -2007,6 +2111,7 @@ public class PlayerData {
             } else {
                 investments.put(material, quantity);
             }
+            touch(Column.BANK_INVESTMENTS);
         }
     }
 
@@ -2063,6 +2168,7 @@ public class PlayerData {
      */
     public void setGangId(String gangId) {
         this.gangId = gangId;
+        touch(Column.GANG_ID);
     }
 
     /**
@@ -2077,6 +2183,7 @@ public class PlayerData {
      */
     public void setGangInvitation(String gangInvitation) {
         this.gangInvitation = gangInvitation;
+        touch(Column.GANG_INVITATION);
     }
 
     /**
@@ -2105,6 +2212,7 @@ public class PlayerData {
      */
     public void setSelectedOutpostSkin(String selectedOutpostSkin) {
         this.selectedOutpostSkin = selectedOutpostSkin;
+        touch(Column.SELECTED_OUTPOST_SKIN);
     }
 
     /**
@@ -2119,6 +2227,7 @@ public class PlayerData {
      */
     public void setUnlockedOutpostSkins(Set<String> unlockedOutpostSkins) {
         this.unlockedOutpostSkins = new HashSet<>(unlockedOutpostSkins);
+        touch(Column.UNLOCKED_OUTPOST_SKINS);
     }
 
     /**
@@ -2133,6 +2242,7 @@ public class PlayerData {
      */
     public void unlockOutpostSkin(String skinName) {
         unlockedOutpostSkins.add(skinName);
+        touch(Column.UNLOCKED_OUTPOST_SKINS);
     }
 
     /**
@@ -2147,6 +2257,7 @@ public class PlayerData {
      */
     public void setCollectedHeads(Set<String> collectedHeads) {
         this.collectedHeads = collectedHeads != null ? collectedHeads : new HashSet<>();
+        touch(Column.COLLECTED_HEADS);
     }
 
     /**
@@ -2161,6 +2272,26 @@ public class PlayerData {
      */
     public void setClaimedHeadRewards(Set<Integer> claimedHeadRewards) {
         this.claimedHeadRewards = claimedHeadRewards != null ? claimedHeadRewards : new HashSet<>();
+        touch(Column.CLAIMED_HEAD_REWARDS);
+    }
+
+    /**
+     * Colonnes persistées de la table players, dans l'ordre des colonnes du PlayerDataManager
+     * (au plus 64 : une colonne = un bit du masque des colonnes modifiées)
+     */
+    public enum Column {
+        NAME, COINS, TOKENS, EXPERIENCE, BEACONS, COINS_VIA_PICKAXE, TOKENS_VIA_PICKAXE, EXPERIENCE_VIA_PICKAXE,
+        ACTIVE_PROFESSION, LAST_PROFESSION_CHANGE, ENCHANTMENTS, AUTO_UPGRADE, MOBILITY_DISABLED, PICKAXE_CRISTALS,
+        CUSTOM_PERMISSIONS, SANCTIONS, ACTIVE_ENCHANTMENTS, PICKAXE_ENCHANTMENT_BOOK_LEVELS, PROFESSION_LEVELS,
+        PROFESSION_XP, TALENT_LEVELS, KIT_LEVELS, PROFESSION_REWARDS, CHOSEN_PRESTIGE_COLUMNS, CHOSEN_SPECIAL_REWARDS,
+        REPUTATION, BOOSTS, AUTOMINER_ACTIVE_SLOT_1, AUTOMINER_ACTIVE_SLOT_2, AUTOMINER_FUEL_RESERVE,
+        AUTOMINER_CURRENT_WORLD, AUTOMINER_STORAGE_LEVEL, AUTOMINER_STORAGE_ITEMS, AUTOMINER_PENDING_COINS,
+        AUTOMINER_PENDING_TOKENS, AUTOMINER_PENDING_EXPERIENCE, AUTOMINER_PENDING_BEACONS, BANK_SAVINGS_BALANCE,
+        BANK_SAFE_BALANCE, BANK_LEVEL, BANK_TOTAL_DEPOSITS, BANK_LAST_INTEREST, BANK_INVESTMENTS,
+        STATISTICS_TOTAL_BLOCKS_MINED, STATISTICS_TOTAL_BLOCKS_DESTROYED, STATISTICS_TOTAL_GREED_TRIGGERS,
+        STATISTICS_TOTAL_KEYS_OBTAINED, GANG_ID, GANG_INVITATION, SELECTED_OUTPOST_SKIN, UNLOCKED_OUTPOST_SKINS,
+        COLLECTED_HEADS, CLAIMED_HEAD_REWARDS, DAILY_PROGRESS, DAILY_LAST_CLAIM, TOTAL_PLAYTIME, LAST_REPAIR_TIME,
+        BANK_TYPE, BANK_TYPE_LAST_CHANGE, PRINTER_SLOT_BONUS
     }
 
     public record AutoUpgradeDetail(String displayName, int levelsGained, int newLevel) {
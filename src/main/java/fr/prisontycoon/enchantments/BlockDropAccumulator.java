@@ -0,0 +1,174 @@
+package fr.prisontycoon.enchantments;
+
+import fr.prisontycoon.PrisonTycoon;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Accumulateur de drops par joueur et par tick
+ * <p>
+ * Les blocs donnés pendant un tick (minage, laser, explosion, jackhammer...) sont comptés par matériau dans
+ * des tableaux primitifs, puis versés en une seule fois au tick suivant : un batch conteneurs, un addItem et
+ * une vente automatique par matériau au lieu d'un par bloc cassé.
+ * Utilisé uniquement depuis le thread principal.
+ */
+public class BlockDropAccumulator {
+
+    /**
+     * Destination des drops accumulés (conteneurs, inventaire, vente automatique)
+     */
+    @FunctionalInterface
+    public interface DropSink {
+        void deliver(Player player, Material material, int quantity, int sources, PlayerDropState state);
+    }
+
+    private static final Material[] MATERIALS = Material.values();
+
+    private final PrisonTycoon plugin;
+    private final DropSink sink;
+    private final Map<UUID, PlayerDropState> states = new HashMap<>();
+    private final Set<UUID> pendingPlayers = new LinkedHashSet<>();
+    private boolean flushScheduled = false;
+
+    // Statistiques : ajouts reçus / écritures réellement effectuées
+    private long accumulatedAdds = 0;
+    private long flushedWrites = 0;
+
+    public BlockDropAccumulator(PrisonTycoon plugin, DropSink sink) {
+        this.plugin = plugin;
+        this.sink = sink;
+    }
+
+    /**
+     * Ajoute des blocs au lot du joueur pour ce tick
+     */
+    public void add(Player player, Material material, int quantity, Location blockLocation) {
+        if (quantity <= 0) return;
+
+        PlayerDropState state = getState(player.getUniqueId());
+        state.add(material, quantity);
+        state.lastLocation = blockLocation;
+        pendingPlayers.add(player.getUniqueId());
+        accumulatedAdds++;
+
+        if (!flushScheduled) {
+            flushScheduled = true;
+            Bukkit.getScheduler().runTask(plugin, this::flushAll);
+        }
+    }
+
+    /**
+     * État persistant d'un joueur (lot en cours et caches : mine PlusValue, avertissement inventaire plein)
+     */
+    public PlayerDropState getState(UUID playerId) {
+        return states.computeIfAbsent(playerId, k -> new PlayerDropState());
+    }
+
+    /**
+     * Verse le lot d'un joueur qui se déconnecte puis oublie son état
+     */
+    public void removePlayer(Player player) {
+        if (pendingPlayers.remove(player.getUniqueId())) {
+            flush(player);
+        }
+        states.remove(player.getUniqueId());
+    }
+
+    private void flushAll() {
+        flushScheduled = false;
+        long adds = accumulatedAdds, writesBefore = flushedWrites;
+
+        List<UUID> players = new ArrayList<>(pendingPlayers);
+        pendingPlayers.clear();
+        for (UUID playerId : players) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null) {
+                flush(player);
+            } else {
+                PlayerDropState state = states.get(playerId);
+                if (state != null) state.clear();
+            }
+        }
+
+        long writes = flushedWrites - writesBefore;
+        accumulatedAdds = 0;
+        plugin.getPluginLogger().debugLazy(() -> "Drops du tick: " + adds + " ajouts fusionnés en " + writes + " écritures");
+    }
+
+    private void flush(Player player) {
+        PlayerDropState state = states.get(player.getUniqueId());
+        if (state == null || state.size == 0) return;
+
+        // Copie du lot : la livraison peut elle-même déclencher de nouveaux ajouts
+        int size = state.size;
+        int[] ordinals = Arrays.copyOf(state.ordinals, size);
+        int[] counts = Arrays.copyOf(state.counts, size);
+        int[] sources = Arrays.copyOf(state.sources, size);
+        state.clear();
+
+        for (int i = 0; i < size; i++) {
+            try {
+                sink.deliver(player, MATERIALS[ordinals[i]], counts[i], sources[i], state);
+            } catch (Exception e) {
+                plugin.getPluginLogger().warning("Erreur lors de la livraison des drops de " + player.getName() + ": " + e.getMessage());
+            }
+            flushedWrites++;
+        }
+    }
+
+    /**
+     * Lot en cours d'un joueur (matériau → quantité, en tableaux primitifs) et caches associés
+     */
+    public static final class PlayerDropState {
+        private int[] ordinals = new int[8];
+        private int[] counts = new int[8];
+        private int[] sources = new int[8];
+        private int size = 0;
+        private Location lastLocation;
+
+        // Cache du nom de mine pour PlusValue
+        String cachedMineName;
+        long cachedMineTime;
+        // Dernier avertissement "inventaire plein"
+        long lastInventoryFullWarning;
+
+        private void add(Material material, int quantity) {
+            int ordinal = material.ordinal();
+            for (int i = 0; i < size; i++) {
+                if (ordinals[i] == ordinal) {
+                    counts[i] = (int) Math.min(Integer.MAX_VALUE, (long) counts[i] + quantity);
+                    sources[i]++;
+                    return;
+                }
+            }
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+                sources = Arrays.copyOf(sources, size * 2);
+            }
+            ordinals[size] = ordinal;
+            counts[size] = quantity;
+            sources[size] = 1;
+            size++;
+        }
+
+        private void clear() {
+            size = 0;
+        }
+
+        public Location getLastLocation() {
+            return lastLocation;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package fr.prisontycoon.enchantments;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Identifiants entiers des enchantements custom
+ * <p>
+ * Chaque nom d'enchantement reçoit un id stable pour la durée du serveur : les enchantements lus à chaque
+ * bloc miné ont une constante, les autres reçoivent le leur à l'enregistrement dans l'EnchantmentManager.
+ * PlayerData s'en sert pour indexer sa table de niveaux ; la persistance reste par nom.
+ */
+public final class EnchantmentIds {
+
+    private static final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[0];
+
+    // CATÉGORIE ÉCONOMIQUE
+    public static final int TOKEN_GREED = register("token_greed");
+    public static final int EXP_GREED = register("exp_greed");
+    public static final int MONEY_GREED = register("money_greed");
+    public static final int ABUNDANCE = register("abundance");
+    public static final int COMBUSTION = register("combustion");
+    public static final int SELL_GREED = register("sell_greed");
+
+    // CATÉGORIE UTILITÉS
+    public static final int FORTUNE = register("fortune");
+    public static final int DURABILITY = register("durability");
+    public static final int JACKPOT = register("jackpot");
+    public static final int COHESION = register("cohesion");
+
+    // CATÉGORIE SPÉCIAUX
+    public static final int LUCK = register("luck");
+    public static final int LASER = register("laser");
+    public static final int EXPLOSION = register("explosion");
+    public static final int KEY_GREED = register("key_greed");
+    public static final int JACKHAMMER = register("jackhammer");
+    public static final int HERITAGE = register("heritage");
+    public static final int OPPORTUNITY_FEVER = register("opportunity_fever");
+
+    private EnchantmentIds() {
+    }
+
+    /**
+     * Attribue un id à un enchantement (ou retourne celui déjà attribué)
+     */
+    public static synchronized int register(String name) {
+        Integer existing = ids.get(name);
+        if (existing != null) return existing;
+
+        int id = names.length;
+        String[] extended = Arrays.copyOf(names, id + 1);
+        extended[id] = name;
+        names = extended;
+        ids.put(name, id);
+        return id;
+    }
+
+    /**
+     * Id d'un enchantement, -1 s'il n'est pas enregistré
+     */
+    public static int of(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Nom d'un enchantement à partir de son id
+     */
+    public static String nameOf(int id) {
+        String[] current = names;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * Nombre d'ids attribués
+     */
+    public static int count() {
+        return names.length;
+    }
+}
@@ -25,10 +25,13 @@ public class EnchantmentManager {
 
     private final PrisonTycoon plugin;
     private final Map<String, CustomEnchantment> enchantments;
+    // Drops regroupés par joueur et par tick (laser/explosion/jackhammer cassent des centaines de blocs par événement)
+    private final BlockDropAccumulator dropAccumulator;
 
     public EnchantmentManager(PrisonTycoon plugin) {
         this.plugin = plugin;
         this.enchantments = new HashMap<>();
+        this.dropAccumulator = new BlockDropAccumulator(plugin, this::deliverBlocks);
 
         initializeEnchantments();
         plugin.getPluginLogger().info("§aEnchantmentManager initialisé avec " + enchantments.size() + " enchantements.");
@@ -73,10 +76,11 @@ public class EnchantmentManager {
     }
 
     /**
-     * Enregistre un enchantement
+     * Enregistre un enchantement et lui attribue son id entier (table de niveaux de PlayerData)
      */
     private void registerEnchantment(CustomEnchantment enchantment) {
         enchantments.put(enchantment.getName(), enchantment);
+        EnchantmentIds.register(enchantment.getName());
     }
 
     /**
@@ -85,12 +89,12 @@ public class EnchantmentManager {
     public void processBlockMined(Player player, Location blockLocation, Material blockType, String mineName) {
         PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(player.getUniqueId());
 
-        // Ajoute aux statistiques de minage
+        // Ajoute aux statistiques de minage (compte aussi le bloc pour le collectionneur)
         playerData.addMinedBlock(blockType);
-        plugin.getBlockCollectorManager().add(player, blockType, 1);
+        plugin.getBlockCollectorManager().recordLeaderboard(player, blockType);
 
         // NOUVEAU : Jackpot — chance d'obtenir un voucher aléatoire en minant
-        int jackpotLevel = playerData.getEnchantmentLevel("jackpot");
+        int jackpotLevel = playerData.getEnchantmentLevel(EnchantmentIds.JACKPOT);
         if (jackpotLevel > 0) {
             double jChance = plugin.getConfigManager().getEnchantmentSetting("special.jackpot.base-chance", 0.00002) * jackpotLevel;
             if (ThreadLocalRandom.current().nextDouble() < jChance) {
@@ -119,9 +123,9 @@ public class EnchantmentManager {
                     // Force un greed aléatoire (hors keygreed)
                     int r = ThreadLocalRandom.current().nextInt(3);
                     int lvl = switch (r) {
-                        case 0 -> playerData.getEnchantmentLevel("token_greed");
-                        case 1 -> playerData.getEnchantmentLevel("money_greed");
-                        default -> playerData.getEnchantmentLevel("exp_greed");
+                        case 0 -> playerData.getEnchantmentLevel(EnchantmentIds.TOKEN_GREED);
+                        case 1 -> playerData.getEnchantmentLevel(EnchantmentIds.MONEY_GREED);
+                        default -> playerData.getEnchantmentLevel(EnchantmentIds.EXP_GREED);
                     };
                     if (lvl > 0) {
                         // Chance garantie => on appelle directement les traitements avec probas=1
@@ -175,10 +179,10 @@ public class EnchantmentManager {
      * MODIFIÉ : Traite les enchantements spéciaux (laser, explosion, jackhammer)
      */
     private void processSpecialEnchantments(Player player, PlayerData playerData, Location blockLocation, String mineName) {
-        int laserLevel = playerData.getEnchantmentLevel("laser");
-        int explosionLevel = playerData.getEnchantmentLevel("explosion");
-        int jackhammerLevel = playerData.getEnchantmentLevel("jackhammer"); // CORRIGÉ : était "explosion"
-        int feverLevel = playerData.getEnchantmentLevel("opportunity_fever");
+        int laserLevel = playerData.getEnchantmentLevel(EnchantmentIds.LASER);
+        int explosionLevel = playerData.getEnchantmentLevel(EnchantmentIds.EXPLOSION);
+        int jackhammerLevel = playerData.getEnchantmentLevel(EnchantmentIds.JACKHAMMER); // CORRIGÉ : était "explosion"
+        int feverLevel = playerData.getEnchantmentLevel(EnchantmentIds.OPPORTUNITY_FEVER);
 
         // Laser
         if (laserLevel > 0) {
@@ -497,7 +501,7 @@ public class EnchantmentManager {
             return 1; // Retourne 0 bloc bonus
         }
 
-        int fortuneLevel = playerData.getEnchantmentLevel("fortune");
+        int fortuneLevel = playerData.getEnchantmentLevel(EnchantmentIds.FORTUNE);
 
         // Pour chaque 100 niveaux, on gagne 1 bloc bonus garanti.
         int guaranteedBonus = fortuneLevel / 100;
@@ -531,8 +535,19 @@ public class EnchantmentManager {
 
     /**
      * MODIFIÉ : Ajoute plusieurs blocs à l'inventaire avec priorité aux conteneurs
+     * Les blocs sont accumulés pour le tick en cours et livrés en un lot par matériau (voir deliverBlocks).
      */
     private void addBlocksToInventory(Player player, Material material, int quantity, Location blockLocation) {
+        dropAccumulator.add(player, material, quantity, blockLocation);
+    }
+
+    /**
+     * Livre le lot d'un matériau accumulé pendant un tick : vente auto, ou conteneurs puis inventaire
+     *
+     * @param sources nombre d'ajouts fusionnés dans ce lot
+     */
+    private void deliverBlocks(Player player, Material material, int quantity, int sources,
+                               BlockDropAccumulator.PlayerDropState dropState) {
         if (quantity <= 0) return;
 
         PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(player.getUniqueId());
@@ -543,8 +558,15 @@ public class EnchantmentManager {
             plugin.getEnchantmentBookManager().processAutoSell(player, material, quantity);
             String activeProfession = playerData.getActiveProfession();
             if ("commercant".equals(activeProfession)) {
-                if (java.util.concurrent.ThreadLocalRandom.current().nextInt(100) == 0) {
-                    plugin.getProfessionManager().addProfessionXP(player, "commercant", 1);
+                // 1% de chance par ajout d'origine, comme avant le regroupement
+                int professionXp = 0;
+                for (int i = 0; i < sources; i++) {
+                    if (java.util.concurrent.ThreadLocalRandom.current().nextInt(100) == 0) {
+                        professionXp++;
+                    }
+                }
+                if (professionXp > 0) {
+                    plugin.getProfessionManager().addProfessionXP(player, "commercant", professionXp);
                 }
             }
             return;
@@ -553,20 +575,13 @@ public class EnchantmentManager {
         // Gestion spéciale pour PlusValue (résolution paresseuse + cache mineName par joueur)
         if (!isPlayerPickaxeBroken(player) && plugin.getEnchantmentBookManager().isEnchantmentActive(player, "plusvalue")) {
             final long now = System.currentTimeMillis();
-            final String cacheKeyName = "pt_cached_mine_name";
-            final String cacheKeyTime = "pt_cached_mine_time";
-
-            String mineName = null;
-            Long lastTs = null;
-            if (player.hasMetadata(cacheKeyName) && player.hasMetadata(cacheKeyTime)) {
-                mineName = player.getMetadata(cacheKeyName).getFirst().asString();
-                lastTs = player.getMetadata(cacheKeyTime).getFirst().asLong();
-            }
 
-            if (mineName == null || now - lastTs > 1500L) {
-                mineName = plugin.getConfigManager().getPlayerMine(blockLocation);
-                player.setMetadata(cacheKeyName, new FixedMetadataValue(plugin, mineName == null ? "" : mineName));
-                player.setMetadata(cacheKeyTime, new FixedMetadataValue(plugin, now));
+            String mineName = dropState.cachedMineName;
+            if (mineName == null || now - dropState.cachedMineTime > 1500L) {
+                Location blockLocation = dropState.getLastLocation();
+                mineName = blockLocation != null ? plugin.getConfigManager().getPlayerMine(blockLocation) : null;
+                dropState.cachedMineName = mineName == null ? "" : mineName;
+                dropState.cachedMineTime = now;
             }
 
             if (mineName != null && !mineName.isEmpty()) {
@@ -607,13 +622,9 @@ public class EnchantmentManager {
 
                 // Message d’avertissement toutes les 30s max
                 long now = System.currentTimeMillis();
-                boolean shouldWarn = true;
-                if (player.hasMetadata("inventory_full_warning")) {
-                    long last = player.getMetadata("inventory_full_warning").getFirst().asLong();
-                    shouldWarn = (now - last) > 30_000L;
-                }
+                boolean shouldWarn = (now - dropState.lastInventoryFullWarning) > 30_000L;
                 if (shouldWarn) {
-                    player.setMetadata("inventory_full_warning", new FixedMetadataValue(plugin, now));
+                    dropState.lastInventoryFullWarning = now;
                     player.sendMessage("§c⚠️ Inventaire et conteneurs pleins! " + droppedCount + " items droppés au sol.");
                     player.sendMessage("§e💡 Utilisez §a/sell all §epour vider vos conteneurs et inventaire!");
                 }
@@ -630,16 +641,23 @@ public class EnchantmentManager {
                 " (conteneurs + inventaire + droppés)");
     }
 
+    /**
+     * Livre immédiatement les drops en attente d'un joueur qui se déconnecte et oublie ses caches
+     */
+    public void flushPlayerDrops(Player player) {
+        dropAccumulator.removePlayer(player);
+    }
+
     /**
      * Traite les enchantements Greed
      */
     private void processGreedEnchantments(Player player, PlayerData playerData, Material blockType) {
         // Pré-calculs partagés
         final boolean pickaxeBroken = isPlayerPickaxeBroken(player);
-        final int luckLevel = playerData.getEnchantmentLevel("luck");
-        final int tokenGreedLevel = playerData.getEnchantmentLevel("token_greed");
-        final int moneyGreedLevel = playerData.getEnchantmentLevel("money_greed");
-        final int expGreedLevel = playerData.getEnchantmentLevel("exp_greed");
+        final int luckLevel = playerData.getEnchantmentLevel(EnchantmentIds.LUCK);
+        final int tokenGreedLevel = playerData.getEnchantmentLevel(EnchantmentIds.TOKEN_GREED);
+        final int moneyGreedLevel = playerData.getEnchantmentLevel(EnchantmentIds.MONEY_GREED);
+        final int expGreedLevel = playerData.getEnchantmentLevel(EnchantmentIds.EXP_GREED);
 
         if (tokenGreedLevel <= 0 && moneyGreedLevel <= 0 && expGreedLevel <= 0) {
             return; // aucun greed actif
@@ -656,7 +674,7 @@ public class EnchantmentManager {
         final double totalChance = baseChance * luckBonus / 100;
 
         // NOUVEAU : Cohésion — multiplicateur de greed selon joueurs dans la mine
-        int cohesionLevel = playerData.getEnchantmentLevel("cohesion");
+        int cohesionLevel = playerData.getEnchantmentLevel(EnchantmentIds.COHESION);
         double cohesionMultiplier = 1.0;
         if (cohesionLevel > 0) {
             String mineId = plugin.getMineManager().getPlayerCurrentMine(player);
@@ -768,7 +786,7 @@ public class EnchantmentManager {
             if (!mineId.equals(targetMine)) continue;
 
             PlayerData td = plugin.getPlayerDataManager().getPlayerData(target.getUniqueId());
-            int heritageLevel = td.getEnchantmentLevel("heritage");
+            int heritageLevel = td.getEnchantmentLevel(EnchantmentIds.HERITAGE);
             if (heritageLevel <= 0) continue;
 
             double hChance = plugin.getConfigManager().getEnchantmentSetting("special.heritage.base-chance", 0.0005) * heritageLevel;
@@ -776,11 +794,11 @@ public class EnchantmentManager {
                 target.setMetadata("heritage_copying", new FixedMetadataValue(plugin, true));
                 switch (greedType) {
                     case "token" ->
-                            processTokenGreed(target, td, blockValue, td.getEnchantmentLevel("token_greed"), 1.0, combustionMultiplier, abundanceMultiplier, false);
+                            processTokenGreed(target, td, blockValue, td.getEnchantmentLevel(EnchantmentIds.TOKEN_GREED), 1.0, combustionMultiplier, abundanceMultiplier, false);
                     case "money" ->
-                            processMoneyGreed(target, td, blockValue, td.getEnchantmentLevel("money_greed"), 1.0, combustionMultiplier, abundanceMultiplier);
+                            processMoneyGreed(target, td, blockValue, td.getEnchantmentLevel(EnchantmentIds.MONEY_GREED), 1.0, combustionMultiplier, abundanceMultiplier);
                     case "exp" ->
-                            processExpGreed(target, td, blockValue, td.getEnchantmentLevel("exp_greed"), 1.0, combustionMultiplier, abundanceMultiplier);
+                            processExpGreed(target, td, blockValue, td.getEnchantmentLevel(EnchantmentIds.EXP_GREED), 1.0, combustionMultiplier, abundanceMultiplier);
                 }
                 // Retire le flag après 1 tick
                 plugin.getServer().getScheduler().runTaskLater(plugin, () -> target.removeMetadata("heritage_copying", plugin), 1L);
@@ -792,7 +810,7 @@ public class EnchantmentManager {
      * Traite Key Greed (maintenant dans SPECIAL)
      */
     private void processKeyGreed(Player player, PlayerData playerData) {
-        int keyGreedLevel = playerData.getEnchantmentLevel("key_greed");
+        int keyGreedLevel = playerData.getEnchantmentLevel(EnchantmentIds.KEY_GREED);
         if (keyGreedLevel <= 0) return;
         double chance = plugin.getConfigManager().getEnchantmentSetting("keys.base-chance", 0.00001) * keyGreedLevel;
 
@@ -804,7 +822,7 @@ public class EnchantmentManager {
     }
 
     private void processAbondance(Player player, PlayerData playerdata) {
-        int abundanceLevel = playerdata.getEnchantmentLevel("abundance");
+        int abundanceLevel = playerdata.getEnchantmentLevel(EnchantmentIds.ABUNDANCE);
         if (abundanceLevel > 0 && !playerdata.isAbundanceActive() && !playerdata.isAbundanceOnCooldown()) {
             double chance = plugin.getConfigManager().getEnchantmentSetting("abundance.base-chance", 0.000001) * abundanceLevel;
             if (ThreadLocalRandom.current().nextDouble() < chance) {
@@ -913,7 +931,7 @@ public class EnchantmentManager {
             return;
         }
 
-        int combustionLevel = playerData.getEnchantmentLevel("combustion");
+        int combustionLevel = playerData.getEnchantmentLevel(EnchantmentIds.COMBUSTION);
         if (combustionLevel > 0) {
             int gainPerBlock = Math.max(1, combustionLevel / 10);
             playerData.updateCombustion(gainPerBlock);
@@ -928,6 +946,7 @@ public class EnchantmentManager {
 
         // Ajoute aux statistiques de destruction (CASSÉ)
         playerData.addDestroyedBlocks(1);
+        plugin.getMineManager().recordBlockRemoved(blockLocation);
         plugin.getBlockCollectorManager().add(player, blockType, 1);
 
         // NOUVEAU: Applique Fortune sur les blocs cassés
@@ -1015,6 +1034,9 @@ public class EnchantmentManager {
         // Effectue l'amélioration
         if (playerData.removeTokens(totalCost)) {
             playerData.setEnchantmentLevel(enchantmentName, currentLevel + actualLevels);
+            if ("sell_greed".equals(enchantmentName)) {
+                plugin.getGlobalBonusManager().invalidate(player.getUniqueId());
+            }
 
             player.sendMessage("§a✅ " + enchantment.getDisplayName() + " amélioré de " + actualLevels +
                     " niveau" + (actualLevels > 1 ? "x" : "") + " au niveau " + (currentLevel + actualLevels) +
@@ -0,0 +1,34 @@
+package fr.prisontycoon.events;
+
+import com.destroystokyo.paper.event.player.PlayerArmorChangeEvent;
+import fr.prisontycoon.PrisonTycoon;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Listener qui invalide les snapshots de bonus (GlobalBonusManager) lorsque leurs sources changent
+ * hors des managers : équipement d'armure, déconnexion
+ */
+public class BonusInvalidationListener implements Listener {
+
+    private final PrisonTycoon plugin;
+
+    public BonusInvalidationListener(PrisonTycoon plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Les bonus d'armure de forge dépendent des pièces équipées
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onArmorChange(PlayerArmorChangeEvent event) {
+        plugin.getGlobalBonusManager().invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        plugin.getGlobalBonusManager().invalidate(event.getPlayer().getUniqueId());
+    }
+}
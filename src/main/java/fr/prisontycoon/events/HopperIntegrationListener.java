@@ -10,6 +10,9 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryMoveItemEvent;
+import org.bukkit.event.inventory.InventoryPickupItemEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 
 /**
@@ -31,8 +34,15 @@ public class HopperIntegrationListener implements Listener {
      */
     @EventHandler(priority = EventPriority.HIGH)
     public void onInventoryMoveItem(InventoryMoveItemEvent event) {
+        // Billet reçu par un hopper : réveiller la caisse de dépôt placée au-dessus
+        if (event.getDestination().getHolder(false) instanceof Hopper && event.getDestination().getLocation() != null
+                && depositBoxManager.isBill(event.getItem())) {
+            depositBoxManager.queueDepositBoxAboveHopper(event.getDestination().getLocation());
+            return;
+        }
+
         // Vérifier si c'est un transfert depuis un hopper vers un coffre
-        if (!(event.getSource().getHolder() instanceof Hopper)) return;
+        if (!(event.getSource().getHolder(false) instanceof Hopper)) return;
         if (event.getDestination().getLocation() == null) return;
         
         Location chestLocation = event.getDestination().getLocation();
@@ -46,65 +56,46 @@ public class HopperIntegrationListener implements Listener {
         
         ItemStack item = event.getItem();
         
-        // Si c'est un billet, empêcher le transfer normal et traiter immédiatement
+        // Si c'est un billet, empêcher le transfert normal : la pile entière est cumulée pour le versement groupé
         if (depositBoxManager.isBill(item)) {
             event.setCancelled(true);
-            
-            // Traiter immédiatement le billet
-            processImmediateBillTransfer(depositBoxId, item, (Hopper) event.getSource().getHolder());
+            takeBillStack(depositBoxId, item, event.getSource());
         }
     }
 
     /**
-     * Traite immédiatement un billet transféré par hopper
+     * Billet ramassé au sol par un hopper : réveiller la caisse de dépôt placée au-dessus
      */
-    private void processImmediateBillTransfer(String depositBoxId, ItemStack bill, Hopper sourceHopper) {
-        var depositBox = depositBoxManager.getDepositBoxById(depositBoxId);
-        if (depositBox == null) return;
-        
-        // Obtenir la quantité réelle du billet (stack size)
-        int stackSize = depositBoxManager.getBillStackSize(bill);
-        java.math.BigInteger billValue = depositBoxManager.getBillValue(bill);
-        
-        // Calculer la valeur avec le multiplicateur de la caisse de dépôt
-        double multiplier = 1.0 + (depositBox.getMultiplierLevel() * 0.1); // 10% par niveau
-        java.math.BigInteger totalValue = billValue.multiply(java.math.BigInteger.valueOf(stackSize))
-            .multiply(java.math.BigInteger.valueOf((long) (multiplier * 100)))
-            .divide(java.math.BigInteger.valueOf(100));
-        
-        // Appliquer le bonus de vente du joueur si connecté
-        org.bukkit.entity.Player player = plugin.getServer().getPlayer(depositBox.getOwner());
-        if (player != null) {
-            double salesMultiplier = plugin.getGlobalBonusManager().getTotalBonusMultiplier(player, 
-                fr.prisontycoon.managers.GlobalBonusManager.BonusCategory.SELL_BONUS);
-            totalValue = totalValue.multiply(java.math.BigInteger.valueOf((long) (salesMultiplier * 100)))
-                .divide(java.math.BigInteger.valueOf(100));
-        }
-        
-        // Donner l'argent au propriétaire
-        var playerData = plugin.getPlayerDataManager().getPlayerData(depositBox.getOwner());
-        playerData.addCoins(totalValue.longValue());
-        plugin.getPlayerDataManager().markDirty(depositBox.getOwner());
-        
-        // Retirer l'item du hopper source
-        for (int i = 0; i < sourceHopper.getInventory().getSize(); i++) {
-            ItemStack hopperItem = sourceHopper.getInventory().getItem(i);
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryPickupItem(InventoryPickupItemEvent event) {
+        if (!(event.getInventory().getHolder(false) instanceof Hopper)) return;
+        if (event.getInventory().getLocation() == null) return;
+        if (!depositBoxManager.isBill(event.getItem().getItemStack())) return;
+
+        depositBoxManager.queueDepositBoxAboveHopper(event.getInventory().getLocation());
+    }
+
+    /**
+     * Chargement d'un chunk : ses caisses de dépôt peuvent avoir des billets en attente
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        depositBoxManager.onChunkLoad(event.getChunk());
+    }
+
+    /**
+     * Retire du hopper source la pile de billets en cours de transfert et la confie à la caisse de dépôt.
+     * La pile est remplacée (et non décrémentée) pour ne pas interférer avec la restauration faite par
+     * le serveur après l'annulation du transfert.
+     */
+    private void takeBillStack(String depositBoxId, ItemStack bill, Inventory source) {
+        for (int i = 0; i < source.getSize(); i++) {
+            ItemStack hopperItem = source.getItem(i);
             if (hopperItem != null && hopperItem.isSimilar(bill)) {
-                sourceHopper.getInventory().setItem(i, null);
-                break;
+                source.setItem(i, null);
+                depositBoxManager.creditHopperBills(depositBoxId, hopperItem);
+                return;
             }
         }
-        
-        // Effets visuels et sonores
-        Location location = depositBox.getLocation();
-        location.getWorld().playSound(location, org.bukkit.Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 0.5f, 1.2f);
-        location.getWorld().spawnParticle(org.bukkit.Particle.VILLAGER_HAPPY, 
-            location.add(0.5, 1, 0.5), 5, 0.3, 0.3, 0.3, 0);
-        
-        // Notifier le joueur s'il est en ligne
-        if (player != null) {
-            player.sendMessage("§a💰 §lCaisse de dépôt: §6+" + 
-                fr.prisontycoon.utils.NumberFormatter.format(totalValue.longValue()) + " coins");
-        }
     }
 }
\ No newline at end of file
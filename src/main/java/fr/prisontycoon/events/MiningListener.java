@@ -6,6 +6,7 @@ import fr.custommobs.events.types.GangWarEvent;
 import fr.prisontycoon.PrisonTycoon;
 import fr.prisontycoon.data.MineData;
 import fr.prisontycoon.data.PlayerData;
+import fr.prisontycoon.enchantments.EnchantmentIds;
 import fr.prisontycoon.managers.GlobalBonusManager;
 import fr.prisontycoon.managers.PickaxeManager;
 import net.kyori.adventure.text.Component;
@@ -139,6 +140,7 @@ public class MiningListener implements Listener {
             // Logique spécifique à la zone
             if (mineName != null) {
                 blockLocation.getBlock().setType(Material.AIR, false); // Disparaît simplement dans une mine
+                plugin.getMineManager().recordBlockRemoved(blockLocation);
             } else {
                 handleCaveBeaconBreak(player, blockLocation, finalBeaconGain);
             }
@@ -229,7 +231,7 @@ public class MiningListener implements Listener {
      */
     private void handleLegendaryPickaxeDurability(Player player, ItemStack tool) {
         PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(player.getUniqueId());
-        int durabilityLevel = playerData.getEnchantmentLevel("durability");
+        int durabilityLevel = playerData.getEnchantmentLevel(EnchantmentIds.DURABILITY);
 
         // Gestion spéciale pour Incassable
         if (plugin.getEnchantmentBookManager().isEnchantmentActive(player, "incassable")) {
@@ -373,6 +375,9 @@ public class MiningListener implements Listener {
 
         PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(player.getUniqueId());
 
+        // Décompte du bloc cassé pour le compteur de blocs restants de la mine
+        plugin.getMineManager().recordBlockRemoved(location);
+
         // Met à jour l'activité de minage pour l'ActionBar
         playerData.updateMiningActivity();
 
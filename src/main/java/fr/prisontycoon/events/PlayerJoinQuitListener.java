@@ -6,6 +6,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.ItemStack;
@@ -23,6 +24,22 @@ public class PlayerJoinQuitListener implements Listener {
         this.plugin = plugin;
     }
 
+    /**
+     * Précharge les données du joueur hors du thread principal, avant son arrivée sur le serveur
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        plugin.getPlayerDataManager().preloadPlayerData(event.getUniqueId(), event.getName());
+
+        // Quêtes et collectionneur : relit les données après les écritures encore en cours (reconnexion rapide)
+        plugin.getProgressStore().awaitPendingWrites();
+        plugin.getQuestManager().preloadProgress(event.getUniqueId());
+        plugin.getBlockCollectorManager().preload(event.getUniqueId());
+    }
+
     @EventHandler(priority = EventPriority.HIGH)
     public void onPlayerJoin(PlayerJoinEvent event) {
         event.joinMessage(null);
@@ -52,7 +69,7 @@ public class PlayerJoinQuitListener implements Listener {
 
         plugin.getTabManager().onPlayerJoin(player);
 
-        // Charge les données du joueur
+        // Charge les données du joueur (déjà en cache grâce au préchargement asynchrone)
         plugin.getPlayerDataManager().getPlayerData(player.getUniqueId());
         plugin.getBoostManager().loadPlayerBoosts(player);
 
@@ -126,6 +143,9 @@ public class PlayerJoinQuitListener implements Listener {
             plugin.getServer().broadcastMessage(quitMessage);
         }
 
+        // Livre les drops encore en attente pour ce tick tant que boosts, autosell et PlusValue sont actifs
+        plugin.getEnchantmentManager().flushPlayerDrops(player);
+
         // Retire les effets de mobilité
         plugin.getPickaxeManager().removeMobilityEffects(player);
 
@@ -142,10 +162,11 @@ public class PlayerJoinQuitListener implements Listener {
         plugin.getEnchantmentBookManager().saveActiveEnchantments(player);
         plugin.getEnchantmentBookManager().clearActiveEnchantments(player.getUniqueId());
 
-        // Sauvegarde quêtes + collectionneur avant déchargement
-        var questProgress = plugin.getQuestManager().getProgress(player.getUniqueId());
-        plugin.getQuestManager().saveProgress(questProgress);
-        plugin.getBlockCollectorManager().save(player.getUniqueId());
+        // Écriture quêtes + collectionneur avant déchargement
+        plugin.getQuestManager().applyPendingProgress(player.getUniqueId());
+        plugin.getProgressStore().flushOnQuit(player.getUniqueId());
+        plugin.getQuestManager().unloadProgress(player.getUniqueId());
+        plugin.getBlockCollectorManager().unload(player.getUniqueId());
 
         // Décharge les données du joueur (avec sauvegarde)
         plugin.getPlayerDataManager().unloadPlayer(player.getUniqueId());
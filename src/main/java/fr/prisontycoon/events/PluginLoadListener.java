@@ -3,11 +3,15 @@ package fr.prisontycoon.events; // Assurez-vous que le package est correct
 import fr.custommobs.CustomMobsPlugin;
 import fr.skyblock.CustomSkyblock;
 import fr.prisontycoon.PrisonTycoon;
+import fr.prisontycoon.api.SkyblockDepositBoxBridge;
+import fr.prisontycoon.api.SkyblockPrinterBridge;
 import fr.shop.PlayerShops;
 import org.bukkit.Bukkit;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.server.PluginEnableEvent;
+import org.bukkit.event.server.ServiceRegisterEvent;
+import org.bukkit.event.server.ServiceUnregisterEvent;
 import org.bukkit.plugin.Plugin;
 
 public class PluginLoadListener implements Listener {
@@ -54,4 +58,31 @@ public class PluginLoadListener implements Listener {
             }
         }
     }
+
+    /**
+     * Ponts CustomSkyblock enregistrés dans le ServicesManager : branchés aux managers
+     */
+    @EventHandler
+    public void onServiceRegister(ServiceRegisterEvent event) {
+        Object provider = event.getProvider().getProvider();
+        if (provider instanceof SkyblockPrinterBridge bridge && prisonTycoon.getPrinterManager() != null) {
+            prisonTycoon.getPrinterManager().attachSkyblockBridge(bridge);
+        } else if (provider instanceof SkyblockDepositBoxBridge bridge && prisonTycoon.getDepositBoxManager() != null) {
+            prisonTycoon.getDepositBoxManager().attachSkyblockBridge(bridge);
+        }
+    }
+
+    /**
+     * Les données en attente sont persistées avant l'arrêt de CustomSkyblock, qui retire ses ponts
+     * au début de sa désactivation
+     */
+    @EventHandler
+    public void onServiceUnregister(ServiceUnregisterEvent event) {
+        Object provider = event.getProvider().getProvider();
+        if (provider instanceof SkyblockPrinterBridge && prisonTycoon.getPrinterManager() != null) {
+            prisonTycoon.getPrinterManager().detachSkyblockBridge();
+        } else if (provider instanceof SkyblockDepositBoxBridge && prisonTycoon.getDepositBoxManager() != null) {
+            prisonTycoon.getDepositBoxManager().detachSkyblockBridge();
+        }
+    }
 }
\ No newline at end of file
@@ -13,7 +13,13 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.inventory.ItemStack;
 
 /**
@@ -150,6 +156,56 @@ public class PrinterListener implements Listener {
         player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 1.2f);
     }
 
+    /**
+     * Nametags d'imprimantes : réévalués uniquement quand le joueur change de bloc
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (from.getBlockX() == to.getBlockX() && from.getBlockY() == to.getBlockY()
+                && from.getBlockZ() == to.getBlockZ() && from.getWorld() == to.getWorld()) {
+            return;
+        }
+        printerManager.updateNearestPrinter(event.getPlayer(), to);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        printerManager.updateNearestPrinter(event.getPlayer(), event.getTo());
+        printerManager.updateIslandPresence(event.getPlayer(), event.getTo());
+    }
+
+    /**
+     * Réapparition (mort, chute dans le vide) : aucun PlayerTeleportEvent n'est déclenché
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        printerManager.updateNearestPrinter(event.getPlayer(), event.getRespawnLocation());
+        printerManager.updateIslandPresence(event.getPlayer(), event.getRespawnLocation());
+    }
+
+    /**
+     * Changement de monde hors téléportation (portails, plugins tiers)
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        printerManager.updateNearestPrinter(event.getPlayer(), event.getPlayer().getLocation());
+        printerManager.updateIslandPresence(event.getPlayer(), event.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        printerManager.updateNearestPrinter(event.getPlayer(), event.getPlayer().getLocation());
+        printerManager.updateIslandPresence(event.getPlayer(), event.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        printerManager.clearNearestPrinter(event.getPlayer());
+        printerManager.clearIslandPresence(event.getPlayer());
+    }
+
     @EventHandler(priority = EventPriority.HIGH)
     public void onBlockBreak(BlockBreakEvent event) {
         Player player = event.getPlayer();
@@ -212,8 +268,7 @@ public class PrinterListener implements Listener {
         }
 
         // Supprimer la caisse de dépôt
-        depositBoxManager.getDepositBoxCache().remove(depositBoxId);
-        depositBoxManager.getDepositBoxLocations().remove(event.getBlock().getLocation());
+        depositBoxManager.removeDepositBox(depositBoxId);
 
         // Messages de confirmation
         player.sendMessage("§a✅ Caisse de dépôt retirée avec succès !");
@@ -224,102 +279,14 @@ public class PrinterListener implements Listener {
      * Vérifie si un joueur peut casser une imprimante
      */
     private boolean canBreakPrinter(Player player, String printerId) {
-        // Récupérer les données de l'imprimante via réflexion
-        try {
-            var skyblockPlugin = plugin.getServer().getPluginManager().getPlugin("CustomSkyblock");
-            if (skyblockPlugin == null) return false;
-
-            var skyblockPrinterManager = skyblockPlugin.getClass().getMethod("getPrinterManager").invoke(skyblockPlugin);
-            var printerData = skyblockPrinterManager.getClass().getMethod("getPrinterById", String.class)
-                    .invoke(skyblockPrinterManager, printerId);
-            
-            if (printerData == null) return false;
-
-            // Le propriétaire peut toujours casser sa propre imprimante
-            var owner = printerData.getClass().getMethod("getOwner").invoke(printerData);
-            if (owner.equals(player.getUniqueId())) {
-                return true;
-            }
-
-            // Vérifier si le joueur est chef d'île ou officier sur cette île
-            var location = printerData.getClass().getMethod("getLocation").invoke(printerData);
-            var islandManager = skyblockPlugin.getClass().getMethod("getIslandManager").invoke(skyblockPlugin);
-            var island = islandManager.getClass().getMethod("getIslandAtLocation", Location.class)
-                    .invoke(islandManager, location);
-            
-            if (island == null) return false;
-
-            var islandOwner = island.getClass().getMethod("getOwner").invoke(island);
-            var islandOfficers = island.getClass().getMethod("getOfficers").invoke(island);
-
-            // Le chef d'île peut casser toutes les imprimantes
-            if (islandOwner.equals(player.getUniqueId())) {
-                return true;
-            }
-
-            // Les officiers peuvent casser toutes les imprimantes
-            if (islandOfficers != null && islandOfficers instanceof java.util.Set) {
-                if (((java.util.Set<?>) islandOfficers).contains(player.getUniqueId())) {
-                    return true;
-                }
-            }
-
-            return false;
-        } catch (Exception e) {
-            plugin.getLogger().warning("Erreur lors de la vérification des permissions d'imprimante: " + e.getMessage());
-            return false;
-        }
+        return printerManager.canManagePrinter(player.getUniqueId(), printerId);
     }
 
     /**
      * Vérifie si un joueur peut casser une caisse de dépôt
      */
     private boolean canBreakDepositBox(Player player, String depositBoxId) {
-        // Récupérer les données de la caisse de dépôt via réflexion
-        try {
-            var skyblockPlugin = plugin.getServer().getPluginManager().getPlugin("CustomSkyblock");
-            if (skyblockPlugin == null) return false;
-
-            var skyblockDepositBoxManager = skyblockPlugin.getClass().getMethod("getDepositBoxManager").invoke(skyblockPlugin);
-            var depositBoxData = skyblockDepositBoxManager.getClass().getMethod("getDepositBoxById", String.class)
-                    .invoke(skyblockDepositBoxManager, depositBoxId);
-            
-            if (depositBoxData == null) return false;
-
-            // Le propriétaire peut toujours casser sa propre caisse de dépôt
-            var owner = depositBoxData.getClass().getMethod("getOwner").invoke(depositBoxData);
-            if (owner.equals(player.getUniqueId())) {
-                return true;
-            }
-
-            // Vérifier si le joueur est chef d'île ou officier sur cette île
-            var location = depositBoxData.getClass().getMethod("getLocation").invoke(depositBoxData);
-            var islandManager = skyblockPlugin.getClass().getMethod("getIslandManager").invoke(skyblockPlugin);
-            var island = islandManager.getClass().getMethod("getIslandAtLocation", Location.class)
-                    .invoke(islandManager, location);
-            
-            if (island == null) return false;
-
-            var islandOwner = island.getClass().getMethod("getOwner").invoke(island);
-            var islandOfficers = island.getClass().getMethod("getOfficers").invoke(island);
-
-            // Le chef d'île peut casser toutes les caisses de dépôt
-            if (islandOwner.equals(player.getUniqueId())) {
-                return true;
-            }
-
-            // Les officiers peuvent casser toutes les caisses de dépôt
-            if (islandOfficers != null && islandOfficers instanceof java.util.Set) {
-                if (((java.util.Set<?>) islandOfficers).contains(player.getUniqueId())) {
-                    return true;
-                }
-            }
-
-            return false;
-        } catch (Exception e) {
-            plugin.getLogger().warning("Erreur lors de la vérification des permissions de caisse de dépôt: " + e.getMessage());
-            return false;
-        }
+        return depositBoxManager.canManageDepositBox(player.getUniqueId(), depositBoxId);
     }
 
     @EventHandler(priority = EventPriority.HIGH)
@@ -349,24 +316,14 @@ public class PrinterListener implements Listener {
         event.setCancelled(true);
 
         // Afficher les informations de l'imprimante
-        try {
-            var skyblockPlugin = plugin.getServer().getPluginManager().getPlugin("CustomSkyblock");
-            if (skyblockPlugin != null) {
-                var skyblockPrinterManager = skyblockPlugin.getClass().getMethod("getPrinterManager").invoke(skyblockPlugin);
-                var printerData = skyblockPrinterManager.getClass().getMethod("getPrinterById", String.class)
-                        .invoke(skyblockPrinterManager, printerId);
-                
-                if (printerData != null) {
-                    var tier = printerData.getClass().getMethod("getTier").invoke(printerData);
-                    
-                    player.sendMessage("§6§l🖨️ IMPRIMANTE TIER " + tier);
-                    player.sendMessage("§8▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬");
-                    player.sendMessage("§7Génère des billets toutes les X secondes");
-                    player.sendMessage("§7quand un joueur est sur l'île.");
-                    player.sendMessage("§8▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬");
-                }
-            }
-        } catch (Exception e) {
+        var printer = printerManager.getPrinterCache().get(printerId);
+        if (printer != null) {
+            player.sendMessage("§6§l🖨️ IMPRIMANTE TIER " + printer.getTier());
+            player.sendMessage("§8▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬");
+            player.sendMessage("§7Génère des billets toutes les X secondes");
+            player.sendMessage("§7quand un joueur est sur l'île.");
+            player.sendMessage("§8▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬");
+        } else {
             player.sendMessage("§6§l🖨️ IMPRIMANTE");
             player.sendMessage("§7Clic-droit pour voir les informations");
         }
@@ -379,35 +336,10 @@ public class PrinterListener implements Listener {
         event.setCancelled(true);
 
         // Ouvrir le GUI d'amélioration de la caisse de dépôt
-        try {
-            var skyblockPlugin = plugin.getServer().getPluginManager().getPlugin("CustomSkyblock");
-            if (skyblockPlugin != null) {
-                var skyblockDepositBoxManager = skyblockPlugin.getClass().getMethod("getDepositBoxManager").invoke(skyblockPlugin);
-                var depositBoxData = skyblockDepositBoxManager.getClass().getMethod("getDepositBoxById", String.class)
-                        .invoke(skyblockDepositBoxManager, depositBoxId);
-                
-                if (depositBoxData != null) {
-                    // Convertir en DepositBoxData de PrisonTycoon pour le GUI
-                    var owner = (java.util.UUID) depositBoxData.getClass().getMethod("getOwner").invoke(depositBoxData);
-                    var location = (org.bukkit.Location) depositBoxData.getClass().getMethod("getLocation").invoke(depositBoxData);
-                    var capacityLevel = (Integer) depositBoxData.getClass().getMethod("getCapacityLevel").invoke(depositBoxData);
-                    var multiplierLevel = (Double) depositBoxData.getClass().getMethod("getMultiplierLevel").invoke(depositBoxData);
-                    
-                    var prisonTycoonDepositBox = new fr.prisontycoon.data.DepositBoxData(
-                        depositBoxId, owner, location, capacityLevel, multiplierLevel,
-                        System.currentTimeMillis(), 1000, capacityLevel * 2
-                    );
-                    
-                    plugin.getDepositBoxUpgradeGUI().openUpgradeMenu(player, prisonTycoonDepositBox);
-                    return;
-                }
-            }
-        } catch (Exception e) {
-            plugin.getLogger().warning("Erreur lors de l'ouverture du GUI de caisse de dépôt: " + e.getMessage());
-            plugin.getLogger().warning("Stack trace: " + e.toString());
-            for (StackTraceElement element : e.getStackTrace()) {
-                plugin.getLogger().warning("  at " + element.toString());
-            }
+        var depositBox = depositBoxManager.getDepositBoxById(depositBoxId);
+        if (depositBox != null) {
+            plugin.getDepositBoxUpgradeGUI().openUpgradeMenu(player, depositBox);
+            return;
         }
 
         // Fallback si erreur
@@ -420,18 +352,6 @@ public class PrinterListener implements Listener {
      * Vérifie si une location est sur une île
      */
     private boolean isLocationOnIsland(Location location) {
-        try {
-            var skyblockPlugin = plugin.getServer().getPluginManager().getPlugin("CustomSkyblock");
-            if (skyblockPlugin == null) return false;
-
-            var islandManager = skyblockPlugin.getClass().getMethod("getIslandManager").invoke(skyblockPlugin);
-            var island = islandManager.getClass().getMethod("getIslandAtLocation", Location.class)
-                    .invoke(islandManager, location);
-            
-            return island != null;
-        } catch (Exception e) {
-            plugin.getLogger().warning("Erreur lors de la vérification de l'île: " + e.getMessage());
-            return false;
-        }
+        return printerManager.isOnIsland(location);
     }
 }
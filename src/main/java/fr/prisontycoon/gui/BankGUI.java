@@ -735,6 +735,7 @@ public class BankGUI {
         data.setBankType(selected);
         data.setLastBankTypeChange(System.currentTimeMillis());
         plugin.getPlayerDataManager().markDirty(player.getUniqueId());
+        plugin.getGlobalBonusManager().invalidate(player.getUniqueId());
         player.sendMessage("§a✅ Type de banque défini: §e" + selected.getDisplayName());
         openMainMenu(player);
     }
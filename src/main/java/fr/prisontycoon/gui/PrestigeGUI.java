@@ -520,6 +520,7 @@ public class PrestigeGUI {
 
             // Faire le choix
             playerData.choosePrestigeColumn(prestigeLevel, talent);
+            plugin.getGlobalBonusManager().invalidate(player.getUniqueId());
 
             // Messages et effets
             player.sendMessage("§a✅ Bonus sélectionné : " + talent.getDisplayName());
@@ -687,6 +688,7 @@ public class PrestigeGUI {
         // Effectuer la réinitialisation
         playerData.removeBeacon(500);
         playerData.resetPrestigeTalents(); // Nouvelle méthode qui garde les récompenses
+        plugin.getGlobalBonusManager().invalidate(player.getUniqueId());
 
         // Messages et effets
         player.sendMessage("§a✅ Talents de prestige réinitialisés!");
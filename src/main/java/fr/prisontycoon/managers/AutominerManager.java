@@ -297,94 +297,10 @@ public class AutominerManager {
             int quantity = calculateFortuneQuantity(baseQuantity, fortuneLevel);
 
             // === CORRECTION : Utiliser getSellPrice ET getBlockValue ===
-            long blockCoins = 0;
-            long blockTokens = 0;
-            long blockExperience = 0;
-
-            // Essayer d'abord getBlockValue
-            var blockValue = plugin.getConfigManager().getBlockValue(minedBlock);
-            if (blockValue != null) {
-                blockCoins = blockValue.coins() * quantity;
-                blockTokens = blockValue.tokens() * quantity;
-                blockExperience = blockValue.experience() * quantity;
-            }
-
-            // Si pas de valeur coins dans BlockValue, utiliser getSellPrice
-            if (blockCoins == 0) {
-                long sellPrice = plugin.getConfigManager().getSellPrice(minedBlock);
-                if (sellPrice > 0) {
-                    blockCoins = sellPrice * quantity;
-                }
-            }
-
-            // Si toujours pas de valeur, utiliser des valeurs par défaut selon le type de bloc
-            if (blockCoins == 0 && blockTokens == 0 && blockExperience == 0) {
-                switch (minedBlock) {
-                    case STONE -> {
-                        blockCoins = quantity;
-                        blockExperience = 2L * quantity;
-                    }
-                    case COBBLESTONE -> {
-                        blockCoins = quantity;
-                        blockExperience = 2L * quantity;
-                    }
-                    case COAL_ORE -> {
-                        blockCoins = 5L * quantity;
-                        blockTokens = quantity;
-                        blockExperience = 10L * quantity;
-                    }
-                    case IRON_ORE -> {
-                        blockCoins = 10L * quantity;
-                        blockTokens = 2L * quantity;
-                        blockExperience = 15L * quantity;
-                    }
-                    case GOLD_ORE -> {
-                        blockCoins = 25L * quantity;
-                        blockTokens = 5L * quantity;
-                        blockExperience = 30L * quantity;
-                    }
-                    case DIAMOND_ORE -> {
-                        blockCoins = 100L * quantity;
-                        blockTokens = 20L * quantity;
-                        blockExperience = 100L * quantity;
-                    }
-                    case EMERALD_ORE -> {
-                        blockCoins = 150L * quantity;
-                        blockTokens = 30L * quantity;
-                        blockExperience = 150L * quantity;
-                    }
-                    case REDSTONE_ORE -> {
-                        blockCoins = 15L * quantity;
-                        blockTokens = 3L * quantity;
-                        blockExperience = 20L * quantity;
-                    }
-                    case LAPIS_ORE -> {
-                        blockCoins = 20L * quantity;
-                        blockTokens = 4L * quantity;
-                        blockExperience = 25L * quantity;
-                    }
-                    case ANCIENT_DEBRIS -> {
-                        blockCoins = 500L * quantity;
-                        blockTokens = 100L * quantity;
-                        blockExperience = 500L * quantity;
-                    }
-                    case NETHERITE_BLOCK -> {
-                        blockCoins = 1000L * quantity;
-                        blockTokens = 200L * quantity;
-                        blockExperience = 1000L * quantity;
-                    }
-                    case BEACON -> {
-                        blockCoins = 2000L * quantity;
-                        blockTokens = 500L * quantity;
-                        blockExperience = 2000L * quantity;
-                    }
-                    default -> {
-                        // Valeur minimale pour tout autre bloc
-                        blockCoins = quantity;
-                        blockExperience = quantity;
-                    }
-                }
-            }
+            long[] baseGains = computeBaseGains(minedBlock, quantity);
+            long blockCoins = baseGains[0];
+            long blockTokens = baseGains[1];
+            long blockExperience = baseGains[2];
 
             // === NOUVELLES LOGIQUES GREED (Correction) ===
 
@@ -454,6 +370,184 @@ public class AutominerManager {
                 totalExperience, totalKeys, beaconFound);
     }
 
+    /**
+     * Simule en un seul appel {@code seconds} secondes de minage (rattrapage d'un joueur en retard ou hors ligne)
+     * <p>
+     * Forme close : les gains correspondent à l'espérance de {@link #simulateMining} répété chaque seconde
+     * (Efficacité, Fortune, Greed, cristaux, clés, beacons), les quantités fractionnaires étant arrondies
+     * aléatoirement pour conserver la moyenne. Le coût ne dépend pas de la durée simulée.
+     */
+    public AutominerElapsedResult simulateElapsed(ItemStack autominer, String worldName, long seconds) {
+        if (seconds <= 0 || !isAutominer(autominer)) return null;
+
+        Map<String, Integer> enchantments = getAutominerEnchantments(autominer);
+        Map<String, String> crystals = getAutominerCrystals(autominer);
+
+        MineData mineData = plugin.getConfigManager().getMineData(worldName);
+        if (mineData == null) return null;
+        Map<Material, Double> composition = mineData.getBlockComposition();
+        double totalWeight = composition.values().stream().mapToDouble(Double::doubleValue).sum();
+        if (composition.isEmpty() || totalWeight <= 0) return null;
+
+        // Blocs par seconde : 1, plus la chance d'un 2ème bloc à partir d'Efficacité 1500
+        int efficaciteLevel = enchantments.getOrDefault("EFFICACITE", 0);
+        double secondBlockChance = efficaciteLevel >= 1500 ? Math.min(0.5 + ((efficaciteLevel - 1500) / 1000.0), 1.0) : 0.0;
+        double expectedBlocks = seconds * (1.0 + secondBlockChance);
+
+        // Quantité moyenne par bloc avec Fortune (partie entière garantie + chance pour le reste)
+        double expectedQuantity = 1.0 + (enchantments.getOrDefault("FORTUNE", 0) * 0.01);
+
+        // Bonus Greed moyens par bloc (25% de chance chacun)
+        int moneyGreedLevel = enchantments.getOrDefault("MONEYGREED", 0);
+        int tokenGreedLevel = enchantments.getOrDefault("TOKENGREED", 0);
+        int expGreedLevel = enchantments.getOrDefault("EXPGREED", 0);
+        double greedCoins = moneyGreedLevel > 0 ? 0.25 * Math.max(1, moneyGreedLevel * expectedQuantity) : 0.0;
+        double greedTokens = tokenGreedLevel > 0 ? 0.25 * Math.max(1, Math.round(tokenGreedLevel * 0.5 * expectedQuantity)) : 0.0;
+        double greedExperience = expGreedLevel > 0 ? 0.25 * Math.max(1, expGreedLevel * 2 * expectedQuantity) : 0.0;
+
+        // Amplification des cristaux
+        double coinsMultiplier = 1.0, tokensMultiplier = 1.0, experienceMultiplier = 1.0;
+        for (String crystal : crystals.values()) {
+            if (crystal != null && !crystal.equals("null")) {
+                if (crystal.contains("MoneyBoost")) coinsMultiplier *= 1.1;
+                else if (crystal.contains("TokenBoost")) tokensMultiplier *= 1.1;
+                else if (crystal.contains("XPBoost")) experienceMultiplier *= 1.1;
+            }
+        }
+
+        Map<Material, Long> minedBlocks = new EnumMap<>(Material.class);
+        long totalMined = 0;
+        double coins = 0, tokens = 0, experience = 0;
+        for (Map.Entry<Material, Double> entry : composition.entrySet()) {
+            double blocks = expectedBlocks * entry.getValue() / totalWeight;
+            if (blocks <= 0) continue;
+
+            long[] baseGains = computeBaseGains(entry.getKey(), 1);
+            coins += blocks * (baseGains[0] * expectedQuantity + greedCoins) * coinsMultiplier;
+            tokens += blocks * (baseGains[1] * expectedQuantity + greedTokens) * tokensMultiplier;
+            experience += blocks * (baseGains[2] * expectedQuantity + greedExperience) * experienceMultiplier;
+
+            long mined = stochasticRound(blocks);
+            if (mined > 0) {
+                minedBlocks.put(entry.getKey(), mined);
+                totalMined += mined;
+            }
+        }
+
+        // Une tentative de clé et de beacon par seconde simulée
+        double keyChance = Math.min(enchantments.getOrDefault("KEYGREED", 0) * 0.00001, 1.0);
+        double beaconChance = Math.min(enchantments.getOrDefault("BEACONFINDER", 0) * 0.01, 1.0);
+
+        return new AutominerElapsedResult(minedBlocks, totalMined, stochasticRound(coins), stochasticRound(tokens),
+                stochasticRound(experience), stochasticRound(seconds * keyChance), stochasticRound(seconds * beaconChance));
+    }
+
+    /**
+     * Arrondi aléatoire préservant l'espérance (2.3 → 3 avec 30% de chance, 2 sinon)
+     */
+    private long stochasticRound(double value) {
+        if (value <= 0) return 0;
+        long floor = (long) value;
+        return ThreadLocalRandom.current().nextDouble() < (value - floor) ? floor + 1 : floor;
+    }
+
+    /**
+     * Gains de base (coins, tokens, exp) d'un bloc miné : BlockValue, puis prix de vente, puis valeurs par défaut
+     * Les gains sont proportionnels à la quantité.
+     */
+    private long[] computeBaseGains(Material minedBlock, int quantity) {
+        long blockCoins = 0;
+        long blockTokens = 0;
+        long blockExperience = 0;
+
+        // Essayer d'abord getBlockValue
+        var blockValue = plugin.getConfigManager().getBlockValue(minedBlock);
+        if (blockValue != null) {
+            blockCoins = blockValue.coins() * quantity;
+            blockTokens = blockValue.tokens() * quantity;
+            blockExperience = blockValue.experience() * quantity;
+        }
+
+        // Si pas de valeur coins dans BlockValue, utiliser getSellPrice
+        if (blockCoins == 0) {
+            long sellPrice = plugin.getConfigManager().getSellPrice(minedBlock);
+            if (sellPrice > 0) {
+                blockCoins = sellPrice * quantity;
+            }
+        }
+
+        // Si toujours pas de valeur, utiliser des valeurs par défaut selon le type de bloc
+        if (blockCoins == 0 && blockTokens == 0 && blockExperience == 0) {
+            switch (minedBlock) {
+                case STONE -> {
+                    blockCoins = quantity;
+                    blockExperience = 2L * quantity;
+                }
+                case COBBLESTONE -> {
+                    blockCoins = quantity;
+                    blockExperience = 2L * quantity;
+                }
+                case COAL_ORE -> {
+                    blockCoins = 5L * quantity;
+                    blockTokens = quantity;
+                    blockExperience = 10L * quantity;
+                }
+                case IRON_ORE -> {
+                    blockCoins = 10L * quantity;
+                    blockTokens = 2L * quantity;
+                    blockExperience = 15L * quantity;
+                }
+                case GOLD_ORE -> {
+                    blockCoins = 25L * quantity;
+                    blockTokens = 5L * quantity;
+                    blockExperience = 30L * quantity;
+                }
+                case DIAMOND_ORE -> {
+                    blockCoins = 100L * quantity;
+                    blockTokens = 20L * quantity;
+                    blockExperience = 100L * quantity;
+                }
+                case EMERALD_ORE -> {
+                    blockCoins = 150L * quantity;
+                    blockTokens = 30L * quantity;
+                    blockExperience = 150L * quantity;
+                }
+                case REDSTONE_ORE -> {
+                    blockCoins = 15L * quantity;
+                    blockTokens = 3L * quantity;
+                    blockExperience = 20L * quantity;
+                }
+                case LAPIS_ORE -> {
+                    blockCoins = 20L * quantity;
+                    blockTokens = 4L * quantity;
+                    blockExperience = 25L * quantity;
+                }
+                case ANCIENT_DEBRIS -> {
+                    blockCoins = 500L * quantity;
+                    blockTokens = 100L * quantity;
+                    blockExperience = 500L * quantity;
+                }
+                case NETHERITE_BLOCK -> {
+                    blockCoins = 1000L * quantity;
+                    blockTokens = 200L * quantity;
+                    blockExperience = 1000L * quantity;
+                }
+                case BEACON -> {
+                    blockCoins = 2000L * quantity;
+                    blockTokens = 500L * quantity;
+                    blockExperience = 2000L * quantity;
+                }
+                default -> {
+                    // Valeur minimale pour tout autre bloc
+                    blockCoins = quantity;
+                    blockExperience = quantity;
+                }
+            }
+        }
+
+        return new long[]{blockCoins, blockTokens, blockExperience};
+    }
+
     /**
      * Calcule la consommation de carburant d'un automineur
      */
@@ -594,4 +688,11 @@ public class AutominerManager {
     public record AutominerMiningResult(Material minedBlock, int quantity, long coins, long tokens, long experience,
                                         int keys, boolean beaconFound) {
     }
+
+    /**
+     * Résultat d'une simulation de minage sur une durée (forme close)
+     */
+    public record AutominerElapsedResult(Map<Material, Long> minedBlocks, long quantity, long coins, long tokens,
+                                         long experience, long keys, long beacons) {
+    }
 }
\ No newline at end of file
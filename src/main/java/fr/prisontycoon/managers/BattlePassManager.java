@@ -127,9 +127,10 @@ public class BattlePassManager {
     // ============================================================================================
 
     public PlayerPassData getPlayerData(UUID playerId) {
-        // Utiliser QuestManager pour récupérer les données BP
+        // Utiliser QuestManager pour récupérer les données BP (progression en cache, chargée à la connexion :
+        // jamais d'accès base ni de re-sélection des quêtes ici)
         QuestManager questManager = plugin.getQuestManager();
-        PlayerQuestProgress progress = questManager.getProgress(playerId);
+        PlayerQuestProgress progress = questManager.getLoadedProgress(playerId);
 
         // Extraire les données BP du PlayerQuestProgress
         // Ces données sont stockées dans player_quests par QuestManager
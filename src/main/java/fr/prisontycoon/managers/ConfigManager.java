@@ -5,6 +5,7 @@ import fr.prisontycoon.PrisonTycoon;
 import fr.prisontycoon.data.BlockValueData;
 import fr.prisontycoon.data.MineData;
 import fr.prisontycoon.data.WarpData;
+import fr.prisontycoon.utils.MineSpatialIndex;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
@@ -29,6 +30,8 @@ public class ConfigManager {
     private Map<String, Object> enchantmentSettings;
     private Map<Material, Long> sellPrices;
     private Map<String, WarpData> warpsData;
+    // Index spatial monde/chunk → mines, reconstruit à chaque chargement des mines
+    private volatile MineSpatialIndex mineIndex = MineSpatialIndex.empty();
 
 
     public ConfigManager(PrisonTycoon plugin) {
@@ -87,6 +90,7 @@ public class ConfigManager {
         if (minesSection == null) {
             plugin.getPluginLogger().warning("§cAucune section 'mines' trouvée dans la config!");
             plugin.getPluginLogger().warning("§cVérifiez que le fichier config.yml contient une section 'mines:'");
+            mineIndex = MineSpatialIndex.empty();
             return;
         }
 
@@ -119,6 +123,10 @@ public class ConfigManager {
         if (minesData.isEmpty()) {
             plugin.getPluginLogger().warning("§cAucune mine valide chargée! Vérifiez votre configuration.");
         }
+
+        mineIndex = MineSpatialIndex.build(minesData.values());
+        plugin.getPluginLogger().debug("Index spatial des mines: " + mineIndex.getMineCount() + " mines sur " +
+                mineIndex.getIndexedChunkCount() + " chunks");
     }
 
     /**
@@ -380,23 +388,27 @@ public class ConfigManager {
 
     /**
      * Valide qu'un joueur est dans une mine
-     * CORRIGÉ : Meilleur logging
+     * Recherche O(1) via l'index spatial (chunk → mines) au lieu d'un parcours de toutes les mines
      */
     public String getPlayerMine(Location location) {
+        MineData mine = getMineAt(location);
+        return mine != null ? mine.getName() : null;
+    }
+
+    /**
+     * Retourne la mine contenant une position, ou null
+     */
+    public MineData getMineAt(Location location) {
         if (location == null || location.getWorld() == null) {
             return null;
         }
 
-        for (Map.Entry<String, MineData> entry : minesData.entrySet()) {
-            if (entry.getValue().contains(location)) {
-                plugin.getPluginLogger().debug("Joueur dans la mine: " + entry.getKey());
-                return entry.getKey();
-            }
+        MineData mine = mineIndex.find(location);
+        if (mine == null) {
+            plugin.getPluginLogger().debugLazy(() -> "Position hors mine: " + location.getWorld().getName() +
+                    " " + location.getBlockX() + "," + location.getBlockY() + "," + location.getBlockZ());
         }
-
-        plugin.getPluginLogger().debug("Joueur hors mine à: " + location.getWorld().getName() +
-                " " + location.getBlockX() + "," + location.getBlockY() + "," + location.getBlockZ());
-        return null;
+        return mine;
     }
 
     /**
@@ -45,6 +45,7 @@ public class CristalManager {
 
     private void invalidateCristalCache(java.util.UUID playerId) {
         cristalsCache.remove(playerId);
+        plugin.getGlobalBonusManager().invalidate(playerId);
     }
 
     /**
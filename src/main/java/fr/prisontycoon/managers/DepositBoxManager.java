@@ -2,13 +2,16 @@ package fr.prisontycoon.managers;
 
 import com.google.gson.Gson;
 import fr.prisontycoon.PrisonTycoon;
+import fr.prisontycoon.api.SkyblockDepositBoxBridge;
 import fr.prisontycoon.data.DepositBoxData;
 import fr.prisontycoon.data.PlayerData;
 import fr.prisontycoon.data.PrinterTier;
 import fr.prisontycoon.utils.NumberFormatter;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
+import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.block.Block;
 import org.bukkit.block.Hopper;
@@ -26,7 +29,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.lang.reflect.Method;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Gestionnaire des caisses de dépôt
@@ -40,10 +43,29 @@ public class DepositBoxManager {
     private final NamespacedKey billKey;
     private final NamespacedKey billTierKey;
     
-    // Cache des caisses de dépôt (utilise le DatabaseManager de Skyblock)
+    // Pont vers CustomSkyblock (null tant que CustomSkyblock n'a pas enregistré son service)
+    private volatile SkyblockDepositBoxBridge skyblockBridge;
+    
+    // Cache des caisses de dépôt (persistées par CustomSkyblock)
     private final Map<String, DepositBoxData> depositBoxCache = new ConcurrentHashMap<>();
     private final Map<Location, String> depositBoxLocations = new ConcurrentHashMap<>();
     private final Map<UUID, Set<String>> playerDepositBoxes = new ConcurrentHashMap<>();
+    // Index chunk → caisses, pour réveiller les caisses au chargement d'un chunk
+    private final Map<ChunkPos, Set<String>> depositBoxesByChunk = new ConcurrentHashMap<>();
+    
+    // File de travail : caisses dont le hopper a reçu des billets (seules ces caisses sont examinées)
+    private final Set<String> pendingDepositBoxes = ConcurrentHashMap.newKeySet();
+    // Caisses dont le lastProcessingTime reste à persister (sauvegarde groupée)
+    private final Set<String> dirtyDepositBoxes = ConcurrentHashMap.newKeySet();
+    
+    // Billets reçus directement par les caisses via hopper, cumulés jusqu'au prochain versement groupé
+    private final Map<String, PendingHopperCredit> pendingHopperCredits = new ConcurrentHashMap<>();
+    
+    // Débit des billets reçus via hopper (planification de capacité)
+    private final LongAdder hopperBillsTotal = new LongAdder();
+    private volatile double hopperBillsPerSecond = 0.0;
+    private volatile double peakHopperBillsPerSecond = 0.0;
+    private long lastHopperFlushAt = System.nanoTime();
     
     // Configuration de la caisse de dépôt
     private final DepositBoxConfig depositBoxConfig;
@@ -58,42 +80,52 @@ public class DepositBoxManager {
         // Une seule caisse de dépôt avec améliorations via GUI
         this.depositBoxConfig = new DepositBoxConfig(2, 1.0, 1000L);
         
-        initializeCaches();
+        // CustomSkyblock dépend de PrisonTycoon : le pont est normalement branché plus tard par PluginLoadListener
+        attachSkyblockBridge(plugin.getServer().getServicesManager().load(SkyblockDepositBoxBridge.class));
         startProcessingTask();
+        startPersistenceTask();
+        startHopperCreditTask();
         
         plugin.getPluginLogger().info("§aDepositBoxManager initialisé.");
     }
     
-    private void initializeCaches() {
-        // Initialiser les caches à partir du DepositBoxManager de Skyblock
-        if (plugin.getCustomSkyblock() != null && plugin.getCustomSkyblock().getDepositBoxManager() != null) {
-            var skyblockDepositBoxManager = plugin.getCustomSkyblock().getDepositBoxManager();
-            try {
-                var depositBoxes = (Map<String, fr.skyblock.models.DepositBoxData>) skyblockDepositBoxManager.getClass()
-                    .getMethod("getAllDepositBoxes")
-                    .invoke(skyblockDepositBoxManager);
-            
-            for (Map.Entry<String, fr.skyblock.models.DepositBoxData> entry : depositBoxes.entrySet()) {
-                fr.skyblock.models.DepositBoxData skyblockDepositBox = entry.getValue();
-                // Convertir en DepositBoxData de PrisonTycoon
-                DepositBoxData depositBox = new DepositBoxData(
-                    skyblockDepositBox.getId(),
-                    skyblockDepositBox.getOwner(),
-                    skyblockDepositBox.getLocation(),
-                    skyblockDepositBox.getCapacityLevel(),
-                    skyblockDepositBox.getMultiplierLevel(),
-                    skyblockDepositBox.getLastProcessingTime(),
-                    skyblockDepositBox.getProcessingIntervalMs(),
-                    skyblockDepositBox.getMaxItemsPerSecond()
-                );
-                
-                depositBoxCache.put(depositBox.getId(), depositBox);
-                depositBoxLocations.put(depositBox.getLocation(), depositBox.getId());
-                playerDepositBoxes.computeIfAbsent(depositBox.getOwner(), k -> ConcurrentHashMap.newKeySet()).add(depositBox.getId());
-            }
-            } catch (Exception e) {
-                plugin.getPluginLogger().warning("Erreur lors du chargement des caisses de dépôt: " + e.getMessage());
+    /**
+     * Branche le pont CustomSkyblock et charge les caisses de dépôt des îles
+     */
+    public void attachSkyblockBridge(SkyblockDepositBoxBridge bridge) {
+        if (bridge == null || bridge == skyblockBridge) return;
+        this.skyblockBridge = bridge;
+        
+        try {
+            for (DepositBoxData depositBox : bridge.loadDepositBoxes()) {
+                registerDepositBox(depositBox);
+                // Des billets ont pu s'accumuler pendant l'arrêt : examiner les caisses déjà chargées
+                if (isChunkLoaded(depositBox.getLocation())) {
+                    pendingDepositBoxes.add(depositBox.getId());
+                }
             }
+        } catch (Exception e) {
+            plugin.getPluginLogger().warning("Erreur lors du chargement des caisses de dépôt: " + e.getMessage());
+        }
+        plugin.getPluginLogger().info("§a" + depositBoxCache.size() + " caisses de dépôt chargées depuis CustomSkyblock.");
+    }
+    
+    /**
+     * Débranche le pont (désactivation de CustomSkyblock) après avoir persisté les caisses modifiées
+     */
+    public void detachSkyblockBridge() {
+        if (skyblockBridge == null) return;
+        flushDirtyDepositBoxes();
+        this.skyblockBridge = null;
+    }
+    
+    private void registerDepositBox(DepositBoxData depositBox) {
+        depositBoxCache.put(depositBox.getId(), depositBox);
+        depositBoxLocations.put(depositBox.getLocation(), depositBox.getId());
+        playerDepositBoxes.computeIfAbsent(depositBox.getOwner(), k -> ConcurrentHashMap.newKeySet()).add(depositBox.getId());
+        ChunkPos chunk = ChunkPos.of(depositBox.getLocation());
+        if (chunk != null) {
+            depositBoxesByChunk.computeIfAbsent(chunk, k -> ConcurrentHashMap.newKeySet()).add(depositBox.getId());
         }
     }
     
@@ -101,9 +133,15 @@ public class DepositBoxManager {
      * Sauvegarde toutes les caisses de dépôt via le DatabaseManager de Skyblock
      */
     public void saveAll() {
-        if (plugin.getCustomSkyblock() != null && plugin.getCustomSkyblock().getDatabaseManager() != null) {
-            var skyblockDb = plugin.getCustomSkyblock().getDatabaseManager();
-            skyblockDb.saveAll();
+        flushHopperCredits();
+        SkyblockDepositBoxBridge bridge = skyblockBridge;
+        if (bridge == null) return;
+        
+        flushDirtyDepositBoxes();
+        try {
+            bridge.saveAll();
+        } catch (Exception e) {
+            plugin.getPluginLogger().warning("Erreur lors de la sauvegarde des caisses de dépôt: " + e.getMessage());
         }
     }
     
@@ -115,45 +153,74 @@ public class DepositBoxManager {
         DepositBoxData depositBox = new DepositBoxData(id, owner, location, 1,
                 depositBoxConfig.getMultiplier(), System.currentTimeMillis(), 1000, depositBoxConfig.getMaxItemsPerSecond());
         
-        depositBoxCache.put(id, depositBox);
-        depositBoxLocations.put(location, id);
-        playerDepositBoxes.computeIfAbsent(owner, k -> ConcurrentHashMap.newKeySet()).add(id);
+        registerDepositBox(depositBox);
+        // Le hopper peut déjà contenir des billets
+        pendingDepositBoxes.add(id);
         
         // Sauvegarder via le DepositBoxManager de Skyblock
-        if (plugin.getCustomSkyblock() != null && plugin.getCustomSkyblock().getDepositBoxManager() != null) {
-            var skyblockDepositBoxManager = plugin.getCustomSkyblock().getDepositBoxManager();
-            // Convertir en DepositBoxData de Skyblock
-            fr.skyblock.models.DepositBoxData skyblockDepositBox = new fr.skyblock.models.DepositBoxData(
-                depositBox.getId(),
-                depositBox.getOwner(),
-                depositBox.getLocation(),
-                depositBox.getCapacityLevel(),
-                depositBox.getMultiplierLevel(),
-                depositBox.getLastProcessingTime(),
-                depositBox.getProcessingIntervalMs(),
-                depositBox.getMaxItemsPerSecond()
-            );
-            
-            // Obtenir l'ID de l'île à cette location via réflexion
+        persistDepositBox(depositBox);
+        
+        return depositBox;
+    }
+    
+    /**
+     * Supprime une caisse de dépôt des caches et de CustomSkyblock
+     */
+    public boolean removeDepositBox(String depositBoxId) {
+        DepositBoxData depositBox = depositBoxCache.remove(depositBoxId);
+        if (depositBox == null) {
+            return false;
+        }
+        
+        depositBoxLocations.remove(depositBox.getLocation());
+        Set<String> ownerBoxes = playerDepositBoxes.get(depositBox.getOwner());
+        if (ownerBoxes != null) {
+            ownerBoxes.remove(depositBoxId);
+        }
+        ChunkPos chunk = ChunkPos.of(depositBox.getLocation());
+        if (chunk != null) {
+            Set<String> chunkBoxes = depositBoxesByChunk.get(chunk);
+            if (chunkBoxes != null) {
+                chunkBoxes.remove(depositBoxId);
+            }
+        }
+        pendingDepositBoxes.remove(depositBoxId);
+        dirtyDepositBoxes.remove(depositBoxId);
+        
+        // Supprimer via le pont CustomSkyblock
+        SkyblockDepositBoxBridge bridge = skyblockBridge;
+        if (bridge != null) {
             try {
-                UUID islandId = (UUID) skyblockDepositBoxManager.getClass()
-                    .getMethod("getIslandIdAtLocation", Location.class)
-                    .invoke(skyblockDepositBoxManager, location);
-                
+                UUID islandId = bridge.getIslandIdAt(depositBox.getLocation());
                 if (islandId != null) {
-                    skyblockDepositBoxManager.getClass()
-                        .getMethod("saveDepositBox", UUID.class, Object.class)
-                        .invoke(skyblockDepositBoxManager, islandId, skyblockDepositBox);
+                    bridge.removeDepositBox(islandId, depositBoxId);
                 }
             } catch (Exception e) {
-                plugin.getPluginLogger().warning("Erreur lors de la sauvegarde de la caisse de dépôt: " + e.getMessage());
+                plugin.getPluginLogger().warning("Erreur lors de la suppression de la caisse de dépôt: " + e.getMessage());
             }
         }
         
-        return depositBox;
+        return true;
     }
     
-
+    /**
+     * Vérifie si un joueur peut retirer une caisse de dépôt : son propriétaire, ou le chef et les officiers de l'île
+     */
+    public boolean canManageDepositBox(UUID playerId, String depositBoxId) {
+        DepositBoxData depositBox = depositBoxCache.get(depositBoxId);
+        if (depositBox == null) return false;
+        if (depositBox.getOwner().equals(playerId)) return true;
+        
+        SkyblockDepositBoxBridge bridge = skyblockBridge;
+        if (bridge == null) return false;
+        try {
+            UUID islandId = bridge.getIslandIdAt(depositBox.getLocation());
+            return islandId != null && bridge.isIslandManager(islandId, playerId);
+        } catch (Exception e) {
+            plugin.getPluginLogger().warning("Erreur lors de la vérification des permissions de caisse de dépôt: " + e.getMessage());
+            return false;
+        }
+    }
     
     /**
      * Vérifie si un item est une caisse de dépôt
@@ -217,105 +284,295 @@ public class DepositBoxManager {
     
     /**
      * Démarre la tâche de traitement des caisses de dépôt
+     * Seules les caisses de la file de travail (billets reçus par leur hopper) sont examinées.
      */
     private void startProcessingTask() {
         new BukkitRunnable() {
             @Override
             public void run() {
-                for (DepositBoxData depositBox : depositBoxCache.values()) {
-                    if (depositBox.shouldProcessItems()) {
-                        processDepositBox(depositBox);
-                    }
-                }
+                processPendingDepositBoxes();
             }
         }.runTaskTimer(plugin, 20L, 20L); // Vérification toutes les secondes
     }
     
+    /**
+     * Démarre la sauvegarde groupée des temps de traitement
+     */
+    private void startPersistenceTask() {
+        long interval = Math.max(20L, plugin.getConfig().getLong("performance.task-intervals.deposit-box-save-ticks", 1200L));
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                flushDirtyDepositBoxes();
+            }
+        }.runTaskTimer(plugin, interval, interval);
+    }
+    
+    /**
+     * Démarre le versement groupé des billets reçus via hopper (une fois par seconde)
+     */
+    private void startHopperCreditTask() {
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                flushHopperCredits();
+            }
+        }.runTaskTimer(plugin, 20L, 20L);
+    }
+    
+    private void processPendingDepositBoxes() {
+        if (pendingDepositBoxes.isEmpty()) return;
+        
+        Iterator<String> iterator = pendingDepositBoxes.iterator();
+        while (iterator.hasNext()) {
+            String depositBoxId = iterator.next();
+            DepositBoxData depositBox = depositBoxCache.get(depositBoxId);
+            // Caisse supprimée, ou île déchargée : le chargement du chunk la remettra dans la file
+            if (depositBox == null || !isChunkLoaded(depositBox.getLocation())) {
+                iterator.remove();
+                continue;
+            }
+            if (!depositBox.shouldProcessItems()) continue;
+            
+            if (!processDepositBox(depositBox)) {
+                iterator.remove(); // Plus de billets en attente dans le hopper
+            }
+        }
+    }
+    
+    /**
+     * Met une caisse dans la file de travail (billet reçu par son hopper)
+     */
+    public void queueDepositBox(String depositBoxId) {
+        if (depositBoxCache.containsKey(depositBoxId)) {
+            pendingDepositBoxes.add(depositBoxId);
+        }
+    }
+    
+    /**
+     * Met dans la file de travail la caisse placée au-dessus d'un hopper, s'il y en a une
+     */
+    public void queueDepositBoxAboveHopper(Location hopperLocation) {
+        String depositBoxId = getDepositBoxIdAtLocation(hopperLocation.clone().add(0, 1, 0));
+        if (depositBoxId != null) {
+            pendingDepositBoxes.add(depositBoxId);
+        }
+    }
+    
+    /**
+     * Chargement d'un chunk : ses caisses peuvent avoir des billets en attente
+     */
+    public void onChunkLoad(Chunk chunk) {
+        Set<String> depositBoxIds = depositBoxesByChunk.get(new ChunkPos(chunk.getWorld().getName(), chunk.getX(), chunk.getZ()));
+        if (depositBoxIds == null) return;
+        for (String depositBoxId : depositBoxIds) {
+            queueDepositBox(depositBoxId);
+        }
+    }
+    
+    /**
+     * ID de la caisse de dépôt à l'emplacement d'un bloc (null si aucune)
+     */
+    public String getDepositBoxIdAtLocation(Location location) {
+        return depositBoxLocations.get(location.getBlock().getLocation());
+    }
+    
+    /**
+     * Nombre de billets dans une pile
+     */
+    public int getBillStackSize(ItemStack bill) {
+        return bill.getAmount();
+    }
+    
+    private static boolean isChunkLoaded(Location location) {
+        return location.isWorldLoaded() && location.getWorld().isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
+    
     /**
      * Traite une caisse de dépôt
+     *
+     * @return true s'il reste des billets dans le hopper après ce passage
      */
-    private void processDepositBox(DepositBoxData depositBox) {
+    private boolean processDepositBox(DepositBoxData depositBox) {
         Location location = depositBox.getLocation();
         Block block = location.getBlock();
         
         if (block.getType() != Material.CHEST) {
-            return; // La caisse a été détruite
+            return false; // La caisse a été détruite
         }
         
-        // Obtenir l'ID de l'île pour les améliorations
-        UUID islandId = getIslandIdAtLocation(location);
-        double hopperTransferSpeed = islandId != null ? getHopperTransferSpeed(islandId) : 1.0;
-        
         // Vérifier s'il y a un hopper connecté
         Location hopperLocation = location.clone().add(0, -1, 0);
         Block hopperBlock = hopperLocation.getBlock();
         
         if (hopperBlock.getType() != Material.HOPPER) {
-            return; // Pas de hopper connecté
+            return false; // Pas de hopper connecté
         }
         
-        Hopper hopper = (Hopper) hopperBlock.getState();
+        // Obtenir l'ID de l'île pour les améliorations
+        UUID islandId = getIslandIdAtLocation(location);
+        double hopperTransferSpeed = islandId != null ? getHopperTransferSpeed(islandId) : 1.0;
+        
+        Hopper hopper = (Hopper) hopperBlock.getState(false);
         Inventory hopperInventory = hopper.getInventory();
         
         // Traiter les items du hopper avec la vitesse de transfert améliorée
         int baseItemsToProcess = depositBox.getItemsToProcess();
         int itemsToProcess = (int) (baseItemsToProcess * hopperTransferSpeed);
         int processedItems = 0;
+        boolean billsLeft = false;
         
-        for (int i = 0; i < hopperInventory.getSize() && processedItems < itemsToProcess; i++) {
+        for (int i = 0; i < hopperInventory.getSize(); i++) {
             ItemStack item = hopperInventory.getItem(i);
-            if (item != null && isBill(item)) {
-                // Calculer la valeur avec le multiplicateur
-                BigInteger billValue = getBillValue(item);
-                BigInteger multipliedValue = billValue.multiply(BigInteger.valueOf((long) (depositBox.getMultiplierLevel() * 100))).divide(BigInteger.valueOf(100));
-                
-                // Donner l'argent au propriétaire
-                PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(depositBox.getOwner());
-                playerData.addCoins(multipliedValue.longValue());
-                
-                // Retirer l'item du hopper
-                hopperInventory.setItem(i, null);
-                processedItems++;
-                
-                // Effet sonore
-                location.getWorld().playSound(location, Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 0.5f, 1.0f);
+            if (item == null || !isBill(item)) continue;
+            if (processedItems >= itemsToProcess) {
+                billsLeft = true;
+                break;
             }
+            
+            // Calculer la valeur avec le multiplicateur
+            BigInteger billValue = getBillValue(item);
+            BigInteger multipliedValue = billValue.multiply(BigInteger.valueOf((long) (depositBox.getMultiplierLevel() * 100))).divide(BigInteger.valueOf(100));
+            
+            // Donner l'argent au propriétaire
+            PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(depositBox.getOwner());
+            playerData.addCoins(multipliedValue.longValue());
+            
+            // Retirer l'item du hopper
+            hopperInventory.setItem(i, null);
+            processedItems++;
         }
         
-        // Mettre à jour le temps de traitement
-        DepositBoxData updatedDepositBox = depositBox.withUpdatedProcessingTime();
-        depositBoxCache.put(depositBox.getId(), updatedDepositBox);
+        if (processedItems > 0) {
+            plugin.getPlayerDataManager().markDirty(depositBox.getOwner());
+            // Effet sonore
+            location.getWorld().playSound(location, Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 0.5f, 1.0f);
+        }
         
-        // Sauvegarder via le DepositBoxManager de Skyblock
-        if (plugin.getCustomSkyblock() != null && plugin.getCustomSkyblock().getDepositBoxManager() != null) {
-            var skyblockDepositBoxManager = plugin.getCustomSkyblock().getDepositBoxManager();
-            // Convertir en DepositBoxData de Skyblock
-            fr.skyblock.models.DepositBoxData skyblockDepositBox = new fr.skyblock.models.DepositBoxData(
-                updatedDepositBox.getId(),
-                updatedDepositBox.getOwner(),
-                updatedDepositBox.getLocation(),
-                updatedDepositBox.getCapacityLevel(),
-                updatedDepositBox.getMultiplierLevel(),
-                updatedDepositBox.getLastProcessingTime(),
-                updatedDepositBox.getProcessingIntervalMs(),
-                updatedDepositBox.getMaxItemsPerSecond()
-            );
+        // Mettre à jour le temps de traitement (persisté par lot)
+        depositBoxCache.put(depositBox.getId(), depositBox.withUpdatedProcessingTime());
+        dirtyDepositBoxes.add(depositBox.getId());
+        return billsLeft;
+    }
+    
+    /**
+     * Cumule des billets transférés par un hopper dans une caisse de dépôt ; ils sont crédités au
+     * prochain versement groupé (un crédit, un effet et un message par propriétaire)
+     */
+    public void creditHopperBills(String depositBoxId, ItemStack bills) {
+        DepositBoxData depositBox = depositBoxCache.get(depositBoxId);
+        if (depositBox == null) return;
+        
+        int amount = getBillStackSize(bills);
+        BigInteger value = getBillValue(bills).multiply(BigInteger.valueOf(amount));
+        pendingHopperCredits.computeIfAbsent(depositBoxId, id -> new PendingHopperCredit(depositBox)).add(amount, value);
+    }
+    
+    /**
+     * Verse les billets cumulés depuis le dernier passage : la valeur de chaque caisse est multipliée
+     * par son niveau, puis le bonus de vente est appliqué une seule fois par propriétaire
+     */
+    public void flushHopperCredits() {
+        long now = System.nanoTime();
+        long bills = 0;
+        
+        if (!pendingHopperCredits.isEmpty()) {
+            Map<UUID, OwnerCredit> ownerCredits = new HashMap<>();
+            Iterator<PendingHopperCredit> iterator = pendingHopperCredits.values().iterator();
+            while (iterator.hasNext()) {
+                PendingHopperCredit credit = iterator.next();
+                iterator.remove();
+                
+                DepositBoxData depositBox = credit.depositBox;
+                double multiplier = 1.0 + (depositBox.getMultiplierLevel() * 0.1); // 10% par niveau
+                BigInteger value = credit.value.multiply(BigInteger.valueOf((long) (multiplier * 100)))
+                    .divide(BigInteger.valueOf(100));
+                ownerCredits.computeIfAbsent(depositBox.getOwner(), k -> new OwnerCredit()).add(credit.bills, value);
+                bills += credit.bills;
+                
+                // Un seul effet par caisse et par versement
+                Location location = depositBox.getLocation();
+                if (isChunkLoaded(location)) {
+                    location.getWorld().playSound(location, Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 0.5f, 1.2f);
+                    location.getWorld().spawnParticle(Particle.HAPPY_VILLAGER,
+                        location.clone().add(0.5, 1, 0.5), 5, 0.3, 0.3, 0.3, 0);
+                }
+            }
             
-            // Obtenir l'ID de l'île à cette location via réflexion
-            try {
-                UUID islandId2 = (UUID) skyblockDepositBoxManager.getClass()
-                    .getMethod("getIslandIdAtLocation", Location.class)
-                    .invoke(skyblockDepositBoxManager, depositBox.getLocation());
+            for (Map.Entry<UUID, OwnerCredit> entry : ownerCredits.entrySet()) {
+                UUID ownerId = entry.getKey();
+                OwnerCredit credit = entry.getValue();
+                BigInteger totalValue = credit.value;
                 
-                if (islandId2 != null) {
-                    skyblockDepositBoxManager.getClass()
-                        .getMethod("saveDepositBox", UUID.class, Object.class)
-                        .invoke(skyblockDepositBoxManager, islandId2, skyblockDepositBox);
+                // Appliquer le bonus de vente du joueur si connecté
+                Player player = plugin.getServer().getPlayer(ownerId);
+                if (player != null) {
+                    double salesMultiplier = plugin.getGlobalBonusManager().getTotalBonusMultiplier(player,
+                        fr.prisontycoon.managers.GlobalBonusManager.BonusCategory.SELL_BONUS);
+                    totalValue = totalValue.multiply(BigInteger.valueOf((long) (salesMultiplier * 100)))
+                        .divide(BigInteger.valueOf(100));
+                }
+                
+                PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(ownerId);
+                playerData.addCoins(totalValue.longValue());
+                plugin.getPlayerDataManager().markDirty(ownerId);
+                
+                if (player != null) {
+                    player.sendMessage("§a💰 §lCaisse de dépôt: §6+" + NumberFormatter.format(totalValue.longValue())
+                        + " coins §7(" + credit.bills + " billet" + (credit.bills > 1 ? "s" : "") + ")");
                 }
-            } catch (Exception e) {
-                plugin.getPluginLogger().warning("Erreur lors de la sauvegarde de la caisse de dépôt: " + e.getMessage());
             }
         }
+        
+        double elapsedSeconds = (now - lastHopperFlushAt) / 1_000_000_000.0;
+        lastHopperFlushAt = now;
+        hopperBillsTotal.add(bills);
+        if (elapsedSeconds > 0) {
+            hopperBillsPerSecond = bills / elapsedSeconds;
+            peakHopperBillsPerSecond = Math.max(peakHopperBillsPerSecond, hopperBillsPerSecond);
+        }
+    }
+    
+    /**
+     * Débit des billets reçus via hopper, pour dimensionner les fermes d'imprimantes
+     */
+    public String getHopperStatistics() {
+        return String.format("billets via hoppers: %d au total, %.1f/s (pic %.1f/s), %d caisses en attente de versement",
+            hopperBillsTotal.sum(), hopperBillsPerSecond, peakHopperBillsPerSecond, pendingHopperCredits.size());
+    }
+    
+    /**
+     * Persiste en un lot les lastProcessingTime modifiés depuis la dernière sauvegarde
+     */
+    private void flushDirtyDepositBoxes() {
+        if (dirtyDepositBoxes.isEmpty()) return;
+        
+        Iterator<String> iterator = dirtyDepositBoxes.iterator();
+        while (iterator.hasNext()) {
+            String depositBoxId = iterator.next();
+            iterator.remove();
+            DepositBoxData depositBox = depositBoxCache.get(depositBoxId);
+            if (depositBox != null) {
+                persistDepositBox(depositBox);
+            }
+        }
+    }
+    
+    /**
+     * Enregistre une caisse de dépôt via le pont CustomSkyblock (écriture différée côté Skyblock)
+     */
+    private void persistDepositBox(DepositBoxData depositBox) {
+        SkyblockDepositBoxBridge bridge = skyblockBridge;
+        if (bridge == null) return;
+        
+        try {
+            UUID islandId = bridge.getIslandIdAt(depositBox.getLocation());
+            if (islandId == null) return;
+            
+            bridge.saveDepositBox(islandId, depositBox);
+        } catch (Exception e) {
+            plugin.getPluginLogger().warning("Erreur lors de la sauvegarde de la caisse de dépôt: " + e.getMessage());
+        }
     }
     
     /**
@@ -369,10 +626,7 @@ public class DepositBoxManager {
      * Récupère une caisse de dépôt par son ID
      */
     public DepositBoxData getDepositBoxById(String id) {
-        return depositBoxCache.values().stream()
-            .filter(depositBox -> depositBox.getId().equals(id))
-            .findFirst()
-            .orElse(null);
+        return depositBoxCache.get(id);
     }
 
     /**
@@ -401,26 +655,7 @@ public class DepositBoxManager {
         depositBoxCache.put(depositBoxId, upgradedDepositBox);
 
         // Sauvegarder via le DepositBoxManager de Skyblock
-        if (plugin.getCustomSkyblock() != null && plugin.getCustomSkyblock().getDepositBoxManager() != null) {
-            var skyblockDepositBoxManager = plugin.getCustomSkyblock().getDepositBoxManager();
-            // Convertir en DepositBoxData de Skyblock
-            fr.skyblock.models.DepositBoxData skyblockDepositBox = new fr.skyblock.models.DepositBoxData(
-                upgradedDepositBox.getId(),
-                upgradedDepositBox.getOwner(),
-                upgradedDepositBox.getLocation(),
-                upgradedDepositBox.getCapacityLevel(),
-                upgradedDepositBox.getMultiplierLevel(),
-                upgradedDepositBox.getLastProcessingTime(),
-                upgradedDepositBox.getProcessingIntervalMs(),
-                upgradedDepositBox.getMaxItemsPerSecond()
-            );
-            
-            // Obtenir l'ID de l'île à cette location
-            UUID islandId = skyblockDepositBoxManager.getIslandIdAtLocation(upgradedDepositBox.getLocation());
-            if (islandId != null) {
-                skyblockDepositBoxManager.saveDepositBox(islandId, skyblockDepositBox);
-            }
-        }
+        persistDepositBox(upgradedDepositBox);
 
         return upgradedDepositBox;
     }
@@ -451,26 +686,7 @@ public class DepositBoxManager {
         depositBoxCache.put(depositBoxId, upgradedDepositBox);
 
         // Sauvegarder via le DepositBoxManager de Skyblock
-        if (plugin.getCustomSkyblock() != null && plugin.getCustomSkyblock().getDepositBoxManager() != null) {
-            var skyblockDepositBoxManager = plugin.getCustomSkyblock().getDepositBoxManager();
-            // Convertir en DepositBoxData de Skyblock
-            fr.skyblock.models.DepositBoxData skyblockDepositBox = new fr.skyblock.models.DepositBoxData(
-                upgradedDepositBox.getId(),
-                upgradedDepositBox.getOwner(),
-                upgradedDepositBox.getLocation(),
-                upgradedDepositBox.getCapacityLevel(),
-                upgradedDepositBox.getMultiplierLevel(),
-                upgradedDepositBox.getLastProcessingTime(),
-                upgradedDepositBox.getProcessingIntervalMs(),
-                upgradedDepositBox.getMaxItemsPerSecond()
-            );
-            
-            // Obtenir l'ID de l'île à cette location
-            UUID islandId = skyblockDepositBoxManager.getIslandIdAtLocation(upgradedDepositBox.getLocation());
-            if (islandId != null) {
-                skyblockDepositBoxManager.saveDepositBox(islandId, skyblockDepositBox);
-            }
-        }
+        persistDepositBox(upgradedDepositBox);
 
         return upgradedDepositBox;
     }
@@ -498,22 +714,11 @@ public class DepositBoxManager {
      * Obtient l'ID de l'île à une location donnée
      */
     private UUID getIslandIdAtLocation(Location location) {
-        if (plugin.getCustomSkyblock() == null) return null;
+        SkyblockDepositBoxBridge bridge = skyblockBridge;
+        if (bridge == null) return null;
         
         try {
-            Object islandManager = plugin.getCustomSkyblock().getClass()
-                .getMethod("getIslandManager")
-                .invoke(plugin.getCustomSkyblock());
-            
-            if (islandManager != null) {
-                Object island = islandManager.getClass()
-                    .getMethod("getIslandAtLocation", Location.class)
-                    .invoke(islandManager, location);
-                
-                if (island != null) {
-                    return (UUID) island.getClass().getMethod("getId").invoke(island);
-                }
-            }
+            return bridge.getIslandIdAt(location);
         } catch (Exception e) {
             plugin.getPluginLogger().warning("Erreur lors de la récupération de l'île à la location: " + e.getMessage());
         }
@@ -524,18 +729,11 @@ public class DepositBoxManager {
      * Vérifie si on peut placer une caisse de dépôt sur une île
      */
     private boolean canPlaceDepositBoxOnIsland(UUID islandId, int currentDepositBoxCount) {
-        if (plugin.getCustomSkyblock() == null) return true;
+        SkyblockDepositBoxBridge bridge = skyblockBridge;
+        if (bridge == null) return true;
         
         try {
-            Object islandUpgradeManager = plugin.getCustomSkyblock().getClass()
-                .getMethod("getIslandUpgradeManager")
-                .invoke(plugin.getCustomSkyblock());
-            
-            if (islandUpgradeManager != null) {
-                return (boolean) islandUpgradeManager.getClass()
-                    .getMethod("canPlaceDepositBox", UUID.class, int.class)
-                    .invoke(islandUpgradeManager, islandId, currentDepositBoxCount);
-            }
+            return bridge.canPlaceDepositBox(islandId, currentDepositBoxCount);
         } catch (Exception e) {
             plugin.getPluginLogger().warning("Erreur lors de la vérification de placement de caisse de dépôt: " + e.getMessage());
         }
@@ -546,18 +744,11 @@ public class DepositBoxManager {
      * Obtient la vitesse de transfert des hoppers pour une île
      */
     private double getHopperTransferSpeed(UUID islandId) {
-        if (plugin.getCustomSkyblock() == null) return 1.0;
+        SkyblockDepositBoxBridge bridge = skyblockBridge;
+        if (bridge == null) return 1.0;
         
         try {
-            Object islandUpgradeManager = plugin.getCustomSkyblock().getClass()
-                .getMethod("getIslandUpgradeManager")
-                .invoke(plugin.getCustomSkyblock());
-            
-            if (islandUpgradeManager != null) {
-                return (double) islandUpgradeManager.getClass()
-                    .getMethod("getHopperTransferSpeed", UUID.class)
-                    .invoke(islandUpgradeManager, islandId);
-            }
+            return bridge.getHopperTransferSpeed(islandId);
         } catch (Exception e) {
             plugin.getPluginLogger().warning("Erreur lors de la récupération de la vitesse de transfert: " + e.getMessage());
         }
@@ -594,6 +785,47 @@ public class DepositBoxManager {
         return true;
     }
 
+    /**
+     * Position d'un chunk (clé de l'index chunk → caisses)
+     */
+    private record ChunkPos(String world, int x, int z) {
+        static ChunkPos of(Location location) {
+            if (!location.isWorldLoaded()) return null;
+            return new ChunkPos(location.getWorld().getName(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        }
+    }
+
+    /**
+     * Billets reçus par une caisse depuis le dernier versement
+     */
+    private static final class PendingHopperCredit {
+        private final DepositBoxData depositBox;
+        private long bills = 0;
+        private BigInteger value = BigInteger.ZERO;
+        
+        private PendingHopperCredit(DepositBoxData depositBox) {
+            this.depositBox = depositBox;
+        }
+        
+        private void add(int amount, BigInteger billsValue) {
+            bills += amount;
+            value = value.add(billsValue);
+        }
+    }
+    
+    /**
+     * Total à verser à un propriétaire pour un versement
+     */
+    private static final class OwnerCredit {
+        private long bills = 0;
+        private BigInteger value = BigInteger.ZERO;
+        
+        private void add(long amount, BigInteger billsValue) {
+            bills += amount;
+            value = value.add(billsValue);
+        }
+    }
+
     // Getters
     public Map<String, DepositBoxData> getDepositBoxCache() { return depositBoxCache; }
     public Map<Location, String> getDepositBoxLocations() { return depositBoxLocations; }
@@ -301,6 +301,7 @@ public class GangManager {
         // Mettre à jour les données du joueur
         playerData.setGangId(gangId);
         plugin.getPlayerDataManager().markDirty(leader.getUniqueId());
+        plugin.getGlobalBonusManager().invalidate(leader.getUniqueId());
 
         // Sauvegarder
         saveGang(gang);
@@ -393,6 +394,7 @@ public class GangManager {
         playerData.setGangId(gangId);
         playerData.setGangInvitation(null);
         plugin.getPlayerDataManager().markDirty(playerId);
+        plugin.getGlobalBonusManager().invalidate(playerId);
 
         // Sauvegarder
         saveGang(gang);
@@ -439,6 +441,7 @@ public class GangManager {
         PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(playerId);
         playerData.setGangId(null);
         plugin.getPlayerDataManager().markDirty(playerId);
+        plugin.getGlobalBonusManager().invalidate(playerId);
 
         // Sauvegarder
         saveGang(gang);
@@ -565,6 +568,7 @@ public class GangManager {
             PlayerData memberData = plugin.getPlayerDataManager().getPlayerData(memberId);
             memberData.setGangId(null);
             plugin.getPlayerDataManager().markDirty(memberId);
+            plugin.getGlobalBonusManager().invalidate(memberId);
         }
 
         // Retirer des maps
@@ -661,6 +665,7 @@ public class GangManager {
         gang.setLevel(gang.getLevel() + 1);
 
         saveGang(gang);
+        invalidateMemberBonuses(gang);
 
         // Notifier les membres
         gang.broadcast("§6🎉 Le gang a été amélioré au niveau §e" + gang.getLevel() + "§6!", null);
@@ -668,6 +673,15 @@ public class GangManager {
         return true;
     }
 
+    /**
+     * Invalide les snapshots de bonus de tous les membres (niveau ou talents du gang modifiés)
+     */
+    private void invalidateMemberBonuses(Gang gang) {
+        for (UUID memberId : gang.getMembers().keySet()) {
+            plugin.getGlobalBonusManager().invalidate(memberId);
+        }
+    }
+
     /**
      * Achète un talent de gang
      */
@@ -699,6 +713,7 @@ public class GangManager {
         gang.addTalent(talentId, talent.getLevel());
 
         saveGang(gang);
+        invalidateMemberBonuses(gang);
 
         // Notifier
         gang.broadcast("§5🎯 Nouveau talent acheté: §e" + talent.getName() + " §5par §e" + buyer.getName() + "§5!", null);
@@ -9,10 +9,13 @@ import fr.prisontycoon.gangs.GangBoostType;
 import fr.prisontycoon.prestige.PrestigeTalent;
 import org.bukkit.entity.Player;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Gestionnaire unifié des bonus (cristaux, talents, boosts)
@@ -20,9 +23,17 @@ import java.util.UUID;
  */
 public class GlobalBonusManager {
 
-    private static final long BONUS_CACHE_TTL_MS = 2_000L;
+    // Filet de sécurité : durée de vie maximale d'un snapshot si aucune invalidation n'est reçue
+    private static final long SNAPSHOT_FALLBACK_TTL_MS = 15_000L;
+    private static final int CATEGORY_COUNT = BonusCategory.values().length;
     private final PrisonTycoon plugin;
-    private final Map<UUID, Map<BonusCategory, CachedMultiplier>> bonusCache = new HashMap<>();
+    private final Map<UUID, BonusSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    // Compteurs (taux de recalcul vs lectures)
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder recomputes = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
 
     public GlobalBonusManager(PrisonTycoon plugin) {
         this.plugin = plugin;
@@ -30,26 +41,79 @@ public class GlobalBonusManager {
 
     /**
      * MÉTHODE PRINCIPALE : Calcule le multiplicateur total pour une catégorie de bonus
+     * <p>
+     * Les sources « stables » (cristaux, armure, métier, prestige, boosts, gang, enchantements, banque)
+     * sont lues depuis un snapshot par joueur, recalculé uniquement après invalidation
+     * (ou expiration d'un boost / TTL de secours). La surcharge de mine, qui varie en continu, reste lue à chaque appel.
      */
     public double getTotalBonusMultiplier(Player player, BonusCategory category) {
+        lookups.increment();
         UUID pid = player.getUniqueId();
         long now = System.currentTimeMillis();
-        Map<BonusCategory, CachedMultiplier> perPlayer = bonusCache.get(pid);
-        if (perPlayer != null) {
-            CachedMultiplier cached = perPlayer.get(category);
-            if (cached != null && (now - cached.timestampMs) <= BONUS_CACHE_TTL_MS) {
-                return cached.multiplier;
+
+        BonusSnapshot snapshot = snapshots.get(pid);
+        if (snapshot == null || now >= snapshot.expiresAtMs) {
+            if (snapshot != null) {
+                expirations.increment();
             }
+            snapshot = new BonusSnapshot(computeSnapshotExpiry(player, now));
+            snapshots.put(pid, snapshot);
+        }
+
+        int index = category.ordinal();
+        double stableBonus = snapshot.bonuses[index];
+        if (Double.isNaN(stableBonus)) {
+            recomputes.increment();
+            BonusSourceDetails details = new BonusSourceDetails();
+            collectStableSources(player, category, details, false);
+            stableBonus = details.getTotalBonus();
+            snapshot.bonuses[index] = stableBonus;
+        }
+
+        return 1.0 + ((stableBonus + getMineOverloadBonus(player, category)) / 100.0);
+    }
+
+    /**
+     * Invalide le snapshot de bonus d'un joueur (boost, cristal, talent, armure, banque... modifiés)
+     */
+    public void invalidate(UUID playerId) {
+        if (playerId != null && snapshots.remove(playerId) != null) {
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Invalide tous les snapshots (changement global : boost admin, boost ou talent de gang...)
+     */
+    public void invalidateAll() {
+        if (!snapshots.isEmpty()) {
+            invalidations.add(snapshots.size());
+            snapshots.clear();
         }
+    }
+
+    /**
+     * Statistiques du moteur de snapshots
+     */
+    public String getSnapshotStats() {
+        long totalLookups = lookups.sum();
+        long totalRecomputes = recomputes.sum();
+        double ratio = totalLookups == 0 ? 0.0 : (totalRecomputes * 100.0) / totalLookups;
+        return String.format("§7Bonus: %d lectures | %d recalculs (%.2f%%) | %d invalidations | %d expirations | %d snapshots",
+                totalLookups, totalRecomputes, ratio, invalidations.sum(), expirations.sum(), snapshots.size());
+    }
 
-        BonusSourceDetails details = getBonusSourcesDetails(player, category);
-        double mult = details.getTotalMultiplier();
-        if (perPlayer == null) {
-            perPlayer = new HashMap<>();
-            bonusCache.put(pid, perPlayer);
+    /**
+     * Échéance du snapshot : TTL de secours, ou expiration du prochain boost si elle survient avant
+     */
+    private long computeSnapshotExpiry(Player player, long now) {
+        long expiry = now + SNAPSHOT_FALLBACK_TTL_MS;
+        if (plugin.getBoostManager() != null) {
+            Gang gang = getPlayerGang(player);
+            long nextBoostExpiry = plugin.getBoostManager().getNextBoostExpiry(player.getUniqueId(), gang != null ? gang.getId() : null);
+            expiry = Math.min(expiry, nextBoostExpiry);
         }
-        perPlayer.put(category, new CachedMultiplier(mult, now));
-        return mult;
+        return expiry;
     }
 
     /**
@@ -58,25 +122,41 @@ public class GlobalBonusManager {
      */
     public BonusSourceDetails getBonusSourcesDetails(Player player, BonusCategory category) {
         BonusSourceDetails details = new BonusSourceDetails();
+        collectStableSources(player, category, details, true);
+
+        double overloadBonus = getMineOverloadBonus(player, category);
+        details.setOverloadBonus(overloadBonus);
+        if (overloadBonus > 0) {
+            details.addDetailedSource("Surcharge de Mine", overloadBonus);
+        }
+
+        return details;
+    }
 
+    /**
+     * Calcule toutes les sources de bonus hors surcharge de mine (celles qui peuvent être mises en snapshot)
+     *
+     * @param withLabels true pour renseigner les sources détaillées (affichage GUI)
+     */
+    private void collectStableSources(Player player, BonusCategory category, BonusSourceDetails details, boolean withLabels) {
         // 1. Bonus des cristaux
         double cristalBonus = getCristalBonus(player, category);
         details.setCristalBonus(cristalBonus);
-        if (cristalBonus > 0) {
+        if (withLabels && cristalBonus > 0) {
             details.addDetailedSource("Cristaux " + getCristalTypeName(category), cristalBonus);
         }
 
         // 2. Bonus armures forge (nouveau)
         double armorBonus = getArmorBonus(player, category);
         details.setArmorBonus(armorBonus);
-        if (armorBonus > 0) {
+        if (withLabels && armorBonus > 0) {
             details.addDetailedSource("Armure Forge", armorBonus);
         }
 
         // 3. Bonus des talents de métiers
         double professionBonus = getProfessionTalentBonus(player, category);
         details.setProfessionBonus(professionBonus);
-        if (professionBonus > 0) {
+        if (withLabels && professionBonus > 0) {
             String activeProfession = plugin.getPlayerDataManager().getPlayerData(player.getUniqueId()).getActiveProfession();
             details.addDetailedSource("Talent " + (activeProfession != null ? activeProfession : "métier"), professionBonus);
         }
@@ -84,21 +164,21 @@ public class GlobalBonusManager {
         // 4. Bonus des talents de prestige
         double prestigeBonus = getPrestigeTalentBonus(player, category);
         details.setPrestigeBonus(prestigeBonus);
-        if (prestigeBonus > 0) {
+        if (withLabels && prestigeBonus > 0) {
             details.addDetailedSource("Talent Prestige", prestigeBonus);
         }
 
         // 5. Bonus des boosts temporaires (joueur)
         double boostBonus = getTemporaryBoostBonus(player, category);
         details.setTemporaryBoostBonus(boostBonus);
-        if (boostBonus > 0) {
+        if (withLabels && boostBonus > 0) {
             details.addDetailedSource("Boosts Personnels", boostBonus);
         }
 
         // 6. Bonus permanents du gang (niveaux, talents)
         double gangBonus = getGangBonus(player, category);
         details.setGangBonus(gangBonus);
-        if (gangBonus > 0) {
+        if (withLabels && gangBonus > 0) {
             Gang gang = getPlayerGang(player);
             String gangName = gang != null ? gang.getName() : "Gang";
             details.addDetailedSource("Gang " + gangName, gangBonus);
@@ -107,22 +187,16 @@ public class GlobalBonusManager {
         // 7. Bonus du boost de gang (temporaire)
         double temporaryGangBoost = getTemporaryGangBoostBonus(player, category);
         details.setTemporaryGangBoostBonus(temporaryGangBoost);
-        if (temporaryGangBoost > 0) {
+        if (withLabels && temporaryGangBoost > 0) {
             details.addDetailedSource("Boost de Gang (Temporaire)", temporaryGangBoost);
         }
 
         double enchantmentBonus = getEnchantmentBonus(player, category);
         details.setEnchantmentBonus(enchantmentBonus);
-        if (enchantmentBonus > 0) {
+        if (withLabels && enchantmentBonus > 0) {
             details.addDetailedSource("Enchantements", enchantmentBonus);
         }
 
-        double overloadBonus = getMineOverloadBonus(player, category);
-        details.setOverloadBonus(overloadBonus);
-        if (overloadBonus > 0) {
-            details.addDetailedSource("Surcharge de Mine", overloadBonus);
-        }
-
         // 8. Type de banque (bonus/malus)
         var data = plugin.getPlayerDataManager().getPlayerData(player.getUniqueId());
         if (data != null && data.getBankType() != null) {
@@ -131,12 +205,12 @@ public class GlobalBonusManager {
                 if (sellMult != 1.0) {
                     double sellPct = (sellMult - 1.0) * 100.0;
                     details.setBankBonus(details.getBankBonus() + sellPct);
-                    details.addDetailedSource("Type de Banque", sellPct);
+                    if (withLabels) {
+                        details.addDetailedSource("Type de Banque", sellPct);
+                    }
                 }
             }
         }
-
-        return details;
     }
 
     /**
@@ -580,6 +654,8 @@ public class GlobalBonusManager {
                 }
             }
         }
+
+        plugin.getPluginLogger().info(getSnapshotStats());
     }
 
     // ========================================
@@ -706,7 +782,17 @@ public class GlobalBonusManager {
         }
     }
 
-    private record CachedMultiplier(double multiplier, long timestampMs) {
+    /**
+     * Snapshot des bonus stables d'un joueur, indexé par BonusCategory.ordinal() (NaN = pas encore calculé)
+     */
+    private static final class BonusSnapshot {
+        private final double[] bonuses = new double[CATEGORY_COUNT];
+        private final long expiresAtMs;
+
+        private BonusSnapshot(long expiresAtMs) {
+            this.expiresAtMs = expiresAtMs;
+            Arrays.fill(bonuses, Double.NaN);
+        }
     }
 
     /**
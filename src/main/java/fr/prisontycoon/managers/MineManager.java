@@ -12,6 +12,9 @@ import com.sk89q.worldedit.world.block.BlockTypes;
 import fr.prisontycoon.PrisonTycoon;
 import fr.prisontycoon.data.MineData;
 import fr.prisontycoon.data.PlayerData;
+import fr.prisontycoon.utils.MineSpatialIndex;
+import fr.prisontycoon.utils.NumberFormatter;
+import fr.prisontycoon.utils.SectionMineGenerator;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -26,6 +29,7 @@ import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 /**
@@ -37,11 +41,16 @@ public class MineManager {
     private static final int TPS_SAMPLE_SIZE = 100;
     private static final long TPS_MONITOR_PERIOD_TICKS = 20L; // 1 seconde à 20 TPS
     private static final long NANOS_PER_TICK_TARGET = 50_000_000L; // 50ms
+    // Backends de régénération
+    private static final String BACKEND_SECTION = "section";
+    private static final String BACKEND_FAWE = "fawe";
+    private static final String BACKEND_BUKKIT = "bukkit";
     private final PrisonTycoon plugin;
     private final Map<String, MineData> mines = new ConcurrentHashMap<>();
     private final Map<String, Long> mineResetTimes = new ConcurrentHashMap<>();
     private final Map<String, AtomicBoolean> mineGenerating = new ConcurrentHashMap<>();
-    private final Map<String, AtomicBoolean> mineBeingChecked = new ConcurrentHashMap<>();
+    // Évite de remettre plusieurs fois en queue une mine déjà sous le seuil de régénération
+    private final Map<String, AtomicBoolean> mineResetQueued = new ConcurrentHashMap<>();
     private final Random random = new Random();
     // Système de queue pour éviter les générations simultanées
     private final PriorityBlockingQueue<MineResetTask> resetQueue = new PriorityBlockingQueue<>();
@@ -49,6 +58,11 @@ public class MineManager {
     private final LinkedList<Long> tickTimes = new LinkedList<>();
     // ==================== HOLOGRAMMES DE MINE (SECTION MODIFIÉE) ====================
     private final Map<String, List<ArmorStand>> mineHolograms = new ConcurrentHashMap<>();
+    // Index spatial des mines (monde/chunk → mines), reconstruit à chaque (re)chargement
+    private volatile MineSpatialIndex mineIndex = MineSpatialIndex.empty();
+    // Moteur de régénération par sections de chunk (sans FAWE) et débit mesuré par backend
+    private final SectionMineGenerator sectionGenerator;
+    private final Map<String, BackendStats> backendStats = new ConcurrentHashMap<>();
     // Monitoring TPS
     private double currentTPS = 20.0;
     // Paramètres adaptatifs
@@ -57,6 +71,7 @@ public class MineManager {
 
     public MineManager(PrisonTycoon plugin) {
         this.plugin = plugin;
+        this.sectionGenerator = new SectionMineGenerator(plugin, asyncExecutor);
         configureFAWE(); // Configuration critique pour éviter les freezes
         loadMinesFromConfigManager();
         // Initialisation des hologrammes de mines après chargement
@@ -163,6 +178,10 @@ public class MineManager {
             public void run() {
                 if (!resetQueue.isEmpty() && currentTPS > 15.0 && !isAnyMineGenerating()) {
                     MineResetTask task = resetQueue.poll();
+                    if (task != null) {
+                        AtomicBoolean queued = mineResetQueued.get(task.mineId);
+                        if (queued != null) queued.set(false);
+                    }
                     if (task != null && !isMineGenerating(task.mineId)) {
                         executeProgressiveGeneration(task.mineId, task.priority);
                     }
@@ -183,6 +202,7 @@ public class MineManager {
 
         if (configMines.isEmpty()) {
             plugin.getPluginLogger().warning("§cAucune mine trouvée dans ConfigManager!");
+            mineIndex = MineSpatialIndex.empty();
             return;
         }
 
@@ -197,12 +217,13 @@ public class MineManager {
 
             mines.put(mineId, mineData);
             mineGenerating.put(mineId, new AtomicBoolean(false));
-            mineBeingChecked.put(mineId, new AtomicBoolean(false));
+            mineResetQueued.put(mineId, new AtomicBoolean(false));
 
             plugin.getPluginLogger().info("§aMine chargée: " + mineId + " (Type: " + mineData.getType() +
                     ", Volume: " + mineData.getVolume() + " blocs)");
         }
 
+        mineIndex = MineSpatialIndex.build(mines.values());
         plugin.getPluginLogger().info("§aMines chargées: " + mines.size());
     }
 
@@ -339,8 +360,13 @@ public class MineManager {
         // Ligne 1: Surcharge
         setStandName(stands, 1, Component.text(overloadLine));
 
-        // Ligne 2: Espaceur
-        setStandName(stands, 2, Component.text(" "));
+        // Ligne 2: Blocs restants (compteur exact)
+        if (mine != null) {
+            setStandName(stands, 2, Component.text("§7Blocs restants: §f" + String.format(Locale.FRANCE, "%.1f", mine.getRemainingRatio() * 100) +
+                    "% §8(" + NumberFormatter.format(mine.getRemainingBlocks()) + "/" + NumberFormatter.format(mine.getVolume()) + ")"));
+        } else {
+            setStandName(stands, 2, Component.text(" "));
+        }
 
         // Lignes 3-8: Composition (1 ligne par matériau)
         setStandName(stands, 3, Component.text("§f§lComposition:")); // En-tête en gras
@@ -475,6 +501,16 @@ public class MineManager {
             return;
         }
 
+        String backend = getGenerationBackend();
+        if (BACKEND_SECTION.equals(backend)) {
+            generateWithSectionEngine(mineId);
+            return;
+        }
+        if (BACKEND_BUKKIT.equals(backend)) {
+            generateWithBukkitAPI(mineId);
+            return;
+        }
+
         plugin.getPluginLogger().info("§b[FAWE] Démarrage génération adaptative de " + mineId +
                 " (TPS: " + String.format("%.1f", currentTPS) + ", Chunk: " + currentChunkSize + " blocs)");
 
@@ -500,11 +536,11 @@ public class MineManager {
                 }
 
                 if (faweWorld == null) {
-                    // Fallback sur l'API Bukkit
+                    // Fallback sur le moteur par sections
                     new BukkitRunnable() {
                         @Override
                         public void run() {
-                            generateWithBukkitAPI(mineId);
+                            generateWithSectionEngine(mineId);
                         }
                     }.runTask(plugin);
                     return;
@@ -547,14 +583,13 @@ public class MineManager {
                 // Timeout dynamique basé sur le volume (60s min, 600s max)
                 long dynamicTimeoutSeconds = Math.max(60, Math.min(600, region.getVolume() / 15_000));
                 generationFuture.orTimeout(dynamicTimeoutSeconds, TimeUnit.SECONDS).exceptionally(ex -> {
-                    plugin.getPluginLogger().severe("§cTimeout génération FAWE pour " + mineId + ", bascule sur Bukkit API");
-                    generating.set(false);
+                    plugin.getPluginLogger().severe("§cTimeout génération FAWE pour " + mineId + ", bascule sur le moteur par sections");
 
-                    // Fallback sur Bukkit API
+                    // Fallback sur le moteur par sections
                     new BukkitRunnable() {
                         @Override
                         public void run() {
-                            generateWithBukkitAPI(mineId);
+                            generateWithSectionEngine(mineId);
                         }
                     }.runTask(plugin);
                     return null;
@@ -563,19 +598,89 @@ public class MineManager {
             } catch (Exception e) {
                 plugin.getPluginLogger().severe("§cErreur génération de " + mineId);
                 e.printStackTrace();
-                generating.set(false);
 
-                // Fallback sur Bukkit API en cas d'erreur
+                // Fallback sur le moteur par sections en cas d'erreur
                 new BukkitRunnable() {
                     @Override
                     public void run() {
-                        generateWithBukkitAPI(mineId);
+                        generateWithSectionEngine(mineId);
                     }
                 }.runTask(plugin);
             }
         });
     }
 
+    /**
+     * Régénère une mine avec le moteur par sections de chunk (sans FAWE)
+     * Le tirage des blocs se fait hors thread principal, la pose est étalée sur plusieurs ticks avec un budget de temps.
+     */
+    private void generateWithSectionEngine(String mineId) {
+        MineData mine = mines.get(mineId);
+        if (mine == null) return;
+
+        mineGenerating.computeIfAbsent(mineId, k -> new AtomicBoolean()).set(true);
+
+        org.bukkit.World world = Bukkit.getWorld(mine.getWorldName());
+        if (world == null) {
+            plugin.getPluginLogger().severe("§c[Section] Monde introuvable: " + mine.getWorldName());
+            mineGenerating.get(mineId).set(false);
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        plugin.getPluginLogger().info("§b[Section] Démarrage génération de " + mineId +
+                " (TPS: " + String.format("%.1f", currentTPS) + ", budget: " + String.format("%.1f", getSectionTickBudgetMs()) + "ms/tick)");
+
+        // Les joueurs présents sont déplacés avant la pose des blocs
+        boolean playersMoved = false;
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            if (mineId.equals(getPlayerCurrentMine(p))) {
+                teleportToMineSafely(p, mineId);
+                playersMoved = true;
+            }
+        }
+        if (playersMoved) {
+            broadcastToWorld(mine.getWorldName(), "§e§l[!] §eLa mine '" + mine.getDisplayName() + "§e' se régénère !");
+        }
+
+        sectionGenerator.regenerate(mine, world, this::getSectionTickBudgetMs).whenComplete((result, ex) -> {
+            if (ex != null) {
+                plugin.getPluginLogger().severe("§cErreur génération par sections de " + mineId + ": " + ex.getMessage());
+                mineGenerating.get(mineId).set(false);
+                return;
+            }
+            backendStats.computeIfAbsent(BACKEND_SECTION, k -> new BackendStats()).recordMainThread(result.applyNanos());
+            plugin.getPluginLogger().debug("§7[Section] " + mineId + ": tirage " + (result.fillNanos() / 1_000_000) + "ms (async), pose " +
+                    (result.applyNanos() / 1_000_000) + "ms sur " + result.ticks() + " ticks (" +
+                    String.format("%.0f", result.blocksPerMainThreadMs()) + " blocs/ms thread principal)");
+            finalizeMineGeneration(mineId, startTime, result.blocks(), BACKEND_SECTION);
+        });
+    }
+
+    /**
+     * Backend de régénération configuré (section par défaut)
+     */
+    private String getGenerationBackend() {
+        String backend = plugin.getConfig().getString("performance.mine-generation-backend", BACKEND_SECTION).toLowerCase();
+        return switch (backend) {
+            case BACKEND_FAWE, BACKEND_BUKKIT -> backend;
+            default -> BACKEND_SECTION;
+        };
+    }
+
+    /**
+     * Budget de temps par tick (ms) pour la pose des sections, réduit quand le TPS baisse
+     */
+    private double getSectionTickBudgetMs() {
+        double budget = plugin.getConfig().getDouble("performance.mine-generation-tick-budget-ms", 10.0);
+        if (currentTPS < 15.0) {
+            return budget / 4.0;
+        } else if (currentTPS < 18.0) {
+            return budget / 2.0;
+        }
+        return budget;
+    }
+
     /**
      * Exécute la génération par batches adaptatifs
      * UTILISE L'API ASYNCHRONE DE FAWE CORRECTEMENT
@@ -602,7 +707,7 @@ public class MineManager {
                 new BukkitRunnable() {
                     @Override
                     public void run() {
-                        finalizeMineGeneration(mineId, startTime, region.getVolume());
+                        finalizeMineGeneration(mineId, startTime, region.getVolume(), BACKEND_FAWE);
                     }
                 }.runTask(plugin);
 
@@ -644,7 +749,7 @@ public class MineManager {
                     new BukkitRunnable() {
                         @Override
                         public void run() {
-                            finalizeMineGeneration(mineId, startTime, totalVolume);
+                            finalizeMineGeneration(mineId, startTime, totalVolume, BACKEND_FAWE);
                         }
                     }.runTask(plugin);
                     return;
@@ -751,15 +856,20 @@ public class MineManager {
     /**
      * Finalise la génération d'une mine
      */
-    private void finalizeMineGeneration(String mineId, long startTime, long volume) {
+    private void finalizeMineGeneration(String mineId, long startTime, long volume, String backend) {
         mineResetTimes.put(mineId, System.currentTimeMillis());
+        MineData mine = mines.get(mineId);
+        if (mine != null) {
+            mine.resetRemainingBlocks();
+        }
         AtomicBoolean generating = mineGenerating.get(mineId);
         if (generating != null) {
             generating.set(false);
         }
 
         long duration = System.currentTimeMillis() - startTime;
-        plugin.getPluginLogger().info("§a[FAWE] Mine " + mineId + " générée: " + volume +
+        backendStats.computeIfAbsent(backend, k -> new BackendStats()).record(volume, duration);
+        plugin.getPluginLogger().info("§a[" + backend.toUpperCase() + "] Mine " + mineId + " générée: " + volume +
                 " blocs en " + duration + "ms (TPS: " + String.format("%.1f", currentTPS) + ")");
 
         // Notification finale
@@ -792,117 +902,43 @@ public class MineManager {
     }
 
     /**
-     * Vérification asynchrone optimisée du pourcentage de blocs
+     * Vérifie le remplissage d'une mine via son compteur exact de blocs restants et la met en queue si besoin
+     * (aucun parcours du monde : le compteur est décrémenté à chaque bloc retiré)
      */
     public void checkAndRegenerateMineIfNeeded(String mineId) {
-        AtomicBoolean checking = mineBeingChecked.get(mineId);
-        if (checking == null || !checking.compareAndSet(false, true)) {
+        MineData mine = getMine(mineId);
+        if (mine == null || mine.getVolume() == 0 || isMineGenerating(mineId)) {
             return;
         }
 
-        if (isMineGenerating(mineId)) {
-            checking.set(false);
+        double percentageLeft = mine.getRemainingRatio();
+        if (percentageLeft > 0.30) {
             return;
         }
 
-        // Calcul async optimisé
-        asyncExecutor.submit(() -> {
-            try {
-                MineData mine = getMine(mineId);
-                if (mine == null) {
-                    checking.set(false);
-                    return;
-                }
-
-                // Utiliser FAWE pour un calcul plus rapide
-                World faweWorld = FaweAPI.getWorld(mine.getWorldName());
-                if (faweWorld == null) {
-                    checking.set(false);
-                    return;
-                }
-
-                int totalVolume = mine.getVolume();
-                if (totalVolume == 0) {
-                    checking.set(false);
-                    return;
-                }
-
-                // Échantillonnage pour les grandes mines
-                double percentageLeft;
-                if (totalVolume > 100000) {
-                    percentageLeft = calculatePercentageBySampling(faweWorld, mine);
-                } else {
-                    percentageLeft = calculatePercentageFull(faweWorld, mine);
-                }
-
-                // Décider si régénération nécessaire
-                if (percentageLeft <= 0.30) {
-                    plugin.getPluginLogger().info("§eRégénération auto de " + mineId +
-                            " (" + String.format("%.1f%%", percentageLeft * 100) + " restant)");
-
-                    // Priorité selon le pourcentage restant
-                    MineResetPriority priority = percentageLeft <= 0.10 ?
-                            MineResetPriority.HIGH : MineResetPriority.NORMAL;
-
-                    new BukkitRunnable() {
-                        @Override
-                        public void run() {
-                            generateMine(mineId, priority);
-                        }
-                    }.runTask(plugin);
-                }
-
-            } catch (Exception e) {
-                plugin.getPluginLogger().severe("§cErreur calcul blocs mine " + mineId);
-                e.printStackTrace();
-            } finally {
-                checking.set(false);
-            }
-        });
-    }
-
-    /**
-     * Calcul par échantillonnage pour les grandes mines
-     */
-    private double calculatePercentageBySampling(World world, MineData mine) {
-        int sampleSize = 1000; // Nombre de points à échantillonner
-        int nonAirBlocks = 0;
-
-        BlockVector3 min = BlockVector3.at(mine.getMinX(), mine.getMinY(), mine.getMinZ());
-        BlockVector3 max = BlockVector3.at(mine.getMaxX(), mine.getMaxY(), mine.getMaxZ());
-
-        for (int i = 0; i < sampleSize; i++) {
-            int x = random.nextInt(max.x() - min.x() + 1) + min.x();
-            int y = random.nextInt(max.y() - min.y() + 1) + min.y();
-            int z = random.nextInt(max.z() - min.z() + 1) + min.z();
-
-            if (world.getBlock(BlockVector3.at(x, y, z)).getBlockType() != BlockTypes.AIR) {
-                nonAirBlocks++;
-            }
+        AtomicBoolean queued = mineResetQueued.get(mineId);
+        if (queued == null || !queued.compareAndSet(false, true)) {
+            return;
         }
 
-        return (double) nonAirBlocks / sampleSize;
+        plugin.getPluginLogger().info("§eRégénération auto de " + mineId +
+                " (" + String.format("%.1f%%", percentageLeft * 100) + " restant)");
+
+        // Priorité selon le pourcentage restant
+        MineResetPriority priority = percentageLeft <= 0.10 ?
+                MineResetPriority.HIGH : MineResetPriority.NORMAL;
+        generateMine(mineId, priority);
     }
 
     /**
-     * Calcul complet pour les petites mines
+     * Décompte un bloc retiré d'une mine (minage direct, laser, explosion, marteau-piqueur...)
+     * Sans effet si la position n'appartient à aucune mine.
      */
-    private double calculatePercentageFull(World world, MineData mine) {
-        int remainingBlocks = 0;
-        BlockVector3 min = BlockVector3.at(mine.getMinX(), mine.getMinY(), mine.getMinZ());
-        BlockVector3 max = BlockVector3.at(mine.getMaxX(), mine.getMaxY(), mine.getMaxZ());
-
-        for (int x = min.x(); x <= max.x(); x++) {
-            for (int y = min.y(); y <= max.y(); y++) {
-                for (int z = min.z(); z <= max.z(); z++) {
-                    if (world.getBlock(BlockVector3.at(x, y, z)).getBlockType() != BlockTypes.AIR) {
-                        remainingBlocks++;
-                    }
-                }
-            }
+    public void recordBlockRemoved(Location location) {
+        MineData mine = mineIndex.find(location);
+        if (mine != null && !isMineGenerating(mine.getName())) {
+            mine.removeBlocks(1);
         }
-
-        return (double) remainingBlocks / mine.getVolume();
     }
 
     /**
@@ -1064,15 +1100,8 @@ public class MineManager {
      * Vérifie si un joueur est dans une mine
      */
     public String getPlayerCurrentMine(Player player) {
-        Location playerLocation = player.getLocation();
-
-        for (Map.Entry<String, MineData> entry : mines.entrySet()) {
-            if (entry.getValue().contains(playerLocation)) {
-                return entry.getKey();
-            }
-        }
-
-        return null;
+        MineData mine = mineIndex.find(player.getLocation());
+        return mine != null ? mine.getName() : null;
     }
 
     /**
@@ -1180,7 +1209,7 @@ public class MineManager {
         mines.clear();
         mineResetTimes.clear();
         mineGenerating.clear();
-        mineBeingChecked.clear();
+        mineResetQueued.clear();
         resetQueue.clear();
 
         loadMinesFromConfigManager();
@@ -1217,6 +1246,10 @@ public class MineManager {
                 .append(String.format("%.1f", currentTPS)).append("\n");
         stats.append("§7Queue: §e").append(resetQueue.size()).append(" mines en attente\n");
         stats.append("§7Chunk size: §b").append(currentChunkSize).append(" blocs\n");
+        stats.append("§7Backend: §b").append(getGenerationBackend()).append("\n");
+        for (Map.Entry<String, BackendStats> entry : backendStats.entrySet()) {
+            stats.append("§7  ").append(entry.getKey()).append(": ").append(entry.getValue().describe()).append("\n");
+        }
 
         return stats.toString();
     }
@@ -1437,7 +1470,7 @@ public class MineManager {
                         // Finalize and stop
                         long duration = System.currentTimeMillis() - startTime;
                         plugin.getPluginLogger().info("§a[Bukkit Fallback] Mine " + mineId + " generated in " + duration + "ms.");
-                        finalizeMineGeneration(mineId, startTime, mine.getVolume());
+                        finalizeMineGeneration(mineId, startTime, mine.getVolume(), BACKEND_BUKKIT);
                         cancel();
                         return;
                     }
@@ -1480,6 +1513,37 @@ public class MineManager {
         }
     }
 
+    /**
+     * Débit cumulé d'un backend de régénération (blocs/ms)
+     */
+    private static final class BackendStats {
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder blocks = new LongAdder();
+        private final LongAdder wallMillis = new LongAdder();
+        private final LongAdder mainThreadNanos = new LongAdder();
+
+        void record(long volume, long durationMs) {
+            runs.increment();
+            blocks.add(volume);
+            wallMillis.add(durationMs);
+        }
+
+        void recordMainThread(long nanos) {
+            mainThreadNanos.add(nanos);
+        }
+
+        String describe() {
+            long totalBlocks = blocks.sum();
+            long totalMs = wallMillis.sum();
+            String line = "§e" + runs.sum() + " resets§7, §e" + String.format("%.1f", totalMs == 0 ? 0.0 : (double) totalBlocks / totalMs) + " blocs/ms";
+            long mainNanos = mainThreadNanos.sum();
+            if (mainNanos > 0) {
+                line += " §7(thread principal: §e" + String.format("%.1f", totalBlocks / (mainNanos / 1_000_000.0)) + " blocs/ms§7)";
+            }
+            return line;
+        }
+    }
+
     /**
      * Tâche de reset de mine avec priorité
      */
@@ -16,10 +16,13 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
 
 /**
  * GESTIONNAIRE DE DONNÉES JOUEURS - VERSION CORRIGÉE
@@ -35,6 +38,87 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  */
 public class PlayerDataManager {
 
+    // Colonnes de la table players (hors uuid), dans l'ordre de l'UPSERT et de PlayerData.Column (index = bit modifié)
+    private static final List<PlayerColumn> COLUMNS = List.of(
+            new PlayerColumn("name", ColumnKind.SCALAR, PlayerData::getPlayerName),
+            new PlayerColumn("coins", ColumnKind.SCALAR, PlayerData::getCoins),
+            new PlayerColumn("tokens", ColumnKind.SCALAR, PlayerData::getTokens),
+            new PlayerColumn("experience", ColumnKind.SCALAR, PlayerData::getExperience),
+            new PlayerColumn("beacons", ColumnKind.SCALAR, PlayerData::getBeacons),
+            new PlayerColumn("coins_via_pickaxe", ColumnKind.SCALAR, PlayerData::getCoinsViaPickaxe),
+            new PlayerColumn("tokens_via_pickaxe", ColumnKind.SCALAR, PlayerData::getTokensViaPickaxe),
+            new PlayerColumn("experience_via_pickaxe", ColumnKind.SCALAR, PlayerData::getExperienceViaPickaxe),
+            new PlayerColumn("active_profession", ColumnKind.SCALAR, PlayerData::getActiveProfession),
+            new PlayerColumn("last_profession_change", ColumnKind.SCALAR, PlayerData::getLastProfessionChange),
+            new PlayerColumn("enchantments", ColumnKind.JSON, PlayerData::getEnchantmentLevels),
+            new PlayerColumn("auto_upgrade", ColumnKind.JSON, PlayerData::getAutoUpgradeEnabled),
+            new PlayerColumn("mobility_disabled", ColumnKind.JSON, PlayerData::getMobilityEnchantmentsDisabled),
+            new PlayerColumn("pickaxe_cristals", ColumnKind.JSON, PlayerData::getPickaxeCristals),
+            new PlayerColumn("custom_permissions", ColumnKind.JSON, PlayerData::getCustomPermissions),
+            new PlayerColumn("sanctions", ColumnKind.JSON, PlayerData::getSanctionHistory),
+            new PlayerColumn("active_enchantments", ColumnKind.JSON, PlayerData::getActiveEnchantmentBooks),
+            new PlayerColumn("pickaxe_enchantment_book_levels", ColumnKind.JSON, PlayerData::getPickaxeEnchantmentBookLevels),
+            new PlayerColumn("profession_levels", ColumnKind.JSON, PlayerData::getAllProfessionLevels),
+            new PlayerColumn("profession_xp", ColumnKind.JSON, PlayerData::getAllProfessionXP),
+            new PlayerColumn("talent_levels", ColumnKind.JSON, PlayerData::getAllTalentLevels),
+            new PlayerColumn("kit_levels", ColumnKind.JSON, PlayerData::getAllKitLevels),
+            new PlayerColumn("profession_rewards", ColumnKind.JSON, PlayerData::getAllClaimedProfessionRewards),
+            new PlayerColumn("chosen_prestige_columns", ColumnKind.JSON, PlayerData::getChosenPrestigeColumns),
+            new PlayerColumn("chosen_special_rewards", ColumnKind.JSON, PlayerData::getChosenSpecialRewards),
+            new PlayerColumn("reputation", ColumnKind.SCALAR, PlayerData::getReputation),
+            new PlayerColumn("boosts", ColumnKind.JSON, PlayerData::getActiveBoosts),
+            new PlayerColumn("autominer_active_slot_1", ColumnKind.ITEM, PlayerData::getActiveAutominerSlot1),
+            new PlayerColumn("autominer_active_slot_2", ColumnKind.ITEM, PlayerData::getActiveAutominerSlot2),
+            new PlayerColumn("autominer_fuel_reserve", ColumnKind.SCALAR, PlayerData::getAutominerFuelReserve),
+            new PlayerColumn("autominer_current_world", ColumnKind.SCALAR, PlayerData::getAutominerCurrentWorld),
+            new PlayerColumn("autominer_storage_level", ColumnKind.SCALAR, PlayerData::getAutominerStorageLevel),
+            new PlayerColumn("autominer_storage_items", ColumnKind.JSON, PlayerData::getAutominerStorageContents),
+            new PlayerColumn("autominer_pending_coins", ColumnKind.SCALAR, PlayerData::getAutominerPendingCoins),
+            new PlayerColumn("autominer_pending_tokens", ColumnKind.SCALAR, PlayerData::getAutominerPendingTokens),
+            new PlayerColumn("autominer_pending_experience", ColumnKind.SCALAR, PlayerData::getAutominerPendingExperience),
+            new PlayerColumn("autominer_pending_beacons", ColumnKind.SCALAR, PlayerData::getAutominerPendingBeacons),
+            new PlayerColumn("bank_savings_balance", ColumnKind.SCALAR, PlayerData::getBankSavingsBalance),
+            new PlayerColumn("bank_safe_balance", ColumnKind.SCALAR, PlayerData::getBankSafeBalance),
+            new PlayerColumn("bank_level", ColumnKind.SCALAR, PlayerData::getBankLevel),
+            new PlayerColumn("bank_total_deposits", ColumnKind.SCALAR, PlayerData::getTotalBankDeposits),
+            new PlayerColumn("bank_last_interest", ColumnKind.SCALAR, PlayerData::getBankLastInterest),
+            new PlayerColumn("bank_investments", ColumnKind.JSON, PlayerData::getBankInvestments),
+            new PlayerColumn("statistics_total_blocks_mined", ColumnKind.SCALAR, PlayerData::getTotalBlocksMined),
+            new PlayerColumn("statistics_total_blocks_destroyed", ColumnKind.SCALAR, PlayerData::getTotalBlocksDestroyed),
+            new PlayerColumn("statistics_total_greed_triggers", ColumnKind.SCALAR, PlayerData::getTotalGreedTriggers),
+            new PlayerColumn("statistics_total_keys_obtained", ColumnKind.SCALAR, PlayerData::getTotalKeysObtained),
+            new PlayerColumn("gang_id", ColumnKind.SCALAR, PlayerData::getGangId),
+            new PlayerColumn("gang_invitation", ColumnKind.SCALAR, PlayerData::getGangInvitation),
+            new PlayerColumn("selected_outpost_skin", ColumnKind.SCALAR, PlayerData::getSelectedOutpostSkin),
+            new PlayerColumn("unlocked_outpost_skins", ColumnKind.JSON, PlayerData::getUnlockedOutpostSkins),
+            new PlayerColumn("collected_heads", ColumnKind.JSON, PlayerData::getCollectedHeads),
+            new PlayerColumn("claimed_head_rewards", ColumnKind.JSON, PlayerData::getClaimedHeadRewards),
+            new PlayerColumn("daily_progress", ColumnKind.SCALAR, PlayerData::getDailyProgress),
+            new PlayerColumn("daily_last_claim", ColumnKind.SCALAR, PlayerData::getDailyLastClaim),
+            new PlayerColumn("total_playtime", ColumnKind.SCALAR, PlayerData::getTotalPlaytimeMillis),
+            new PlayerColumn("last_repair_time", ColumnKind.SCALAR, PlayerData::getLastRepairTime),
+            new PlayerColumn("bank_type", ColumnKind.SCALAR, data -> data.getBankType().name()),
+            new PlayerColumn("bank_type_last_change", ColumnKind.SCALAR, PlayerData::getLastBankTypeChange),
+            new PlayerColumn("printer_slot_bonus", ColumnKind.SCALAR, PlayerData::getPrinterSlotBonus)
+    );
+    // Requête UPSERT complète, générée depuis COLUMNS
+    private static final String UPSERT_QUERY = buildUpsertQuery();
+
+    static {
+        PlayerData.Column[] fields = PlayerData.Column.values();
+        if (fields.length != COLUMNS.size()) {
+            throw new IllegalStateException("PlayerData.Column et COLUMNS divergent (" + fields.length + " / " + COLUMNS.size() + ")");
+        }
+        for (int i = 0; i < fields.length; i++) {
+            if (!fields[i].name().equalsIgnoreCase(COLUMNS.get(i).name())) {
+                throw new IllegalStateException("Colonne " + COLUMNS.get(i).name() + " hors d'ordre dans PlayerData.Column");
+            }
+        }
+    }
+    // Profondeur de pile journalisée pour un défaut de cache sur le thread principal
+    private static final int MISS_TRACE_DEPTH = 8;
+
+
     private final PrisonTycoon plugin;
     private final DatabaseManager databaseManager;
     private final Gson gson = new Gson();
@@ -47,6 +131,20 @@ public class PlayerDataManager {
     // Verrous pour éviter les race conditions
     private final Map<UUID, ReentrantReadWriteLock> playerLocks = new ConcurrentHashMap<>();
 
+    // Chargements en cours (préchargement à la connexion ou chargement asynchrone)
+    private final Map<UUID, CompletableFuture<PlayerData>> pendingLoads = new ConcurrentHashMap<>();
+    private final AtomicLong mainThreadMisses = new AtomicLong();
+    private final AtomicLong preloadedCount = new AtomicLong();
+
+    // Joueurs en cache dont la ligne existe en base : les autres passent par l'UPSERT complet
+    private final Set<UUID> persistedPlayers = ConcurrentHashMap.newKeySet();
+
+    // Métriques de sauvegarde
+    private final AtomicLong totalRowsWritten = new AtomicLong();
+    private final AtomicLong totalColumnsWritten = new AtomicLong();
+    private final AtomicLong totalBytesWritten = new AtomicLong();
+    private volatile SaveCycleStats lastCycleStats = new SaveCycleStats();
+
     // Types Gson pré-compilés pour les performances
     private final Type stringIntegerMapType = new TypeToken<Map<String, Integer>>() {
     }.getType();
@@ -161,43 +259,143 @@ public class PlayerDataManager {
 
     /**
      * Récupère les données d'un joueur (cache-first avec fallback BDD)
+     * <p>
+     * Les joueurs connectés sont préchargés sur AsyncPlayerPreLoginEvent : un défaut de cache
+     * sur le thread principal bloque le tick sur un aller-retour PostgreSQL et est donc signalé.
+     * Préférer {@link #getPlayerDataIfLoaded(UUID)} ou {@link #getPlayerDataAsync(UUID)} hors chemin critique.
      */
     public PlayerData getPlayerData(UUID playerId) {
         if (playerId == null) return null;
 
-        ReentrantReadWriteLock lock = playerLocks.computeIfAbsent(playerId, k -> new ReentrantReadWriteLock());
+        PlayerData cached = playerDataCache.get(playerId);
+        if (cached != null) {
+            return cached;
+        }
 
-        // Lecture thread-safe du cache
-        lock.readLock().lock();
-        try {
-            if (playerDataCache.containsKey(playerId)) {
-                return playerDataCache.get(playerId);
+        if (plugin.getServer().isPrimaryThread()) {
+            reportMainThreadMiss(playerId);
+        }
+
+        // Un chargement asynchrone est déjà en cours : on l'attend plutôt que de relancer une requête
+        CompletableFuture<PlayerData> pending = pendingLoads.get(playerId);
+        if (pending != null) {
+            return pending.join();
+        }
+
+        return loadIntoCache(playerId, null);
+    }
+
+    /**
+     * Retourne les données si elles sont déjà en cache, sans jamais accéder à la base
+     */
+    public PlayerData getPlayerDataIfLoaded(UUID playerId) {
+        if (playerId == null) return null;
+        return playerDataCache.get(playerId);
+    }
+
+    /**
+     * Retourne les données d'un joueur de façon non bloquante (chargement BDD hors thread principal si nécessaire)
+     */
+    public CompletableFuture<PlayerData> getPlayerDataAsync(UUID playerId) {
+        if (playerId == null) return CompletableFuture.completedFuture(null);
+
+        PlayerData cached = playerDataCache.get(playerId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<PlayerData> existing = pendingLoads.get(playerId);
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture<PlayerData> future = new CompletableFuture<>();
+        existing = pendingLoads.putIfAbsent(playerId, future);
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture.runAsync(() -> {
+            try {
+                future.complete(loadIntoCache(playerId, null));
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            } finally {
+                pendingLoads.remove(playerId, future);
             }
+        });
+        return future;
+    }
+
+    /**
+     * Précharge les données d'un joueur depuis AsyncPlayerPreLoginEvent (thread asynchrone).
+     * Bloque uniquement le thread de connexion jusqu'à ce que les données soient en cache.
+     */
+    public void preloadPlayerData(UUID playerId, String playerName) {
+        if (playerId == null || playerDataCache.containsKey(playerId)) return;
+
+        CompletableFuture<PlayerData> future = new CompletableFuture<>();
+        CompletableFuture<PlayerData> existing = pendingLoads.putIfAbsent(playerId, future);
+        if (existing != null) {
+            existing.join();
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            future.complete(loadIntoCache(playerId, playerName));
+            preloadedCount.incrementAndGet();
+            plugin.getPluginLogger().debug("Données préchargées pour " + playerName + " en " +
+                    ((System.nanoTime() - start) / 1_000_000) + "ms");
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            plugin.getPluginLogger().warning("§eÉchec du préchargement des données de " + playerName + ": " + e.getMessage());
         } finally {
-            lock.readLock().unlock();
+            pendingLoads.remove(playerId, future);
         }
+    }
 
-        // Chargement depuis la BDD avec verrou d'écriture
+    /**
+     * Charge un joueur depuis la BDD et l'insère dans le cache (double-check sous verrou d'écriture)
+     */
+    private PlayerData loadIntoCache(UUID playerId, String playerName) {
+        ReentrantReadWriteLock lock = playerLocks.computeIfAbsent(playerId, k -> new ReentrantReadWriteLock());
         lock.writeLock().lock();
         try {
-            // Double-check après avoir obtenu le verrou d'écriture
-            if (playerDataCache.containsKey(playerId)) {
-                return playerDataCache.get(playerId);
+            PlayerData cached = playerDataCache.get(playerId);
+            if (cached != null) {
+                return cached;
             }
 
-            PlayerData playerData = loadPlayerDataFromDatabase(playerId);
+            PlayerData playerData = loadPlayerDataFromDatabase(playerId, playerName);
             playerDataCache.put(playerId, playerData);
+            lastSaveTime.putIfAbsent(playerId, System.currentTimeMillis());
             return playerData;
         } finally {
             lock.writeLock().unlock();
         }
     }
 
+    /**
+     * Signale un défaut de cache sur le thread principal (avec la pile d'appel pour identifier l'appelant)
+     */
+    private void reportMainThreadMiss(UUID playerId) {
+        long count = mainThreadMisses.incrementAndGet();
+        StringBuilder trace = new StringBuilder();
+        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
+        // On saute getStackTrace, reportMainThreadMiss et getPlayerData
+        for (int i = 3; i < Math.min(stack.length, 3 + MISS_TRACE_DEPTH); i++) {
+            trace.append("\n    at ").append(stack[i]);
+        }
+        plugin.getPluginLogger().warning("§eChargement BDD synchrone sur le thread principal pour " + playerId +
+                " (défaut #" + count + ")" + trace);
+    }
+
     /**
      * 🔥 MÉTHODE CORRIGÉE : Charge complètement les données depuis la base avec gestion d'erreurs
      * BUG FIXÉ: Utilisation des setters au lieu des copies défensives
      */
-    private PlayerData loadPlayerDataFromDatabase(UUID playerId) {
+    private PlayerData loadPlayerDataFromDatabase(UUID playerId, String fallbackName) {
         String query = "SELECT * FROM players WHERE uuid = ?";
 
         try (Connection conn = databaseManager.getConnection();
@@ -407,6 +605,8 @@ public class PlayerDataManager {
                 data.setLastRepairTime(Math.max(0L, rs.getLong("last_repair_time")));
                 data.setPrinterSlotBonus(Math.max(0, rs.getInt("printer_slot_bonus")));
 
+                data.drainDirtyColumns(); // Valeurs issues de la base : rien à réécrire
+                persistedPlayers.add(playerId);
                 plugin.getPluginLogger().debug("§aDonnées chargées avec succès pour " + playerName + " (" + playerId + ")");
                 return data;
             }
@@ -417,7 +617,7 @@ public class PlayerDataManager {
 
         // Retourne des données par défaut si le chargement échoue
         plugin.getPluginLogger().warning("§eChargement par défaut pour " + playerId + " (nouveau joueur ou erreur BDD)");
-        return new PlayerData(playerId, getPlayerName(playerId));
+        return new PlayerData(playerId, fallbackName != null ? fallbackName : getPlayerName(playerId));
     }
 
     /**
@@ -469,197 +669,213 @@ public class PlayerDataManager {
     }
 
     /**
-     * MÉTHODE CORRIGÉE : Sauvegarde avec transaction atomique et UPSERT
+     * Sauvegarde complète d'un joueur (UPSERT de toutes les colonnes)
      */
     public void savePlayerData(UUID playerId) {
         if (playerId == null) return;
 
+        PendingWrite write = prepareWrite(playerId, true);
+        if (write == null) {
+            plugin.getPluginLogger().debug("§eAucune donnée en cache pour " + playerId + ", sauvegarde ignorée.");
+            return;
+        }
+
+        try {
+            executeWrites(List.of(write));
+            plugin.getPluginLogger().debug("§aDonnées sauvegardées avec succès pour " + write.playerName());
+        } catch (SQLException e) {
+            plugin.getLogger().severe("§cErreur lors de la sauvegarde de " + playerId + ": " + e.getMessage());
+            e.printStackTrace();
+            requeue(write); // Re-marquer pour tentative ultérieure
+        }
+    }
+
+    /**
+     * Prépare l'écriture d'un joueur : ne lit et ne sérialise que les colonnes signalées par les mutateurs
+     * de PlayerData (toutes si forceFull ou si la ligne n'existe pas encore en base)
+     */
+    private PendingWrite prepareWrite(UUID playerId, boolean forceFull) {
+        if (!playerDataCache.containsKey(playerId)) return null; // déchargé : ne pas recréer son verrou
         ReentrantReadWriteLock lock = playerLocks.computeIfAbsent(playerId, k -> new ReentrantReadWriteLock());
         lock.readLock().lock();
-
         try {
             PlayerData data = playerDataCache.get(playerId);
-            if (data == null) {
-                plugin.getPluginLogger().debug("§eAucune donnée en cache pour " + playerId + ", sauvegarde ignorée.");
-                return;
-            }
+            if (data == null) return null;
 
-            // Requête UPSERT pour éviter les conflits de clés primaires
-            String query = """
-                    INSERT INTO players (
-                        uuid, name, coins, tokens, experience, beacons, coins_via_pickaxe, tokens_via_pickaxe, 
-                        experience_via_pickaxe, active_profession, last_profession_change, enchantments, 
-                        auto_upgrade, mobility_disabled, pickaxe_cristals, custom_permissions, sanctions, 
-                        active_enchantments, pickaxe_enchantment_book_levels, profession_levels, profession_xp, 
-                        talent_levels, kit_levels, profession_rewards, chosen_prestige_columns, chosen_special_rewards, 
-                        reputation, boosts, autominer_active_slot_1, autominer_active_slot_2, autominer_fuel_reserve, 
-                        autominer_current_world, autominer_storage_level, autominer_storage_items, 
-                        autominer_pending_coins, autominer_pending_tokens, autominer_pending_experience, 
-                        autominer_pending_beacons, bank_savings_balance, bank_safe_balance, bank_level, 
-                        bank_total_deposits, bank_last_interest, bank_investments, statistics_total_blocks_mined, 
-                        statistics_total_blocks_destroyed, statistics_total_greed_triggers, statistics_total_keys_obtained, 
-                        gang_id, gang_invitation, selected_outpost_skin, unlocked_outpost_skins, collected_heads, claimed_head_rewards,
-                        daily_progress, daily_last_claim, total_playtime, last_repair_time, bank_type, bank_type_last_change, printer_slot_bonus
-                    ) VALUES (
-                        ?, ?, ?, ?, ?, ?, ?, ?, ?, ?,
-                        ?, ?, ?, ?, ?, ?, ?, ?, ?, ?,
-                        ?, ?, ?, ?, ?, ?, ?, ?, ?, ?,
-                        ?, ?, ?, ?, ?, ?, ?, ?, ?, ?,
-                        ?, ?, ?, ?, ?, ?, ?, ?, ?, ?,
-                        ?, ?, ?, ?, ?, ?, ?, ?, ?, ?,
-                        ?
-                    )
-                    ON CONFLICT (uuid) DO UPDATE SET
-                        name = EXCLUDED.name,
-                        coins = EXCLUDED.coins,
-                        tokens = EXCLUDED.tokens,
-                        experience = EXCLUDED.experience,
-                        beacons = EXCLUDED.beacons,
-                        coins_via_pickaxe = EXCLUDED.coins_via_pickaxe,
-                        tokens_via_pickaxe = EXCLUDED.tokens_via_pickaxe,
-                        experience_via_pickaxe = EXCLUDED.experience_via_pickaxe,
-                        active_profession = EXCLUDED.active_profession,
-                        last_profession_change = EXCLUDED.last_profession_change,
-                        enchantments = EXCLUDED.enchantments,
-                        auto_upgrade = EXCLUDED.auto_upgrade,
-                        mobility_disabled = EXCLUDED.mobility_disabled,
-                        pickaxe_cristals = EXCLUDED.pickaxe_cristals,
-                        custom_permissions = EXCLUDED.custom_permissions,
-                        sanctions = EXCLUDED.sanctions,
-                        active_enchantments = EXCLUDED.active_enchantments,
-                        pickaxe_enchantment_book_levels = EXCLUDED.pickaxe_enchantment_book_levels,
-                        profession_levels = EXCLUDED.profession_levels,
-                        profession_xp = EXCLUDED.profession_xp,
-                        talent_levels = EXCLUDED.talent_levels,
-                        kit_levels = EXCLUDED.kit_levels,
-                        profession_rewards = EXCLUDED.profession_rewards,
-                        chosen_prestige_columns = EXCLUDED.chosen_prestige_columns,
-                        chosen_special_rewards = EXCLUDED.chosen_special_rewards,
-                        reputation = EXCLUDED.reputation,
-                        boosts = EXCLUDED.boosts,
-                        autominer_active_slot_1 = EXCLUDED.autominer_active_slot_1,
-                        autominer_active_slot_2 = EXCLUDED.autominer_active_slot_2,
-                        autominer_fuel_reserve = EXCLUDED.autominer_fuel_reserve,
-                        autominer_current_world = EXCLUDED.autominer_current_world,
-                        autominer_storage_level = EXCLUDED.autominer_storage_level,
-                        autominer_storage_items = EXCLUDED.autominer_storage_items,
-                        autominer_pending_coins = EXCLUDED.autominer_pending_coins,
-                        autominer_pending_tokens = EXCLUDED.autominer_pending_tokens,
-                        autominer_pending_experience = EXCLUDED.autominer_pending_experience,
-                        autominer_pending_beacons = EXCLUDED.autominer_pending_beacons,
-                        bank_savings_balance = EXCLUDED.bank_savings_balance,
-                        bank_safe_balance = EXCLUDED.bank_safe_balance,
-                        bank_level = EXCLUDED.bank_level,
-                        bank_total_deposits = EXCLUDED.bank_total_deposits,
-                        bank_last_interest = EXCLUDED.bank_last_interest,
-                        bank_investments = EXCLUDED.bank_investments,
-                        statistics_total_blocks_mined = EXCLUDED.statistics_total_blocks_mined,
-                        statistics_total_blocks_destroyed = EXCLUDED.statistics_total_blocks_destroyed,
-                        statistics_total_greed_triggers = EXCLUDED.statistics_total_greed_triggers,
-                        statistics_total_keys_obtained = EXCLUDED.statistics_total_keys_obtained,
-                        gang_id = EXCLUDED.gang_id,
-                        gang_invitation = EXCLUDED.gang_invitation,
-                        selected_outpost_skin =  EXCLUDED.selected_outpost_skin,
-                        unlocked_outpost_skins =  EXCLUDED.unlocked_outpost_skins,
-                        collected_heads = EXCLUDED.collected_heads,
-                        claimed_head_rewards = EXCLUDED.claimed_head_rewards,
-                        daily_progress = EXCLUDED.daily_progress,
-                        daily_last_claim = EXCLUDED.daily_last_claim,
-                        total_playtime = EXCLUDED.total_playtime,
-                        last_repair_time = EXCLUDED.last_repair_time,
-                        bank_type = EXCLUDED.bank_type,
-                        bank_type_last_change = EXCLUDED.bank_type_last_change,
-                        printer_slot_bonus = EXCLUDED.printer_slot_bonus
-                    """;
-
-            try (Connection conn = databaseManager.getConnection()) {
-                conn.setAutoCommit(false); // Début de transaction
-
-                try (PreparedStatement ps = conn.prepareStatement(query)) {
-                    long currentTime = System.currentTimeMillis();
-
-                    // Préparation de tous les paramètres
-                    ps.setString(1, playerId.toString());
-                    ps.setString(2, data.getPlayerName());
-                    ps.setLong(3, data.getCoins());
-                    ps.setLong(4, data.getTokens());
-                    ps.setLong(5, data.getExperience());
-                    ps.setLong(6, data.getBeacons());
-                    ps.setLong(7, data.getCoinsViaPickaxe());
-                    ps.setLong(8, data.getTokensViaPickaxe());
-                    ps.setLong(9, data.getExperienceViaPickaxe());
-                    ps.setString(10, data.getActiveProfession());
-                    ps.setLong(11, data.getLastProfessionChange());
-                    ps.setString(12, gson.toJson(data.getEnchantmentLevels()));
-                    ps.setString(13, gson.toJson(data.getAutoUpgradeEnabled()));
-                    ps.setString(14, gson.toJson(data.getMobilityEnchantmentsDisabled()));
-                    ps.setString(15, gson.toJson(data.getPickaxeCristals()));
-                    ps.setString(16, gson.toJson(data.getCustomPermissions()));
-                    ps.setString(17, gson.toJson(data.getSanctionHistory()));
-                    ps.setString(18, gson.toJson(data.getActiveEnchantmentBooks()));
-                    ps.setString(19, gson.toJson(data.getPickaxeEnchantmentBookLevels()));
-                    ps.setString(20, gson.toJson(data.getAllProfessionLevels()));
-                    ps.setString(21, gson.toJson(data.getAllProfessionXP()));
-                    ps.setString(22, gson.toJson(data.getAllTalentLevels()));
-                    ps.setString(23, gson.toJson(data.getAllKitLevels()));
-                    ps.setString(24, gson.toJson(data.getAllClaimedProfessionRewards()));
-                    ps.setString(25, gson.toJson(data.getChosenPrestigeColumns()));
-                    ps.setString(26, gson.toJson(data.getChosenSpecialRewards()));
-                    ps.setInt(27, data.getReputation());
-                    ps.setString(28, gson.toJson(data.getActiveBoosts()));
-                    ps.setString(29, serializeItemStack(data.getActiveAutominerSlot1()));
-                    ps.setString(30, serializeItemStack(data.getActiveAutominerSlot2()));
-                    ps.setDouble(31, data.getAutominerFuelReserve());
-                    ps.setString(32, data.getAutominerCurrentWorld());
-                    ps.setInt(33, data.getAutominerStorageLevel());
-                    ps.setString(34, gson.toJson(data.getAutominerStorageContents()));
-                    ps.setLong(35, data.getAutominerPendingCoins());
-                    ps.setLong(36, data.getAutominerPendingTokens());
-                    ps.setLong(37, data.getAutominerPendingExperience());
-                    ps.setLong(38, data.getAutominerPendingBeacons());
-                    ps.setLong(39, data.getBankSavingsBalance());
-                    ps.setLong(40, data.getBankSafeBalance());
-                    ps.setInt(41, data.getBankLevel());
-                    ps.setLong(42, data.getTotalBankDeposits());
-                    ps.setLong(43, data.getBankLastInterest());
-                    ps.setString(44, gson.toJson(data.getBankInvestments()));
-                    ps.setLong(45, data.getTotalBlocksMined());
-                    ps.setLong(46, data.getTotalBlocksDestroyed());
-                    ps.setLong(47, data.getTotalGreedTriggers());
-                    ps.setLong(48, data.getTotalKeysObtained());
-                    ps.setString(49, data.getGangId());
-                    ps.setString(50, data.getGangInvitation());
-                    ps.setString(51, data.getSelectedOutpostSkin());
-                    ps.setString(52, gson.toJson(data.getUnlockedOutpostSkins()));
-                    ps.setString(53, gson.toJson(data.getCollectedHeads()));
-                    ps.setString(54, gson.toJson(data.getClaimedHeadRewards()));
-                    ps.setInt(55, data.getDailyProgress());
-                    ps.setLong(56, data.getDailyLastClaim());
-                    ps.setLong(57, data.getTotalPlaytimeMillis());
-                    ps.setLong(58, data.getLastRepairTime());
-                    ps.setString(59, data.getBankType().name());
-                    ps.setLong(60, data.getLastBankTypeChange());
-                    ps.setInt(61, data.getPrinterSlotBonus());
-
-                    ps.executeUpdate();
-                    conn.commit();
-                    lastSaveTime.put(playerId, currentTime);
-
-                    plugin.getPluginLogger().debug("§aDonnées sauvegardées avec succès pour " + data.getPlayerName());
-
-                } catch (SQLException e) {
-                    conn.rollback(); // Annulation en cas d'erreur
-                    throw e;
+            boolean full = forceFull || !persistedPlayers.contains(playerId);
+            // Relevé avant la lecture des valeurs : une modification concurrente est lue ou signalée de nouveau
+            long dirtyColumns = data.drainDirtyColumns();
+            try {
+                int[] changed = new int[COLUMNS.size()];
+                Object[] values = new Object[COLUMNS.size()];
+                int changedCount = 0;
+
+                for (int i = 0; i < COLUMNS.size(); i++) {
+                    if (!full && (dirtyColumns & (1L << i)) == 0) continue;
+                    PlayerColumn column = COLUMNS.get(i);
+                    changed[changedCount] = i;
+                    values[changedCount] = toSqlValue(column, column.extractor().apply(data));
+                    changedCount++;
                 }
+
+                return new PendingWrite(playerId, data.getPlayerName(), full,
+                        Arrays.copyOf(changed, changedCount), Arrays.copyOf(values, changedCount), dirtyColumns);
+            } catch (RuntimeException e) {
+                data.restoreDirtyColumns(dirtyColumns);
+                throw e;
             }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("§cErreur lors de la sauvegarde de " + playerId + ": " + e.getMessage());
-            e.printStackTrace();
         } finally {
             lock.readLock().unlock();
         }
     }
 
+    /**
+     * Écriture échouée : re-signale ses colonnes et re-marque le joueur s'il est toujours en cache
+     */
+    private void requeue(PendingWrite write) {
+        PlayerData data = playerDataCache.get(write.playerId());
+        if (data == null) return;
+        data.restoreDirtyColumns(write.dirtyColumns());
+        dirtyPlayers.add(write.playerId());
+    }
+
+    private Object toSqlValue(PlayerColumn column, Object raw) {
+        return switch (column.kind()) {
+            case SCALAR -> raw;
+            case JSON -> gson.toJson(raw);
+            case ITEM -> serializeItemStack((ItemStack) raw);
+        };
+    }
+
+    /**
+     * Écrit un lot de joueurs dans une seule transaction : les écritures complètes passent par
+     * l'UPSERT en batch, les écritures partielles sont regroupées par ensemble de colonnes
+     * (une requête UPDATE par ensemble, exécutée en batch)
+     */
+    private SaveCycleStats executeWrites(List<PendingWrite> writes) throws SQLException {
+        Map<String, List<PendingWrite>> groups = new LinkedHashMap<>();
+        for (PendingWrite write : writes) {
+            if (write.isEmpty()) continue;
+            String sql = write.full() ? UPSERT_QUERY : buildPartialUpdateQuery(write.columnIndexes());
+            groups.computeIfAbsent(sql, k -> new ArrayList<>()).add(write);
+        }
+
+        SaveCycleStats stats = new SaveCycleStats();
+        if (groups.isEmpty()) return stats;
+
+        List<PendingWrite> missingRows = new ArrayList<>();
+
+        try (Connection conn = databaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (Map.Entry<String, List<PendingWrite>> group : groups.entrySet()) {
+                    List<PendingWrite> batch = group.getValue();
+                    try (PreparedStatement ps = conn.prepareStatement(group.getKey())) {
+                        for (PendingWrite write : batch) {
+                            int index = 1;
+                            if (write.full()) {
+                                ps.setString(index++, write.playerId().toString());
+                            }
+                            for (Object value : write.values()) {
+                                stats.bytes += bindValue(ps, index++, value);
+                            }
+                            if (!write.full()) {
+                                ps.setString(index, write.playerId().toString());
+                            }
+                            ps.addBatch();
+                        }
+
+                        int[] counts = ps.executeBatch();
+                        for (int i = 0; i < counts.length && i < batch.size(); i++) {
+                            PendingWrite write = batch.get(i);
+                            if (counts[i] == 0 && !write.full()) {
+                                missingRows.add(write);
+                            } else {
+                                stats.rows++;
+                                stats.columns += write.columnIndexes().length;
+                                if (write.full()) stats.fullRows++;
+                            }
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        for (List<PendingWrite> batch : groups.values()) {
+            for (PendingWrite write : batch) {
+                // Joueur déchargé pendant l'écriture : ne pas recréer ses entrées
+                if (missingRows.contains(write) || !playerDataCache.containsKey(write.playerId())) continue;
+                persistedPlayers.add(write.playerId());
+                lastSaveTime.put(write.playerId(), now);
+            }
+        }
+
+        // Ligne absente en base (supprimée entre-temps) : la prochaine sauvegarde repassera par l'UPSERT complet
+        for (PendingWrite write : missingRows) {
+            persistedPlayers.remove(write.playerId());
+            requeue(write);
+        }
+
+        totalRowsWritten.addAndGet(stats.rows);
+        totalColumnsWritten.addAndGet(stats.columns);
+        totalBytesWritten.addAndGet(stats.bytes);
+        return stats;
+    }
+
+    /**
+     * Lie une valeur au PreparedStatement et retourne une estimation du volume écrit (octets)
+     */
+    private int bindValue(PreparedStatement ps, int index, Object value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+            return 0;
+        }
+        if (value instanceof Long l) {
+            ps.setLong(index, l);
+            return Long.BYTES;
+        }
+        if (value instanceof Integer i) {
+            ps.setInt(index, i);
+            return Integer.BYTES;
+        }
+        if (value instanceof Double d) {
+            ps.setDouble(index, d);
+            return Double.BYTES;
+        }
+        String s = value.toString();
+        ps.setString(index, s);
+        return s.length();
+    }
+
+    private String buildPartialUpdateQuery(int[] columnIndexes) {
+        StringBuilder sql = new StringBuilder("UPDATE players SET ");
+        for (int i = 0; i < columnIndexes.length; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(COLUMNS.get(columnIndexes[i]).name()).append(" = ?");
+        }
+        return sql.append(" WHERE uuid = ?").toString();
+    }
+
+    private static String buildUpsertQuery() {
+        StringJoiner names = new StringJoiner(", ");
+        StringJoiner params = new StringJoiner(", ");
+        StringJoiner updates = new StringJoiner(",\n    ");
+        names.add("uuid");
+        params.add("?");
+        for (PlayerColumn column : COLUMNS) {
+            names.add(column.name());
+            params.add("?");
+            updates.add(column.name() + " = EXCLUDED." + column.name());
+        }
+        return "INSERT INTO players (" + names + ") VALUES (" + params + ")\n" +
+                "ON CONFLICT (uuid) DO UPDATE SET\n    " + updates;
+    }
+
     /**
      * NOUVELLE MÉTHODE : Sérialise un ItemStack pour la base de données
      */
@@ -686,47 +902,51 @@ public class PlayerDataManager {
      * MÉTHODE CORRIGÉE : Sauvegarde asynchrone des joueurs modifiés uniquement
      */
     public CompletableFuture<Void> saveAllPlayersAsync() {
-        return CompletableFuture.runAsync(() -> {
-            Set<UUID> playersToSave = new HashSet<>(dirtyPlayers);
-            dirtyPlayers.clear(); // Nettoyage immédiat pour éviter les doublons
-
-            int savedCount = 0;
-            for (UUID playerId : playersToSave) {
-                try {
-                    savePlayerData(playerId);
-                    savedCount++;
-                } catch (Exception e) {
-                    plugin.getLogger().severe("§cErreur lors de la sauvegarde asynchrone de " + playerId + ": " + e.getMessage());
-                    dirtyPlayers.add(playerId); // Re-marquer pour tentative ultérieure
-                }
-            }
-
-            if (savedCount > 0) {
-                plugin.getPluginLogger().info("§aSauvegarde asynchrone terminée: " + savedCount + " joueur(s) sauvegardé(s).");
-            }
-        });
+        return CompletableFuture.runAsync(() -> flushDirtyPlayers("asynchrone"));
     }
 
     /**
      * MÉTHODE CORRIGÉE : Sauvegarde synchrone des joueurs modifiés uniquement
      */
     public void saveAllPlayersSync() {
+        flushDirtyPlayers("synchrone");
+    }
+
+    /**
+     * Écrit tous les joueurs modifiés en un seul batch transactionnel (colonnes modifiées uniquement)
+     */
+    private void flushDirtyPlayers(String mode) {
         Set<UUID> playersToSave = new HashSet<>(dirtyPlayers);
-        dirtyPlayers.clear();
+        dirtyPlayers.removeAll(playersToSave); // Nettoyage immédiat pour éviter les doublons
+
+        if (playersToSave.isEmpty()) return;
 
-        int savedCount = 0;
+        List<PendingWrite> writes = new ArrayList<>(playersToSave.size());
         for (UUID playerId : playersToSave) {
             try {
-                savePlayerData(playerId);
-                savedCount++;
+                PendingWrite write = prepareWrite(playerId, false);
+                if (write != null) {
+                    writes.add(write);
+                }
             } catch (Exception e) {
-                plugin.getLogger().severe("§cErreur lors de la sauvegarde synchrone de " + playerId + ": " + e.getMessage());
+                plugin.getLogger().severe("§cErreur lors de la préparation de la sauvegarde de " + playerId + ": " + e.getMessage());
                 dirtyPlayers.add(playerId); // Re-marquer pour tentative ultérieure
             }
         }
 
-        if (savedCount > 0) {
-            plugin.getPluginLogger().info("§aSauvegarde synchrone terminée: " + savedCount + " joueur(s) sauvegardé(s).");
+        try {
+            SaveCycleStats stats = executeWrites(writes);
+            lastCycleStats = stats;
+            if (stats.rows > 0) {
+                plugin.getPluginLogger().info("§aSauvegarde " + mode + " terminée: " + stats.rows + " joueur(s) sauvegardé(s) (" +
+                        stats.fullRows + " complet(s), " + stats.columns + " colonnes, ~" + stats.bytes + " octets).");
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("§cErreur lors de la sauvegarde " + mode + " du lot: " + e.getMessage());
+            e.printStackTrace();
+            for (PendingWrite write : writes) {
+                requeue(write); // Re-marquer pour tentative ultérieure
+            }
         }
     }
 
@@ -735,8 +955,8 @@ public class PlayerDataManager {
      */
     public void savePlayerNow(UUID playerId) {
         if (playerId != null) {
-            savePlayerData(playerId);
             dirtyPlayers.remove(playerId);
+            savePlayerData(playerId);
         }
     }
 
@@ -1069,6 +1289,8 @@ public class PlayerDataManager {
             playerDataCache.remove(playerId);
             playerLocks.remove(playerId);
             lastSaveTime.remove(playerId);
+            persistedPlayers.remove(playerId);
+            dirtyPlayers.remove(playerId);
         }
     }
 
@@ -1119,8 +1341,32 @@ public class PlayerDataManager {
      * NOUVELLE MÉTHODE : Statistiques du gestionnaire
      */
     public String getStats() {
-        return String.format("§7Cache: %d joueurs | Dirty: %d | Verrous: %d",
-                playerDataCache.size(), dirtyPlayers.size(), playerLocks.size());
+        SaveCycleStats last = lastCycleStats;
+        return String.format("§7Cache: %d joueurs | Dirty: %d | Verrous: %d | Préchargés: %d | Défauts thread principal: %d | Dernier cycle: %d lignes, %d colonnes, ~%d octets | Total: %d lignes, ~%d octets | Économie: %d mises à jour, %d reprises CAS",
+                playerDataCache.size(), dirtyPlayers.size(), playerLocks.size(),
+                preloadedCount.get(), mainThreadMisses.get(),
+                last.rows, last.columns, last.bytes, totalRowsWritten.get(), totalBytesWritten.get(),
+                PlayerData.getBalanceUpdates(), PlayerData.getBalanceCasRetries());
+    }
+
+    public long getMainThreadMisses() {
+        return mainThreadMisses.get();
+    }
+
+    public long getPreloadedCount() {
+        return preloadedCount.get();
+    }
+
+    public long getTotalRowsWritten() {
+        return totalRowsWritten.get();
+    }
+
+    public long getTotalColumnsWritten() {
+        return totalColumnsWritten.get();
+    }
+
+    public long getTotalBytesWritten() {
+        return totalBytesWritten.get();
     }
 
     /**
@@ -1153,7 +1399,8 @@ public class PlayerDataManager {
             dirtyPlayers.remove(playerId);
             // Supprime du cache et recharge
             playerDataCache.remove(playerId);
-            getPlayerData(playerId); // Force le rechargement
+            persistedPlayers.remove(playerId);
+            loadIntoCache(playerId, null); // Force le rechargement
         }
     }
 
@@ -1172,4 +1419,33 @@ public class PlayerDataManager {
 
         return true;
     }
+
+    private enum ColumnKind {
+        SCALAR, // Valeur JDBC directe (long, int, double, String)
+        JSON,   // Collection sérialisée avec Gson
+        ITEM    // ItemStack sérialisé
+    }
+
+    private record PlayerColumn(String name, ColumnKind kind, Function<PlayerData, Object> extractor) {
+    }
+
+    /**
+     * Écriture préparée pour un joueur : colonnes modifiées, valeurs prêtes à lier et masque relevé (re-signalé en cas d'échec)
+     */
+    private record PendingWrite(UUID playerId, String playerName, boolean full,
+                                int[] columnIndexes, Object[] values, long dirtyColumns) {
+        boolean isEmpty() {
+            return !full && columnIndexes.length == 0;
+        }
+    }
+
+    /**
+     * Statistiques d'un cycle de sauvegarde
+     */
+    private static class SaveCycleStats {
+        int rows;
+        int fullRows;
+        int columns;
+        long bytes;
+    }
 }
@@ -121,6 +121,7 @@ public class PrestigeManager {
 
         // Mettre à jour le niveau de prestige via PlayerData (qui gère les permissions)
         playerData.setPrestigeLevel(newPrestigeLevel);
+        plugin.getGlobalBonusManager().invalidate(player.getUniqueId());
 
         // Appliquer immédiatement la permission si le joueur est en ligne
         Player onlinePlayer = plugin.getServer().getPlayer(player.getUniqueId());
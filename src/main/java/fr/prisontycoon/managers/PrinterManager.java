@@ -2,9 +2,11 @@ package fr.prisontycoon.managers;
 
 import com.google.gson.Gson;
 import fr.prisontycoon.PrisonTycoon;
+import fr.prisontycoon.api.SkyblockPrinterBridge;
 import fr.prisontycoon.data.PrinterData;
 import fr.prisontycoon.data.PrinterTier;
 import fr.prisontycoon.data.PlayerData;
+import fr.prisontycoon.utils.ChunkBucketIndex;
 import fr.prisontycoon.utils.NumberFormatter;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -25,10 +27,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.lang.reflect.Method;
 import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.EntityType;
-import org.bukkit.scheduler.BukkitRunnable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -49,9 +49,34 @@ public class PrinterManager {
     private final Map<String, PrinterData> printerCache = new ConcurrentHashMap<>();
     private final Map<Location, String> printerLocations = new ConcurrentHashMap<>();
     private final Map<UUID, Set<String>> playerPrinters = new ConcurrentHashMap<>();
+    // Île de chaque imprimante, résolue une seule fois à l'enregistrement
+    private final Map<String, UUID> printerIslands = new ConcurrentHashMap<>();
+    
+    // Index spatial (monde → chunk → ids) pour la détection de proximité des nametags
+    private final ChunkBucketIndex<String> printerGrid = new ChunkBucketIndex<>();
+    
+    // Pont typé vers CustomSkyblock (null tant que le plugin n'est pas hooké)
+    private volatile SkyblockPrinterBridge skyblockBridge;
+    
+    // Planification : tas trié par échéance, manipulé uniquement sur le thread principal.
+    // Seule l'échéance enregistrée dans scheduledDueTimes fait foi, les autres entrées du tas sont ignorées.
+    private final PriorityQueue<ScheduledGeneration> generationQueue = new PriorityQueue<>();
+    private final Map<String, Long> scheduledDueTimes = new HashMap<>();
+    // Imprimantes arrivées à échéance sans membre sur leur île : reprises à l'arrivée d'un membre
+    private final Map<UUID, Set<String>> parkedPrinters = new HashMap<>();
+    
+    // Présence des membres : île → nombre de membres présents, joueur → île sur laquelle il est compté
+    private final Map<UUID, Integer> islandPresence = new HashMap<>();
+    private final Map<UUID, UUID> playerIslands = new HashMap<>();
+    
+    // Imprimantes dont le lastGenerationTime reste à persister (sauvegarde groupée par île)
+    private final Set<String> dirtyPrinters = ConcurrentHashMap.newKeySet();
     
     private final Map<String, ArmorStand> printerNametags = new HashMap<>();
     private final Map<UUID, String> nearbyPlayers = new HashMap<>();
+    // Nombre de joueurs pour lesquels chaque nametag est l'imprimante la plus proche
+    private final Map<String, Integer> nametagViewers = new HashMap<>();
+    private static final double NAMETAG_RANGE_SQUARED = 5.0 * 5.0; // Distance maximale d'affichage : 5 blocs
     
     // Configuration
     private final int BASE_PRINTER_SLOTS = 10;
@@ -65,56 +90,65 @@ public class PrinterManager {
         this.printerTierKey = new NamespacedKey(plugin, "printer_tier");
         this.printerIdKey = new NamespacedKey(plugin, "printer_id");
         
-        initializeCaches();
+        // CustomSkyblock dépend de PrisonTycoon : le pont est normalement branché plus tard par PluginLoadListener
+        attachSkyblockBridge(plugin.getServer().getServicesManager().load(SkyblockPrinterBridge.class));
         startGenerationTask();
+        startPersistenceTask();
         initializeNametagSystem();
         
         plugin.getPluginLogger().info("§aPrinterManager initialisé.");
     }
     
-    private void initializeCaches() {
-        // Initialiser les caches à partir du PrinterManager de Skyblock
-        if (plugin.getCustomSkyblock() != null) {
-            try {
-                Object skyblockPrinterManager = plugin.getCustomSkyblock().getClass()
-                    .getMethod("getPrinterManager")
-                    .invoke(plugin.getCustomSkyblock());
-                
-                if (skyblockPrinterManager != null) {
-                    Object printers = skyblockPrinterManager.getClass()
-                        .getMethod("getAllPrinters")
-                        .invoke(skyblockPrinterManager);
-                    
-                    if (printers instanceof Map) {
-                        Map<?, ?> printersMap = (Map<?, ?>) printers;
-                        for (Map.Entry<?, ?> entry : printersMap.entrySet()) {
-                            Object skyblockPrinter = entry.getValue();
-                            // Convertir en PrinterData de PrisonTycoon
-                            PrinterData printer = new PrinterData(
-                                (String) skyblockPrinter.getClass().getMethod("getId").invoke(skyblockPrinter),
-                                (UUID) skyblockPrinter.getClass().getMethod("getOwner").invoke(skyblockPrinter),
-                                (Location) skyblockPrinter.getClass().getMethod("getLocation").invoke(skyblockPrinter),
-                                ((Number) skyblockPrinter.getClass().getMethod("getTier").invoke(skyblockPrinter)).intValue(),
-                                ((Number) skyblockPrinter.getClass().getMethod("getLastGenerationTime").invoke(skyblockPrinter)).longValue(),
-                                ((Number) skyblockPrinter.getClass().getMethod("getGenerationIntervalSeconds").invoke(skyblockPrinter)).intValue(),
-                                (java.math.BigInteger) skyblockPrinter.getClass().getMethod("getBillValue").invoke(skyblockPrinter),
-                                org.bukkit.Material.valueOf((String) skyblockPrinter.getClass().getMethod("getBillMaterial").invoke(skyblockPrinter)),
-                                (String) skyblockPrinter.getClass().getMethod("getBillName").invoke(skyblockPrinter),
-                                (String) skyblockPrinter.getClass().getMethod("getBillLore").invoke(skyblockPrinter)
-                            );
-                            
-                            printerCache.put(printer.getId(), printer);
-                            printerLocations.put(printer.getLocation(), printer.getId());
-                            playerPrinters.computeIfAbsent(printer.getOwner(), k -> ConcurrentHashMap.newKeySet()).add(printer.getId());
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                plugin.getPluginLogger().warning("Erreur lors de l'initialisation des caches d'imprimantes: " + e.getMessage());
+    /**
+     * Branche le pont CustomSkyblock : charge les imprimantes des îles, les planifie
+     * et recense les membres déjà présents sur leur île
+     */
+    public void attachSkyblockBridge(SkyblockPrinterBridge bridge) {
+        if (bridge == null || bridge == skyblockBridge) return;
+        this.skyblockBridge = bridge;
+        
+        try {
+            for (PrinterData printer : bridge.loadPrinters()) {
+                registerPrinter(printer);
             }
+        } catch (Exception e) {
+            plugin.getPluginLogger().warning("Erreur lors de l'initialisation des caches d'imprimantes: " + e.getMessage());
         }
+        
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            updateIslandPresence(player, player.getLocation());
+            updateNearestPrinter(player, player.getLocation());
+        }
+        plugin.getPluginLogger().info("§a" + printerCache.size() + " imprimantes chargées depuis CustomSkyblock.");
     }
     
+    /**
+     * Débranche le pont (désactivation de CustomSkyblock) après avoir persisté les générations en attente
+     */
+    public void detachSkyblockBridge() {
+        if (skyblockBridge == null) return;
+        flushDirtyPrinters();
+        this.skyblockBridge = null;
+        playerIslands.clear();
+        islandPresence.clear();
+    }
+    
+    /**
+     * Ajoute une imprimante aux caches, à l'index spatial et au planning de génération
+     */
+    private void registerPrinter(PrinterData printer) {
+        printerCache.put(printer.getId(), printer);
+        printerLocations.put(printer.getLocation(), printer.getId());
+        printerGrid.add(printer.getLocation(), printer.getId());
+        playerPrinters.computeIfAbsent(printer.getOwner(), k -> ConcurrentHashMap.newKeySet()).add(printer.getId());
+        
+        UUID islandId = getIslandIdAtLocation(printer.getLocation());
+        if (islandId != null) {
+            printerIslands.put(printer.getId(), islandId);
+            scheduleGeneration(printer.getId(), printer.getLastGenerationTime() + getGenerationIntervalMs(printer, islandId));
+        }
+    }
+
     private void loadPrinters() {
         String query = "SELECT * FROM printers";
         
@@ -139,6 +173,7 @@ public class PrinterManager {
                 
                 printerCache.put(id, printerData);
                 printerLocations.put(location, id);
+                printerGrid.add(location, id);
                 playerPrinters.computeIfAbsent(owner, k -> ConcurrentHashMap.newKeySet()).add(id);
             }
         } catch (SQLException e) {
@@ -150,24 +185,45 @@ public class PrinterManager {
      * Sauvegarde toutes les imprimantes via le PrinterManager de Skyblock
      */
     public void saveAll() {
-        if (plugin.getCustomSkyblock() != null) {
+        SkyblockPrinterBridge bridge = skyblockBridge;
+        if (bridge == null) return;
+        
+        flushDirtyPrinters();
+        try {
+            bridge.saveAll();
+        } catch (Exception e) {
+            plugin.getPluginLogger().warning("Erreur lors de la sauvegarde des imprimantes: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Persiste en un lot par île les lastGenerationTime modifiés depuis la dernière sauvegarde
+     */
+    private void flushDirtyPrinters() {
+        SkyblockPrinterBridge bridge = skyblockBridge;
+        if (bridge == null || dirtyPrinters.isEmpty()) return;
+        
+        Map<UUID, List<PrinterData>> printersByIsland = new HashMap<>();
+        Iterator<String> iterator = dirtyPrinters.iterator();
+        while (iterator.hasNext()) {
+            String printerId = iterator.next();
+            iterator.remove();
+            PrinterData printer = printerCache.get(printerId);
+            UUID islandId = printerIslands.get(printerId);
+            if (printer != null && islandId != null) {
+                printersByIsland.computeIfAbsent(islandId, k -> new ArrayList<>()).add(printer);
+            }
+        }
+        
+        for (Map.Entry<UUID, List<PrinterData>> entry : printersByIsland.entrySet()) {
             try {
-                Object skyblockPrinterManager = plugin.getCustomSkyblock().getClass()
-                    .getMethod("getPrinterManager")
-                    .invoke(plugin.getCustomSkyblock());
-                
-                if (skyblockPrinterManager != null) {
-                    // Sauvegarder via le DatabaseManager de Skyblock
-                    Object skyblockDb = plugin.getCustomSkyblock().getClass()
-                        .getMethod("getDatabaseManager")
-                        .invoke(plugin.getCustomSkyblock());
-                    
-                    if (skyblockDb != null) {
-                        skyblockDb.getClass().getMethod("saveAll").invoke(skyblockDb);
-                    }
-                }
+                bridge.updatePrinters(entry.getKey(), entry.getValue());
             } catch (Exception e) {
-                plugin.getPluginLogger().warning("Erreur lors de la sauvegarde des imprimantes: " + e.getMessage());
+                plugin.getPluginLogger().warning("Erreur lors de la mise à jour des imprimantes de l'île " + entry.getKey() + ": " + e.getMessage());
+                // Nouvelle tentative au prochain lot
+                for (PrinterData printer : entry.getValue()) {
+                    dirtyPrinters.add(printer.getId());
+                }
             }
         }
     }
@@ -186,44 +242,17 @@ public class PrinterManager {
                 printerTier.getGenerationIntervalSeconds(), printerTier.getBillValue(),
                 printerTier.getBillMaterial(), printerTier.getBillName(), printerTier.getBillLore());
         
-        printerCache.put(id, printerData);
-        printerLocations.put(location, id);
-        playerPrinters.computeIfAbsent(owner, k -> ConcurrentHashMap.newKeySet()).add(id);
+        registerPrinter(printerData);
+        
+        // Les joueurs déjà à proximité voient la nouvelle imprimante sans attendre de bouger
+        refreshPlayersNear(location);
         
         // Sauvegarder via le PrinterManager de Skyblock
-        if (plugin.getCustomSkyblock() != null) {
+        SkyblockPrinterBridge bridge = skyblockBridge;
+        UUID islandId = printerIslands.get(id);
+        if (bridge != null && islandId != null) {
             try {
-                Object skyblockPrinterManager = plugin.getCustomSkyblock().getClass()
-                    .getMethod("getPrinterManager")
-                    .invoke(plugin.getCustomSkyblock());
-                
-                if (skyblockPrinterManager != null) {
-                    // Convertir en PrinterData de Skyblock
-                    Object skyblockPrinter = skyblockPrinterManager.getClass()
-                        .getClassLoader()
-                        .loadClass("fr.skyblock.models.PrinterData")
-                        .getConstructor(String.class, UUID.class, Location.class, int.class, 
-                                       long.class, int.class, java.math.BigInteger.class, 
-                                       String.class, String.class, String.class)
-                        .newInstance(printerData.getId(), printerData.getOwner(), 
-                                   printerData.getLocation(), printerData.getTier(),
-                                   printerData.getLastGenerationTime(), 
-                                   printerData.getGenerationIntervalSeconds(),
-                                   printerData.getBillValue(), 
-                                   printerData.getBillMaterial().name(),
-                                   printerData.getBillName(), printerData.getBillLore());
-                    
-                    // Obtenir l'ID de l'île à cette location
-                    UUID islandId = (UUID) skyblockPrinterManager.getClass()
-                        .getMethod("getIslandIdAtLocation", Location.class)
-                        .invoke(skyblockPrinterManager, location);
-                    
-                    if (islandId != null) {
-                        skyblockPrinterManager.getClass()
-                            .getMethod("savePrinter", UUID.class, Object.class)
-                            .invoke(skyblockPrinterManager, islandId, skyblockPrinter);
-                    }
-                }
+                bridge.savePrinter(islandId, printerData);
             } catch (Exception e) {
                 plugin.getPluginLogger().warning("Erreur lors de la sauvegarde de l'imprimante: " + e.getMessage());
             }
@@ -232,7 +261,7 @@ public class PrinterManager {
         return printerData;
     }
     
-
+    
     
     /**
      * Supprime une imprimante
@@ -245,7 +274,11 @@ public class PrinterManager {
         
         printerCache.remove(printerId);
         printerLocations.remove(printer.getLocation());
+        printerGrid.remove(printer.getLocation(), printerId);
         playerPrinters.get(printer.getOwner()).remove(printerId);
+        UUID islandId = printerIslands.remove(printerId);
+        unscheduleGeneration(printerId, islandId);
+        dirtyPrinters.remove(printerId);
         
         // Supprimer le nametag associé
         if (printerNametags.containsKey(printerId)) {
@@ -255,26 +288,14 @@ public class PrinterManager {
             }
             printerNametags.remove(printerId);
         }
+        nametagViewers.remove(printerId);
+        refreshPlayersNear(printer.getLocation());
         
         // Supprimer via le PrinterManager de Skyblock
-        if (plugin.getCustomSkyblock() != null) {
+        SkyblockPrinterBridge bridge = skyblockBridge;
+        if (bridge != null && islandId != null) {
             try {
-                Object skyblockPrinterManager = plugin.getCustomSkyblock().getClass()
-                    .getMethod("getPrinterManager")
-                    .invoke(plugin.getCustomSkyblock());
-                
-                if (skyblockPrinterManager != null) {
-                    // Obtenir l'ID de l'île à cette location
-                    UUID islandId = (UUID) skyblockPrinterManager.getClass()
-                        .getMethod("getIslandIdAtLocation", Location.class)
-                        .invoke(skyblockPrinterManager, printer.getLocation());
-                    
-                    if (islandId != null) {
-                        skyblockPrinterManager.getClass()
-                            .getMethod("removePrinter", UUID.class, String.class)
-                            .invoke(skyblockPrinterManager, islandId, printerId);
-                    }
-                }
+                bridge.removePrinter(islandId, printerId);
             } catch (Exception e) {
                 plugin.getPluginLogger().warning("Erreur lors de la suppression de l'imprimante: " + e.getMessage());
             }
@@ -282,7 +303,33 @@ public class PrinterManager {
         
         return true;
     }
-    
+
+    /**
+     * Vérifie si un joueur peut retirer une imprimante : son propriétaire, ou le chef et les officiers de l'île
+     */
+    public boolean canManagePrinter(UUID playerId, String printerId) {
+        PrinterData printer = printerCache.get(printerId);
+        if (printer == null) return false;
+        if (printer.getOwner().equals(playerId)) return true;
+        
+        UUID islandId = printerIslands.get(printerId);
+        SkyblockPrinterBridge bridge = skyblockBridge;
+        if (bridge == null || islandId == null) return false;
+        try {
+            return bridge.isIslandManager(islandId, playerId);
+        } catch (Exception e) {
+            plugin.getPluginLogger().warning("Erreur lors de la vérification des permissions d'imprimante: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Vérifie si une position est sur une île
+     */
+    public boolean isOnIsland(Location location) {
+        return getIslandIdAtLocation(location) != null;
+    }
+
     /**
      * Vérifie si un item est une imprimante
      */
@@ -397,164 +444,257 @@ public class PrinterManager {
     
     /**
      * Démarre la tâche de génération des billets
+     * Seules les imprimantes arrivées à échéance (tête du tas) sont examinées à chaque passage.
      */
     private void startGenerationTask() {
         new BukkitRunnable() {
             @Override
             public void run() {
-                for (PrinterData printer : printerCache.values()) {
-                    if (printer.shouldGenerateBill()) {
-                        generateBill(printer);
-                    }
-                }
+                processDuePrinters();
             }
         }.runTaskTimer(plugin, 20L, 20L); // Vérification toutes les secondes
     }
     
     /**
-     * Génère un billet pour une imprimante
+     * Démarre la sauvegarde groupée des temps de génération
      */
-    private void generateBill(PrinterData printer) {
-        // Obtenir l'ID de l'île à la location de l'imprimante
-        UUID islandId = getIslandIdAtLocation(printer.getLocation());
-        if (islandId == null) return;
-        
-        // Vérifier si un joueur est sur l'île
-        if (!isAnyPlayerOnIsland(islandId)) {
-            return; // Aucun joueur sur l'île, pas de génération
+    private void startPersistenceTask() {
+        long interval = Math.max(20L, plugin.getConfig().getLong("performance.task-intervals.printer-save-ticks", 1200L));
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                flushDirtyPrinters();
+            }
+        }.runTaskTimer(plugin, interval, interval);
+    }
+    
+    private void processDuePrinters() {
+        long now = System.currentTimeMillis();
+        ScheduledGeneration next;
+        while ((next = generationQueue.peek()) != null && next.dueAt() <= now) {
+            generationQueue.poll();
+            Long dueAt = scheduledDueTimes.get(next.printerId());
+            if (dueAt == null || dueAt != next.dueAt()) {
+                continue; // Entrée périmée (imprimante supprimée ou replanifiée)
+            }
+            scheduledDueTimes.remove(next.printerId());
+            
+            PrinterData printer = printerCache.get(next.printerId());
+            UUID islandId = printerIslands.get(next.printerId());
+            if (printer == null || islandId == null) continue;
+            
+            // Aucun membre sur l'île, pas de génération : l'imprimante attend le retour d'un membre
+            if (!isAnyPlayerOnIsland(islandId) || printer.getLocation().getWorld() == null) {
+                parkedPrinters.computeIfAbsent(islandId, k -> new HashSet<>()).add(printer.getId());
+                continue;
+            }
+            
+            generateBill(printer, islandId, now);
         }
-        
-        // Obtenir le multiplicateur de vitesse de génération
+    }
+    
+    private void scheduleGeneration(String printerId, long dueAt) {
+        scheduledDueTimes.put(printerId, dueAt);
+        generationQueue.add(new ScheduledGeneration(dueAt, printerId));
+    }
+    
+    private void unscheduleGeneration(String printerId, UUID islandId) {
+        // L'entrée du tas devient périmée et sera ignorée à son échéance
+        scheduledDueTimes.remove(printerId);
+        if (islandId != null) {
+            Set<String> parked = parkedPrinters.get(islandId);
+            if (parked != null) {
+                parked.remove(printerId);
+                if (parked.isEmpty()) parkedPrinters.remove(islandId);
+            }
+        }
+    }
+    
+    /**
+     * Intervalle effectif d'une imprimante, multiplicateur de vitesse de l'île compris
+     */
+    private long getGenerationIntervalMs(PrinterData printer, UUID islandId) {
         double speedMultiplier = getPrinterGenerationSpeedMultiplier(islandId);
+        if (speedMultiplier <= 0) speedMultiplier = 1.0;
+        return Math.max(1000L, (long) (printer.getGenerationIntervalSeconds() * 1000L / speedMultiplier));
+    }
+    
+    /**
+     * Génère un billet pour une imprimante arrivée à échéance et replanifie la suivante
+     */
+    private void generateBill(PrinterData printer, UUID islandId, long now) {
+        long interval = getGenerationIntervalMs(printer, islandId);
+        
+        // Billets cumulés depuis la dernière génération (absence des membres), plafonnés par la configuration
+        long elapsedIntervals = Math.max(1L, (now - printer.getLastGenerationTime()) / interval);
+        int maxAccruedBills = Math.max(1, plugin.getConfig().getInt("printers.max-accrued-bills", 1));
         
         // Créer le billet
         ItemStack bill = printer.createBillItem();
-        bill.setAmount(1);
+        bill.setAmount((int) Math.min(elapsedIntervals, Math.min(maxAccruedBills, bill.getMaxStackSize())));
         
         // Spawner l'item au-dessus de l'imprimante
-        Location spawnLocation = printer.getLocation().add(0.5, 1.0, 0.5);
+        Location spawnLocation = printer.getLocation().clone().add(0.5, 1.0, 0.5);
         Item item = printer.getLocation().getWorld().dropItem(spawnLocation, bill);
         item.setVelocity(new Vector(0, 0.1, 0));
         item.setPickupDelay(20); // 1 seconde de délai
         
-        // Mettre à jour le temps de génération avec le multiplicateur de vitesse
-        long adjustedInterval = (long) (printer.getGenerationIntervalSeconds() * 1000 / speedMultiplier);
-        long currentTime = System.currentTimeMillis();
-        long lastGeneration = printer.getLastGenerationTime();
+        // Mettre à jour le temps de génération (persisté au prochain lot) et planifier la prochaine échéance
+        PrinterData updatedPrinter = printer.withUpdatedGenerationTime();
+        printerCache.put(printer.getId(), updatedPrinter);
+        dirtyPrinters.add(printer.getId());
+        scheduleGeneration(printer.getId(), updatedPrinter.getLastGenerationTime() + interval);
         
-        if (currentTime - lastGeneration >= adjustedInterval) {
-            PrinterData updatedPrinter = printer.withUpdatedGenerationTime();
-            printerCache.put(printer.getId(), updatedPrinter);
-            
-            // Mettre à jour via le PrinterManager de Skyblock
-            if (plugin.getCustomSkyblock() != null) {
-                try {
-                    Object skyblockPrinterManager = plugin.getCustomSkyblock().getClass()
-                        .getMethod("getPrinterManager")
-                        .invoke(plugin.getCustomSkyblock());
-                    
-                    if (skyblockPrinterManager != null) {
-                        // Convertir en PrinterData de Skyblock
-                        Object skyblockPrinter = skyblockPrinterManager.getClass()
-                            .getClassLoader()
-                            .loadClass("fr.skyblock.models.PrinterData")
-                            .getConstructor(String.class, UUID.class, Location.class, int.class, 
-                                           long.class, int.class, java.math.BigInteger.class, 
-                                           String.class, String.class, String.class)
-                            .newInstance(updatedPrinter.getId(), updatedPrinter.getOwner(), 
-                                       updatedPrinter.getLocation(), updatedPrinter.getTier(),
-                                       updatedPrinter.getLastGenerationTime(), 
-                                       updatedPrinter.getGenerationIntervalSeconds(),
-                                       updatedPrinter.getBillValue(), 
-                                       updatedPrinter.getBillMaterial().name(),
-                                       updatedPrinter.getBillName(), updatedPrinter.getBillLore());
-                        
-                        // Obtenir l'ID de l'île à cette location
-                        UUID printerIslandId = (UUID) skyblockPrinterManager.getClass()
-                            .getMethod("getIslandIdAtLocation", Location.class)
-                            .invoke(skyblockPrinterManager, printer.getLocation());
-                        
-                        if (printerIslandId != null) {
-                            skyblockPrinterManager.getClass()
-                                .getMethod("updatePrinter", UUID.class, Object.class)
-                                .invoke(skyblockPrinterManager, printerIslandId, skyblockPrinter);
-                        }
-                    }
-                } catch (Exception e) {
-                    plugin.getPluginLogger().warning("Erreur lors de la mise à jour de l'imprimante: " + e.getMessage());
-                }
-            }
-            
-            // Effet sonore
-            printer.getLocation().getWorld().playSound(printer.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 0.5f, 1.2f);
+        // Effet sonore
+        printer.getLocation().getWorld().playSound(printer.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 0.5f, 1.2f);
+    }
+    
+    /**
+     * Met à jour la présence d'un joueur sur les îles à partir de sa position
+     * Appelé à la connexion, à la téléportation, à la réapparition et au changement de monde (une île = un monde).
+     */
+    public void updateIslandPresence(Player player, Location location) {
+        SkyblockPrinterBridge bridge = skyblockBridge;
+        if (bridge == null) return;
+        
+        UUID islandId = bridge.getIslandIdAt(location);
+        if (islandId != null && !bridge.isIslandMember(islandId, player.getUniqueId())) {
+            islandId = null; // Les visiteurs ne font pas tourner les imprimantes
+        }
+        
+        UUID previous = islandId != null
+                ? playerIslands.put(player.getUniqueId(), islandId)
+                : playerIslands.remove(player.getUniqueId());
+        if (Objects.equals(previous, islandId)) return;
+        
+        if (previous != null) {
+            islandPresence.computeIfPresent(previous, (id, count) -> count > 1 ? count - 1 : null);
+        }
+        if (islandId != null && islandPresence.merge(islandId, 1, Integer::sum) == 1) {
+            wakeParkedPrinters(islandId);
+        }
+    }
+    
+    /**
+     * Retire un joueur qui se déconnecte du décompte de présence
+     */
+    public void clearIslandPresence(Player player) {
+        UUID previous = playerIslands.remove(player.getUniqueId());
+        if (previous != null) {
+            islandPresence.computeIfPresent(previous, (id, count) -> count > 1 ? count - 1 : null);
         }
     }
     
+    /**
+     * Replanifie immédiatement les imprimantes d'une île qui attendaient un membre
+     */
+    private void wakeParkedPrinters(UUID islandId) {
+        Set<String> parked = parkedPrinters.remove(islandId);
+        if (parked == null) return;
+        long now = System.currentTimeMillis();
+        for (String printerId : parked) {
+            if (printerCache.containsKey(printerId)) {
+                scheduleGeneration(printerId, now);
+            }
+        }
+    }
+
     /**
      * Initialise le système de nametags pour les imprimantes
+     * Les nametags sont pilotés par les déplacements des joueurs (voir PrinterListener), plus par un timer.
      */
     public void initializeNametagSystem() {
-        // Tâche pour gérer l'affichage des nametags
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                updatePrinterNametags();
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            updateNearestPrinter(player, player.getLocation());
+        }
+    }
+    
+    /**
+     * Met à jour le nametag affiché pour un joueur à partir de sa position
+     * Appelé lorsqu'un joueur change de bloc, se téléporte ou se connecte.
+     */
+    public void updateNearestPrinter(Player player, Location location) {
+        String nearestPrinterId = findNearestPrinter(location);
+        String currentNearest = nearbyPlayers.get(player.getUniqueId());
+        if (Objects.equals(currentNearest, nearestPrinterId)) {
+            return;
+        }
+        
+        if (currentNearest != null) {
+            releaseNametag(currentNearest);
+        }
+        if (nearestPrinterId != null) {
+            nearbyPlayers.put(player.getUniqueId(), nearestPrinterId);
+            if (nametagViewers.merge(nearestPrinterId, 1, Integer::sum) == 1) {
+                createPrinterNametag(nearestPrinterId, player);
             }
-        }.runTaskTimer(plugin, 20L, 20L); // Toutes les secondes
+        } else {
+            nearbyPlayers.remove(player.getUniqueId());
+        }
     }
     
     /**
-     * Met à jour l'affichage des nametags des imprimantes
+     * Libère le nametag d'un joueur qui se déconnecte
      */
-    private void updatePrinterNametags() {
-        // Supprimer les nametags des imprimantes qui n'existent plus
-        printerNametags.entrySet().removeIf(entry -> {
-            if (!printerCache.containsKey(entry.getKey())) {
-                entry.getValue().remove();
-                return true;
+    public void clearNearestPrinter(Player player) {
+        String currentNearest = nearbyPlayers.remove(player.getUniqueId());
+        if (currentNearest != null) {
+            releaseNametag(currentNearest);
+        }
+    }
+    
+    /**
+     * Imprimante la plus proche (≤ 5 blocs) : seuls les chunks du voisinage 3x3 sont examinés, distances au carré
+     */
+    private String findNearestPrinter(Location location) {
+        if (location.getWorld() == null) return null;
+        
+        double x = location.getX();
+        double y = location.getY();
+        double z = location.getZ();
+        double[] nearestDistance = {NAMETAG_RANGE_SQUARED};
+        String[] nearestPrinterId = {null};
+        
+        printerGrid.forEachNear(location, 1, printerId -> {
+            PrinterData printer = printerCache.get(printerId);
+            if (printer == null) return;
+            Location printerLocation = printer.getLocation();
+            double dx = printerLocation.getX() - x;
+            double dy = printerLocation.getY() - y;
+            double dz = printerLocation.getZ() - z;
+            double distanceSquared = dx * dx + dy * dy + dz * dz;
+            if (distanceSquared <= nearestDistance[0]) {
+                nearestDistance[0] = distanceSquared;
+                nearestPrinterId[0] = printerId;
             }
-            return false;
         });
         
-        // Vérifier les joueurs à proximité des imprimantes
-        for (Player player : plugin.getServer().getOnlinePlayers()) {
-            String nearestPrinterId = null;
-            double nearestDistance = 5.0; // Distance maximale d'affichage
-            
-            for (PrinterData printer : printerCache.values()) {
-                // Vérifier que les mondes sont les mêmes
-                if (!player.getWorld().equals(printer.getLocation().getWorld())) {
-                    continue;
-                }
-                double distance = player.getLocation().distance(printer.getLocation());
-                if (distance <= nearestDistance) {
-                    nearestDistance = distance;
-                    nearestPrinterId = printer.getId();
-                }
-            }
-            
-            // Mettre à jour le nametag le plus proche
-            String currentNearest = nearbyPlayers.get(player.getUniqueId());
-            if (!Objects.equals(currentNearest, nearestPrinterId)) {
-                // Supprimer l'ancien nametag si différent
-                if (currentNearest != null && printerNametags.containsKey(currentNearest)) {
-                    ArmorStand oldNametag = printerNametags.get(currentNearest);
-                    if (oldNametag != null && !oldNametag.isDead()) {
-                        oldNametag.remove();
-                    }
-                    printerNametags.remove(currentNearest);
-                }
-                
-                // Créer le nouveau nametag si nécessaire
-                if (nearestPrinterId != null) {
-                    createPrinterNametag(nearestPrinterId, player);
-                }
-                
-                nearbyPlayers.put(player.getUniqueId(), nearestPrinterId);
+        return nearestPrinterId[0];
+    }
+    
+    /**
+     * Décrémente le nombre de spectateurs d'un nametag et le supprime quand plus personne n'est à proximité
+     */
+    private void releaseNametag(String printerId) {
+        Integer remaining = nametagViewers.computeIfPresent(printerId, (id, count) -> count > 1 ? count - 1 : null);
+        if (remaining == null) {
+            ArmorStand nametag = printerNametags.remove(printerId);
+            if (nametag != null && !nametag.isDead()) {
+                nametag.remove();
             }
         }
     }
     
+    /**
+     * Réévalue l'imprimante la plus proche des joueurs autour d'une position (ajout/retrait d'imprimante)
+     */
+    private void refreshPlayersNear(Location location) {
+        if (location.getWorld() == null) return;
+        for (Player player : location.getWorld().getNearbyPlayers(location, 16)) {
+            updateNearestPrinter(player, player.getLocation());
+        }
+    }
+    
     /**
      * Crée un nametag pour une imprimante visible par un joueur spécifique
      */
@@ -601,165 +741,70 @@ public class PrinterManager {
     }
     
     /**
-     * Vérifie si un joueur est sur son île (intégration Skyblock)
-     */
-    private boolean isPlayerOnIsland(Player player) {
-        if (plugin.getCustomSkyblock() == null) return false;
-        
-        try {
-            Object islandUpgradeManager = plugin.getCustomSkyblock().getClass()
-                .getMethod("getIslandUpgradeManager")
-                .invoke(plugin.getCustomSkyblock());
-            
-            if (islandUpgradeManager != null) {
-                return (boolean) islandUpgradeManager.getClass()
-                    .getMethod("isPlayerOnIsland", Player.class)
-                    .invoke(islandUpgradeManager, player);
-            }
-        } catch (Exception e) {
-            plugin.getPluginLogger().warning("Erreur lors de la vérification de l'île pour " + player.getName() + ": " + e.getMessage());
-        }
-        return false;
-    }
-
-    /**
-     * Vérifie si au moins un joueur est sur l'île (intégration Skyblock)
+     * Vérifie si au moins un membre est sur l'île (présence maintenue par les événements joueurs)
      */
     private boolean isAnyPlayerOnIsland(UUID islandId) {
-        if (plugin.getCustomSkyblock() == null) return false;
-        
-        try {
-            Object islandUpgradeManager = plugin.getCustomSkyblock().getClass()
-                .getMethod("getIslandUpgradeManager")
-                .invoke(plugin.getCustomSkyblock());
-            
-            if (islandUpgradeManager != null) {
-                // Utiliser la méthode avec le bon nom
-                return (boolean) islandUpgradeManager.getClass()
-                    .getMethod("isAnyPlayerOnIsland", UUID.class)
-                    .invoke(islandUpgradeManager, islandId);
-            }
-        } catch (Exception e) {
-            // Fallback : vérifier manuellement si un joueur est sur l'île
-            try {
-                Object islandManager = plugin.getCustomSkyblock().getClass()
-                    .getMethod("getIslandManager")
-                    .invoke(plugin.getCustomSkyblock());
-                
-                if (islandManager != null) {
-                    Object island = islandManager.getClass()
-                        .getMethod("getIslandById", UUID.class)
-                        .invoke(islandManager, islandId);
-                    
-                    if (island != null) {
-                        // Vérifier si l'owner est en ligne
-                        UUID ownerId = (UUID) island.getClass().getMethod("getOwner").invoke(island);
-                        if (plugin.getServer().getPlayer(ownerId) != null) {
-                            return true;
-                        }
-                        
-                        // Vérifier si un membre est en ligne
-                        Object members = island.getClass().getMethod("getMembers").invoke(island);
-                        if (members instanceof java.util.Set) {
-                            for (Object memberId : (java.util.Set<?>) members) {
-                                if (plugin.getServer().getPlayer((UUID) memberId) != null) {
-                                    return true;
-                                }
-                            }
-                        }
-                    }
-                }
-            } catch (Exception fallbackException) {
-                plugin.getPluginLogger().warning("Erreur lors de la vérification des joueurs sur l'île " + islandId + " (fallback): " + fallbackException.getMessage());
-            }
-        }
-        return false;
+        return islandPresence.containsKey(islandId);
     }
-
+    
     /**
      * Obtient l'ID de l'île à une location donnée
      */
     private UUID getIslandIdAtLocation(Location location) {
-        if (plugin.getCustomSkyblock() == null) return null;
+        SkyblockPrinterBridge bridge = skyblockBridge;
+        if (bridge == null) return null;
         
         try {
-            Object islandManager = plugin.getCustomSkyblock().getClass()
-                .getMethod("getIslandManager")
-                .invoke(plugin.getCustomSkyblock());
-            
-            if (islandManager != null) {
-                Object island = islandManager.getClass()
-                    .getMethod("getIslandAtLocation", Location.class)
-                    .invoke(islandManager, location);
-                
-                if (island != null) {
-                    return (UUID) island.getClass().getMethod("getId").invoke(island);
-                }
-            }
+            return bridge.getIslandIdAt(location);
         } catch (Exception e) {
             plugin.getPluginLogger().warning("Erreur lors de la récupération de l'île à la location: " + e.getMessage());
         }
         return null;
     }
-
+    
     /**
      * Obtient le multiplicateur de vitesse de génération des imprimantes pour une île
      */
     private double getPrinterGenerationSpeedMultiplier(UUID islandId) {
-        if (plugin.getCustomSkyblock() == null) return 1.0;
+        SkyblockPrinterBridge bridge = skyblockBridge;
+        if (bridge == null) return 1.0;
         
         try {
-            Object islandUpgradeManager = plugin.getCustomSkyblock().getClass()
-                .getMethod("getIslandUpgradeManager")
-                .invoke(plugin.getCustomSkyblock());
-            
-            if (islandUpgradeManager != null) {
-                return (double) islandUpgradeManager.getClass()
-                    .getMethod("getPrinterGenerationSpeedMultiplier", UUID.class)
-                    .invoke(islandUpgradeManager, islandId);
-            }
+            return bridge.getGenerationSpeedMultiplier(islandId);
         } catch (Exception e) {
             plugin.getPluginLogger().warning("Erreur lors de la récupération du multiplicateur de vitesse: " + e.getMessage());
         }
         return 1.0;
     }
-
+    
     /**
      * Compte le nombre d'imprimantes sur une île
      */
     private int getIslandPrinterCount(UUID islandId) {
         int count = 0;
-        for (PrinterData printer : printerCache.values()) {
-            UUID printerIslandId = getIslandIdAtLocation(printer.getLocation());
+        for (UUID printerIslandId : printerIslands.values()) {
             if (islandId.equals(printerIslandId)) {
                 count++;
             }
         }
         return count;
     }
-
+    
     /**
      * Vérifie si on peut placer une imprimante sur une île
      */
     private boolean canPlacePrinterOnIsland(UUID islandId, int currentPrinterCount) {
-        if (plugin.getCustomSkyblock() == null) return true;
+        SkyblockPrinterBridge bridge = skyblockBridge;
+        if (bridge == null) return true;
         
         try {
-            Object islandUpgradeManager = plugin.getCustomSkyblock().getClass()
-                .getMethod("getIslandUpgradeManager")
-                .invoke(plugin.getCustomSkyblock());
-            
-            if (islandUpgradeManager != null) {
-                return (boolean) islandUpgradeManager.getClass()
-                    .getMethod("canPlacePrinter", UUID.class, int.class)
-                    .invoke(islandUpgradeManager, islandId, currentPrinterCount);
-            }
+            return bridge.canPlacePrinter(islandId, currentPrinterCount);
         } catch (Exception e) {
             plugin.getPluginLogger().warning("Erreur lors de la vérification de placement d'imprimante: " + e.getMessage());
         }
         return true;
     }
-    
+
     /**
      * Nettoie tous les nametags lors de la désactivation du plugin
      */
@@ -771,6 +816,7 @@ public class PrinterManager {
         }
         printerNametags.clear();
         nearbyPlayers.clear();
+        nametagViewers.clear();
     }
     
     // Getters
@@ -779,4 +825,14 @@ public class PrinterManager {
     public NamespacedKey getPrinterKey() { return printerKey; }
     public NamespacedKey getPrinterTierKey() { return printerTierKey; }
     public NamespacedKey getPrinterIdKey() { return printerIdKey; }
+    
+    /**
+     * Échéance de génération d'une imprimante dans le tas de planification
+     */
+    private record ScheduledGeneration(long dueAt, String printerId) implements Comparable<ScheduledGeneration> {
+        @Override
+        public int compareTo(ScheduledGeneration other) {
+            return Long.compare(dueAt, other.dueAt);
+        }
+    }
 }
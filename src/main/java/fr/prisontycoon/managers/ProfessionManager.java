@@ -99,6 +99,7 @@ public class ProfessionManager {
         if (currentProfession == null) {
             playerData.setActiveProfession(professionId.toLowerCase());
             plugin.getPlayerDataManager().markDirty(player.getUniqueId());
+            plugin.getGlobalBonusManager().invalidate(player.getUniqueId());
 
             Profession prof = professions.get(professionId.toLowerCase());
             player.sendMessage("§a✅ Vous avez choisi le métier §e" + prof.displayName() + " §a!");
@@ -155,6 +156,7 @@ public class ProfessionManager {
         playerData.setActiveProfession(professionId.toLowerCase());
         playerData.setLastProfessionChange(System.currentTimeMillis());
         plugin.getPlayerDataManager().markDirty(player.getUniqueId());
+        plugin.getGlobalBonusManager().invalidate(player.getUniqueId());
 
         Profession prof = professions.get(professionId.toLowerCase());
         player.sendMessage("§a✅ Métier changé vers §e" + prof.displayName() + " §a!");
@@ -330,6 +332,7 @@ public class ProfessionManager {
         playerData.removeExperience(cost);
         playerData.setTalentLevel(activeProfession, talentId, level);
         plugin.getPlayerDataManager().markDirty(player.getUniqueId());
+        plugin.getGlobalBonusManager().invalidate(player.getUniqueId());
 
         player.sendMessage("§a✅ Talent activé: §e" + talent.displayName() + " §7niveau §e" + level);
         player.sendMessage("§7Coût: §c-" + NumberFormatter.format(cost) + " XP");
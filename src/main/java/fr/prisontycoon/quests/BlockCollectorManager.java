@@ -3,6 +3,9 @@ package fr.prisontycoon.quests;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import fr.prisontycoon.PrisonTycoon;
+import fr.prisontycoon.data.MaterialCounters;
+import fr.prisontycoon.data.PlayerData;
+import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 
@@ -17,30 +20,64 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * Gestionnaire du collectionneur de blocs.
  * Sauvegarde par joueur une map Material->count et calcule les paliers.
+ * Les totaux vivent dans les MaterialCounters du PlayerData (partagés avec les statistiques de minage) :
+ * ils sont complétés par les totaux persistés au premier accès.
+ * Les classements sont servis depuis un top par matériau tenu en mémoire : mis à jour à chaque bloc des
+ * joueurs en ligne et rechargé périodiquement depuis la table normalisée player_block_counts.
  */
 public class BlockCollectorManager {
     private static final int MAX_TIERS = 100;
+    private static final int LEADERBOARD_SIZE = 10;
+    private static final long LEADERBOARD_REFRESH_TICKS = 20L * 60 * 5;
+    private static final String COUNTS_MIGRATION_ID = "player_block_counts_backfill";
     private final PrisonTycoon plugin;
     private final Gson gson = new Gson();
-    private final Map<UUID, Map<Material, Long>> cache = new ConcurrentHashMap<>();
     private final Map<UUID, Map<Material, Integer>> claimedCache = new ConcurrentHashMap<>(); // palier réclamé par matériau
+    private final Map<Material, Leaderboard> leaderboards = new ConcurrentHashMap<>();
+    private volatile boolean countsTableMigrated = false;
 
     public BlockCollectorManager(PrisonTycoon plugin) {
         this.plugin = plugin;
         ensureTables();
+        startLeaderboardRefresh();
     }
 
     public long add(Player player, Material mat, long amount) {
         if (mat == null || amount <= 0) return 0;
-        Map<Material, Long> map = cache.computeIfAbsent(player.getUniqueId(), this::loadMap);
-        long v = map.getOrDefault(mat, 0L) + amount;
-        map.put(mat, v);
-        return v;
+        long total = counters(player.getUniqueId()).add(mat, amount);
+        leaderboard(mat).offer(player.getUniqueId(), total);
+        plugin.getProgressStore().markDirty(player.getUniqueId(), ProgressStore.Section.BLOCK_COLLECTOR);
+        return total;
+    }
+
+    /**
+     * Propose au classement le total courant d'un bloc déjà compté ailleurs (PlayerData.addMinedBlock)
+     */
+    public void recordLeaderboard(Player player, Material mat) {
+        if (mat == null) return;
+        leaderboard(mat).offer(player.getUniqueId(), counters(player.getUniqueId()).get(mat));
+        plugin.getProgressStore().markDirty(player.getUniqueId(), ProgressStore.Section.BLOCK_COLLECTOR);
     }
 
     public long get(Player player, Material mat) {
-        Map<Material, Long> map = cache.computeIfAbsent(player.getUniqueId(), this::loadMap);
-        return map.getOrDefault(mat, 0L);
+        return counters(player.getUniqueId()).get(mat);
+    }
+
+    /**
+     * Compteurs du joueur, complétés par les totaux persistés au premier accès.
+     * Le chargement est additif : les blocs comptés avant (par PlayerData.addMinedBlock) sont conservés.
+     */
+    private MaterialCounters counters(UUID playerId) {
+        MaterialCounters counters = plugin.getPlayerDataManager().getPlayerData(playerId).getBlocksMinedByType();
+        if (!counters.isLoaded()) {
+            synchronized (counters) {
+                if (!counters.isLoaded()) {
+                    counters.addAll(loadMap(playerId));
+                    counters.markLoaded();
+                }
+            }
+        }
+        return counters;
     }
 
     public int getTierFor(Player player, Material mat) {
@@ -96,70 +133,217 @@ public class BlockCollectorManager {
     }
 
     public Map<Material, Long> getStats(UUID playerId) {
-        return new HashMap<>(cache.computeIfAbsent(playerId, this::loadMap));
+        return counters(playerId).toMap();
     }
 
+    /**
+     * Top du serveur pour un matériau, servi depuis le classement en mémoire
+     */
     public List<Map.Entry<UUID, Long>> getTopFor(Material mat, int top) {
-        // On scanne la base pour éviter d'avoir tout en mémoire (simple: lecture de toutes les stats)
-        Map<UUID, Long> totals = new HashMap<>();
-        String sql = "SELECT uuid, stats_json FROM player_block_stats";
-        try (Connection c = plugin.getDatabaseManager().getConnection(); PreparedStatement ps = c.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
-            Type type = new TypeToken<Map<String, Long>>() {
-            }.getType();
-            while (rs.next()) {
-                UUID id = UUID.fromString(rs.getString("uuid"));
-                Map<String, Long> map = gson.fromJson(rs.getString("stats_json"), type);
-                if (map == null) continue;
-                Long v = map.get(mat.name());
-                if (v != null && v > 0) totals.put(id, v);
+        Leaderboard leaderboard = leaderboards.get(mat);
+        if (leaderboard == null) return List.of();
+        List<Map.Entry<UUID, Long>> entries = leaderboard.entries;
+        return entries.size() > top ? entries.subList(0, top) : entries;
+    }
+
+    private Leaderboard leaderboard(Material mat) {
+        return leaderboards.computeIfAbsent(mat, m -> new Leaderboard());
+    }
+
+    private void startLeaderboardRefresh() {
+        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+            if (!countsTableMigrated) {
+                countsTableMigrated = migrateCountsTable();
+            }
+            refreshLeaderboards();
+        }, 20L, LEADERBOARD_REFRESH_TICKS);
+    }
+
+    /**
+     * Recharge les classements depuis la base puis y repropose les totaux des joueurs en ligne,
+     * plus récents que leur dernière sauvegarde.
+     * Les matériaux distincts sont parcourus de proche en proche dans l'index (material, count DESC), puis
+     * chaque top est lu par un ORDER BY count DESC LIMIT sur ce même index : la table n'est jamais triée en entier.
+     */
+    private void refreshLeaderboards() {
+        Map<Material, List<Map.Entry<UUID, Long>>> loaded = new HashMap<>();
+        String sql = """
+                WITH RECURSIVE materials AS (
+                    SELECT MIN(material) AS material FROM player_block_counts
+                    UNION ALL
+                    SELECT (SELECT MIN(material) FROM player_block_counts WHERE material > m.material)
+                    FROM materials m WHERE m.material IS NOT NULL
+                )
+                SELECT m.material, top.uuid, top.count FROM materials m
+                CROSS JOIN LATERAL (
+                    SELECT uuid, count FROM player_block_counts
+                    WHERE material = m.material
+                    ORDER BY count DESC LIMIT ?
+                ) top
+                WHERE m.material IS NOT NULL
+                """;
+        try (Connection c = plugin.getDatabaseManager().getConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, LEADERBOARD_SIZE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Material mat = Material.getMaterial(rs.getString("material"));
+                    if (mat == null) continue;
+                    loaded.computeIfAbsent(mat, m -> new ArrayList<>())
+                            .add(Map.entry(UUID.fromString(rs.getString("uuid")), rs.getLong("count")));
+                }
             }
         } catch (SQLException e) {
-            plugin.getLogger().warning("getTopFor error: " + e.getMessage());
+            plugin.getLogger().warning("refresh block leaderboards error: " + e.getMessage());
+            return;
+        }
+
+        for (Material mat : leaderboards.keySet()) {
+            if (!loaded.containsKey(mat)) leaderboard(mat).replace(List.of());
+        }
+        for (var entry : loaded.entrySet()) {
+            leaderboard(entry.getKey()).replace(entry.getValue());
+        }
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            PlayerData data = plugin.getPlayerDataManager().getPlayerDataIfLoaded(player.getUniqueId());
+            if (data == null || !data.getBlocksMinedByType().isLoaded()) continue;
+            for (var entry : data.getBlocksMinedByType().toMap().entrySet()) {
+                leaderboard(entry.getKey()).offer(player.getUniqueId(), entry.getValue());
+            }
         }
-        List<Map.Entry<UUID, Long>> list = new ArrayList<>(totals.entrySet());
-        list.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
-        if (list.size() > top) return list.subList(0, top);
-        return list;
     }
 
-    public void save(UUID playerId) {
-        Map<Material, Long> map = cache.get(playerId);
-        if (map != null) {
-            Map<String, Long> s = new HashMap<>();
-            for (var e : map.entrySet()) s.put(e.getKey().name(), e.getValue());
-            String sql = """
-                    INSERT INTO player_block_stats(uuid, stats_json) VALUES(?,?)
-                    ON CONFLICT (uuid) DO UPDATE SET stats_json = EXCLUDED.stats_json
-                    """;
-            try (Connection c = plugin.getDatabaseManager().getConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
-                ps.setString(1, playerId.toString());
-                ps.setString(2, gson.toJson(s));
-                ps.executeUpdate();
+    /**
+     * Remplit une fois la table normalisée depuis les documents JSON existants.
+     * Le marqueur de migration et la recopie sont validés dans une même transaction : un échec ne marque rien,
+     * et les lignes déjà écrites par des sauvegardes (plus récentes) sont conservées.
+     * Retourne true si la migration est faite (maintenant ou lors d'un démarrage précédent).
+     */
+    private boolean migrateCountsTable() {
+        String marker = "INSERT INTO schema_migrations(id, applied_at) VALUES(?, ?) ON CONFLICT (id) DO NOTHING";
+        String backfill = """
+                INSERT INTO player_block_counts(uuid, material, count)
+                SELECT s.uuid, stats.key, stats.value::numeric::bigint
+                FROM (SELECT uuid, stats_json::json AS stats_json FROM player_block_stats WHERE stats_json LIKE '{%') s
+                CROSS JOIN LATERAL json_each_text(s.stats_json) stats
+                WHERE stats.value::numeric > 0
+                ON CONFLICT (uuid, material) DO NOTHING
+                """;
+        try (Connection c = plugin.getDatabaseManager().getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                int rows;
+                try (PreparedStatement ps = c.prepareStatement(marker)) {
+                    ps.setString(1, COUNTS_MIGRATION_ID);
+                    ps.setLong(2, System.currentTimeMillis());
+                    if (ps.executeUpdate() == 0) {
+                        c.rollback();
+                        return true; // Déjà migrée
+                    }
+                }
+                try (PreparedStatement ps = c.prepareStatement(backfill)) {
+                    rows = ps.executeUpdate();
+                }
+                c.commit();
+                if (rows > 0) {
+                    plugin.getLogger().info("Collectionneur: " + rows + " compteurs migrés vers player_block_counts");
+                }
+                return true;
             } catch (SQLException e) {
-                plugin.getLogger().warning("save block stats error: " + e.getMessage());
+                c.rollback();
+                throw e;
             }
+        } catch (SQLException e) {
+            plugin.getLogger().warning("migrate block counts error: " + e.getMessage());
+            return false;
         }
+    }
 
-        // Sauvegarde des paliers réclamés
+    /**
+     * Écrit sans attendre les totaux et paliers du joueur (écriture différée par le ProgressStore)
+     */
+    public void save(UUID playerId) {
+        plugin.getProgressStore().markDirty(playerId, ProgressStore.Section.BLOCK_COLLECTOR);
+        plugin.getProgressStore().flush(playerId);
+    }
+
+    /**
+     * Charge totaux et paliers réclamés depuis AsyncPlayerPreLoginEvent (après le préchargement du PlayerData)
+     */
+    public void preload(UUID playerId) {
+        counters(playerId);
+        claimedCache.computeIfAbsent(playerId, this::loadClaimsMap);
+    }
+
+    /**
+     * Retire les paliers réclamés du cache (déconnexion, après flushOnQuit)
+     */
+    public void unload(UUID playerId) {
+        claimedCache.remove(playerId);
+    }
+
+    /**
+     * Copie des totaux et paliers d'un joueur en cache, pour écriture hors du thread principal
+     */
+    CollectorSnapshot snapshot(UUID playerId) {
+        PlayerData data = plugin.getPlayerDataManager().getPlayerDataIfLoaded(playerId);
+        Map<String, Long> counts = data != null && data.getBlocksMinedByType().isLoaded()
+                ? data.getBlocksMinedByType().toNameMap() : null;
+
+        Map<String, Integer> claims = null;
         Map<Material, Integer> claimed = claimedCache.get(playerId);
         if (claimed != null) {
-            Map<String, Integer> s = new HashMap<>();
-            for (var e : claimed.entrySet()) s.put(e.getKey().name(), e.getValue());
-            String sql = """
-                    INSERT INTO player_block_claims(uuid, claims_json) VALUES(?,?)
-                    ON CONFLICT (uuid) DO UPDATE SET claims_json = EXCLUDED.claims_json
-                    """;
-            try (Connection c = plugin.getDatabaseManager().getConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
-                ps.setString(1, playerId.toString());
-                ps.setString(2, gson.toJson(s));
-                ps.executeUpdate();
-            } catch (SQLException e) {
-                plugin.getLogger().warning("save block claims error: " + e.getMessage());
+            claims = new HashMap<>();
+            for (var e : claimed.entrySet()) claims.put(e.getKey().name(), e.getValue());
+        }
+        return counts == null && claims == null ? null : new CollectorSnapshot(playerId, counts, claims);
+    }
+
+    /**
+     * Écrit un lot de totaux (document JSON et table normalisée) et de paliers (thread du ProgressStore)
+     */
+    void writeSnapshots(Connection c, List<CollectorSnapshot> snapshots) throws SQLException {
+        String statsSql = """
+                INSERT INTO player_block_stats(uuid, stats_json) VALUES(?,?)
+                ON CONFLICT (uuid) DO UPDATE SET stats_json = EXCLUDED.stats_json
+                """;
+        String countsSql = """
+                INSERT INTO player_block_counts(uuid, material, count) VALUES(?,?,?)
+                ON CONFLICT (uuid, material) DO UPDATE SET count = EXCLUDED.count
+                """;
+        String claimsSql = """
+                INSERT INTO player_block_claims(uuid, claims_json) VALUES(?,?)
+                ON CONFLICT (uuid) DO UPDATE SET claims_json = EXCLUDED.claims_json
+                """;
+        try (PreparedStatement stats = c.prepareStatement(statsSql);
+             PreparedStatement counts = c.prepareStatement(countsSql);
+             PreparedStatement claims = c.prepareStatement(claimsSql)) {
+            for (CollectorSnapshot snapshot : snapshots) {
+                String uuid = snapshot.playerId().toString();
+                if (snapshot.counts() != null) {
+                    stats.setString(1, uuid);
+                    stats.setString(2, gson.toJson(snapshot.counts()));
+                    stats.addBatch();
+                    for (var e : snapshot.counts().entrySet()) {
+                        counts.setString(1, uuid);
+                        counts.setString(2, e.getKey());
+                        counts.setLong(3, e.getValue());
+                        counts.addBatch();
+                    }
+                }
+                if (snapshot.claims() != null) {
+                    claims.setString(1, uuid);
+                    claims.setString(2, gson.toJson(snapshot.claims()));
+                    claims.addBatch();
+                }
             }
+            stats.executeBatch();
+            counts.executeBatch();
+            claims.executeBatch();
         }
     }
 
-    private Map<Material, Long> loadMap(UUID playerId) {
+    private Map<String, Long> loadMap(UUID playerId) {
         String sql = "SELECT stats_json FROM player_block_stats WHERE uuid = ?";
         try (Connection c = plugin.getDatabaseManager().getConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setString(1, playerId.toString());
@@ -168,22 +352,15 @@ public class BlockCollectorManager {
                     Type type = new TypeToken<Map<String, Long>>() {
                     }.getType();
                     Map<String, Long> s = gson.fromJson(rs.getString("stats_json"), type);
-                    Map<Material, Long> map = new ConcurrentHashMap<>();
-                    if (s != null) for (var e : s.entrySet()) {
-                        try {
-                            map.put(Material.valueOf(e.getKey()), e.getValue());
-                        } catch (Exception ignored) {
-                        }
-                    }
                     // Précharge aussi les paliers réclamés
                     claimedCache.computeIfAbsent(playerId, this::loadClaimsMap);
-                    return map;
+                    return s;
                 }
             }
         } catch (SQLException e) {
             plugin.getLogger().warning("load block stats error: " + e.getMessage());
         }
-        return new ConcurrentHashMap<>();
+        return null;
     }
 
     private Map<Material, Integer> loadClaimsMap(UUID playerId) {
@@ -251,6 +428,35 @@ public class BlockCollectorManager {
             plugin.getLogger().severe("BlockCollectorManager table error: " + e.getMessage());
         }
 
+        // Table normalisée des totaux, indexée pour les classements par matériau
+        String q3 = """
+                CREATE TABLE IF NOT EXISTS player_block_counts (
+                    uuid VARCHAR(36) NOT NULL,
+                    material VARCHAR(64) NOT NULL,
+                    count BIGINT NOT NULL,
+                    PRIMARY KEY (uuid, material)
+                );
+                CREATE INDEX IF NOT EXISTS idx_player_block_counts_top ON player_block_counts (material, count DESC);
+                """;
+        try (Connection c = plugin.getDatabaseManager().getConnection(); PreparedStatement ps = c.prepareStatement(q3)) {
+            ps.execute();
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Block counts table error: " + e.getMessage());
+        }
+
+        // Migrations de données déjà appliquées
+        String q4 = """
+                CREATE TABLE IF NOT EXISTS schema_migrations (
+                    id VARCHAR(64) PRIMARY KEY,
+                    applied_at BIGINT NOT NULL
+                );
+                """;
+        try (Connection c = plugin.getDatabaseManager().getConnection(); PreparedStatement ps = c.prepareStatement(q4)) {
+            ps.execute();
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Schema migrations table error: " + e.getMessage());
+        }
+
         // Nouvelle table: paliers réclamés
         String q2 = """
                 CREATE TABLE IF NOT EXISTS player_block_claims (
@@ -264,6 +470,46 @@ public class BlockCollectorManager {
             plugin.getLogger().severe("Block claims table error: " + e.getMessage());
         }
     }
-}
 
+    /**
+     * Classement d'un matériau : liste triée immuable, republiée à chaque changement.
+     * Un total inférieur au dernier du classement plein est écarté sans verrou.
+     */
+    private static final class Leaderboard {
+        private volatile List<Map.Entry<UUID, Long>> entries = List.of();
+        private volatile long threshold = 0;
+
+        void offer(UUID playerId, long total) {
+            if (total <= threshold) return;
+            synchronized (this) {
+                List<Map.Entry<UUID, Long>> updated = new ArrayList<>(entries.size() + 1);
+                for (Map.Entry<UUID, Long> entry : entries) {
+                    if (!entry.getKey().equals(playerId)) {
+                        updated.add(entry);
+                    } else if (entry.getValue() >= total) {
+                        return;
+                    }
+                }
+                updated.add(Map.entry(playerId, total));
+                publish(updated);
+            }
+        }
 
+        synchronized void replace(List<Map.Entry<UUID, Long>> loaded) {
+            publish(new ArrayList<>(loaded));
+        }
+
+        private void publish(List<Map.Entry<UUID, Long>> updated) {
+            updated.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+            if (updated.size() > LEADERBOARD_SIZE) updated.subList(LEADERBOARD_SIZE, updated.size()).clear();
+            entries = List.copyOf(updated);
+            threshold = updated.size() >= LEADERBOARD_SIZE ? updated.get(LEADERBOARD_SIZE - 1).getValue() : 0;
+        }
+    }
+
+    /**
+     * Copie des totaux (null si non chargés) et paliers réclamés (null si non chargés) d'un joueur
+     */
+    record CollectorSnapshot(UUID playerId, Map<String, Long> counts, Map<String, Integer> claims) {
+    }
+}
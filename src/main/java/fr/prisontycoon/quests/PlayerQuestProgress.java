@@ -1,8 +1,11 @@
 package fr.prisontycoon.quests;
 
 import java.time.LocalDate;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -12,6 +15,8 @@ public class PlayerQuestProgress {
     private final UUID playerId;
     private final Map<String, Integer> progressByQuest = new HashMap<>(); // questId -> progress
     private final Map<String, Boolean> claimedByQuest = new HashMap<>();  // questId -> claimed
+    // Quêtes actives (présentes dans progressByQuest), par index du QuestManager ; reconstruit par celui-ci
+    private final BitSet activeQuests = new BitSet();
 
     private LocalDate dailyDate;   // reset quotidien
     private int dailyCompletedCount;
@@ -104,6 +109,17 @@ public class PlayerQuestProgress {
         return weeklyCompletedCount;
     }
 
+    /**
+     * Identifiants des quêtes actives, sans copie (lecture seule)
+     */
+    public Set<String> getActiveQuestIds() {
+        return Collections.unmodifiableSet(progressByQuest.keySet());
+    }
+
+    BitSet getActiveQuests() {
+        return activeQuests;
+    }
+
     /**
      * Retourne une copie immuable de la progression par quête pour persistance
      */
@@ -0,0 +1,189 @@
+package fr.prisontycoon.quests;
+
+import fr.prisontycoon.PrisonTycoon;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistance différée (write-behind) des quêtes et du collectionneur de blocs
+ * <p>
+ * Les modifications marquent une section du joueur comme sale. Toutes les 30 secondes, à la déconnexion et à
+ * l'arrêt, les sections sales sont copiées sur le thread principal puis écrites par lots sur un thread dédié.
+ * Les données sont chargées sur AsyncPlayerPreLoginEvent : pour un joueur connecté, aucun de ces systèmes
+ * n'accède à la base depuis le thread principal. Le Pass de Combat lit la progression des quêtes déjà en cache.
+ */
+public class ProgressStore {
+
+    private static final long FLUSH_INTERVAL_TICKS = 20L * 30;
+
+    public enum Section {
+        QUESTS,
+        BLOCK_COLLECTOR;
+
+        private final int mask = 1 << ordinal();
+    }
+
+    private final PrisonTycoon plugin;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "PrisonTycoon-ProgressStore");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Sections sales par joueur (masque de Section)
+    private final Map<UUID, AtomicInteger> dirty = new ConcurrentHashMap<>();
+
+    private final AtomicLong queuedWrites = new AtomicLong();
+    private final AtomicLong flushedWrites = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    private final AtomicLong flushBatches = new AtomicLong();
+
+    public ProgressStore(PrisonTycoon plugin) {
+        this.plugin = plugin;
+        startFlushTask();
+    }
+
+    /**
+     * Marque une section du joueur à écrire au prochain flush
+     */
+    public void markDirty(UUID playerId, Section section) {
+        AtomicInteger flags = dirty.get(playerId);
+        if (flags == null) {
+            flags = dirty.computeIfAbsent(playerId, id -> new AtomicInteger());
+        }
+        if ((flags.get() & section.mask) != 0) return;
+        if ((flags.getAndUpdate(current -> current | section.mask) & section.mask) == 0) {
+            queuedWrites.incrementAndGet();
+        }
+    }
+
+    private void startFlushTask() {
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                flush(new ArrayList<>(dirty.keySet()));
+                // Marques arrivées après flushOnQuit (tâches asynchrones) : le joueur n'a plus rien à écrire
+                dirty.entrySet().removeIf(entry -> entry.getValue().get() == 0
+                        && plugin.getServer().getPlayer(entry.getKey()) == null);
+            }
+        }.runTaskTimer(plugin, FLUSH_INTERVAL_TICKS, FLUSH_INTERVAL_TICKS);
+    }
+
+    /**
+     * Écrit sans attendre les sections sales d'un joueur (après une récompense réclamée, par exemple)
+     */
+    public void flush(UUID playerId) {
+        flush(List.of(playerId));
+    }
+
+    /**
+     * Déconnexion : écrit les sections sales du joueur puis l'oublie.
+     * À appeler avant le déchargement de ses données (PlayerData, cache des quêtes).
+     */
+    public void flushOnQuit(UUID playerId) {
+        flush(playerId);
+        dirty.remove(playerId);
+    }
+
+    /**
+     * Copie les sections sales sur le thread appelant, puis les écrit par lots sur le thread dédié.
+     * Le drapeau est remis à zéro avant la copie : une modification concurrente est soit copiée, soit remarquée.
+     */
+    private void flush(List<UUID> playerIds) {
+        List<QuestManager.ProgressSnapshot> quests = new ArrayList<>();
+        List<BlockCollectorManager.CollectorSnapshot> collector = new ArrayList<>();
+
+        for (UUID playerId : playerIds) {
+            AtomicInteger flags = dirty.get(playerId);
+            if (flags == null) continue;
+            int sections = flags.getAndSet(0);
+            if ((sections & Section.QUESTS.mask) != 0) {
+                QuestManager.ProgressSnapshot snapshot = plugin.getQuestManager().snapshotProgress(playerId);
+                if (snapshot != null) quests.add(snapshot);
+            }
+            if ((sections & Section.BLOCK_COLLECTOR.mask) != 0) {
+                BlockCollectorManager.CollectorSnapshot snapshot = plugin.getBlockCollectorManager().snapshot(playerId);
+                if (snapshot != null) collector.add(snapshot);
+            }
+        }
+        if (quests.isEmpty() && collector.isEmpty()) return;
+
+        writer.execute(() -> write(quests, collector));
+    }
+
+    private void write(List<QuestManager.ProgressSnapshot> quests, List<BlockCollectorManager.CollectorSnapshot> collector) {
+        try (Connection connection = plugin.getDatabaseManager().getConnection()) {
+            if (!quests.isEmpty()) {
+                plugin.getQuestManager().writeProgress(connection, quests);
+                flushedWrites.addAndGet(quests.size());
+            }
+            if (!collector.isEmpty()) {
+                plugin.getBlockCollectorManager().writeSnapshots(connection, collector);
+                flushedWrites.addAndGet(collector.size());
+            }
+            flushBatches.incrementAndGet();
+        } catch (SQLException e) {
+            failedWrites.addAndGet(quests.size() + collector.size());
+            plugin.getLogger().warning("Écriture différée quêtes/collectionneur échouée: " + e.getMessage());
+            // Les joueurs encore en cache seront recopiés au prochain flush
+            quests.forEach(snapshot -> markDirty(snapshot.playerId(), Section.QUESTS));
+            collector.forEach(snapshot -> markDirty(snapshot.playerId(), Section.BLOCK_COLLECTOR));
+        }
+    }
+
+    /**
+     * Attend la fin des écritures déjà programmées : un joueur qui se reconnecte relit ses dernières données.
+     * Appelé depuis AsyncPlayerPreLoginEvent uniquement.
+     */
+    public void awaitPendingWrites() {
+        try {
+            writer.submit(() -> {
+            }).get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            plugin.getLogger().warning("Attente des écritures différées interrompue: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Arrêt du serveur : écrit tout ce qui est sale et attend la fin des écritures
+     */
+    public void shutdown() {
+        flush(new ArrayList<>(dirty.keySet()));
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Écritures différées non terminées à l'arrêt");
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        plugin.getLogger().info("Écritures différées: " + getStatistics());
+    }
+
+    public String getStatistics() {
+        return String.format("%d en file, %d écrites en %d lots, %d échouées, %d joueurs sales",
+                queuedWrites.get(), flushedWrites.get(), flushBatches.get(), failedWrites.get(),
+                dirty.values().stream().filter(flags -> flags.get() != 0).count());
+    }
+
+    public long getQueuedWrites() {
+        return queuedWrites.get();
+    }
+
+    public long getFlushedWrites() {
+        return flushedWrites.get();
+    }
+}
@@ -9,6 +9,7 @@ import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
 
 import java.io.File;
 import java.io.IOException;
@@ -24,11 +25,20 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * Gestionnaire des quêtes (chargement, progression, récompenses).
  * Optimisé et configurable.
+ * Les quêtes sont indexées par type et par position au chargement ; les incréments de progression sont
+ * cumulés par joueur et par type, puis appliqués une fois par tick aux seules quêtes actives du joueur.
+ * La progression est chargée à la connexion et écrite par le ProgressStore (écriture différée).
  */
 public class QuestManager {
+    private static final QuestType[] QUEST_TYPES = QuestType.values();
     private final PrisonTycoon plugin;
     private final Map<String, QuestDefinition> quests = new HashMap<>();
+    private final Map<QuestType, QuestDefinition[]> questsByType = new EnumMap<>(QuestType.class);
+    private final Map<String, Integer> questIndex = new HashMap<>();
+    private QuestDefinition[] questsByIndex = new QuestDefinition[0];
     private final Map<UUID, PlayerQuestProgress> cache = new ConcurrentHashMap<>();
+    // Incréments en attente du prochain tick : joueur -> montant par QuestType.ordinal()
+    private final Map<UUID, int[]> pendingProgress = new ConcurrentHashMap<>();
     private final Gson gson = new Gson();
     private File questsFile;
     private FileConfiguration questsConfig;
@@ -38,6 +48,7 @@ public class QuestManager {
         ensureTables();
         loadConfig();
         loadQuestsFromConfig();
+        startProgressFlushTask();
     }
 
     private void ensureTables() {
@@ -107,6 +118,34 @@ public class QuestManager {
         if (pass != null) {
             loadCategory(pass, QuestCategory.PASS);
         }
+        buildIndexes();
+    }
+
+    /**
+     * Index des quêtes chargées : position de chaque quête (bitsets des joueurs) et quêtes par type
+     */
+    private void buildIndexes() {
+        questIndex.clear();
+        questsByType.clear();
+        questsByIndex = quests.values().toArray(new QuestDefinition[0]);
+        Map<QuestType, List<QuestDefinition>> byType = new EnumMap<>(QuestType.class);
+        for (int i = 0; i < questsByIndex.length; i++) {
+            questIndex.put(questsByIndex[i].getId(), i);
+            byType.computeIfAbsent(questsByIndex[i].getType(), t -> new ArrayList<>()).add(questsByIndex[i]);
+        }
+        byType.forEach((type, list) -> questsByType.put(type, list.toArray(new QuestDefinition[0])));
+    }
+
+    /**
+     * Reconstruit le bitset des quêtes actives d'un joueur à partir de sa progression
+     */
+    private void rebuildActiveQuests(PlayerQuestProgress progress) {
+        BitSet active = progress.getActiveQuests();
+        active.clear();
+        for (String qid : progress.getActiveQuestIds()) {
+            Integer index = questIndex.get(qid);
+            if (index != null) active.set(index);
+        }
     }
 
     private void loadCategory(ConfigurationSection section, QuestCategory category) {
@@ -185,6 +224,8 @@ public class QuestManager {
 
     public PlayerQuestProgress getProgress(UUID playerId) {
         PlayerQuestProgress p = cache.computeIfAbsent(playerId, this::loadProgress);
+        int[] pending = pendingProgress.remove(playerId);
+        if (pending != null) applyProgress(p, pending);
         boolean changed = false;
         // Garantit qu'un set actif est présent (résilience si passage de jour/semaine)
         changed |= ensureActiveQuestsForCategory(p, QuestCategory.DAILY, 7);
@@ -196,16 +237,25 @@ public class QuestManager {
     }
 
     /**
-     * Variante interne qui ne déclenche jamais de (re-)sélection.
-     * Utilisée pour les ajouts de progression afin de ne pas commencer une quête automatiquement.
+     * Progression déjà en cache, sans chargement ni sélection (null si le joueur n'est pas chargé)
      */
-    private PlayerQuestProgress getProgressNoAutoselect(UUID playerId) {
-        PlayerQuestProgress p = cache.get(playerId);
-        if (p == null) {
-            p = loadProgress(playerId);
-            cache.put(playerId, p);
-        }
-        return p;
+    public PlayerQuestProgress getLoadedProgress(UUID playerId) {
+        return cache.get(playerId);
+    }
+
+    /**
+     * Charge la progression depuis AsyncPlayerPreLoginEvent (thread asynchrone)
+     */
+    public void preloadProgress(UUID playerId) {
+        cache.computeIfAbsent(playerId, this::loadProgress);
+    }
+
+    /**
+     * Retire la progression du cache (déconnexion, après flushOnQuit)
+     */
+    public void unloadProgress(UUID playerId) {
+        pendingProgress.remove(playerId);
+        cache.remove(playerId);
     }
 
     private PlayerQuestProgress loadProgress(UUID playerId) {
@@ -221,6 +271,7 @@ public class QuestManager {
                     Map<String, Boolean> claimed = gson.fromJson(rs.getString("claimed_json"), new TypeToken<Map<String, Boolean>>() {
                     }.getType());
                     if (progress != null) progress.forEach(p::set);
+                    rebuildActiveQuests(p);
                     if (claimed != null) claimed.forEach((k, v) -> {
                         if (Boolean.TRUE.equals(v)) p.setClaimed(k);
                     });
@@ -275,54 +326,123 @@ public class QuestManager {
         return p;
     }
 
+    /**
+     * Programme l'écriture de la progression (écriture différée par le ProgressStore)
+     */
     public void saveProgress(PlayerQuestProgress p) {
-        try (Connection c = plugin.getDatabaseManager().getConnection()) {
-            String sql = """
-                    INSERT INTO player_quests(uuid, progress_json, claimed_json, daily_date, daily_completed, weekly_start, weekly_completed)
-                    VALUES(?,?,?,?,?,?,?)
-                    ON CONFLICT (uuid) DO UPDATE SET
-                        progress_json = EXCLUDED.progress_json,
-                        claimed_json = EXCLUDED.claimed_json,
-                        daily_date = EXCLUDED.daily_date,
-                        daily_completed = EXCLUDED.daily_completed,
-                        weekly_start = EXCLUDED.weekly_start,
-                        weekly_completed = EXCLUDED.weekly_completed
-                    """;
-            try (PreparedStatement ps = c.prepareStatement(sql)) {
-                Map<String, Integer> progress = p.getAllProgress();
-                Map<String, Boolean> claimed = p.getAllClaimed();
-                ps.setString(1, p.getPlayerId().toString());
-                ps.setString(2, gson.toJson(progress));
-                ps.setString(3, gson.toJson(claimed));
+        plugin.getProgressStore().markDirty(p.getPlayerId(), ProgressStore.Section.QUESTS);
+    }
+
+    /**
+     * Copie de la progression d'un joueur en cache, pour écriture hors du thread principal
+     */
+    ProgressSnapshot snapshotProgress(UUID playerId) {
+        PlayerQuestProgress p = cache.get(playerId);
+        if (p == null) return null;
+        int[] pending = pendingProgress.remove(playerId);
+        if (pending != null) applyProgress(p, pending);
+        return new ProgressSnapshot(playerId, p.getAllProgress(), p.getAllClaimed(),
+                p.getDailyCompletedCount(), p.getWeeklyCompletedCount());
+    }
+
+    /**
+     * Écrit un lot de progressions (thread du ProgressStore)
+     */
+    void writeProgress(Connection c, List<ProgressSnapshot> snapshots) throws SQLException {
+        String sql = """
+                INSERT INTO player_quests(uuid, progress_json, claimed_json, daily_date, daily_completed, weekly_start, weekly_completed)
+                VALUES(?,?,?,?,?,?,?)
+                ON CONFLICT (uuid) DO UPDATE SET
+                    progress_json = EXCLUDED.progress_json,
+                    claimed_json = EXCLUDED.claimed_json,
+                    daily_date = EXCLUDED.daily_date,
+                    daily_completed = EXCLUDED.daily_completed,
+                    weekly_start = EXCLUDED.weekly_start,
+                    weekly_completed = EXCLUDED.weekly_completed
+                """;
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (ProgressSnapshot snapshot : snapshots) {
+                ps.setString(1, snapshot.playerId().toString());
+                ps.setString(2, gson.toJson(snapshot.progress()));
+                ps.setString(3, gson.toJson(snapshot.claimed()));
                 ps.setString(4, LocalDate.now().toString());
-                ps.setInt(5, p.getDailyCompletedCount());
+                ps.setInt(5, snapshot.dailyCompleted());
                 ps.setString(6, LocalDate.now().with(java.time.DayOfWeek.MONDAY).toString());
-                ps.setInt(7, p.getWeeklyCompletedCount());
-                ps.executeUpdate();
+                ps.setInt(7, snapshot.weeklyCompleted());
+                ps.addBatch();
             }
-        } catch (SQLException e) {
-            plugin.getLogger().warning("saveProgress error: " + e.getMessage());
+            ps.executeBatch();
         }
     }
 
     // API d’incrément robustes
+
+    /**
+     * Cumule un incrément de progression ; il est appliqué au prochain tick (ou à la prochaine lecture
+     * de la progression du joueur). Ignoré pour un joueur dont la progression n'est pas en cache
+     * (pas encore chargé ou déjà déconnecté : appels depuis les tâches asynchrones).
+     */
     public void addProgress(Player player, QuestType type, int amount) {
-        if (amount <= 0) return;
-        UUID id = player.getUniqueId();
-        PlayerQuestProgress p = getProgressNoAutoselect(id);
+        if (amount <= 0 || !questsByType.containsKey(type) || !cache.containsKey(player.getUniqueId())) return;
+        pendingProgress.compute(player.getUniqueId(), (id, amounts) -> {
+            if (amounts == null) amounts = new int[QUEST_TYPES.length];
+            amounts[type.ordinal()] = (int) Math.min(Integer.MAX_VALUE, (long) amounts[type.ordinal()] + amount);
+            return amounts;
+        });
+    }
+
+    private void startProgressFlushTask() {
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                flushPendingProgress();
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    /**
+     * Applique sans attendre les incréments en attente d'un joueur (avant sa déconnexion)
+     */
+    public void applyPendingProgress(UUID playerId) {
+        int[] pending = pendingProgress.remove(playerId);
+        PlayerQuestProgress p = cache.get(playerId);
+        if (pending != null && p != null) applyProgress(p, pending);
+    }
+
+    /**
+     * Applique les incréments cumulés depuis le dernier tick.
+     * Ceux d'un joueur déjà déchargé sont abandonnés : jamais de chargement depuis le thread principal.
+     */
+    public void flushPendingProgress() {
+        if (pendingProgress.isEmpty()) return;
+        for (UUID playerId : pendingProgress.keySet()) {
+            int[] amounts = pendingProgress.remove(playerId);
+            PlayerQuestProgress p = cache.get(playerId);
+            if (amounts != null && p != null) applyProgress(p, amounts);
+        }
+    }
+
+    /**
+     * Applique des incréments par type aux seules quêtes actives du joueur
+     */
+    private void applyProgress(PlayerQuestProgress p, int[] amounts) {
         p.resetDailyIfNeeded();
         p.resetWeeklyIfNeeded();
 
-        for (QuestDefinition q : quests.values()) {
-            if (q.getType() != type) continue;
-            String qid = q.getId();
-            // Restreindre aux quêtes actives (présentes dans la map de progression)
-            if (!p.getAllProgress().containsKey(qid)) continue;
-            int current = p.get(qid);
+        boolean changed = false;
+        BitSet active = p.getActiveQuests();
+        for (int i = active.nextSetBit(0); i >= 0; i = active.nextSetBit(i + 1)) {
+            QuestDefinition q = questsByIndex[i];
+            int amount = amounts[q.getType().ordinal()];
+            if (amount <= 0) continue;
+            int current = p.get(q.getId());
             if (current >= q.getTarget()) continue; // déjà suffisant
-            p.set(qid, Math.min(q.getTarget(), current + amount));
+            p.set(q.getId(), (int) Math.min(q.getTarget(), (long) current + amount));
+            changed = true;
+        }
+        if (changed) {
+            saveProgress(p);
         }
-        cache.put(id, p);
     }
 
     public boolean claim(Player player, String questId) {
@@ -335,8 +455,9 @@ public class QuestManager {
         if (q.getCategory() == QuestCategory.DAILY) p.incDailyCompleted();
         if (q.getCategory() == QuestCategory.WEEKLY) p.incWeeklyCompleted();
         cache.put(player.getUniqueId(), p);
-        // Sauvegarde immédiate après claim pour résilience (crash/déconnexion)
+        // Écriture immédiate après claim pour résilience (crash/déconnexion)
         saveProgress(p);
+        plugin.getProgressStore().flush(player.getUniqueId());
         // Ajouter des points de Pass
         int bp = q.getBattlePassPoints();
         if (bp > 0) {
@@ -396,6 +517,7 @@ public class QuestManager {
             progress.clearClaimed(qid);
             if (before == null) changed = true;
         }
+        rebuildActiveQuests(progress);
         return changed;
     }
 
@@ -430,6 +552,11 @@ public class QuestManager {
         result.sort(Comparator.comparing(QuestDefinition::getId));
         return result;
     }
-}
-
 
+    /**
+     * Copie de la progression d'un joueur, écrite par le ProgressStore
+     */
+    record ProgressSnapshot(UUID playerId, Map<String, Integer> progress, Map<String, Boolean> claimed,
+                            int dailyCompleted, int weeklyCompleted) {
+    }
+}
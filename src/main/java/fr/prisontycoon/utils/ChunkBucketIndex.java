@@ -0,0 +1,88 @@
+package fr.prisontycoon.utils;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Index spatial modifiable : monde → chunk → éléments posés dans ce chunk
+ * <p>
+ * Pensé pour des objets placés (imprimantes, caisses...) : une recherche de proximité
+ * ne parcourt que les chunks voisins au lieu de tous les éléments du serveur.
+ */
+public class ChunkBucketIndex<T> {
+
+    private final Map<String, Map<Long, Set<T>>> worlds = new ConcurrentHashMap<>();
+
+    /**
+     * Enregistre un élément au chunk contenant la position
+     */
+    public void add(Location location, T value) {
+        World world = location.getWorld();
+        if (world == null) return;
+        worlds.computeIfAbsent(world.getName(), k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(MineSpatialIndex.chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4),
+                        k -> ConcurrentHashMap.newKeySet())
+                .add(value);
+    }
+
+    /**
+     * Retire un élément du chunk contenant la position
+     */
+    public void remove(Location location, T value) {
+        World world = location.getWorld();
+        if (world == null) return;
+        Map<Long, Set<T>> chunks = worlds.get(world.getName());
+        if (chunks == null) return;
+
+        long key = MineSpatialIndex.chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        Set<T> bucket = chunks.get(key);
+        if (bucket != null) {
+            bucket.remove(value);
+            if (bucket.isEmpty()) {
+                chunks.remove(key, bucket);
+            }
+        }
+    }
+
+    /**
+     * Éléments enregistrés dans un chunk (ensemble vide si aucun)
+     */
+    public Set<T> get(String worldName, int chunkX, int chunkZ) {
+        Map<Long, Set<T>> chunks = worlds.get(worldName);
+        if (chunks == null) return Collections.emptySet();
+        Set<T> bucket = chunks.get(MineSpatialIndex.chunkKey(chunkX, chunkZ));
+        return bucket != null ? bucket : Collections.emptySet();
+    }
+
+    /**
+     * Parcourt les éléments des chunks situés à au plus {@code chunkRadius} chunks de la position
+     * (chunkRadius = 1 → voisinage 3x3)
+     */
+    public void forEachNear(Location center, int chunkRadius, Consumer<T> action) {
+        World world = center.getWorld();
+        if (world == null) return;
+        Map<Long, Set<T>> chunks = worlds.get(world.getName());
+        if (chunks == null) return;
+
+        int centerX = center.getBlockX() >> 4;
+        int centerZ = center.getBlockZ() >> 4;
+        for (int dx = -chunkRadius; dx <= chunkRadius; dx++) {
+            for (int dz = -chunkRadius; dz <= chunkRadius; dz++) {
+                Set<T> bucket = chunks.get(MineSpatialIndex.chunkKey(centerX + dx, centerZ + dz));
+                if (bucket != null) {
+                    bucket.forEach(action);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        worlds.clear();
+    }
+}
@@ -0,0 +1,120 @@
+package fr.prisontycoon.utils;
+
+import fr.prisontycoon.data.MineData;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.*;
+
+/**
+ * Index spatial des mines par monde et par chunk
+ * <p>
+ * Chaque mine est enregistrée dans tous les chunks (16x16) que couvre sa région.
+ * La recherche d'une mine pour une position se fait donc en O(1) : une lecture
+ * monde → chunk, puis un test de bornes sur les (rares) mines qui partagent ce chunk.
+ * L'index est immuable : il est reconstruit entièrement à chaque rechargement des mines.
+ */
+public class MineSpatialIndex {
+
+    private static final MineData[] EMPTY = new MineData[0];
+
+    // Monde → (clé de chunk → mines couvrant ce chunk)
+    private final Map<String, Map<Long, MineData[]>> worlds;
+    private final int mineCount;
+
+    private MineSpatialIndex(Map<String, Map<Long, MineData[]>> worlds, int mineCount) {
+        this.worlds = worlds;
+        this.mineCount = mineCount;
+    }
+
+    /**
+     * Construit l'index à partir des mines configurées
+     */
+    public static MineSpatialIndex build(Collection<MineData> mines) {
+        Map<String, Map<Long, List<MineData>>> building = new HashMap<>();
+
+        for (MineData mine : mines) {
+            if (mine.getWorldName() == null) continue;
+
+            Map<Long, List<MineData>> chunks = building.computeIfAbsent(mine.getWorldName(), k -> new HashMap<>());
+            int minChunkX = mine.getMinX() >> 4;
+            int maxChunkX = mine.getMaxX() >> 4;
+            int minChunkZ = mine.getMinZ() >> 4;
+            int maxChunkZ = mine.getMaxZ() >> 4;
+
+            for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+                for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+                    chunks.computeIfAbsent(chunkKey(cx, cz), k -> new ArrayList<>(1)).add(mine);
+                }
+            }
+        }
+
+        Map<String, Map<Long, MineData[]>> frozen = new HashMap<>();
+        for (Map.Entry<String, Map<Long, List<MineData>>> worldEntry : building.entrySet()) {
+            Map<Long, MineData[]> chunks = new HashMap<>(worldEntry.getValue().size() * 2);
+            for (Map.Entry<Long, List<MineData>> chunkEntry : worldEntry.getValue().entrySet()) {
+                chunks.put(chunkEntry.getKey(), chunkEntry.getValue().toArray(EMPTY));
+            }
+            frozen.put(worldEntry.getKey(), chunks);
+        }
+
+        return new MineSpatialIndex(frozen, mines.size());
+    }
+
+    /**
+     * Index vide (aucune mine)
+     */
+    public static MineSpatialIndex empty() {
+        return new MineSpatialIndex(Collections.emptyMap(), 0);
+    }
+
+    /**
+     * Clé de chunk identique à celle de Bukkit (x sur les 32 bits bas, z sur les 32 bits hauts)
+     */
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return (chunkX & 0xFFFFFFFFL) | ((chunkZ & 0xFFFFFFFFL) << 32);
+    }
+
+    /**
+     * Trouve la mine contenant une position, ou null
+     */
+    public MineData find(Location location) {
+        if (location == null) return null;
+        World world = location.getWorld();
+        if (world == null) return null;
+        return find(world.getName(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    /**
+     * Trouve la mine contenant des coordonnées de bloc dans un monde, ou null
+     */
+    public MineData find(String worldName, int x, int y, int z) {
+        Map<Long, MineData[]> chunks = worlds.get(worldName);
+        if (chunks == null) return null;
+
+        MineData[] candidates = chunks.get(chunkKey(x >> 4, z >> 4));
+        if (candidates == null) return null;
+
+        for (MineData mine : candidates) {
+            if (mine.contains(x, y, z)) {
+                return mine;
+            }
+        }
+        return null;
+    }
+
+    public int getMineCount() {
+        return mineCount;
+    }
+
+    /**
+     * Nombre total de cellules (chunk, monde) indexées
+     */
+    public int getIndexedChunkCount() {
+        int total = 0;
+        for (Map<Long, MineData[]> chunks : worlds.values()) {
+            total += chunks.size();
+        }
+        return total;
+    }
+}
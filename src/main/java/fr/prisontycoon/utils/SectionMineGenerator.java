@@ -0,0 +1,281 @@
+package fr.prisontycoon.utils;
+
+import fr.prisontycoon.PrisonTycoon;
+import fr.prisontycoon.data.MineData;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Moteur de régénération de mine par sections de chunk (16x16x16), sans FAWE
+ * <p>
+ * 1. La palette pondérée est précalculée une seule fois (méthode des alias : tirage en O(1)).
+ * 2. Le contenu de chaque section (intersectée avec la région de la mine) est tiré hors du thread principal,
+ * sous forme d'indices de palette (1 octet par bloc).
+ * 3. Les sections sont appliquées chunk par chunk sur le thread principal, avec un budget de temps par tick :
+ * la génération s'interrompt dès que le budget est consommé et reprend au tick suivant, là où elle s'était arrêtée.
+ */
+public class SectionMineGenerator {
+
+    public static final int SECTION_SIZE = 16;
+    // Fréquence de vérification du budget (en blocs) pour limiter les appels à System.nanoTime()
+    private static final int BUDGET_CHECK_INTERVAL = 256;
+
+    private final PrisonTycoon plugin;
+    private final Executor fillExecutor;
+
+    public SectionMineGenerator(PrisonTycoon plugin, Executor fillExecutor) {
+        this.plugin = plugin;
+        this.fillExecutor = fillExecutor;
+    }
+
+    /**
+     * Régénère une mine. Doit être appelé depuis le thread principal.
+     *
+     * @param tickBudgetMs budget (ms) accordé par tick, réévalué à chaque tick (ex. selon le TPS)
+     * @return future complétée sur le thread principal une fois tous les blocs posés
+     */
+    public CompletableFuture<GenerationResult> regenerate(MineData mine, World world, DoubleSupplier tickBudgetMs) {
+        CompletableFuture<GenerationResult> result = new CompletableFuture<>();
+        WeightedPalette palette = WeightedPalette.of(mine.getBlockComposition());
+        long seed = System.nanoTime();
+
+        CompletableFuture.supplyAsync(() -> fillSections(mine, palette, seed), fillExecutor)
+                .whenComplete((filled, ex) -> {
+                    if (ex != null) {
+                        result.completeExceptionally(ex);
+                        return;
+                    }
+                    new BukkitRunnable() {
+                        @Override
+                        public void run() {
+                            startApplying(world, palette, filled, tickBudgetMs, result);
+                        }
+                    }.runTask(plugin);
+                });
+
+        return result;
+    }
+
+    /**
+     * Tire le contenu de toutes les sections de la mine (hors thread principal), regroupées par chunk
+     */
+    private FilledMine fillSections(MineData mine, WeightedPalette palette, long seed) {
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        List<ChunkFill> chunks = new ArrayList<>();
+        long blocks = 0;
+
+        int minChunkX = mine.getMinX() >> 4, maxChunkX = mine.getMaxX() >> 4;
+        int minChunkZ = mine.getMinZ() >> 4, maxChunkZ = mine.getMaxZ() >> 4;
+        int minSectionY = mine.getMinY() >> 4, maxSectionY = mine.getMaxY() >> 4;
+
+        for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+            for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+                List<SectionFill> sections = new ArrayList<>(maxSectionY - minSectionY + 1);
+                for (int sy = minSectionY; sy <= maxSectionY; sy++) {
+                    SectionFill section = SectionFill.clip(mine, cx, sy, cz);
+                    section.fill(palette, random);
+                    blocks += section.indexes.length;
+                    sections.add(section);
+                }
+                chunks.add(new ChunkFill(cx, cz, sections.toArray(new SectionFill[0])));
+            }
+        }
+
+        return new FilledMine(chunks, blocks, System.nanoTime() - start);
+    }
+
+    /**
+     * Applique les sections chunk par chunk, en respectant le budget de temps de chaque tick
+     */
+    private void startApplying(World world, WeightedPalette palette, FilledMine filled,
+                               DoubleSupplier tickBudgetMs, CompletableFuture<GenerationResult> result) {
+        new BukkitRunnable() {
+            private final long startNanos = System.nanoTime();
+            private int chunkIndex = 0;
+            private int sectionIndex = 0;
+            private int blockIndex = 0;
+            private int ticks = 0;
+            private long applyNanos = 0;
+
+            @Override
+            public void run() {
+                try {
+                    ticks++;
+                    long tickStart = System.nanoTime();
+                    long deadline = tickStart + (long) (tickBudgetMs.getAsDouble() * 1_000_000L);
+                    int sinceCheck = 0;
+
+                    while (chunkIndex < filled.chunks.size()) {
+                        ChunkFill chunkFill = filled.chunks.get(chunkIndex);
+                        Chunk chunk = world.getChunkAt(chunkFill.chunkX, chunkFill.chunkZ);
+
+                        while (sectionIndex < chunkFill.sections.length) {
+                            SectionFill section = chunkFill.sections[sectionIndex];
+                            int total = section.indexes.length;
+
+                            while (blockIndex < total) {
+                                int i = blockIndex++;
+                                int lx = section.minX + (i % section.sizeX);
+                                int lz = section.minZ + ((i / section.sizeX) % section.sizeZ);
+                                int y = section.minY + (i / (section.sizeX * section.sizeZ));
+                                chunk.getBlock(lx, y, lz).setBlockData(palette.blockData[section.indexes[i] & 0xFF], false);
+
+                                if (++sinceCheck >= BUDGET_CHECK_INTERVAL) {
+                                    sinceCheck = 0;
+                                    if (System.nanoTime() >= deadline) {
+                                        applyNanos += System.nanoTime() - tickStart;
+                                        return; // reprise au tick suivant
+                                    }
+                                }
+                            }
+                            blockIndex = 0;
+                            sectionIndex++;
+                        }
+                        sectionIndex = 0;
+                        chunkIndex++;
+                    }
+
+                    applyNanos += System.nanoTime() - tickStart;
+                    cancel();
+                    result.complete(new GenerationResult(filled.blocks, filled.fillNanos, applyNanos,
+                            System.nanoTime() - startNanos, ticks));
+                } catch (Exception e) {
+                    cancel();
+                    result.completeExceptionally(e);
+                }
+            }
+        }.runTaskTimer(plugin, 0L, 1L);
+    }
+
+    /**
+     * Résultat d'une régénération (pour les statistiques de débit)
+     *
+     * @param fillNanos  temps de tirage des sections (hors thread principal)
+     * @param applyNanos temps cumulé passé sur le thread principal
+     * @param wallNanos  durée totale de l'application (du premier au dernier tick)
+     */
+    public record GenerationResult(long blocks, long fillNanos, long applyNanos, long wallNanos, int ticks) {
+
+        public double blocksPerMainThreadMs() {
+            return applyNanos == 0 ? 0.0 : blocks / (applyNanos / 1_000_000.0);
+        }
+    }
+
+    private record FilledMine(List<ChunkFill> chunks, long blocks, long fillNanos) {
+    }
+
+    private record ChunkFill(int chunkX, int chunkZ, SectionFill[] sections) {
+    }
+
+    /**
+     * Palette pondérée précalculée (méthode des alias de Vose) : chaque tirage coûte un nombre aléatoire et une comparaison
+     */
+    static final class WeightedPalette {
+        private final BlockData[] blockData;
+        private final double[] probability;
+        private final int[] alias;
+
+        private WeightedPalette(BlockData[] blockData, double[] probability, int[] alias) {
+            this.blockData = blockData;
+            this.probability = probability;
+            this.alias = alias;
+        }
+
+        static WeightedPalette of(Map<Material, Double> composition) {
+            int n = composition.size();
+            if (n == 0 || n > 256) {
+                throw new IllegalArgumentException("Composition de mine invalide (" + n + " types de blocs)");
+            }
+
+            BlockData[] blockData = new BlockData[n];
+            double[] scaled = new double[n];
+            double totalWeight = 0.0;
+            int i = 0;
+            for (Map.Entry<Material, Double> entry : composition.entrySet()) {
+                blockData[i] = Bukkit.createBlockData(entry.getKey());
+                scaled[i] = Math.max(0.0, entry.getValue());
+                totalWeight += scaled[i];
+                i++;
+            }
+            if (totalWeight <= 0.0) {
+                throw new IllegalArgumentException("Composition de mine sans poids positif");
+            }
+
+            double[] probability = new double[n];
+            int[] alias = new int[n];
+            int[] small = new int[n];
+            int[] large = new int[n];
+            int smallCount = 0, largeCount = 0;
+
+            for (i = 0; i < n; i++) {
+                scaled[i] = scaled[i] * n / totalWeight;
+                if (scaled[i] < 1.0) small[smallCount++] = i;
+                else large[largeCount++] = i;
+            }
+            while (smallCount > 0 && largeCount > 0) {
+                int s = small[--smallCount];
+                int l = large[--largeCount];
+                probability[s] = scaled[s];
+                alias[s] = l;
+                scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+                if (scaled[l] < 1.0) small[smallCount++] = l;
+                else large[largeCount++] = l;
+            }
+            while (largeCount > 0) probability[large[--largeCount]] = 1.0;
+            while (smallCount > 0) probability[small[--smallCount]] = 1.0;
+
+            return new WeightedPalette(blockData, probability, alias);
+        }
+
+        byte sample(SplittableRandom random) {
+            int column = random.nextInt(probability.length);
+            return (byte) (random.nextDouble() < probability[column] ? column : alias[column]);
+        }
+    }
+
+    /**
+     * Intersection d'une section 16x16x16 avec la région de la mine.
+     * Coordonnées x/z locales au chunk, y absolu ; indices ordonnés x, puis z, puis y.
+     */
+    private static final class SectionFill {
+        private final int minX, minY, minZ;
+        private final int sizeX, sizeZ;
+        private final byte[] indexes;
+
+        private SectionFill(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ) {
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.sizeX = sizeX;
+            this.sizeZ = sizeZ;
+            this.indexes = new byte[sizeX * sizeY * sizeZ];
+        }
+
+        static SectionFill clip(MineData mine, int chunkX, int sectionY, int chunkZ) {
+            int baseX = chunkX << 4, baseY = sectionY << 4, baseZ = chunkZ << 4;
+            int x0 = Math.max(mine.getMinX(), baseX), x1 = Math.min(mine.getMaxX(), baseX + SECTION_SIZE - 1);
+            int y0 = Math.max(mine.getMinY(), baseY), y1 = Math.min(mine.getMaxY(), baseY + SECTION_SIZE - 1);
+            int z0 = Math.max(mine.getMinZ(), baseZ), z1 = Math.min(mine.getMaxZ(), baseZ + SECTION_SIZE - 1);
+            return new SectionFill(x0 - baseX, y0, z0 - baseZ, x1 - x0 + 1, y1 - y0 + 1, z1 - z0 + 1);
+        }
+
+        void fill(WeightedPalette palette, SplittableRandom random) {
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = palette.sample(random);
+            }
+        }
+    }
+}